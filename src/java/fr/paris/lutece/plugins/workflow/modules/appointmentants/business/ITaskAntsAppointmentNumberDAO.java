@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.util.List;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+
+/**
+ * Provide Data Access methods to the index of the ANTS application numbers given in the appointments
+ */
+public interface ITaskAntsAppointmentNumberDAO
+{
+	/**
+	 * Insert an entry in the index
+	 * 
+	 * @param number
+	 *            The entry
+	 * @param plugin
+	 *            The Plugin
+	 */
+	void insert( TaskAntsAppointmentNumber number, Plugin plugin );
+
+	/**
+	 * Delete the entries of an appointment
+	 * 
+	 * @param nIdAppointment
+	 *            ID of the appointment
+	 * @param plugin
+	 *            The Plugin
+	 */
+	void deleteByAppointment( int nIdAppointment, Plugin plugin );
+
+	/**
+	 * Load the entries of a list of application numbers
+	 * 
+	 * @param listApplicationNumbers
+	 *            The application numbers
+	 * @param plugin
+	 *            The Plugin
+	 * @return the entries of the application numbers, ordered by application number and appointment date
+	 */
+	List<TaskAntsAppointmentNumber> selectByApplicationNumbers( List<String> listApplicationNumbers, Plugin plugin );
+}
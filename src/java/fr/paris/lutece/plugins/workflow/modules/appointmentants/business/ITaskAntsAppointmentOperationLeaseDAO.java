@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.sql.Timestamp;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+
+/**
+ * Provide Data Access methods to the leases taken by the nodes of the cluster on the ANTS operations in flight
+ */
+public interface ITaskAntsAppointmentOperationLeaseDAO
+{
+	/**
+	 * Take the lease of an operation, if no other node holds it. The errors other than an existing lease (database
+	 * unavailable...) are thrown
+	 * 
+	 * @param strOperationKey
+	 *            The key of the operation
+	 * @param strNodeId
+	 *            ID of the node taking the lease
+	 * @param leaseExpiration
+	 *            Date when the lease expires if it isn't released
+	 * @param plugin
+	 *            The Plugin
+	 * @return true if the lease was taken, false if another node holds it
+	 */
+	boolean insertLease( String strOperationKey, String strNodeId, Timestamp leaseExpiration, Plugin plugin );
+
+	/**
+	 * Delete the lease of an operation if it has expired
+	 * 
+	 * @param strOperationKey
+	 *            The key of the operation
+	 * @param now
+	 *            The current date
+	 * @param plugin
+	 *            The Plugin
+	 */
+	void deleteExpiredLease( String strOperationKey, Timestamp now, Plugin plugin );
+
+	/**
+	 * Release the lease of an operation held by a node
+	 * 
+	 * @param strOperationKey
+	 *            The key of the operation
+	 * @param strNodeId
+	 *            ID of the node holding the lease
+	 * @param plugin
+	 *            The Plugin
+	 */
+	void deleteLease( String strOperationKey, String strNodeId, Plugin plugin );
+}
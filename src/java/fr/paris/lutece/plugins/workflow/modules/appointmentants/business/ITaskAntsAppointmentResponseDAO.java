@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+
+/**
+ * Provide set-based Data Access methods to the appointments' responses holding ANTS application numbers
+ */
+public interface ITaskAntsAppointmentResponseDAO
+{
+	/**
+	 * Load the value of the responses given to a specific Entry, for a list of appointments
+	 * 
+	 * @param listIdAppointment
+	 *            IDs of the appointments to process
+	 * @param idEntry
+	 *            ID of the Entry used to save the ANTS application numbers
+	 * @param plugin
+	 *            The Plugin owning the appointments' tables
+	 * @return A Map with the ID of the appointments as keys and the value of their response as values. Appointments
+	 *         without any response to the Entry are not present in the Map
+	 */
+	Map<Integer, String> selectResponseValuesByAppointments( List<Integer> listIdAppointment, int idEntry, Plugin plugin );
+
+	/**
+	 * Load the Form, the starting date and the cancellation state of a list of appointments
+	 * 
+	 * @param listIdAppointment
+	 *            IDs of the appointments to load
+	 * @param plugin
+	 *            The Plugin owning the appointments' tables
+	 * @return A Map with the ID of the appointments as keys. Appointments that don't exist anymore are not present in
+	 *         the Map
+	 */
+	Map<Integer, TaskAntsAppointmentSummary> selectAppointmentSummaries( List<Integer> listIdAppointment, Plugin plugin );
+
+	/**
+	 * Load a page of the upcoming, non cancelled appointments of a Form having a response to a specific Entry, ordered
+	 * by ID. The value of the response is set as application number, and must still be split
+	 * 
+	 * @param idForm
+	 *            ID of the Form
+	 * @param idEntry
+	 *            ID of the Entry used to save the ANTS application numbers
+	 * @param dateFrom
+	 *            The date from which the appointments are loaded
+	 * @param idAppointmentAfter
+	 *            The ID after which the appointments are loaded, i.e the last ID of the previous page
+	 * @param nLimit
+	 *            The maximum amount of responses loaded
+	 * @param plugin
+	 *            The Plugin owning the appointments' tables
+	 * @return the appointments with the value of their response
+	 */
+	List<TaskAntsAppointmentNumber> selectResponseValuesByForm( int idForm, int idEntry, Timestamp dateFrom, int idAppointmentAfter, int nLimit, Plugin plugin );
+}
@@ -33,6 +33,9 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
 import fr.paris.lutece.plugins.workflowcore.business.config.ITaskConfigDAO;
 import fr.paris.lutece.util.sql.DAOUtil;
@@ -51,6 +54,7 @@ public class TaskAntsAppointmentConfigDAO implements ITaskConfigDAO<TaskAntsAppo
 	 * SQL Queries
 	 */
 	private static final String SQL_QUERY_SELECT = "SELECT id_task, id_form, id_field_entry FROM workflow_task_ants_appointment WHERE id_task = ?";
+    private static final String SQL_QUERY_SELECT_ALL = "SELECT id_task, id_form, id_field_entry FROM workflow_task_ants_appointment";
     private static final String SQL_QUERY_INSERT = "INSERT INTO workflow_task_ants_appointment ( id_task, id_form, id_field_entry ) VALUES ( ?, ?, ? ) ";
     private static final String SQL_QUERY_DELETE = "DELETE FROM workflow_task_ants_appointment WHERE id_task = ? ";
     private static final String SQL_QUERY_UPDATE = "UPDATE workflow_task_ants_appointment SET id_form = ?, id_field_entry = ? WHERE id_task = ?";
@@ -128,4 +132,32 @@ public class TaskAntsAppointmentConfigDAO implements ITaskConfigDAO<TaskAntsAppo
             daoUtil.executeUpdate( );
         }
 	}
+
+	/**
+	 * Load the configuration of every ANTS task
+	 * 
+	 * @return the list of the configurations
+	 */
+	public List<TaskAntsAppointmentConfig> loadAll( )
+	{
+		List<TaskAntsAppointmentConfig> listConfigs = new ArrayList<>( );
+
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_ALL, WorkflowAppointmentAntsPlugin.getPlugin( ) ) )
+        {
+            daoUtil.executeQuery( );
+
+            while ( daoUtil.next( ) )
+            {
+            	TaskAntsAppointmentConfig taskAntsAppointmentConfig = new TaskAntsAppointmentConfig( );
+                int nIndex = 0;
+
+                taskAntsAppointmentConfig.setIdTask( daoUtil.getInt( ++nIndex ) );
+                taskAntsAppointmentConfig.setIdForm( daoUtil.getInt( ++nIndex ) );
+                taskAntsAppointmentConfig.setIdFieldEntry( daoUtil.getInt( ++nIndex ) );
+
+                listConfigs.add( taskAntsAppointmentConfig );
+            }
+        }
+		return listConfigs;
+	}
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.util.sql.DAOUtil;
+
+/**
+ * 
+ * Provide Data Access methods to the index of the ANTS application numbers given in the appointments. The index is
+ * keyed by application number, so a lookup doesn't scan the responses of the appointments
+ *
+ */
+public class TaskAntsAppointmentNumberDAO implements ITaskAntsAppointmentNumberDAO
+{
+	public static final String BEAN_NAME = WorkflowAppointmentAntsPlugin.PLUGIN_NAME + ".taskAntsAppointmentNumberDAO";
+
+	/**
+	 * Maximum number of application numbers used in a single IN clause
+	 */
+	private static final int MAX_NUMBERS_PER_QUERY = 500;
+
+	/**
+	 * SQL Queries
+	 */
+	private static final String SQL_QUERY_INSERT = "INSERT INTO workflow_task_ants_appointment_number ( application_number, id_appointment, id_form, appointment_date, meeting_point_id ) VALUES ( ?, ?, ?, ?, ? )";
+	private static final String SQL_QUERY_DELETE_BY_APPOINTMENT = "DELETE FROM workflow_task_ants_appointment_number WHERE id_appointment = ?";
+	private static final String SQL_QUERY_SELECT_BY_NUMBERS = "SELECT application_number, id_appointment, id_form, appointment_date, meeting_point_id FROM workflow_task_ants_appointment_number"
+			+ " WHERE application_number IN ( ";
+	private static final String SQL_QUERY_ORDER_BY = " ORDER BY application_number, appointment_date";
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void insert( TaskAntsAppointmentNumber number, Plugin plugin )
+	{
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT, plugin ) )
+		{
+			int nIndex = 1;
+			daoUtil.setString( nIndex++, number.getApplicationNumber( ) );
+			daoUtil.setInt( nIndex++, number.getIdAppointment( ) );
+			daoUtil.setInt( nIndex++, number.getIdForm( ) );
+			daoUtil.setTimestamp( nIndex++, number.getAppointmentDate( ) );
+			daoUtil.setString( nIndex, number.getMeetingPointId( ) );
+			daoUtil.executeUpdate( );
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void deleteByAppointment( int nIdAppointment, Plugin plugin )
+	{
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_BY_APPOINTMENT, plugin ) )
+		{
+			daoUtil.setInt( 1, nIdAppointment );
+			daoUtil.executeUpdate( );
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<TaskAntsAppointmentNumber> selectByApplicationNumbers( List<String> listApplicationNumbers, Plugin plugin )
+	{
+		List<TaskAntsAppointmentNumber> listNumbers = new ArrayList<>( );
+
+		for ( int nStart = 0; nStart < listApplicationNumbers.size( ); nStart += MAX_NUMBERS_PER_QUERY )
+		{
+			List<String> listChunk = listApplicationNumbers.subList( nStart, Math.min( nStart + MAX_NUMBERS_PER_QUERY, listApplicationNumbers.size( ) ) );
+
+			try ( DAOUtil daoUtil = new DAOUtil( TaskAntsAppointmentResponseDAO.buildInQuery( SQL_QUERY_SELECT_BY_NUMBERS, listChunk.size( ) ) + SQL_QUERY_ORDER_BY,
+					plugin ) )
+			{
+				int nIndex = 0;
+				for ( String strApplicationNumber : listChunk )
+				{
+					daoUtil.setString( ++nIndex, strApplicationNumber );
+				}
+				daoUtil.executeQuery( );
+
+				while ( daoUtil.next( ) )
+				{
+					TaskAntsAppointmentNumber number = new TaskAntsAppointmentNumber( );
+					int nColumn = 1;
+					number.setApplicationNumber( daoUtil.getString( nColumn++ ) );
+					number.setIdAppointment( daoUtil.getInt( nColumn++ ) );
+					number.setIdForm( daoUtil.getInt( nColumn++ ) );
+					number.setAppointmentDate( daoUtil.getTimestamp( nColumn++ ) );
+					number.setMeetingPointId( daoUtil.getString( nColumn ) );
+					listNumbers.add( number );
+				}
+			}
+		}
+		return listNumbers;
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.sql.Timestamp;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.util.sql.DAOUtil;
+
+/**
+ * 
+ * Provide Data Access methods to the leases taken by the nodes of the cluster on the ANTS operations in flight.
+ * The primary key of the table guarantees that a single node holds the lease of an operation
+ *
+ */
+public class TaskAntsAppointmentOperationLeaseDAO implements ITaskAntsAppointmentOperationLeaseDAO
+{
+	public static final String BEAN_NAME = WorkflowAppointmentAntsPlugin.PLUGIN_NAME + ".taskAntsAppointmentOperationLeaseDAO";
+
+	/**
+	 * SQL Queries
+	 */
+	private static final String SQL_QUERY_INSERT_LEASE = "INSERT INTO workflow_task_ants_appointment_operation_lease ( operation_key, node_id, lease_expiration ) "
+			+ "SELECT ?, ?, ? FROM ( SELECT 1 AS one ) single_row WHERE NOT EXISTS ( SELECT operation_key FROM workflow_task_ants_appointment_operation_lease WHERE operation_key = ? )";
+	private static final String SQL_QUERY_DELETE_EXPIRED_LEASE = "DELETE FROM workflow_task_ants_appointment_operation_lease WHERE operation_key = ? AND lease_expiration <= ?";
+	private static final String SQL_QUERY_DELETE_LEASE = "DELETE FROM workflow_task_ants_appointment_operation_lease WHERE operation_key = ? AND node_id = ?";
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public boolean insertLease( String strOperationKey, String strNodeId, Timestamp leaseExpiration, Plugin plugin )
+	{
+		// The lease is only inserted if none exists, so that a lease held by another node doesn't raise an error,
+		// which would abort the current transaction on some databases
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT_LEASE, plugin ) )
+		{
+			int nIndex = 1;
+			daoUtil.setString( nIndex++, strOperationKey );
+			daoUtil.setString( nIndex++, strNodeId );
+			daoUtil.setTimestamp( nIndex++, leaseExpiration );
+			daoUtil.setString( nIndex, strOperationKey );
+
+			return daoUtil.executeUpdate( ) > 0;
+		}
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public void deleteExpiredLease( String strOperationKey, Timestamp now, Plugin plugin )
+	{
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_EXPIRED_LEASE, plugin ) )
+		{
+			int nIndex = 1;
+			daoUtil.setString( nIndex++, strOperationKey );
+			daoUtil.setTimestamp( nIndex, now );
+			daoUtil.executeUpdate( );
+		}
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public void deleteLease( String strOperationKey, String strNodeId, Plugin plugin )
+	{
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_LEASE, plugin ) )
+		{
+			int nIndex = 1;
+			daoUtil.setString( nIndex++, strOperationKey );
+			daoUtil.setString( nIndex, strNodeId );
+			daoUtil.executeUpdate( );
+		}
+	}
+}
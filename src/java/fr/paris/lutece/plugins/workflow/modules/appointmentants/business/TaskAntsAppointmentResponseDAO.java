@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.util.sql.DAOUtil;
+
+/**
+ * 
+ * Provide set-based Data Access methods to the appointments' responses and details, so that a list of appointments
+ * can be processed without loading each appointment one by one
+ *
+ */
+public class TaskAntsAppointmentResponseDAO implements ITaskAntsAppointmentResponseDAO
+{
+	public static final String BEAN_NAME = WorkflowAppointmentAntsPlugin.PLUGIN_NAME + ".taskAntsAppointmentResponseDAO";
+
+	/**
+	 * Maximum number of IDs used in a single IN clause
+	 */
+	private static final int MAX_IDS_PER_QUERY = 500;
+
+	/**
+	 * SQL Queries
+	 */
+	private static final String SQL_QUERY_SELECT_RESPONSES_BY_APPOINTMENTS = "SELECT ar.id_appointment, r.response_value FROM appointment_appointment_response ar"
+			+ " INNER JOIN genatt_response r ON r.id_response = ar.id_response"
+			+ " WHERE r.id_entry = ? AND ar.id_appointment IN ( ";
+	private static final String SQL_QUERY_SELECT_RESPONSES_BY_FORM = "SELECT a.id_appointment, r.response_value, MIN( s.starting_date_time ) FROM appointment_appointment a"
+			+ " INNER JOIN appointment_appointment_slot aps ON aps.id_appointment = a.id_appointment"
+			+ " INNER JOIN appointment_slot s ON s.id_slot = aps.id_slot"
+			+ " INNER JOIN appointment_appointment_response ar ON ar.id_appointment = a.id_appointment"
+			+ " INNER JOIN genatt_response r ON r.id_response = ar.id_response"
+			+ " WHERE s.id_form = ? AND r.id_entry = ? AND a.is_cancelled = 0 AND s.starting_date_time >= ? AND a.id_appointment > ?"
+			+ " GROUP BY a.id_appointment, r.response_value ORDER BY a.id_appointment LIMIT ?";
+	private static final String SQL_QUERY_SELECT_SUMMARIES = "SELECT a.id_appointment, a.is_cancelled, MIN( s.id_form ), MIN( s.starting_date_time ) FROM appointment_appointment a"
+			+ " INNER JOIN appointment_appointment_slot aps ON aps.id_appointment = a.id_appointment"
+			+ " INNER JOIN appointment_slot s ON s.id_slot = aps.id_slot"
+			+ " WHERE a.id_appointment IN ( ";
+	private static final String SQL_QUERY_GROUP_BY_APPOINTMENT = " ) GROUP BY a.id_appointment, a.is_cancelled";
+	private static final String SQL_QUERY_IN_CLOSE = " )";
+	private static final String SQL_PARAMETER = "?";
+	private static final String SQL_SEPARATOR = ", ";
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public Map<Integer, String> selectResponseValuesByAppointments( List<Integer> listIdAppointment, int idEntry, Plugin plugin )
+	{
+		Map<Integer, String> mapResponseValues = new HashMap<>( );
+
+		for ( int nStart = 0; nStart < listIdAppointment.size( ); nStart += MAX_IDS_PER_QUERY )
+		{
+			List<Integer> listIdChunk = listIdAppointment.subList( nStart, Math.min( nStart + MAX_IDS_PER_QUERY, listIdAppointment.size( ) ) );
+
+			try ( DAOUtil daoUtil = new DAOUtil( buildInQuery( SQL_QUERY_SELECT_RESPONSES_BY_APPOINTMENTS, listIdChunk.size( ) ), plugin ) )
+			{
+				int nIndex = 0;
+				daoUtil.setInt( ++nIndex, idEntry );
+
+				for ( Integer idAppointment : listIdChunk )
+				{
+					daoUtil.setInt( ++nIndex, idAppointment );
+				}
+				daoUtil.executeQuery( );
+
+				while ( daoUtil.next( ) )
+				{
+					// Keep the first response found, like the single appointment lookup does
+					mapResponseValues.putIfAbsent( daoUtil.getInt( 1 ), daoUtil.getString( 2 ) );
+				}
+			}
+		}
+		return mapResponseValues;
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public Map<Integer, TaskAntsAppointmentSummary> selectAppointmentSummaries( List<Integer> listIdAppointment, Plugin plugin )
+	{
+		Map<Integer, TaskAntsAppointmentSummary> mapSummaries = new HashMap<>( );
+
+		for ( int nStart = 0; nStart < listIdAppointment.size( ); nStart += MAX_IDS_PER_QUERY )
+		{
+			List<Integer> listIdChunk = listIdAppointment.subList( nStart, Math.min( nStart + MAX_IDS_PER_QUERY, listIdAppointment.size( ) ) );
+
+			// The appointments spanning several slots are grouped, starting at their first slot
+			try ( DAOUtil daoUtil = new DAOUtil( buildInQuery( SQL_QUERY_SELECT_SUMMARIES, listIdChunk.size( ), SQL_QUERY_GROUP_BY_APPOINTMENT ), plugin ) )
+			{
+				int nIndex = 0;
+
+				for ( Integer idAppointment : listIdChunk )
+				{
+					daoUtil.setInt( ++nIndex, idAppointment );
+				}
+				daoUtil.executeQuery( );
+
+				while ( daoUtil.next( ) )
+				{
+					TaskAntsAppointmentSummary summary = new TaskAntsAppointmentSummary( );
+					summary.setIdAppointment( daoUtil.getInt( 1 ) );
+					summary.setCancelled( daoUtil.getBoolean( 2 ) );
+					summary.setIdForm( daoUtil.getInt( 3 ) );
+					summary.setStartingDate( daoUtil.getTimestamp( 4 ) );
+					mapSummaries.put( summary.getIdAppointment( ), summary );
+				}
+			}
+		}
+		return mapSummaries;
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public List<TaskAntsAppointmentNumber> selectResponseValuesByForm( int idForm, int idEntry, Timestamp dateFrom, int idAppointmentAfter, int nLimit,
+			Plugin plugin )
+	{
+		List<TaskAntsAppointmentNumber> listResponses = new ArrayList<>( );
+
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RESPONSES_BY_FORM, plugin ) )
+		{
+			int nIndex = 1;
+			daoUtil.setInt( nIndex++, idForm );
+			daoUtil.setInt( nIndex++, idEntry );
+			daoUtil.setTimestamp( nIndex++, dateFrom );
+			daoUtil.setInt( nIndex++, idAppointmentAfter );
+			daoUtil.setInt( nIndex, nLimit );
+			daoUtil.executeQuery( );
+
+			while ( daoUtil.next( ) )
+			{
+				TaskAntsAppointmentNumber response = new TaskAntsAppointmentNumber( );
+				response.setIdAppointment( daoUtil.getInt( 1 ) );
+				response.setApplicationNumber( daoUtil.getString( 2 ) );
+				response.setAppointmentDate( daoUtil.getTimestamp( 3 ) );
+				response.setIdForm( idForm );
+				listResponses.add( response );
+			}
+		}
+		return listResponses;
+	}
+
+	/**
+	 * Build a query ending with an IN clause containing the specified amount of parameters
+	 * 
+	 * @param strQueryPrefix
+	 *            The beginning of the query, ending with the opening of the IN clause
+	 * @param nbParameters
+	 *            The amount of parameters of the IN clause
+	 * @return the complete query
+	 */
+	static String buildInQuery( String strQueryPrefix, int nbParameters )
+	{
+		return buildInQuery( strQueryPrefix, nbParameters, SQL_QUERY_IN_CLOSE );
+	}
+
+	/**
+	 * Build a query containing an IN clause with the specified amount of parameters
+	 * 
+	 * @param strQueryPrefix
+	 *            The beginning of the query, ending with the opening of the IN clause
+	 * @param nbParameters
+	 *            The amount of parameters of the IN clause
+	 * @param strQuerySuffix
+	 *            The end of the query, starting with the closing of the IN clause
+	 * @return the complete query
+	 */
+	static String buildInQuery( String strQueryPrefix, int nbParameters, String strQuerySuffix )
+	{
+		StringBuilder sbQuery = new StringBuilder( strQueryPrefix );
+
+		for ( int i = 0; i < nbParameters; i++ )
+		{
+			if ( i > 0 )
+			{
+				sbQuery.append( SQL_SEPARATOR );
+			}
+			sbQuery.append( SQL_PARAMETER );
+		}
+		return sbQuery.append( strQuerySuffix ).toString( );
+	}
+}
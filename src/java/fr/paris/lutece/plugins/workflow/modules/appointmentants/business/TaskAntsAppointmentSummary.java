@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.sql.Timestamp;
+
+/**
+ * Details of an appointment needed by the ANTS calls (Form, date, cancellation state), loaded along with those of
+ * other appointments instead of building the complete appointment
+ */
+public class TaskAntsAppointmentSummary
+{
+	/**
+	 * ID of the appointment
+	 */
+	private int _nIdAppointment;
+
+	/**
+	 * ID of the Form of the appointment
+	 */
+	private int _nIdForm;
+
+	/**
+	 * Starting date and time of the appointment
+	 */
+	private Timestamp _dateStarting;
+
+	/**
+	 * Whether the appointment is cancelled
+	 */
+	private boolean _bIsCancelled;
+
+	/**
+	 * Get the ID of the appointment
+	 * 
+	 * @return the ID of the appointment
+	 */
+	public int getIdAppointment( )
+	{
+		return _nIdAppointment;
+	}
+
+	/**
+	 * Set the ID of the appointment
+	 * 
+	 * @param nIdAppointment
+	 *            The ID of the appointment
+	 */
+	public void setIdAppointment( int nIdAppointment )
+	{
+		_nIdAppointment = nIdAppointment;
+	}
+
+	/**
+	 * Get the ID of the Form of the appointment
+	 * 
+	 * @return the ID of the Form
+	 */
+	public int getIdForm( )
+	{
+		return _nIdForm;
+	}
+
+	/**
+	 * Set the ID of the Form of the appointment
+	 * 
+	 * @param nIdForm
+	 *            The ID of the Form
+	 */
+	public void setIdForm( int nIdForm )
+	{
+		_nIdForm = nIdForm;
+	}
+
+	/**
+	 * Get the starting date and time of the appointment, i.e. of its first slot
+	 * 
+	 * @return the starting date and time
+	 */
+	public Timestamp getStartingDate( )
+	{
+		return _dateStarting;
+	}
+
+	/**
+	 * Set the starting date and time of the appointment
+	 * 
+	 * @param dateStarting
+	 *            The starting date and time
+	 */
+	public void setStartingDate( Timestamp dateStarting )
+	{
+		_dateStarting = dateStarting;
+	}
+
+	/**
+	 * Get whether the appointment is cancelled
+	 * 
+	 * @return true if the appointment is cancelled
+	 */
+	public boolean isCancelled( )
+	{
+		return _bIsCancelled;
+	}
+
+	/**
+	 * Set whether the appointment is cancelled
+	 * 
+	 * @param bIsCancelled
+	 *            true if the appointment is cancelled
+	 */
+	public void setCancelled( boolean bIsCancelled )
+	{
+		_bIsCancelled = bIsCancelled;
+	}
+}
@@ -33,6 +33,10 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history;
 
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
 import fr.paris.lutece.portal.service.plugin.Plugin;
 
 public interface ITaskAntsAppointmentHistoryDAO
@@ -47,6 +51,16 @@ public interface ITaskAntsAppointmentHistoryDAO
 	 */
 	void insert( TaskAntsAppointmentHistory taskAntsAppointmentHistory, Plugin plugin );
 
+	/**
+	 * Update the outcome (success state, status and retries) of a record of the ANTS task's history table
+	 * 
+	 * @param taskAntsAppointmentHistory
+	 *            TaskAntsAppointmentHistory object holding the new outcome
+	 * @param plugin
+	 *            The Plugin
+	 */
+	void updateOutcome( TaskAntsAppointmentHistory taskAntsAppointmentHistory, Plugin plugin );
+
 	/**
 	 * Load data that matches the specified parameters, from the ANTS task's history table
 	 * 
@@ -60,6 +74,34 @@ public interface ITaskAntsAppointmentHistoryDAO
 	 */
 	TaskAntsAppointmentHistory load( int idHistory, int idTask, Plugin plugin );
 
+	/**
+	 * Load, in a single query, the records of every resource history of the resource (i.e the appointment)
+	 * of the specified resource history
+	 * 
+	 * @param idHistory
+	 *            ID of one of the resource histories of the resource
+	 * @param plugin
+	 *            The Plugin
+	 * @return the records of the ANTS tasks, with the ID of the resource histories as keys. The resource histories
+	 *         without ANTS task are mapped to an empty list
+	 */
+	Map<Integer, List<TaskAntsAppointmentHistory>> selectByResourceOfHistory( int idHistory, Plugin plugin );
+
+	/**
+	 * Load the records of failed executions whose ANTS calls are due for a retry, the oldest retry first
+	 * 
+	 * @param dateNow
+	 *            The current date: only the retries planned before it are loaded
+	 * @param dateMinExecution
+	 *            The date of the oldest execution to retry
+	 * @param nLimit
+	 *            The maximum amount of records to load
+	 * @param plugin
+	 *            The Plugin
+	 * @return the records to retry
+	 */
+	List<TaskAntsAppointmentHistory> selectRetryable( Timestamp dateNow, Timestamp dateMinExecution, int nLimit, Plugin plugin );
+
 	/**
 	 * Delete the history associated with the history and task specified in parameters
 	 * 
@@ -73,12 +115,45 @@ public interface ITaskAntsAppointmentHistoryDAO
 	void deleteByHistory ( int idHistory, int idTask, Plugin plugin );
 
 	/**
-	 * Delete the history associated with the task specified in parameters
+	 * Load a chunk of the IDs of the resource histories of a task, in ascending order
 	 * 
 	 * @param idTask
 	 *            ID of the task
+	 * @param idHistoryAfter
+	 *            The last ID of the previous chunk, 0 for the first chunk
+	 * @param nLimit
+	 *            The size of the chunk
+	 * @param plugin
+	 *            The Plugin
+	 * @return the IDs of the resource histories
+	 */
+	List<Integer> selectIdHistoryByTask( int idTask, int idHistoryAfter, int nLimit, Plugin plugin );
+
+	/**
+	 * Load a chunk of the keys (resource history and task IDs) of the records older than a date, ordered by key. The
+	 * records without execution date are never loaded (the upgrade script sets it from the resource history)
+	 * 
+	 * @param dateLimit
+	 *            The date before which the records are loaded
+	 * @param idHistoryAfter
+	 *            The resource history ID of the last key of the previous chunk, 0 for the first chunk
+	 * @param idTaskAfter
+	 *            The task ID of the last key of the previous chunk, 0 for the first chunk
+	 * @param nLimit
+	 *            The size of the chunk
+	 * @param plugin
+	 *            The Plugin
+	 * @return the records, holding only their keys
+	 */
+	List<TaskAntsAppointmentHistory> selectExpiredKeys( Timestamp dateLimit, int idHistoryAfter, int idTaskAfter, int nLimit, Plugin plugin );
+
+	/**
+	 * Delete records by key, in a single batch
+	 * 
+	 * @param listHistory
+	 *            The records to delete, holding at least their keys
 	 * @param plugin
 	 *            The Plugin
 	 */
-	void deleteByTask( int idTask, Plugin plugin );
+	void deleteByKeys( List<TaskAntsAppointmentHistory> listHistory, Plugin plugin );
 }
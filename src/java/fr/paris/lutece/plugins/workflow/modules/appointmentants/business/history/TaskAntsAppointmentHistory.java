@@ -33,6 +33,8 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history;
 
+import java.sql.Timestamp;
+
 /**
  * Class that represents the history of a specific / unique ANTS Workflow task.
  * Used to save the result returned by the task.
@@ -40,6 +42,14 @@ package fr.paris.lutece.plugins.workflow.modules.appointmentants.business.histor
  */
 public class TaskAntsAppointmentHistory
 {
+	/**
+	 * Possible values of the task's status
+	 */
+	public static final String STATUS_SUCCESS = "success";
+	public static final String STATUS_FAILURE = "failure";
+	public static final String STATUS_REJECTED = "rejected";
+	public static final String STATUS_DEFERRED = "deferred";
+
 	/**
 	 * Task's ID
 	 */
@@ -60,6 +70,56 @@ public class TaskAntsAppointmentHistory
 	 */
 	private String _strAntsApplicationNumbers;
 
+	/**
+	 * Detailed status of the task's execution (success, failure, rejected...)
+	 */
+	private String _strTaskStatus;
+
+	/**
+	 * Date of the task's execution
+	 */
+	private Timestamp _dateExecution;
+
+	/**
+	 * Amount of times the ANTS calls were retried after the task's execution
+	 */
+	private int _nAttemptCount;
+
+	/**
+	 * Date of the next retry of the ANTS calls, null if they won't be retried
+	 */
+	private Timestamp _dateNextAttempt;
+
+	/**
+	 * Last error returned by the ANTS API
+	 */
+	private String _strLastError;
+
+	/**
+	 * Total duration of the execution, in milliseconds
+	 */
+	private long _lDurationMillis;
+
+	/**
+	 * Amount of ANTS calls made during the execution
+	 */
+	private int _nCallCount;
+
+	/**
+	 * Details (endpoint, HTTP status, latency) of the ANTS calls made during the execution
+	 */
+	private String _strCallDetails;
+
+	/**
+	 * Highest HTTP status returned by the ANTS calls, 0 if none answered
+	 */
+	private int _nHttpStatus;
+
+	/**
+	 * ID correlating the execution with its logs, spans and ANTS calls
+	 */
+	private String _strCorrelationId;
+
 	/**
 	 * Standard constructor
 	 */
@@ -169,4 +229,214 @@ public class TaskAntsAppointmentHistory
 	public void setAntsApplicationNumbers( String antsApplicationNumbers ) {
 		_strAntsApplicationNumbers = antsApplicationNumbers;
 	}	
+
+	/**
+	 * Get the detailed status of the task's execution
+	 * 
+	 * @return the task's status, or null if it wasn't recorded
+	 */
+	public String getTaskStatus( )
+	{
+		return _strTaskStatus;
+	}
+
+	/**
+	 * Set the detailed status of the task's execution
+	 * 
+	 * @param strTaskStatus
+	 *            The task's status
+	 */
+	public void setTaskStatus( String strTaskStatus )
+	{
+		_strTaskStatus = strTaskStatus;
+	}
+
+	/**
+	 * Get the date of the task's execution
+	 * 
+	 * @return the date of the execution
+	 */
+	public Timestamp getExecutionDate( )
+	{
+		return _dateExecution;
+	}
+
+	/**
+	 * Set the date of the task's execution
+	 * 
+	 * @param dateExecution
+	 *            The date of the execution
+	 */
+	public void setExecutionDate( Timestamp dateExecution )
+	{
+		_dateExecution = dateExecution;
+	}
+
+	/**
+	 * Get the amount of times the ANTS calls were retried
+	 * 
+	 * @return the amount of retries
+	 */
+	public int getAttemptCount( )
+	{
+		return _nAttemptCount;
+	}
+
+	/**
+	 * Set the amount of times the ANTS calls were retried
+	 * 
+	 * @param nAttemptCount
+	 *            The amount of retries
+	 */
+	public void setAttemptCount( int nAttemptCount )
+	{
+		_nAttemptCount = nAttemptCount;
+	}
+
+	/**
+	 * Get the date of the next retry of the ANTS calls
+	 * 
+	 * @return the date of the next retry, or null if the calls won't be retried
+	 */
+	public Timestamp getNextAttemptDate( )
+	{
+		return _dateNextAttempt;
+	}
+
+	/**
+	 * Set the date of the next retry of the ANTS calls
+	 * 
+	 * @param dateNextAttempt
+	 *            The date of the next retry, null if the calls won't be retried
+	 */
+	public void setNextAttemptDate( Timestamp dateNextAttempt )
+	{
+		_dateNextAttempt = dateNextAttempt;
+	}
+
+	/**
+	 * Get the last error returned by the ANTS API
+	 * 
+	 * @return the last error, or null if none was recorded
+	 */
+	public String getLastError( )
+	{
+		return _strLastError;
+	}
+
+	/**
+	 * Set the last error returned by the ANTS API
+	 * 
+	 * @param strLastError
+	 *            The last error
+	 */
+	public void setLastError( String strLastError )
+	{
+		_strLastError = strLastError;
+	}
+
+	/**
+	 * Get the total duration of the execution
+	 * 
+	 * @return the duration, in milliseconds
+	 */
+	public long getDurationMillis( )
+	{
+		return _lDurationMillis;
+	}
+
+	/**
+	 * Set the total duration of the execution
+	 * 
+	 * @param lDurationMillis
+	 *            The duration, in milliseconds
+	 */
+	public void setDurationMillis( long lDurationMillis )
+	{
+		_lDurationMillis = lDurationMillis;
+	}
+
+	/**
+	 * Get the amount of ANTS calls made during the execution
+	 * 
+	 * @return the amount of calls
+	 */
+	public int getCallCount( )
+	{
+		return _nCallCount;
+	}
+
+	/**
+	 * Set the amount of ANTS calls made during the execution
+	 * 
+	 * @param nCallCount
+	 *            The amount of calls
+	 */
+	public void setCallCount( int nCallCount )
+	{
+		_nCallCount = nCallCount;
+	}
+
+	/**
+	 * Get the details (endpoint, HTTP status, latency) of the ANTS calls made during the execution
+	 * 
+	 * @return the details of the calls, or null if none was recorded
+	 */
+	public String getCallDetails( )
+	{
+		return _strCallDetails;
+	}
+
+	/**
+	 * Set the details (endpoint, HTTP status, latency) of the ANTS calls made during the execution
+	 * 
+	 * @param strCallDetails
+	 *            The details of the calls
+	 */
+	public void setCallDetails( String strCallDetails )
+	{
+		_strCallDetails = strCallDetails;
+	}
+
+	/**
+	 * Get the highest HTTP status returned by the ANTS calls
+	 * 
+	 * @return the HTTP status, 0 if no call received a response
+	 */
+	public int getHttpStatus( )
+	{
+		return _nHttpStatus;
+	}
+
+	/**
+	 * Set the highest HTTP status returned by the ANTS calls
+	 * 
+	 * @param nHttpStatus
+	 *            The HTTP status
+	 */
+	public void setHttpStatus( int nHttpStatus )
+	{
+		_nHttpStatus = nHttpStatus;
+	}
+
+	/**
+	 * Get the ID correlating the execution with its logs, spans and ANTS calls
+	 * 
+	 * @return the correlation ID, null if unknown
+	 */
+	public String getCorrelationId( )
+	{
+		return _strCorrelationId;
+	}
+
+	/**
+	 * Set the ID correlating the execution with its logs, spans and ANTS calls
+	 * 
+	 * @param strCorrelationId
+	 *            The correlation ID
+	 */
+	public void setCorrelationId( String strCorrelationId )
+	{
+		_strCorrelationId = strCorrelationId;
+	}
 }
@@ -33,6 +33,12 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
 import fr.paris.lutece.portal.service.plugin.Plugin;
 import fr.paris.lutece.util.sql.DAOUtil;
@@ -49,10 +55,18 @@ public class TaskAntsAppointmentHistoryDAO implements ITaskAntsAppointmentHistor
 	/**
 	 * SQL Queries
 	 */
-	private static final String SQL_QUERY_SELECT = "SELECT id_history, id_task, is_task_successful, value_ants_application_numbers FROM workflow_task_ants_appointment_history WHERE id_history = ? AND id_task = ?";
-    private static final String SQL_QUERY_INSERT = "INSERT INTO workflow_task_ants_appointment_history ( id_history, id_task, is_task_successful, value_ants_application_numbers ) VALUES ( ?, ?, ?, ? )";
+	private static final String SQL_QUERY_SELECT_ALL = "SELECT id_history, id_task, is_task_successful, value_ants_application_numbers, task_status, execution_date, attempt_count, next_attempt_date, last_error, duration_ms, call_count, call_details, http_status, correlation_id FROM workflow_task_ants_appointment_history ";
+	private static final String SQL_QUERY_SELECT = SQL_QUERY_SELECT_ALL + "WHERE id_history = ? AND id_task = ?";
+	private static final String SQL_QUERY_SELECT_RETRYABLE = SQL_QUERY_SELECT_ALL + "WHERE next_attempt_date <= ? AND execution_date >= ? ORDER BY next_attempt_date LIMIT ?";
+	private static final String SQL_QUERY_SELECT_BY_RESOURCE_OF_HISTORY = "SELECT r.id_history, h.id_task, h.is_task_successful, h.value_ants_application_numbers, h.task_status, h.execution_date, h.attempt_count, h.next_attempt_date, h.last_error, h.duration_ms, h.call_count, h.call_details, h.http_status, h.correlation_id "
+			+ "FROM workflow_resource_history s INNER JOIN workflow_resource_history r ON r.id_resource = s.id_resource AND r.resource_type = s.resource_type "
+			+ "LEFT JOIN workflow_task_ants_appointment_history h ON h.id_history = r.id_history WHERE s.id_history = ?";
+    private static final String SQL_QUERY_INSERT = "INSERT INTO workflow_task_ants_appointment_history ( id_history, id_task, is_task_successful, value_ants_application_numbers, task_status, execution_date, attempt_count, next_attempt_date, last_error, duration_ms, call_count, call_details, http_status, correlation_id ) VALUES ( ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ? )";
+    private static final String SQL_QUERY_UPDATE_OUTCOME = "UPDATE workflow_task_ants_appointment_history SET is_task_successful = ?, task_status = ?, attempt_count = ?, next_attempt_date = ?, last_error = ?, duration_ms = ?, call_count = ?, call_details = ?, http_status = ?, correlation_id = ? WHERE id_history = ? AND id_task = ?";
     private static final String SQL_QUERY_DELETE_BY_HISTORY = "DELETE FROM workflow_task_ants_appointment_history WHERE id_history = ? AND id_task = ?";
-    private static final String SQL_QUERY_DELETE_BY_TASK = "DELETE FROM workflow_task_ants_appointment_history WHERE id_task = ?";
+    private static final String SQL_QUERY_SELECT_ID_HISTORY_BY_TASK = "SELECT id_history FROM workflow_task_ants_appointment_history WHERE id_task = ? AND id_history > ? ORDER BY id_history LIMIT ?";
+    private static final String SQL_QUERY_SELECT_EXPIRED_KEYS = "SELECT id_history, id_task FROM workflow_task_ants_appointment_history WHERE execution_date < ? "
+    		+ "AND ( id_history > ? OR ( id_history = ? AND id_task > ? ) ) ORDER BY id_history, id_task LIMIT ?";
 
     /**
      * {@inheritDoc}
@@ -67,6 +81,42 @@ public class TaskAntsAppointmentHistoryDAO implements ITaskAntsAppointmentHistor
             daoUtil.setInt( ++nIndex, history.getIdTask( ) );
             daoUtil.setBoolean( ++nIndex, history.isTaskSuccessful( ) );
             daoUtil.setString( ++nIndex, history.getAntsApplicationNumbers( ) );
+            daoUtil.setString( ++nIndex, history.getTaskStatus( ) );
+            daoUtil.setTimestamp( ++nIndex, history.getExecutionDate( ) );
+            daoUtil.setInt( ++nIndex, history.getAttemptCount( ) );
+            daoUtil.setTimestamp( ++nIndex, history.getNextAttemptDate( ) );
+            daoUtil.setString( ++nIndex, history.getLastError( ) );
+            daoUtil.setLong( ++nIndex, history.getDurationMillis( ) );
+            daoUtil.setInt( ++nIndex, history.getCallCount( ) );
+            daoUtil.setString( ++nIndex, history.getCallDetails( ) );
+            daoUtil.setInt( ++nIndex, history.getHttpStatus( ) );
+            daoUtil.setString( ++nIndex, history.getCorrelationId( ) );
+
+            daoUtil.executeUpdate( );
+        }
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public void updateOutcome( TaskAntsAppointmentHistory history, Plugin plugin )
+	{
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_UPDATE_OUTCOME, plugin ) )
+        {
+            int nIndex = 0;
+            daoUtil.setBoolean( ++nIndex, history.isTaskSuccessful( ) );
+            daoUtil.setString( ++nIndex, history.getTaskStatus( ) );
+            daoUtil.setInt( ++nIndex, history.getAttemptCount( ) );
+            daoUtil.setTimestamp( ++nIndex, history.getNextAttemptDate( ) );
+            daoUtil.setString( ++nIndex, history.getLastError( ) );
+            daoUtil.setLong( ++nIndex, history.getDurationMillis( ) );
+            daoUtil.setInt( ++nIndex, history.getCallCount( ) );
+            daoUtil.setString( ++nIndex, history.getCallDetails( ) );
+            daoUtil.setInt( ++nIndex, history.getHttpStatus( ) );
+            daoUtil.setString( ++nIndex, history.getCorrelationId( ) );
+            daoUtil.setInt( ++nIndex, history.getIdResourceHistory( ) );
+            daoUtil.setInt( ++nIndex, history.getIdTask( ) );
 
             daoUtil.executeUpdate( );
         }
@@ -89,13 +139,7 @@ public class TaskAntsAppointmentHistoryDAO implements ITaskAntsAppointmentHistor
 
             if ( daoUtil.next( ) )
             {
-            	taskAntsAppointmentHistory = new TaskAntsAppointmentHistory( );
-                nIndex = 0;
-
-                taskAntsAppointmentHistory.setIdResourceHistory( daoUtil.getInt( ++nIndex ) );
-                taskAntsAppointmentHistory.setIdTask( daoUtil.getInt( ++nIndex ) );
-                taskAntsAppointmentHistory.setTaskSuccessState( daoUtil.getBoolean( ++nIndex ) );
-                taskAntsAppointmentHistory.setAntsApplicationNumbers( daoUtil.getString( ++nIndex ) );
+            	taskAntsAppointmentHistory = dataToObject( daoUtil );
             }
             return taskAntsAppointmentHistory;
         }
@@ -103,6 +147,58 @@ public class TaskAntsAppointmentHistoryDAO implements ITaskAntsAppointmentHistor
 
 	/**
      * {@inheritDoc}
+     */
+	@Override
+	public Map<Integer, List<TaskAntsAppointmentHistory>> selectByResourceOfHistory( int idHistory, Plugin plugin )
+	{
+		Map<Integer, List<TaskAntsAppointmentHistory>> mapHistory = new HashMap<>( );
+
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_BY_RESOURCE_OF_HISTORY, plugin ) )
+        {
+			daoUtil.setInt( 1, idHistory );
+            daoUtil.executeQuery( );
+
+            while ( daoUtil.next( ) )
+            {
+            	TaskAntsAppointmentHistory taskAntsAppointmentHistory = dataToObject( daoUtil );
+            	List<TaskAntsAppointmentHistory> listHistory = mapHistory.computeIfAbsent( taskAntsAppointmentHistory.getIdResourceHistory( ), id -> new ArrayList<>( ) );
+
+            	// The resource histories without any ANTS task have no task ID
+            	if ( taskAntsAppointmentHistory.getIdTask( ) != 0 )
+            	{
+            		listHistory.add( taskAntsAppointmentHistory );
+            	}
+            }
+        }
+		return mapHistory;
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public List<TaskAntsAppointmentHistory> selectRetryable( Timestamp dateNow, Timestamp dateMinExecution, int nLimit, Plugin plugin )
+	{
+		List<TaskAntsAppointmentHistory> listHistory = new ArrayList<>( );
+
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_RETRYABLE, plugin ) )
+        {
+			int nIndex = 0;
+			daoUtil.setTimestamp( ++nIndex, dateNow );
+            daoUtil.setTimestamp( ++nIndex, dateMinExecution );
+            daoUtil.setInt( ++nIndex, nLimit );
+            daoUtil.executeQuery( );
+
+            while ( daoUtil.next( ) )
+            {
+            	listHistory.add( dataToObject( daoUtil ) );
+            }
+        }
+		return listHistory;
+	}
+
+	/**
+     * {@inheritDoc}
      */
 	@Override
 	public void deleteByHistory(int idHistory, int idTask, Plugin plugin)
@@ -121,14 +217,106 @@ public class TaskAntsAppointmentHistoryDAO implements ITaskAntsAppointmentHistor
      * {@inheritDoc}
      */
 	@Override
-	public void deleteByTask(int idTask, Plugin plugin)
+	public List<Integer> selectIdHistoryByTask( int idTask, int idHistoryAfter, int nLimit, Plugin plugin )
 	{
-		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_BY_TASK, plugin ) )
+		List<Integer> listIdHistory = new ArrayList<>( );
+
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_ID_HISTORY_BY_TASK, plugin ) )
         {
             int nIndex = 0;
             daoUtil.setInt( ++nIndex, idTask );
+            daoUtil.setInt( ++nIndex, idHistoryAfter );
+            daoUtil.setInt( ++nIndex, nLimit );
+            daoUtil.executeQuery( );
 
-            daoUtil.executeUpdate( );
+            while ( daoUtil.next( ) )
+            {
+            	listIdHistory.add( daoUtil.getInt( 1 ) );
+            }
         }
+		return listIdHistory;
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public List<TaskAntsAppointmentHistory> selectExpiredKeys( Timestamp dateLimit, int idHistoryAfter, int idTaskAfter, int nLimit, Plugin plugin )
+	{
+		List<TaskAntsAppointmentHistory> listHistory = new ArrayList<>( );
+
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_EXPIRED_KEYS, plugin ) )
+        {
+            int nIndex = 0;
+            daoUtil.setTimestamp( ++nIndex, dateLimit );
+            daoUtil.setInt( ++nIndex, idHistoryAfter );
+            daoUtil.setInt( ++nIndex, idHistoryAfter );
+            daoUtil.setInt( ++nIndex, idTaskAfter );
+            daoUtil.setInt( ++nIndex, nLimit );
+            daoUtil.executeQuery( );
+
+            while ( daoUtil.next( ) )
+            {
+            	TaskAntsAppointmentHistory history = new TaskAntsAppointmentHistory( );
+            	history.setIdResourceHistory( daoUtil.getInt( 1 ) );
+            	history.setIdTask( daoUtil.getInt( 2 ) );
+
+            	listHistory.add( history );
+            }
+        }
+		return listHistory;
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public void deleteByKeys( List<TaskAntsAppointmentHistory> listHistory, Plugin plugin )
+	{
+		if ( listHistory.isEmpty( ) )
+		{
+			return;
+		}
+
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_DELETE_BY_HISTORY, plugin ) )
+        {
+			for ( TaskAntsAppointmentHistory history : listHistory )
+			{
+				daoUtil.setInt( 1, history.getIdResourceHistory( ) );
+				daoUtil.setInt( 2, history.getIdTask( ) );
+				daoUtil.addBatch( );
+			}
+			daoUtil.executeBatch( );
+        }
+	}
+
+	/**
+	 * Build a TaskAntsAppointmentHistory object from the current row of a query's result
+	 * 
+	 * @param daoUtil
+	 *            The DAOUtil positioned on the row
+	 * @return the TaskAntsAppointmentHistory object
+	 */
+	private static TaskAntsAppointmentHistory dataToObject( DAOUtil daoUtil )
+	{
+		TaskAntsAppointmentHistory taskAntsAppointmentHistory = new TaskAntsAppointmentHistory( );
+		int nIndex = 0;
+
+		taskAntsAppointmentHistory.setIdResourceHistory( daoUtil.getInt( ++nIndex ) );
+		taskAntsAppointmentHistory.setIdTask( daoUtil.getInt( ++nIndex ) );
+		taskAntsAppointmentHistory.setTaskSuccessState( daoUtil.getBoolean( ++nIndex ) );
+		taskAntsAppointmentHistory.setAntsApplicationNumbers( daoUtil.getString( ++nIndex ) );
+		taskAntsAppointmentHistory.setTaskStatus( daoUtil.getString( ++nIndex ) );
+		taskAntsAppointmentHistory.setExecutionDate( daoUtil.getTimestamp( ++nIndex ) );
+		taskAntsAppointmentHistory.setAttemptCount( daoUtil.getInt( ++nIndex ) );
+		taskAntsAppointmentHistory.setNextAttemptDate( daoUtil.getTimestamp( ++nIndex ) );
+		taskAntsAppointmentHistory.setLastError( daoUtil.getString( ++nIndex ) );
+		taskAntsAppointmentHistory.setDurationMillis( daoUtil.getLong( ++nIndex ) );
+		taskAntsAppointmentHistory.setCallCount( daoUtil.getInt( ++nIndex ) );
+		taskAntsAppointmentHistory.setCallDetails( daoUtil.getString( ++nIndex ) );
+		taskAntsAppointmentHistory.setHttpStatus( daoUtil.getInt( ++nIndex ) );
+		taskAntsAppointmentHistory.setCorrelationId( daoUtil.getString( ++nIndex ) );
+
+		return taskAntsAppointmentHistory;
 	}
 }
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business.statistics;
+
+import java.sql.Date;
+
+/**
+ * Statistics of the executions of an ANTS task type for a Form, during a day. The executions are counted by outcome:
+ * an execution deferred then completed counts as deferred and as successful / failed. The retries are counted apart,
+ * so that an execution is never counted twice in the outcomes. The durations are those of the completed outcomes
+ */
+public class AntsDailyStatistics
+{
+	/**
+	 * Day of the executions
+	 */
+	private Date _dateStatistics;
+
+	/**
+	 * ID of the Form of the appointments, 0 if unknown
+	 */
+	private int _nIdForm;
+
+	/**
+	 * Key of the ANTS task type
+	 */
+	private String _strTaskType;
+
+	/**
+	 * Amount of outcomes of each kind
+	 */
+	private int _nSuccessCount;
+	private int _nFailureCount;
+	private int _nRejectedCount;
+	private int _nDeferredCount;
+
+	/**
+	 * Amount of retries of failed executions
+	 */
+	private int _nRetryCount;
+
+	/**
+	 * Total and maximum duration of the executions, in milliseconds
+	 */
+	private long _lTotalDurationMillis;
+	private long _lMaxDurationMillis;
+
+	/**
+	 * Get the day of the executions
+	 * 
+	 * @return the day
+	 */
+	public Date getDate( )
+	{
+		return _dateStatistics;
+	}
+
+	/**
+	 * Set the day of the executions
+	 * 
+	 * @param dateStatistics
+	 *            The day
+	 */
+	public void setDate( Date dateStatistics )
+	{
+		_dateStatistics = dateStatistics;
+	}
+
+	/**
+	 * Get the ID of the Form of the appointments
+	 * 
+	 * @return the ID of the Form, 0 if unknown
+	 */
+	public int getIdForm( )
+	{
+		return _nIdForm;
+	}
+
+	/**
+	 * Set the ID of the Form of the appointments
+	 * 
+	 * @param nIdForm
+	 *            The ID of the Form
+	 */
+	public void setIdForm( int nIdForm )
+	{
+		_nIdForm = nIdForm;
+	}
+
+	/**
+	 * Get the key of the ANTS task type
+	 * 
+	 * @return the key of the task type
+	 */
+	public String getTaskType( )
+	{
+		return _strTaskType;
+	}
+
+	/**
+	 * Set the key of the ANTS task type
+	 * 
+	 * @param strTaskType
+	 *            The key of the task type
+	 */
+	public void setTaskType( String strTaskType )
+	{
+		_strTaskType = strTaskType;
+	}
+
+	/**
+	 * Get the amount of successful outcomes
+	 * 
+	 * @return the amount of successes
+	 */
+	public int getSuccessCount( )
+	{
+		return _nSuccessCount;
+	}
+
+	/**
+	 * Set the amount of successful outcomes
+	 * 
+	 * @param nSuccessCount
+	 *            The amount of successes
+	 */
+	public void setSuccessCount( int nSuccessCount )
+	{
+		_nSuccessCount = nSuccessCount;
+	}
+
+	/**
+	 * Get the amount of failed outcomes
+	 * 
+	 * @return the amount of failures
+	 */
+	public int getFailureCount( )
+	{
+		return _nFailureCount;
+	}
+
+	/**
+	 * Set the amount of failed outcomes
+	 * 
+	 * @param nFailureCount
+	 *            The amount of failures
+	 */
+	public void setFailureCount( int nFailureCount )
+	{
+		_nFailureCount = nFailureCount;
+	}
+
+	/**
+	 * Get the amount of executions whose ANTS calls were rejected
+	 * 
+	 * @return the amount of rejections
+	 */
+	public int getRejectedCount( )
+	{
+		return _nRejectedCount;
+	}
+
+	/**
+	 * Set the amount of executions whose ANTS calls were rejected
+	 * 
+	 * @param nRejectedCount
+	 *            The amount of rejections
+	 */
+	public void setRejectedCount( int nRejectedCount )
+	{
+		_nRejectedCount = nRejectedCount;
+	}
+
+	/**
+	 * Get the amount of executions deferred when their deadline was reached
+	 * 
+	 * @return the amount of deferred executions
+	 */
+	public int getDeferredCount( )
+	{
+		return _nDeferredCount;
+	}
+
+	/**
+	 * Set the amount of executions deferred when their deadline was reached
+	 * 
+	 * @param nDeferredCount
+	 *            The amount of deferred executions
+	 */
+	public void setDeferredCount( int nDeferredCount )
+	{
+		_nDeferredCount = nDeferredCount;
+	}
+
+	/**
+	 * Get the amount of retries of failed executions
+	 * 
+	 * @return the amount of retries
+	 */
+	public int getRetryCount( )
+	{
+		return _nRetryCount;
+	}
+
+	/**
+	 * Set the amount of retries of failed executions
+	 * 
+	 * @param nRetryCount
+	 *            The amount of retries
+	 */
+	public void setRetryCount( int nRetryCount )
+	{
+		_nRetryCount = nRetryCount;
+	}
+
+	/**
+	 * Get the total duration of the executions
+	 * 
+	 * @return the total duration, in milliseconds
+	 */
+	public long getTotalDurationMillis( )
+	{
+		return _lTotalDurationMillis;
+	}
+
+	/**
+	 * Set the total duration of the executions
+	 * 
+	 * @param lTotalDurationMillis
+	 *            The total duration, in milliseconds
+	 */
+	public void setTotalDurationMillis( long lTotalDurationMillis )
+	{
+		_lTotalDurationMillis = lTotalDurationMillis;
+	}
+
+	/**
+	 * Get the longest duration of an execution
+	 * 
+	 * @return the longest duration, in milliseconds
+	 */
+	public long getMaxDurationMillis( )
+	{
+		return _lMaxDurationMillis;
+	}
+
+	/**
+	 * Set the longest duration of an execution
+	 * 
+	 * @param lMaxDurationMillis
+	 *            The longest duration, in milliseconds
+	 */
+	public void setMaxDurationMillis( long lMaxDurationMillis )
+	{
+		_lMaxDurationMillis = lMaxDurationMillis;
+	}
+
+	/**
+	 * Get the amount of completed outcomes (successes, failures and rejections)
+	 * 
+	 * @return the amount of completed outcomes
+	 */
+	public int getCompletedCount( )
+	{
+		return _nSuccessCount + _nFailureCount + _nRejectedCount;
+	}
+
+	/**
+	 * Get the average duration of the completed executions
+	 * 
+	 * @return the average duration in milliseconds, 0 if no execution was completed
+	 */
+	public long getAverageDurationMillis( )
+	{
+		int nCompletedCount = getCompletedCount( );
+
+		return nCompletedCount == 0 ? 0L : _lTotalDurationMillis / nCompletedCount;
+	}
+}
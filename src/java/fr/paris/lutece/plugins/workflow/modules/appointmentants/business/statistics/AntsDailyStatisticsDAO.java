@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business.statistics;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.util.AppException;
+import fr.paris.lutece.util.sql.DAOUtil;
+
+/**
+ * 
+ * Provide Data Access methods for the daily statistics of the ANTS related tasks
+ *
+ */
+public class AntsDailyStatisticsDAO implements IAntsDailyStatisticsDAO
+{
+	public static final String BEAN_NAME = WorkflowAppointmentAntsPlugin.PLUGIN_NAME + ".antsDailyStatisticsDAO";
+
+	/**
+	 * SQL Queries
+	 */
+	private static final String SQL_QUERY_INCREMENT = "UPDATE workflow_task_ants_appointment_stats SET success_count = success_count + ?, failure_count = failure_count + ?, rejected_count = rejected_count + ?, deferred_count = deferred_count + ?, retry_count = retry_count + ?, "
+			+ "total_duration_ms = total_duration_ms + ?, max_duration_ms = CASE WHEN max_duration_ms < ? THEN ? ELSE max_duration_ms END WHERE stat_date = ? AND id_form = ? AND task_type = ?";
+	private static final String SQL_QUERY_INSERT = "INSERT INTO workflow_task_ants_appointment_stats ( stat_date, id_form, task_type, success_count, failure_count, rejected_count, deferred_count, retry_count, total_duration_ms, max_duration_ms ) VALUES ( ?, ?, ?, ?, ?, ?, ?, ?, ?, ? )";
+	private static final String SQL_QUERY_SELECT_BY_PERIOD = "SELECT stat_date, id_form, task_type, success_count, failure_count, rejected_count, deferred_count, retry_count, total_duration_ms, max_duration_ms FROM workflow_task_ants_appointment_stats "
+			+ "WHERE stat_date >= ? AND stat_date <= ? ORDER BY stat_date, id_form, task_type";
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void increment( AntsDailyStatistics statistics, Plugin plugin )
+	{
+		if ( update( statistics, plugin ) )
+		{
+			return;
+		}
+
+		try
+		{
+			insert( statistics, plugin );
+		}
+		catch( AppException e )
+		{
+			// Another execution created the statistics of the day in the meantime
+			update( statistics, plugin );
+		}
+	}
+
+	/**
+	 * Add counts and durations to existing statistics
+	 * 
+	 * @param statistics
+	 *            The counts and durations to add
+	 * @param plugin
+	 *            The Plugin
+	 * @return true if the statistics existed
+	 */
+	private static boolean update( AntsDailyStatistics statistics, Plugin plugin )
+	{
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INCREMENT, plugin ) )
+		{
+			int nIndex = 0;
+			daoUtil.setInt( ++nIndex, statistics.getSuccessCount( ) );
+			daoUtil.setInt( ++nIndex, statistics.getFailureCount( ) );
+			daoUtil.setInt( ++nIndex, statistics.getRejectedCount( ) );
+			daoUtil.setInt( ++nIndex, statistics.getDeferredCount( ) );
+			daoUtil.setInt( ++nIndex, statistics.getRetryCount( ) );
+			daoUtil.setLong( ++nIndex, statistics.getTotalDurationMillis( ) );
+			daoUtil.setLong( ++nIndex, statistics.getMaxDurationMillis( ) );
+			daoUtil.setLong( ++nIndex, statistics.getMaxDurationMillis( ) );
+			daoUtil.setDate( ++nIndex, statistics.getDate( ) );
+			daoUtil.setInt( ++nIndex, statistics.getIdForm( ) );
+			daoUtil.setString( ++nIndex, statistics.getTaskType( ) );
+
+			return daoUtil.executeUpdate( ) > 0;
+		}
+	}
+
+	/**
+	 * Create the statistics of a day, Form and task type
+	 * 
+	 * @param statistics
+	 *            The statistics to create
+	 * @param plugin
+	 *            The Plugin
+	 */
+	private static void insert( AntsDailyStatistics statistics, Plugin plugin )
+	{
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_INSERT, plugin ) )
+		{
+			int nIndex = 0;
+			daoUtil.setDate( ++nIndex, statistics.getDate( ) );
+			daoUtil.setInt( ++nIndex, statistics.getIdForm( ) );
+			daoUtil.setString( ++nIndex, statistics.getTaskType( ) );
+			daoUtil.setInt( ++nIndex, statistics.getSuccessCount( ) );
+			daoUtil.setInt( ++nIndex, statistics.getFailureCount( ) );
+			daoUtil.setInt( ++nIndex, statistics.getRejectedCount( ) );
+			daoUtil.setInt( ++nIndex, statistics.getDeferredCount( ) );
+			daoUtil.setInt( ++nIndex, statistics.getRetryCount( ) );
+			daoUtil.setLong( ++nIndex, statistics.getTotalDurationMillis( ) );
+			daoUtil.setLong( ++nIndex, statistics.getMaxDurationMillis( ) );
+
+			daoUtil.executeUpdate( );
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<AntsDailyStatistics> selectByPeriod( Date dateStart, Date dateEnd, Plugin plugin )
+	{
+		List<AntsDailyStatistics> listStatistics = new ArrayList<>( );
+
+		try ( DAOUtil daoUtil = new DAOUtil( SQL_QUERY_SELECT_BY_PERIOD, plugin ) )
+		{
+			int nIndex = 0;
+			daoUtil.setDate( ++nIndex, dateStart );
+			daoUtil.setDate( ++nIndex, dateEnd );
+			daoUtil.executeQuery( );
+
+			while ( daoUtil.next( ) )
+			{
+				AntsDailyStatistics statistics = new AntsDailyStatistics( );
+				nIndex = 0;
+
+				statistics.setDate( daoUtil.getDate( ++nIndex ) );
+				statistics.setIdForm( daoUtil.getInt( ++nIndex ) );
+				statistics.setTaskType( daoUtil.getString( ++nIndex ) );
+				statistics.setSuccessCount( daoUtil.getInt( ++nIndex ) );
+				statistics.setFailureCount( daoUtil.getInt( ++nIndex ) );
+				statistics.setRejectedCount( daoUtil.getInt( ++nIndex ) );
+				statistics.setDeferredCount( daoUtil.getInt( ++nIndex ) );
+				statistics.setRetryCount( daoUtil.getInt( ++nIndex ) );
+				statistics.setTotalDurationMillis( daoUtil.getLong( ++nIndex ) );
+				statistics.setMaxDurationMillis( daoUtil.getLong( ++nIndex ) );
+
+				listStatistics.add( statistics );
+			}
+		}
+		return listStatistics;
+	}
+}
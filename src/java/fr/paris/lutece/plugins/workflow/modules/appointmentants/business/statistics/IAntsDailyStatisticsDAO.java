@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business.statistics;
+
+import java.sql.Date;
+import java.util.List;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+
+public interface IAntsDailyStatisticsDAO
+{
+	/**
+	 * Add counts and durations to the statistics of a day, Form and task type. The statistics are created
+	 * if they don't exist yet
+	 * 
+	 * @param statistics
+	 *            The counts and durations to add, with the day, Form and task type they belong to
+	 * @param plugin
+	 *            The Plugin
+	 */
+	void increment( AntsDailyStatistics statistics, Plugin plugin );
+
+	/**
+	 * Load the statistics of a period
+	 * 
+	 * @param dateStart
+	 *            The first day of the period
+	 * @param dateEnd
+	 *            The last day of the period
+	 * @param plugin
+	 *            The Plugin
+	 * @return the statistics of the period, ordered by day, Form and task type
+	 */
+	List<AntsDailyStatistics> selectByPeriod( Date dateStart, Date dateEnd, Plugin plugin );
+}
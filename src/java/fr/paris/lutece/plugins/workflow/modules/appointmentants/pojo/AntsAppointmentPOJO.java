@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.pojo;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * POJO that represents an appointment tied to an ANTS application number, as listed
+ * in the response of the ANTS API when checking the status of the application number
+ *
+ */
+@JsonIgnoreProperties( ignoreUnknown = true )
+public class AntsAppointmentPOJO {
+
+	/**
+	 * Address of the place of the appointment
+	 */
+	@JsonProperty( "meeting_point" )
+	private String meetingPoint;
+
+	/**
+	 * ID of the place of the appointment, given by its editor
+	 */
+	@JsonProperty( "meeting_point_id" )
+	private String meetingPointId;
+
+	/**
+	 * Date and time of the appointment
+	 */
+	@JsonProperty( "appointment_date" )
+	private String appointmentDate;
+
+	/**
+	 * URL where the user can manage the appointment
+	 */
+	@JsonProperty( "management_url" )
+	private String managementUrl;
+
+	/**
+	 * Name of the editor which created the appointment
+	 */
+	@JsonProperty( "editor_comment" )
+	private String editorComment;
+
+	public String getMeetingPoint( )
+	{
+		return meetingPoint;
+	}
+
+	public void setMeetingPoint( String meetingPoint )
+	{
+		this.meetingPoint = meetingPoint;
+	}
+
+	public String getMeetingPointId( )
+	{
+		return meetingPointId;
+	}
+
+	public void setMeetingPointId( String meetingPointId )
+	{
+		this.meetingPointId = meetingPointId;
+	}
+
+	public String getAppointmentDate( )
+	{
+		return appointmentDate;
+	}
+
+	public void setAppointmentDate( String appointmentDate )
+	{
+		this.appointmentDate = appointmentDate;
+	}
+
+	public String getManagementUrl( )
+	{
+		return managementUrl;
+	}
+
+	public void setManagementUrl( String managementUrl )
+	{
+		this.managementUrl = managementUrl;
+	}
+
+	public String getEditorComment( )
+	{
+		return editorComment;
+	}
+
+	public void setEditorComment( String editorComment )
+	{
+		this.editorComment = editorComment;
+	}
+
+	/**
+	 * Get the date and time of the appointment, in the time zone of the server. A date sent by ANTS with an offset
+	 * (or in UTC) is converted to the time zone of the server, a date without offset is taken as it is
+	 * 
+	 * @return
+	 * 				The date and time of the appointment, or null if it is missing or invalid
+	 */
+	@JsonIgnore
+	public LocalDateTime getAppointmentDateTime( )
+	{
+		if( StringUtils.isBlank( appointmentDate ) )
+		{
+			return null;
+		}
+
+		String strDate = appointmentDate.trim( ).replace( ' ', 'T' );
+		try
+		{
+			return OffsetDateTime.parse( strDate ).atZoneSameInstant( ZoneId.systemDefault( ) ).toLocalDateTime( );
+		}
+		catch( DateTimeParseException e )
+		{
+			// No offset: local date and time
+		}
+		try
+		{
+			return LocalDateTime.parse( strDate );
+		}
+		catch( DateTimeParseException e )
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Check whether this appointment is the one of a meeting point at a date, to the minute
+	 * 
+	 * @param strMeetingPointId
+	 * 				The "meeting_point_id" of the meeting point
+	 * @param date
+	 * 				The date and time of the appointment
+	 * @return
+	 * 				true if the appointment is at the meeting point at this date
+	 */
+	public boolean isSameAppointment( String strMeetingPointId, LocalDateTime date )
+	{
+		LocalDateTime appointmentDateTime = getAppointmentDateTime( );
+
+		return StringUtils.equals( meetingPointId, strMeetingPointId ) && date != null && appointmentDateTime != null
+				&& appointmentDateTime.truncatedTo( ChronoUnit.MINUTES ).equals( date.truncatedTo( ChronoUnit.MINUTES ) );
+	}
+}
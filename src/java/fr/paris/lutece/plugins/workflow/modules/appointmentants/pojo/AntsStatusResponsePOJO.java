@@ -33,6 +33,7 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.pojo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -54,14 +55,21 @@ public class AntsStatusResponsePOJO {
 	 * List of all the appointments tied to the specified application number
 	 */
 	@JsonProperty( "appointments" )
-	private Object[] appointments;
+	private AntsAppointmentPOJO[] appointments;
+
+	/**
+	 * ANTS application number this status belongs to. It is the key of the status in the
+	 * response, and not one of its fields
+	 */
+	@JsonIgnore
+	private String applicationNumber;
 
 	public String getStatus( )
 	{
 		return status;
 	}
 
-	public Object[] getAppointments( )
+	public AntsAppointmentPOJO[] getAppointments( )
 	{
 		return appointments;
 	}
@@ -71,8 +79,18 @@ public class AntsStatusResponsePOJO {
 		this.status = status;
 	}
 
-	public void setAppointments( Object[] appointments )
+	public void setAppointments( AntsAppointmentPOJO[] appointments )
 	{
 		this.appointments = appointments;
 	}
+
+	public String getApplicationNumber( )
+	{
+		return applicationNumber;
+	}
+
+	public void setApplicationNumber( String applicationNumber )
+	{
+		this.applicationNumber = applicationNumber;
+	}
 }
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.appointment.service.AppointmentPlugin;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.ITaskAntsAppointmentNumberDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.ITaskAntsAppointmentResponseDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfig;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfigDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentNumber;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentNumberDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentResponseDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsSettings;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.plugin.PluginService;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * 
+ * Index of the ANTS application numbers given in the appointments, maintained by the ANTS tasks and filled for the
+ * existing appointments by a backfill. It answers which appointments an application number has, when and where,
+ * without scanning the responses of the appointments
+ *
+ */
+public final class AntsApplicationNumberIndexService
+{
+	private static final AntsApplicationNumberIndexService INSTANCE = new AntsApplicationNumberIndexService( );
+
+	/**
+	 * Private constructor
+	 */
+	private AntsApplicationNumberIndexService( )
+	{
+	}
+
+	/**
+	 * Get the instance of the service
+	 * 
+	 * @return the instance of the service
+	 */
+	public static AntsApplicationNumberIndexService getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Index the application numbers of an appointment, replacing its previous ones. A failure is only logged, so
+	 * that it never fails the ANTS calls of the appointment
+	 * 
+	 * @param nIdAppointment
+	 *            ID of the appointment
+	 * @param nIdForm
+	 *            ID of the Form of the appointment
+	 * @param dateAppointment
+	 *            Starting date and time of the appointment
+	 * @param applicationNumbers
+	 *            The application numbers of the appointment
+	 */
+	public void index( int nIdAppointment, int nIdForm, LocalDateTime dateAppointment, Collection<String> applicationNumbers )
+	{
+		try
+		{
+			ITaskAntsAppointmentNumberDAO numberDAO = getNumberDAO( );
+			Plugin plugin = WorkflowAppointmentAntsPlugin.getPlugin( );
+
+			numberDAO.deleteByAppointment( nIdAppointment, plugin );
+
+			Set<String> setApplicationNumbers = new LinkedHashSet<>( );
+			for( String strApplicationNumber : applicationNumbers )
+			{
+				if( StringUtils.isNotBlank( strApplicationNumber ) && setApplicationNumbers.add( strApplicationNumber.trim( ) ) )
+				{
+					TaskAntsAppointmentNumber number = new TaskAntsAppointmentNumber( );
+					number.setApplicationNumber( strApplicationNumber.trim( ) );
+					number.setIdAppointment( nIdAppointment );
+					number.setIdForm( nIdForm );
+					number.setAppointmentDate( dateAppointment != null ? Timestamp.valueOf( dateAppointment ) : null );
+					number.setMeetingPointId( AntsAppointmentUtils.generateAntsMeetingPointId( nIdForm ) );
+					numberDAO.insert( number, plugin );
+				}
+			}
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( "Failed to index the ANTS application numbers of appointment {}", nIdAppointment, e );
+		}
+	}
+
+	/**
+	 * Remove the application numbers of an appointment from the index. A failure is only logged
+	 * 
+	 * @param nIdAppointment
+	 *            ID of the appointment
+	 */
+	public void remove( int nIdAppointment )
+	{
+		try
+		{
+			getNumberDAO( ).deleteByAppointment( nIdAppointment, WorkflowAppointmentAntsPlugin.getPlugin( ) );
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( "Failed to remove the ANTS application numbers of appointment {} from the index", nIdAppointment, e );
+		}
+	}
+
+	/**
+	 * Find the appointments of a list of application numbers
+	 * 
+	 * @param applicationNumbers
+	 *            The application numbers
+	 * @return the appointments of each application number, in the order of the application numbers. An application
+	 *         number without any appointment has an empty list
+	 */
+	public Map<String, List<TaskAntsAppointmentNumber>> find( Collection<String> applicationNumbers )
+	{
+		Set<String> setApplicationNumbers = new LinkedHashSet<>( );
+		for( String strApplicationNumber : applicationNumbers )
+		{
+			setApplicationNumbers.add( strApplicationNumber.trim( ) );
+		}
+
+		return groupByApplicationNumber( setApplicationNumbers,
+				getNumberDAO( ).selectByApplicationNumbers( new ArrayList<>( setApplicationNumbers ), WorkflowAppointmentAntsPlugin.getPlugin( ) ) );
+	}
+
+	/**
+	 * Group the appointments found by the application numbers requested. The database may compare the application
+	 * numbers regardless of their case (MySQL collations), so the appointments are matched the same way
+	 * 
+	 * @param setApplicationNumbers
+	 *            The application numbers requested
+	 * @param listNumbers
+	 *            The appointments found for these application numbers
+	 * @return the appointments of each application number, in the order of the application numbers
+	 */
+	static Map<String, List<TaskAntsAppointmentNumber>> groupByApplicationNumber( Set<String> setApplicationNumbers,
+			List<TaskAntsAppointmentNumber> listNumbers )
+	{
+		Map<String, List<TaskAntsAppointmentNumber>> mapNumbers = new LinkedHashMap<>( );
+		Map<String, List<List<TaskAntsAppointmentNumber>>> mapListsIgnoringCase = new TreeMap<>( String.CASE_INSENSITIVE_ORDER );
+
+		for( String strApplicationNumber : setApplicationNumbers )
+		{
+			List<TaskAntsAppointmentNumber> listAppointments = new ArrayList<>( );
+			mapNumbers.put( strApplicationNumber, listAppointments );
+			mapListsIgnoringCase.computeIfAbsent( strApplicationNumber, strKey -> new ArrayList<>( ) ).add( listAppointments );
+		}
+
+		for( TaskAntsAppointmentNumber number : listNumbers )
+		{
+			for( List<TaskAntsAppointmentNumber> listAppointments : mapListsIgnoringCase.getOrDefault( number.getApplicationNumber( ),
+					Collections.emptyList( ) ) )
+			{
+				listAppointments.add( number );
+			}
+		}
+		return mapNumbers;
+	}
+
+	/**
+	 * Fill the index with the upcoming appointments of the Forms of the ANTS tasks. The appointments are read by pages
+	 * and re-indexed, so a backfill can be run again safely
+	 * 
+	 * @param dateFrom
+	 *            The date from which the appointments are indexed
+	 * @param nPageSize
+	 *            The amount of appointments read per query
+	 * @return the amount of appointments indexed
+	 */
+	public int backfill( LocalDateTime dateFrom, int nPageSize )
+	{
+		TaskAntsAppointmentConfigDAO configDAO = SpringContextService.getBean( TaskAntsAppointmentConfigDAO.BEAN_NAME );
+		ITaskAntsAppointmentResponseDAO responseDAO = SpringContextService.getBean( TaskAntsAppointmentResponseDAO.BEAN_NAME );
+		Plugin appointmentPlugin = PluginService.getPlugin( AppointmentPlugin.PLUGIN_NAME );
+		String strSeparator = AntsSettings.getCurrent( ).getApplicationNumbersSeparator( );
+
+		// The same Form and Entry may be set in the configuration of several tasks
+		Map<Integer, Integer> mapEntryByForm = new HashMap<>( );
+		for( TaskAntsAppointmentConfig config : configDAO.loadAll( ) )
+		{
+			if( config.getIdForm( ) > 0 && config.getIdFieldEntry( ) > 0 )
+			{
+				mapEntryByForm.putIfAbsent( config.getIdForm( ), config.getIdFieldEntry( ) );
+			}
+		}
+
+		int nIndexed = 0;
+		for( Map.Entry<Integer, Integer> entry : mapEntryByForm.entrySet( ) )
+		{
+			int nIdAppointmentAfter = 0;
+			List<TaskAntsAppointmentNumber> listResponses;
+
+			do
+			{
+				listResponses = responseDAO.selectResponseValuesByForm( entry.getKey( ), entry.getValue( ), Timestamp.valueOf( dateFrom ), nIdAppointmentAfter,
+						nPageSize, appointmentPlugin );
+
+				for( TaskAntsAppointmentNumber response : listResponses )
+				{
+					// Keep the first response of an appointment, like the ANTS tasks do
+					if( response.getIdAppointment( ) != nIdAppointmentAfter )
+					{
+						index( response.getIdAppointment( ), response.getIdForm( ),
+								response.getAppointmentDate( ) != null ? response.getAppointmentDate( ).toLocalDateTime( ) : null,
+								TaskAntsAppointmentService.splitAntsApplicationValues( response.getApplicationNumber( ), strSeparator ) );
+						nIdAppointmentAfter = response.getIdAppointment( );
+						nIndexed++;
+					}
+				}
+			}
+			while( listResponses.size( ) == nPageSize );
+		}
+
+		AppLogService.info( "ANTS application number index backfilled: {} appointment(s) of {} Form(s)", nIndexed, mapEntryByForm.size( ) );
+
+		return nIndexed;
+	}
+
+	/**
+	 * Get the DAO of the index
+	 * 
+	 * @return the DAO of the index
+	 */
+	private static ITaskAntsAppointmentNumberDAO getNumberDAO( )
+	{
+		return SpringContextService.getBean( TaskAntsAppointmentNumberDAO.BEAN_NAME );
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.pojo.AntsStatusResponsePOJO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsSettings;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Validation of the ANTS application numbers while the users fill in the booking form, with the status call made by
+ * the ANTS creation task. The status of the numbers valid for creation is kept in the status cache, so the creation
+ * task of the booking doesn't call ANTS again
+ *
+ */
+public final class AntsApplicationNumberValidationService
+{
+	private static final String PROPERTY_VALIDATION_NUMBER_PATTERN = "ants.validation.number.pattern";
+	private static final String PROPERTY_VALIDATION_MAX_NUMBERS = "ants.validation.max.numbers";
+	private static final String DEFAULT_VALIDATION_NUMBER_PATTERN = "^[A-Za-z0-9]{10}$";
+	private static final int DEFAULT_VALIDATION_MAX_NUMBERS = 5;
+
+	/**
+	 * Outcome of the validation of an application number
+	 */
+	public enum ValidationResult
+	{
+		/**
+		 * An appointment can be booked with the application number
+		 */
+		VALID,
+
+		/**
+		 * The application number isn't well-formed, ANTS wasn't called
+		 */
+		MALFORMED,
+
+		/**
+		 * The application number is unknown or hasn't been validated by ANTS
+		 */
+		NOT_VALIDATED,
+
+		/**
+		 * The application number already has an appointment
+		 */
+		ALREADY_BOOKED,
+
+		/**
+		 * The status couldn't be retrieved: the booking isn't blocked, the ANTS task checks it again
+		 */
+		UNAVAILABLE
+	}
+
+	/**
+	 * Private constructor
+	 */
+	private AntsApplicationNumberValidationService( )
+	{
+	}
+
+	/**
+	 * Split the value of the ANTS field of the booking form into application numbers
+	 * 
+	 * @param strValue
+	 *            The value of the ANTS field
+	 * @return the application numbers, without duplicates
+	 */
+	public static List<String> getApplicationNumbers( String strValue )
+	{
+		List<String> listApplicationNumbers = new ArrayList<>( );
+		for( String strApplicationNumber : new LinkedHashSet<>( TaskAntsAppointmentService.splitAntsApplicationValues( strValue,
+				AntsSettings.getCurrent( ).getApplicationNumbersSeparator( ) ) ) )
+		{
+			if( StringUtils.isNotBlank( strApplicationNumber ) )
+			{
+				listApplicationNumbers.add( strApplicationNumber.trim( ) );
+			}
+		}
+		return listApplicationNumbers;
+	}
+
+	/**
+	 * Get the maximum amount of application numbers validated in a single call
+	 * 
+	 * @return the maximum amount of application numbers
+	 */
+	public static int getMaxApplicationNumbers( )
+	{
+		return AppPropertiesService.getPropertyInt( PROPERTY_VALIDATION_MAX_NUMBERS, DEFAULT_VALIDATION_MAX_NUMBERS );
+	}
+
+	/**
+	 * Validate application numbers for a booking in a Form
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form of the booking
+	 * @param listApplicationNumbers
+	 *            The application numbers
+	 * @return the outcome of the validation of each application number
+	 */
+	public static Map<String, ValidationResult> validate( int nIdForm, List<String> listApplicationNumbers )
+	{
+		Pattern pattern = Pattern.compile( AppPropertiesService.getProperty( PROPERTY_VALIDATION_NUMBER_PATTERN, DEFAULT_VALIDATION_NUMBER_PATTERN ) );
+		Map<String, ValidationResult> mapResults = new LinkedHashMap<>( );
+		List<String> listWellFormedNumbers = new ArrayList<>( );
+
+		for( String strApplicationNumber : listApplicationNumbers )
+		{
+			if( pattern.matcher( strApplicationNumber ).matches( ) )
+			{
+				listWellFormedNumbers.add( strApplicationNumber );
+				mapResults.put( strApplicationNumber, ValidationResult.UNAVAILABLE );
+			}
+			else
+			{
+				mapResults.put( strApplicationNumber, ValidationResult.MALFORMED );
+			}
+		}
+
+		if( listWellFormedNumbers.isEmpty( ) )
+		{
+			return mapResults;
+		}
+
+		String strMeetingPointId = AntsAppointmentUtils.generateAntsMeetingPointId( nIdForm );
+		Map<String, AntsStatusResponsePOJO> mapStatus;
+		try
+		{
+			mapStatus = TaskAntsAppointmentService.getAntsStatusResponseAsMap( listWellFormedNumbers, strMeetingPointId );
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( "Failed to validate the ANTS numbers {} for Form {}", listWellFormedNumbers, nIdForm, e );
+			return mapResults;
+		}
+
+		for( String strApplicationNumber : listWellFormedNumbers )
+		{
+			AntsStatusResponsePOJO status = mapStatus.get( strApplicationNumber );
+
+			if( status == null || !StringUtils.equals( status.getStatus( ), AntsSettings.getCurrent( ).getStatusValidated( ) ) )
+			{
+				mapResults.put( strApplicationNumber, ValidationResult.NOT_VALIDATED );
+			}
+			else if( !TaskAntsAppointmentService.isStatusValidForCreation( status ) )
+			{
+				mapResults.put( strApplicationNumber, ValidationResult.ALREADY_BOOKED );
+			}
+			else
+			{
+				mapResults.put( strApplicationNumber, ValidationResult.VALID );
+				AntsStatusCacheService.getInstance( ).putStatus( strMeetingPointId, strApplicationNumber, status );
+			}
+		}
+		return mapResults;
+	}
+}
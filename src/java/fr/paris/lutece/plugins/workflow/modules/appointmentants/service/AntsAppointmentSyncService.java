@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Service synchronizing the ANTS appointments from the changes of the appointments. The changes of an appointment
+ * are debounced: the synchronization runs once the appointment has been left unchanged during the debounce window,
+ * or after the maximum wait since its first change, so a burst of changes (creation then reschedules, or
+ * reschedule then cancellation) results in the ANTS calls of the net change only. The pending synchronizations are
+ * kept in memory: the ANTS tasks save their history before notifying a change, so that a synchronization lost with
+ * its node is retried from the history
+ *
+ */
+public final class AntsAppointmentSyncService
+{
+	private static final String PROPERTY_SYNC_LISTENER_ENABLED = "ants.sync.listener.enabled";
+	private static final String PROPERTY_SYNC_DEBOUNCE_WINDOW = "ants.sync.debounce.window";
+	private static final String PROPERTY_SYNC_DEBOUNCE_MAX_WAIT = "ants.sync.debounce.max.wait";
+	private static final String PROPERTY_SYNC_THREADS = "ants.sync.threads";
+
+	private static final String THREAD_NAME = "ants-sync-";
+
+	private static final AntsAppointmentSyncService INSTANCE = new AntsAppointmentSyncService(
+			AppPropertiesService.getPropertyLong( PROPERTY_SYNC_DEBOUNCE_WINDOW, 30000L ),
+			AppPropertiesService.getPropertyLong( PROPERTY_SYNC_DEBOUNCE_MAX_WAIT, 300000L ),
+			AppPropertiesService.getPropertyInt( PROPERTY_SYNC_THREADS, 2 ),
+			AntsAppointmentSyncService::synchronize );
+
+	private final ConcurrentMap<Integer, PendingSync> _mapPendingSyncs = new ConcurrentHashMap<>( );
+	private final ScheduledExecutorService _scheduler;
+	private final long _lWindowMillis;
+	private final long _lMaxWaitMillis;
+	private final ISyncAction _syncAction;
+
+	/**
+	 * Synchronization of an appointment
+	 */
+	@FunctionalInterface
+	interface ISyncAction
+	{
+		/**
+		 * Synchronize the ANTS appointments of an appointment
+		 * 
+		 * @param idAppointment
+		 *            ID of the appointment
+		 * @param idForm
+		 *            ID of the Form of the appointment
+		 * @param applicationNumbers
+		 *            The application numbers the appointment had during the debounce window
+		 * @return true if ANTS is up to date
+		 */
+		boolean synchronize( int idAppointment, int idForm, Collection<String> applicationNumbers );
+	}
+
+	/**
+	 * Listener of the outcome of the synchronization of an appointment
+	 */
+	@FunctionalInterface
+	public interface ISyncListener
+	{
+		/**
+		 * Receive the outcome of the synchronization of the appointment
+		 * 
+		 * @param isSuccessful
+		 *            true if ANTS is up to date
+		 * @param context
+		 *            Context of the synchronization's execution
+		 */
+		void onSynchronized( boolean isSuccessful, AntsExecutionContext context );
+	}
+
+	/**
+	 * Synchronization waiting for the end of the debounce window of an appointment
+	 */
+	private static final class PendingSync
+	{
+		private final int _nIdForm;
+		private final Set<String> _setApplicationNumbers;
+		private final List<ISyncListener> _listListeners;
+		private final long _lFirstChangeMillis;
+		private volatile ScheduledFuture<?> _future;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param nIdForm
+		 *            ID of the Form of the appointment
+		 * @param setApplicationNumbers
+		 *            The application numbers of the appointment
+		 * @param listListeners
+		 *            The listeners of the outcome of the synchronization
+		 * @param lFirstChangeMillis
+		 *            Time of the first change of the appointment
+		 */
+		PendingSync( int nIdForm, Set<String> setApplicationNumbers, List<ISyncListener> listListeners, long lFirstChangeMillis )
+		{
+			_nIdForm = nIdForm;
+			_setApplicationNumbers = setApplicationNumbers;
+			_listListeners = listListeners;
+			_lFirstChangeMillis = lFirstChangeMillis;
+		}
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param lWindowMillis
+	 *            Debounce window (ms): time without any change of an appointment before its synchronization
+	 * @param lMaxWaitMillis
+	 *            Maximum wait (ms) between the first change of an appointment and its synchronization
+	 * @param nThreads
+	 *            Number of threads running the synchronizations
+	 * @param syncAction
+	 *            The synchronization of an appointment
+	 */
+	AntsAppointmentSyncService( long lWindowMillis, long lMaxWaitMillis, int nThreads, ISyncAction syncAction )
+	{
+		_lWindowMillis = Math.max( 0L, lWindowMillis );
+		_lMaxWaitMillis = Math.max( 0L, lMaxWaitMillis );
+		_syncAction = syncAction;
+
+		AtomicInteger threadCount = new AtomicInteger( );
+		ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor( Math.max( 1, nThreads ), runnable -> {
+			Thread thread = new Thread( runnable, THREAD_NAME + threadCount.incrementAndGet( ) );
+			thread.setDaemon( true );
+			return thread;
+		} );
+		scheduler.setRemoveOnCancelPolicy( true );
+		_scheduler = scheduler;
+	}
+
+	/**
+	 * Get the instance of the service
+	 * 
+	 * @return the service
+	 */
+	public static AntsAppointmentSyncService getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Check whether the ANTS appointments are synchronized from the changes of the appointments, instead of the ANTS
+	 * workflow tasks
+	 * 
+	 * @return true if the synchronization from the changes of the appointments is enabled
+	 */
+	public static boolean isEnabled( )
+	{
+		return AppPropertiesService.getPropertyBoolean( PROPERTY_SYNC_LISTENER_ENABLED, false );
+	}
+
+	/**
+	 * Get the maximum wait between the first change of an appointment and its synchronization
+	 * 
+	 * @return the maximum wait (ms)
+	 */
+	public long getMaxWaitMillis( )
+	{
+		return _lMaxWaitMillis;
+	}
+
+	/**
+	 * Notify a change of an appointment. The Form and the application numbers of the appointment are read right away,
+	 * so they are still known if the appointment is removed before its synchronization
+	 * 
+	 * @param idAppointment
+	 *            ID of the appointment
+	 */
+	public void notifyChange( int idAppointment )
+	{
+		notifyChange( idAppointment, AntsAppointmentUtils.getIdForm( idAppointment ) );
+	}
+
+	/**
+	 * Notify a change of an appointment whose Form is already known. The application numbers of the appointment are
+	 * read right away, so they are still known if the appointment is removed before its synchronization
+	 * 
+	 * @param idAppointment
+	 *            ID of the appointment
+	 * @param nIdForm
+	 *            ID of the Form of the appointment, 0 if the appointment is already removed
+	 */
+	public void notifyChange( int idAppointment, int nIdForm )
+	{
+		if( nIdForm <= 0 )
+		{
+			// Already removed: only a pending synchronization still knows its Form and application numbers
+			schedule( idAppointment, 0, new LinkedHashSet<>( ) );
+			return;
+		}
+
+		ITaskAntsAppointmentService antsAppointmentService = SpringContextService.getBean( TaskAntsAppointmentService.BEAN_SERVICE );
+		schedule( idAppointment, nIdForm, new LinkedHashSet<>( antsAppointmentService.getAntsApplicationNumbers( idAppointment, nIdForm ) ) );
+	}
+
+	/**
+	 * Notify a change of an appointment whose Form and application numbers are already known, with a listener of the
+	 * outcome of its synchronization. The listener also receives the outcome when the change is merged with later ones
+	 * 
+	 * @param idAppointment
+	 *            ID of the appointment
+	 * @param nIdForm
+	 *            ID of the Form of the appointment, 0 if the appointment is already removed
+	 * @param applicationNumbers
+	 *            The application numbers of the appointment
+	 * @param listener
+	 *            The listener of the outcome of the synchronization
+	 */
+	public void notifyChange( int idAppointment, int nIdForm, Collection<String> applicationNumbers, ISyncListener listener )
+	{
+		schedule( idAppointment, Math.max( 0, nIdForm ), new LinkedHashSet<>( applicationNumbers ), listener );
+	}
+
+	/**
+	 * Schedule the synchronization of an appointment at the end of its debounce window, merging the change with the
+	 * synchronization already pending
+	 * 
+	 * @param idAppointment
+	 *            ID of the appointment
+	 * @param nIdForm
+	 *            ID of the Form of the appointment, 0 if unknown
+	 * @param setApplicationNumbers
+	 *            The application numbers of the appointment
+	 */
+	void schedule( int idAppointment, int nIdForm, Set<String> setApplicationNumbers )
+	{
+		schedule( idAppointment, nIdForm, setApplicationNumbers, null );
+	}
+
+	/**
+	 * Schedule the synchronization of an appointment at the end of its debounce window, merging the change and its
+	 * listener with the synchronization already pending
+	 * 
+	 * @param idAppointment
+	 *            ID of the appointment
+	 * @param nIdForm
+	 *            ID of the Form of the appointment, 0 if unknown
+	 * @param setApplicationNumbers
+	 *            The application numbers of the appointment
+	 * @param listener
+	 *            The listener of the outcome of the synchronization, null if none
+	 */
+	void schedule( int idAppointment, int nIdForm, Set<String> setApplicationNumbers, ISyncListener listener )
+	{
+		long lNow = System.currentTimeMillis( );
+
+		PendingSync sync = _mapPendingSyncs.compute( idAppointment, ( id, pending ) -> {
+			List<ISyncListener> listListeners = new ArrayList<>( );
+
+			if( listener != null )
+			{
+				listListeners.add( listener );
+			}
+			if( pending == null )
+			{
+				return new PendingSync( nIdForm, setApplicationNumbers, listListeners, lNow );
+			}
+			// The replaced synchronization won't run anyway, its task is only cancelled to release the scheduler
+			if( pending._future != null )
+			{
+				pending._future.cancel( false );
+			}
+			setApplicationNumbers.addAll( pending._setApplicationNumbers );
+			listListeners.addAll( pending._listListeners );
+
+			return new PendingSync( nIdForm > 0 ? nIdForm : pending._nIdForm, setApplicationNumbers, listListeners, pending._lFirstChangeMillis );
+		} );
+
+		long lDelay = Math.min( _lWindowMillis, sync._lFirstChangeMillis + _lMaxWaitMillis - lNow );
+		sync._future = _scheduler.schedule( ( ) -> flush( idAppointment, sync ), Math.max( 0L, lDelay ), TimeUnit.MILLISECONDS );
+	}
+
+	/**
+	 * Run the synchronization of an appointment, unless a later change has replaced it, and pass its outcome to its
+	 * listeners
+	 * 
+	 * @param idAppointment
+	 *            ID of the appointment
+	 * @param sync
+	 *            The synchronization to run
+	 */
+	private void flush( int idAppointment, PendingSync sync )
+	{
+		if( !_mapPendingSyncs.remove( idAppointment, sync ) )
+		{
+			return;
+		}
+
+		boolean isSuccessful = false;
+		AntsExecutionContext context = AntsExecutionContext.start( );
+		try
+		{
+			if( sync._nIdForm <= 0 )
+			{
+				AppLogService.info( "ANTS synchronization of appointment {} skipped: its Form is unknown", idAppointment );
+				context.setLastError( "Form of the appointment unknown" );
+			}
+			else
+			{
+				isSuccessful = _syncAction.synchronize( idAppointment, sync._nIdForm, sync._setApplicationNumbers );
+
+				if( !isSuccessful )
+				{
+					AppLogService.error( "ANTS synchronization of appointment {} failed", idAppointment );
+				}
+			}
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( "ANTS synchronization of appointment {} failed", idAppointment, e );
+			context.setLastError( e.toString( ) );
+		}
+		finally
+		{
+			AntsExecutionContext.end( );
+		}
+
+		for( ISyncListener listener : sync._listListeners )
+		{
+			try
+			{
+				listener.onSynchronized( isSuccessful, context );
+			}
+			catch( Exception e )
+			{
+				AppLogService.error( "Failed to save the outcome of the ANTS synchronization of appointment {}", idAppointment, e );
+			}
+		}
+	}
+
+	/**
+	 * Get the number of synchronizations waiting for the end of their debounce window
+	 * 
+	 * @return the number of pending synchronizations
+	 */
+	public int getPendingCount( )
+	{
+		return _mapPendingSyncs.size( );
+	}
+
+	/**
+	 * Synchronize the ANTS appointments of an appointment with the task's service, within the execution context of
+	 * the synchronization
+	 * 
+	 * @param idAppointment
+	 *            ID of the appointment
+	 * @param idForm
+	 *            ID of the Form of the appointment
+	 * @param applicationNumbers
+	 *            The application numbers the appointment had during the debounce window
+	 * @return true if ANTS is up to date
+	 */
+	private static boolean synchronize( int idAppointment, int idForm, Collection<String> applicationNumbers )
+	{
+		ITaskAntsAppointmentService antsAppointmentService = SpringContextService.getBean( TaskAntsAppointmentService.BEAN_SERVICE );
+
+		return antsAppointmentService.synchronizeAntsAppointment( idAppointment, idForm, applicationNumbers );
+	}
+}
@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.ThreadContext;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.tracing.AntsSpan;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.tracing.AntsTracer;
+
+/**
+ * Context of the execution of an ANTS task. It is bound to the thread running the task, so that the
+ * REST layer can report what happened during the ANTS calls (rejected calls, etc.) without changing the
+ * signature of every method. Tasks run by the ANTS executor inherit the context of the thread submitting them
+ */
+public final class AntsExecutionContext
+{
+	private static final ThreadLocal<AntsExecutionContext> CURRENT_CONTEXT = new ThreadLocal<>( );
+
+	/**
+	 * Key of the correlation ID in the logging context, to be used as %X{ants.correlationId} in the log patterns
+	 */
+	public static final String LOG_KEY_CORRELATION_ID = "ants.correlationId";
+
+	/**
+	 * ID correlating the logs, the history, the spans and the ANTS calls of this execution
+	 */
+	private final String _strCorrelationId = AntsTracer.generateTraceId( );
+
+	/**
+	 * Whether an ANTS call was rejected because of the concurrency limit
+	 */
+	private volatile boolean _bCallRejected;
+
+	/**
+	 * Total time the ANTS calls waited for the rate limit, in milliseconds
+	 */
+	private final AtomicLong _lRateLimitWaitMillis = new AtomicLong( );
+
+	/**
+	 * Time (System.nanoTime) at which the execution must give the control back, 0 if it has no deadline
+	 */
+	private volatile long _lDeadlineNanos;
+
+	/**
+	 * Outcome of the ANTS calls still running when the deadline was reached
+	 */
+	private volatile CompletableFuture<Boolean> _deferredOutcome;
+
+	/**
+	 * Last error returned by an ANTS call
+	 */
+	private volatile String _strLastError;
+
+	/**
+	 * ID of the Form of the appointment being processed, 0 if unknown
+	 */
+	private volatile int _nIdForm;
+
+	/**
+	 * ID of the appointment processed by this execution
+	 */
+	private volatile int _nIdAppointment;
+
+	/**
+	 * Time (System.nanoTime) at which the execution started
+	 */
+	private final long _lStartNanos = System.nanoTime( );
+
+	/**
+	 * Details (endpoint, HTTP status, latency) of the ANTS calls made during this execution
+	 */
+	private final ConcurrentLinkedQueue<String> _queueCalls = new ConcurrentLinkedQueue<>( );
+
+	/**
+	 * Highest HTTP status returned by the ANTS calls, 0 if none answered
+	 */
+	private final AtomicInteger _nHttpStatus = new AtomicInteger( );
+
+	/**
+	 * Private constructor
+	 */
+	private AntsExecutionContext( )
+	{
+	}
+
+	/**
+	 * Start a new context and bind it to the current thread
+	 * 
+	 * @return the new context
+	 */
+	public static AntsExecutionContext start( )
+	{
+		AntsExecutionContext context = new AntsExecutionContext( );
+		CURRENT_CONTEXT.set( context );
+		ThreadContext.put( LOG_KEY_CORRELATION_ID, context._strCorrelationId );
+
+		return context;
+	}
+
+	/**
+	 * Get the context bound to the current thread
+	 * 
+	 * @return the current context, or null if no ANTS task is being executed by this thread
+	 */
+	public static AntsExecutionContext getCurrent( )
+	{
+		return CURRENT_CONTEXT.get( );
+	}
+
+	/**
+	 * Unbind the context from the current thread
+	 */
+	public static void end( )
+	{
+		CURRENT_CONTEXT.remove( );
+		ThreadContext.remove( LOG_KEY_CORRELATION_ID );
+	}
+
+	/**
+	 * Wrap a task so that it runs with the context and the current span of the current thread, whichever thread runs it
+	 * 
+	 * @param task
+	 *            The task to wrap
+	 * @return the wrapped task
+	 */
+	public static <T> Callable<T> wrap( Callable<T> task )
+	{
+		final AntsExecutionContext context = getCurrent( );
+		final AntsSpan span = AntsTracer.getCurrentSpan( );
+
+		if ( context == null )
+		{
+			return task;
+		}
+		return ( ) -> {
+			AntsExecutionContext previousContext = getCurrent( );
+			AntsSpan previousSpan = AntsTracer.getCurrentSpan( );
+			CURRENT_CONTEXT.set( context );
+			ThreadContext.put( LOG_KEY_CORRELATION_ID, context._strCorrelationId );
+			AntsTracer.setCurrentSpan( span );
+			try
+			{
+				return task.call( );
+			}
+			finally
+			{
+				AntsTracer.setCurrentSpan( previousSpan );
+				if ( previousContext == null )
+				{
+					CURRENT_CONTEXT.remove( );
+					ThreadContext.remove( LOG_KEY_CORRELATION_ID );
+				}
+				else
+				{
+					CURRENT_CONTEXT.set( previousContext );
+					ThreadContext.put( LOG_KEY_CORRELATION_ID, previousContext._strCorrelationId );
+				}
+			}
+		};
+	}
+
+	/**
+	 * Check whether an ANTS call was rejected during this execution
+	 * 
+	 * @return true if a call was rejected
+	 */
+	public boolean isCallRejected( )
+	{
+		return _bCallRejected;
+	}
+
+	/**
+	 * Report that an ANTS call was rejected during this execution
+	 */
+	public void setCallRejected( )
+	{
+		_bCallRejected = true;
+	}
+
+	/**
+	 * Get the total time the ANTS calls of this execution waited for the rate limit
+	 * 
+	 * @return the time waited, in milliseconds
+	 */
+	public long getRateLimitWaitMillis( )
+	{
+		return _lRateLimitWaitMillis.get( );
+	}
+
+	/**
+	 * Report the time an ANTS call waited for the rate limit
+	 * 
+	 * @param lWaitMillis
+	 *            The time waited, in milliseconds
+	 */
+	public void addRateLimitWait( long lWaitMillis )
+	{
+		_lRateLimitWaitMillis.addAndGet( lWaitMillis );
+	}
+
+	/**
+	 * Set the time budget of the execution, starting now
+	 * 
+	 * @param lBudgetMillis
+	 *            The time budget, in milliseconds. 0 or less means no deadline
+	 */
+	public void setDeadline( long lBudgetMillis )
+	{
+		_lDeadlineNanos = lBudgetMillis > 0 ? System.nanoTime( ) + TimeUnit.MILLISECONDS.toNanos( lBudgetMillis ) : 0L;
+	}
+
+	/**
+	 * Check whether the execution has a deadline
+	 * 
+	 * @return true if the execution has a deadline
+	 */
+	public boolean hasDeadline( )
+	{
+		return _lDeadlineNanos != 0L;
+	}
+
+	/**
+	 * Get the time left before the deadline
+	 * 
+	 * @return the time left in nanoseconds (0 if the deadline is reached), or Long.MAX_VALUE if the execution has no deadline
+	 */
+	public long getRemainingNanos( )
+	{
+		if ( !hasDeadline( ) )
+		{
+			return Long.MAX_VALUE;
+		}
+		return Math.max( 0L, _lDeadlineNanos - System.nanoTime( ) );
+	}
+
+	/**
+	 * Report that the deadline was reached while ANTS calls were still running. They go on in the background
+	 * 
+	 * @param outcome
+	 *            The future outcome of the running ANTS calls
+	 */
+	public void defer( CompletableFuture<Boolean> outcome )
+	{
+		_deferredOutcome = outcome;
+	}
+
+	/**
+	 * Check whether the ANTS calls of this execution were deferred and are still running
+	 * 
+	 * @return true if the outcome of the execution is not known yet
+	 */
+	public boolean isDeferred( )
+	{
+		CompletableFuture<Boolean> outcome = _deferredOutcome;
+		return outcome != null && !outcome.isDone( );
+	}
+
+	/**
+	 * Get the outcome of the ANTS calls deferred when the deadline was reached
+	 * 
+	 * @return the future outcome, or null if the calls were not deferred
+	 */
+	public CompletableFuture<Boolean> getDeferredOutcome( )
+	{
+		return _deferredOutcome;
+	}
+
+	/**
+	 * Get the last error returned by an ANTS call of this execution
+	 * 
+	 * @return the last error, or null if no call failed
+	 */
+	public String getLastError( )
+	{
+		return _strLastError;
+	}
+
+	/**
+	 * Report the error returned by an ANTS call
+	 * 
+	 * @param strLastError
+	 *            The error
+	 */
+	public void setLastError( String strLastError )
+	{
+		_strLastError = strLastError;
+	}
+
+	/**
+	 * Get the time elapsed since the execution started
+	 * 
+	 * @return the time elapsed, in milliseconds
+	 */
+	public long getElapsedMillis( )
+	{
+		return TimeUnit.NANOSECONDS.toMillis( System.nanoTime( ) - _lStartNanos );
+	}
+
+	/**
+	 * Report an ANTS call made during this execution
+	 * 
+	 * @param strEndpoint
+	 *            The endpoint called
+	 * @param nHttpStatus
+	 *            The HTTP status of the response, 0 if no response was received
+	 * @param lLatencyMillis
+	 *            The latency of the call, in milliseconds
+	 */
+	public void recordCall( String strEndpoint, int nHttpStatus, long lLatencyMillis )
+	{
+		_queueCalls.add( strEndpoint + " " + nHttpStatus + " " + lLatencyMillis + "ms" );
+		_nHttpStatus.accumulateAndGet( nHttpStatus, Math::max );
+	}
+
+	/**
+	 * Get the amount of ANTS calls made during this execution
+	 * 
+	 * @return the amount of calls
+	 */
+	public int getCallCount( )
+	{
+		return _queueCalls.size( );
+	}
+
+	/**
+	 * Get the details of the ANTS calls made during this execution, in the order they ended
+	 * 
+	 * @return the endpoint, HTTP status and latency of each call, separated by commas
+	 */
+	public String getCallDetails( )
+	{
+		return String.join( ", ", _queueCalls );
+	}
+
+	/**
+	 * Get the highest HTTP status returned by the ANTS calls of this execution
+	 * 
+	 * @return the highest HTTP status, 0 if no call received a response
+	 */
+	public int getHttpStatus( )
+	{
+		return _nHttpStatus.get( );
+	}
+
+	/**
+	 * Get the ID of the Form of the appointment processed by this execution
+	 * 
+	 * @return the ID of the Form, 0 if unknown
+	 */
+	public int getIdForm( )
+	{
+		return _nIdForm;
+	}
+
+	/**
+	 * Set the ID of the Form of the appointment processed by this execution
+	 * 
+	 * @param nIdForm
+	 *            The ID of the Form
+	 */
+	public void setIdForm( int nIdForm )
+	{
+		_nIdForm = nIdForm;
+	}
+
+	/**
+	 * Get the ID of the appointment processed by this execution
+	 * 
+	 * @return the ID of the appointment, 0 if unknown
+	 */
+	public int getIdAppointment( )
+	{
+		return _nIdAppointment;
+	}
+
+	/**
+	 * Set the ID of the appointment processed by this execution
+	 * 
+	 * @param nIdAppointment
+	 *            The ID of the appointment
+	 */
+	public void setIdAppointment( int nIdAppointment )
+	{
+		_nIdAppointment = nIdAppointment;
+	}
+
+	/**
+	 * Get the ID correlating the logs, the history, the spans and the ANTS calls of this execution
+	 * 
+	 * @return the correlation ID, 32 hexadecimal characters
+	 */
+	public String getCorrelationId( )
+	{
+		return _strCorrelationId;
+	}
+}
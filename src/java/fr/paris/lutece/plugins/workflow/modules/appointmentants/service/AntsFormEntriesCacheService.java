@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.appointment.service.EntryService;
+import fr.paris.lutece.plugins.appointment.service.FormService;
+import fr.paris.lutece.plugins.genericattributes.business.Entry;
+import fr.paris.lutece.portal.service.cache.AbstractCacheableService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+import fr.paris.lutece.util.ReferenceList;
+
+/**
+ * Cache of the appointment Forms and of their titled entries, displayed in the configuration page of the ANTS tasks.
+ * The lists are removed from the cache when a Form changes, and are reloaded after a short time, since the changes of
+ * the entries of a Form aren't notified
+ */
+public final class AntsFormEntriesCacheService extends AbstractCacheableService<String, AntsFormEntriesCacheService.CachedList>
+{
+	private static final String SERVICE_NAME = "ANTS Appointment Form Entries Cache Service";
+	private static final String PROPERTY_FORMS_CACHE_TTL = "ants.forms.cache.ttl";
+	private static final long DEFAULT_FORMS_CACHE_TTL = 60L;
+	private static final String KEY_FORMS = "ants_forms";
+	private static final String KEY_ENTRIES_PREFIX = "ants_form_entries_";
+
+	private static final AntsFormEntriesCacheService INSTANCE = new AntsFormEntriesCacheService( );
+
+	/**
+	 * List of Forms or of entries, with the time it was loaded
+	 */
+	static final class CachedList
+	{
+		private final ReferenceList _list;
+		private final long _lCreationMillis;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param list
+		 *            The list of Forms or of entries
+		 */
+		CachedList( ReferenceList list )
+		{
+			_list = list;
+			_lCreationMillis = System.currentTimeMillis( );
+		}
+	}
+
+	/**
+	 * Private constructor
+	 */
+	private AntsFormEntriesCacheService( )
+	{
+		initCache( );
+	}
+
+	/**
+	 * Get the instance of the service
+	 * 
+	 * @return the instance of the service
+	 */
+	public static AntsFormEntriesCacheService getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName( )
+	{
+		return SERVICE_NAME;
+	}
+
+	/**
+	 * Get the list of the appointment Forms
+	 * 
+	 * @return the Forms, with their ID as codes and their title as names
+	 */
+	public ReferenceList getForms( )
+	{
+		ReferenceList formsList = getFreshList( KEY_FORMS );
+
+		if ( formsList == null )
+		{
+			formsList = FormService.findAllInReferenceList( );
+			putInCache( KEY_FORMS, new CachedList( formsList ) );
+		}
+		return formsList;
+	}
+
+	/**
+	 * Get the entries of a Form that have a title. Their title is used to identify them in a drop-down list
+	 * 
+	 * @param idForm
+	 *            ID of the Form
+	 * @return the entries, with their ID as codes and their title as names
+	 */
+	public ReferenceList getEntries( int idForm )
+	{
+		String strKey = KEY_ENTRIES_PREFIX + idForm;
+		ReferenceList entriesList = getFreshList( strKey );
+
+		if ( entriesList == null )
+		{
+			entriesList = new ReferenceList( );
+
+			for ( Entry entry : EntryService.findListEntry( idForm ) )
+			{
+				if ( StringUtils.isNotEmpty( entry.getTitle( ) ) )
+				{
+					entriesList.addItem( entry.getIdEntry( ), entry.getTitle( ) );
+				}
+			}
+			putInCache( strKey, new CachedList( entriesList ) );
+		}
+		return entriesList;
+	}
+
+	/**
+	 * Get a list from the cache, if it was loaded less than the time to live ago
+	 * 
+	 * @param strKey
+	 *            The key of the list
+	 * @return the list, or null if it isn't in the cache or is too old
+	 */
+	private ReferenceList getFreshList( String strKey )
+	{
+		CachedList cachedList = getFromCache( strKey );
+		long lMinCreationMillis = System.currentTimeMillis( )
+				- TimeUnit.SECONDS.toMillis( AppPropertiesService.getPropertyLong( PROPERTY_FORMS_CACHE_TTL, DEFAULT_FORMS_CACHE_TTL ) );
+
+		if ( cachedList == null || cachedList._lCreationMillis < lMinCreationMillis )
+		{
+			return null;
+		}
+		return cachedList._list;
+	}
+
+	/**
+	 * Remove the list of the Forms from the cache
+	 */
+	public void removeForms( )
+	{
+		removeKey( KEY_FORMS );
+	}
+
+	/**
+	 * Remove the entries of a Form from the cache
+	 * 
+	 * @param idForm
+	 *            ID of the Form
+	 */
+	public void removeEntries( int idForm )
+	{
+		removeKey( KEY_ENTRIES_PREFIX + idForm );
+	}
+}
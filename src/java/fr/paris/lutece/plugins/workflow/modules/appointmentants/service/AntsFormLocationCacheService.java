@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import fr.paris.lutece.plugins.appointment.business.localization.Localization;
+import fr.paris.lutece.plugins.appointment.service.LocalizationService;
+import fr.paris.lutece.portal.service.cache.AbstractCacheableService;
+
+/**
+ * Cache of the address of each appointment Form, sent to ANTS as the location of the appointments
+ */
+public final class AntsFormLocationCacheService extends AbstractCacheableService<String, String>
+{
+	private static final String SERVICE_NAME = "ANTS Appointment Form Location Cache Service";
+	private static final String KEY_PREFIX = "ants_form_location_";
+
+	private static final AntsFormLocationCacheService INSTANCE = new AntsFormLocationCacheService( );
+
+	/**
+	 * Private constructor
+	 */
+	private AntsFormLocationCacheService( )
+	{
+		initCache( );
+	}
+
+	/**
+	 * Get the instance of the service
+	 * 
+	 * @return the instance of the service
+	 */
+	public static AntsFormLocationCacheService getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName( )
+	{
+		return SERVICE_NAME;
+	}
+
+	/**
+	 * Get the address of a Form
+	 * 
+	 * @param idForm
+	 *            ID of the Form
+	 * @return the address of the Form, or an empty String if it has none
+	 */
+	public String getLocation( int idForm )
+	{
+		String strKey = KEY_PREFIX + idForm;
+		String strLocation = getFromCache( strKey );
+
+		if ( strLocation == null )
+		{
+			Localization localization = LocalizationService.findLocalizationWithFormId( idForm );
+			strLocation = localization != null && localization.getAddress( ) != null ? localization.getAddress( ) : "";
+			putInCache( strKey, strLocation );
+		}
+		return strLocation;
+	}
+
+	/**
+	 * Remove the address of a Form from the cache
+	 * 
+	 * @param idForm
+	 *            ID of the Form
+	 */
+	public void removeLocation( int idForm )
+	{
+		removeKey( KEY_PREFIX + idForm );
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.sql.Timestamp;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.ITaskAntsAppointmentOperationLeaseDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentOperationLeaseDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Registry of the ANTS operations in flight (creation or deletion of the ANTS appointment of an application number
+ * for a meeting point). Concurrent identical operations, coming from double clicks or parallel workflow actions,
+ * share the execution and the outcome of the first one instead of calling ANTS again. When enabled, a lease taken
+ * in the database extends the deduplication to the other nodes of the cluster
+ *
+ */
+public final class AntsSingleFlightRegistry
+{
+	private static final String PROPERTY_LEASE_ENABLED = "ants.singleflight.lease.enabled";
+	private static final String PROPERTY_LEASE_DURATION = "ants.singleflight.lease.duration";
+
+	private static final String OPERATION_ADD = "ADD";
+	private static final String OPERATION_DELETE = "DELETE";
+	private static final char KEY_SEPARATOR = '|';
+
+	private static final AntsSingleFlightRegistry INSTANCE = new AntsSingleFlightRegistry(
+			AppPropertiesService.getPropertyBoolean( PROPERTY_LEASE_ENABLED, false ),
+			AppPropertiesService.getPropertyLong( PROPERTY_LEASE_DURATION, 120L ) );
+
+	/**
+	 * Outcome shared with the operations already in flight on another node
+	 */
+	private static final CompletableFuture<Boolean> FLIGHT_ON_OTHER_NODE = CompletableFuture.completedFuture( Boolean.FALSE );
+
+	private final ConcurrentMap<String, CompletableFuture<Boolean>> _mapFlights = new ConcurrentHashMap<>( );
+	private final boolean _bLeaseEnabled;
+	private final long _lLeaseDurationMillis;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param bLeaseEnabled
+	 *            Whether the operations are also leased in the database, for the other nodes of the cluster
+	 * @param lLeaseDurationSeconds
+	 *            Duration of a lease, after which it is considered as abandoned
+	 */
+	AntsSingleFlightRegistry( boolean bLeaseEnabled, long lLeaseDurationSeconds )
+	{
+		_bLeaseEnabled = bLeaseEnabled;
+		_lLeaseDurationMillis = TimeUnit.SECONDS.toMillis( Math.max( 1L, lLeaseDurationSeconds ) );
+	}
+
+	/**
+	 * Get the instance of the registry
+	 * 
+	 * @return the registry
+	 */
+	public static AntsSingleFlightRegistry getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Build the key of an operation
+	 * 
+	 * @param isDeletingAppointment
+	 *            Whether the ANTS appointment is deleted (true) or created (false)
+	 * @param strApplicationNumber
+	 *            The ANTS application number
+	 * @param strMeetingPointId
+	 *            The value of the "meeting_point_id" of the appointment
+	 * @return the key of the operation
+	 */
+	public static String buildKey( boolean isDeletingAppointment, String strApplicationNumber, String strMeetingPointId )
+	{
+		return ( isDeletingAppointment ? OPERATION_DELETE : OPERATION_ADD ) + KEY_SEPARATOR + strMeetingPointId + KEY_SEPARATOR + strApplicationNumber;
+	}
+
+	/**
+	 * Register an operation about to be executed. If an identical operation is already in flight, the flight is not
+	 * registered and the outcome of the operation in flight is returned instead. Otherwise the caller owns the
+	 * operation and must complete the flight with its outcome, which unregisters it
+	 * 
+	 * @param strKey
+	 *            The key of the operation
+	 * @param flight
+	 *            The future outcome of the operation, completed by the caller
+	 * @return null if the caller owns the operation, or the future outcome of the identical operation in flight
+	 */
+	public CompletableFuture<Boolean> register( String strKey, CompletableFuture<Boolean> flight )
+	{
+		CompletableFuture<Boolean> flightInProgress = _mapFlights.putIfAbsent( strKey, flight );
+
+		if( flightInProgress != null )
+		{
+			AppLogService.info( "ANTS operation {} already in flight, its outcome is shared", strKey );
+			return flightInProgress;
+		}
+
+		boolean isLeased = false;
+		if( _bLeaseEnabled )
+		{
+			isLeased = acquireLease( strKey );
+
+			if( !isLeased )
+			{
+				_mapFlights.remove( strKey, flight );
+				AppLogService.info( "ANTS operation {} already in flight on another node", strKey );
+				reportOperationOnOtherNode( strKey );
+				return FLIGHT_ON_OTHER_NODE;
+			}
+		}
+
+		final boolean isLeaseToRelease = isLeased;
+		flight.whenComplete( ( isSuccessful, e ) -> {
+			_mapFlights.remove( strKey, flight );
+
+			if( isLeaseToRelease )
+			{
+				releaseLease( strKey );
+			}
+		} );
+		return null;
+	}
+
+	/**
+	 * Get the amount of operations in flight on this node
+	 * 
+	 * @return the amount of operations in flight
+	 */
+	public int getInFlight( )
+	{
+		return _mapFlights.size( );
+	}
+
+	/**
+	 * Take the lease of an operation in the database, replacing an abandoned lease
+	 * 
+	 * @param strKey
+	 *            The key of the operation
+	 * @return true if the lease was taken, false if another node holds it. A failing database doesn't prevent the
+	 *         operation
+	 */
+	private boolean acquireLease( String strKey )
+	{
+		try
+		{
+			ITaskAntsAppointmentOperationLeaseDAO leaseDAO = SpringContextService.getBean( TaskAntsAppointmentOperationLeaseDAO.BEAN_NAME );
+			long lNow = System.currentTimeMillis( );
+			Timestamp leaseExpiration = new Timestamp( lNow + _lLeaseDurationMillis );
+
+			if( leaseDAO.insertLease( strKey, AntsAppointmentUtils.getNodeId( ), leaseExpiration, WorkflowAppointmentAntsPlugin.getPlugin( ) ) )
+			{
+				return true;
+			}
+			leaseDAO.deleteExpiredLease( strKey, new Timestamp( lNow ), WorkflowAppointmentAntsPlugin.getPlugin( ) );
+
+			return leaseDAO.insertLease( strKey, AntsAppointmentUtils.getNodeId( ), leaseExpiration, WorkflowAppointmentAntsPlugin.getPlugin( ) );
+		}
+		catch( RuntimeException e )
+		{
+			AppLogService.error( "Failed to take the lease of the ANTS operation {}", strKey, e );
+			return true;
+		}
+	}
+
+	/**
+	 * Release the lease of an operation in the database
+	 * 
+	 * @param strKey
+	 *            The key of the operation
+	 */
+	private static void releaseLease( String strKey )
+	{
+		try
+		{
+			ITaskAntsAppointmentOperationLeaseDAO leaseDAO = SpringContextService.getBean( TaskAntsAppointmentOperationLeaseDAO.BEAN_NAME );
+			leaseDAO.deleteLease( strKey, AntsAppointmentUtils.getNodeId( ), WorkflowAppointmentAntsPlugin.getPlugin( ) );
+		}
+		catch( RuntimeException e )
+		{
+			// The lease expires by itself
+			AppLogService.error( "Failed to release the lease of the ANTS operation {}", strKey, e );
+		}
+	}
+
+	/**
+	 * Report to the execution's context that an operation is in flight on another node, so that it is retried later
+	 * 
+	 * @param strKey
+	 *            The key of the operation
+	 */
+	private static void reportOperationOnOtherNode( String strKey )
+	{
+		AntsExecutionContext context = AntsExecutionContext.getCurrent( );
+
+		if( context != null )
+		{
+			context.setLastError( strKey + ": operation in flight on another node" );
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.pojo.AntsStatusResponsePOJO;
+import fr.paris.lutece.portal.service.cache.AbstractCacheableService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Short-lived cache of the status of the ANTS application numbers checked by the front-office validation. The status
+ * of a number valid for creation is kept for a short time, and used once by the ANTS creation task of the booking
+ * instead of calling ANTS again
+ */
+public final class AntsStatusCacheService extends AbstractCacheableService<String, AntsStatusCacheService.CachedStatus>
+{
+	private static final String SERVICE_NAME = "ANTS Application Number Status Cache Service";
+	private static final String PROPERTY_STATUS_CACHE_TTL = "ants.status.cache.ttl";
+	private static final long DEFAULT_STATUS_CACHE_TTL = 120L;
+	private static final char KEY_SEPARATOR = '|';
+
+	private static final AntsStatusCacheService INSTANCE = new AntsStatusCacheService( );
+
+	/**
+	 * Status of an application number, with the time it was retrieved
+	 */
+	static final class CachedStatus
+	{
+		private final AntsStatusResponsePOJO _status;
+		private final long _lCreationMillis;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param status
+		 *            The status of the application number
+		 */
+		CachedStatus( AntsStatusResponsePOJO status )
+		{
+			_status = status;
+			_lCreationMillis = System.currentTimeMillis( );
+		}
+	}
+
+	/**
+	 * Private constructor
+	 */
+	private AntsStatusCacheService( )
+	{
+		initCache( );
+	}
+
+	/**
+	 * Get the instance of the service
+	 * 
+	 * @return the instance of the service
+	 */
+	public static AntsStatusCacheService getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName( )
+	{
+		return SERVICE_NAME;
+	}
+
+	/**
+	 * Keep the status of an application number for a meeting point
+	 * 
+	 * @param strMeetingPointId
+	 *            The "meeting_point_id" of the status call
+	 * @param strApplicationNumber
+	 *            The application number
+	 * @param status
+	 *            The status of the application number
+	 */
+	public void putStatus( String strMeetingPointId, String strApplicationNumber, AntsStatusResponsePOJO status )
+	{
+		putInCache( buildKey( strMeetingPointId, strApplicationNumber ), new CachedStatus( status ) );
+	}
+
+	/**
+	 * Take the fresh status of application numbers for a meeting point. A status is removed from the cache once taken,
+	 * since the ANTS appointments of its application number are about to change
+	 * 
+	 * @param strMeetingPointId
+	 *            The "meeting_point_id" of the status call
+	 * @param applicationNumberList
+	 *            The application numbers
+	 * @return the fresh status found, with the application numbers as keys
+	 */
+	public Map<String, AntsStatusResponsePOJO> takeStatus( String strMeetingPointId, List<String> applicationNumberList )
+	{
+		long lMinCreationMillis = System.currentTimeMillis( )
+				- TimeUnit.SECONDS.toMillis( AppPropertiesService.getPropertyLong( PROPERTY_STATUS_CACHE_TTL, DEFAULT_STATUS_CACHE_TTL ) );
+		Map<String, AntsStatusResponsePOJO> mapStatus = new LinkedHashMap<>( );
+
+		for( String strApplicationNumber : applicationNumberList )
+		{
+			String strKey = buildKey( strMeetingPointId, strApplicationNumber );
+			CachedStatus cachedStatus = getFromCache( strKey );
+
+			if( cachedStatus != null )
+			{
+				removeKey( strKey );
+
+				if( cachedStatus._lCreationMillis >= lMinCreationMillis )
+				{
+					mapStatus.put( strApplicationNumber, cachedStatus._status );
+				}
+			}
+		}
+		return mapStatus;
+	}
+
+	/**
+	 * Build the key of the status of an application number
+	 * 
+	 * @param strMeetingPointId
+	 *            The "meeting_point_id" of the status call
+	 * @param strApplicationNumber
+	 *            The application number
+	 * @return the key
+	 */
+	private static String buildKey( String strMeetingPointId, String strApplicationNumber )
+	{
+		return strMeetingPointId + KEY_SEPARATOR + strApplicationNumber;
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfig;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfigDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsSettings;
+import fr.paris.lutece.portal.service.init.AppInit;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+import fr.paris.lutece.util.httpaccess.HttpAccess;
+import fr.paris.lutece.util.httpaccess.HttpAccessException;
+import fr.paris.lutece.util.httpaccess.InvalidResponseStatus;
+
+/**
+ * Warm-up of the resources used by the ANTS tasks, so that the first ANTS actions after a deploy are as fast
+ * as the following ones: task configurations, locations of the Forms, JSON readers and connection to the ANTS API
+ */
+public final class AntsWarmUpService
+{
+	private static final String PROPERTY_WARMUP_ENABLED = "ants.warmup.enabled";
+	private static final String PROPERTY_WARMUP_CONNECTION_ENABLED = "ants.warmup.connection.enabled";
+	private static final String PROPERTY_WARMUP_START_TIMEOUT = "ants.warmup.start.timeout";
+	private static final long DEFAULT_START_TIMEOUT = 300L;
+	private static final long START_POLLING_INTERVAL = 1000L;
+
+	private static final String THREAD_NAME = WorkflowAppointmentAntsPlugin.PLUGIN_NAME + "-warmup";
+	private static final String JSON_STATUS_WARMUP = "{\"warmup\":{}}";
+	private static final String JSON_EMPTY_OBJECT = "{}";
+
+	/**
+	 * Private constructor
+	 */
+	private AntsWarmUpService( )
+	{
+	}
+
+	/**
+	 * Start the warm-up in a background thread. The plugins are initialized before the Spring context, so the
+	 * warm-up waits for the webapp to be loaded before touching the appointment services
+	 */
+	public static void start( )
+	{
+		if ( !AppPropertiesService.getPropertyBoolean( PROPERTY_WARMUP_ENABLED, true ) )
+		{
+			return;
+		}
+
+		Thread thread = new Thread( AntsWarmUpService::waitAndWarmUp, THREAD_NAME );
+		thread.setDaemon( true );
+		thread.setPriority( Thread.MIN_PRIORITY );
+		thread.start( );
+	}
+
+	/**
+	 * Wait for the webapp to be loaded, then warm up the resources
+	 */
+	private static void waitAndWarmUp( )
+	{
+		long lTimeout = System.currentTimeMillis( )
+				+ TimeUnit.SECONDS.toMillis( AppPropertiesService.getPropertyLong( PROPERTY_WARMUP_START_TIMEOUT, DEFAULT_START_TIMEOUT ) );
+
+		try
+		{
+			while ( !AppInit.isWebappSuccessfullyLoaded( ) )
+			{
+				if ( System.currentTimeMillis( ) > lTimeout )
+				{
+					AppLogService.info( "ANTS warm-up skipped: the webapp wasn't loaded in time" );
+					return;
+				}
+				Thread.sleep( START_POLLING_INTERVAL );
+			}
+			warmUp( );
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( "ANTS warm-up failed", e );
+		}
+	}
+
+	/**
+	 * Warm up the resources used by the ANTS tasks, and log the time spent on each of them
+	 */
+	public static void warmUp( )
+	{
+		long lStart = System.nanoTime( );
+
+		// Task configurations and locations of the Forms
+		List<TaskAntsAppointmentConfig> listConfigs = new TaskAntsAppointmentConfigDAO( ).loadAll( );
+		Set<Integer> setIdForms = new TreeSet<>( );
+		for ( TaskAntsAppointmentConfig config : listConfigs )
+		{
+			setIdForms.add( config.getIdForm( ) );
+		}
+		long lConfigsEnd = System.nanoTime( );
+
+		for ( Integer idForm : setIdForms )
+		{
+			AntsFormLocationCacheService.getInstance( ).getLocation( idForm );
+		}
+		long lLocationsEnd = System.nanoTime( );
+
+		// Loading the service resolves its properties and the token, parsing builds the JSON readers
+		warmUpJsonReaders( );
+		long lJsonEnd = System.nanoTime( );
+
+		boolean isConnected = AppPropertiesService.getPropertyBoolean( PROPERTY_WARMUP_CONNECTION_ENABLED, true ) && warmUpConnection( );
+		long lEnd = System.nanoTime( );
+
+		AppLogService.info( "ANTS warm-up done in {} ms: {} task config(s) in {} ms, {} Form location(s) in {} ms, JSON readers in {} ms, connection {} in {} ms",
+				toMillis( lEnd - lStart ), listConfigs.size( ), toMillis( lConfigsEnd - lStart ), setIdForms.size( ), toMillis( lLocationsEnd - lConfigsEnd ),
+				toMillis( lJsonEnd - lLocationsEnd ), isConnected ? "opened" : "not opened", toMillis( lEnd - lJsonEnd ) );
+	}
+
+	/**
+	 * Build the JSON readers of the ANTS responses
+	 */
+	private static void warmUpJsonReaders( )
+	{
+		try
+		{
+			TaskAntsAppointmentService.getStatusResponseAsMap( JSON_STATUS_WARMUP );
+			TaskAntsAppointmentService.isAppointmentCreationSuccessful( JSON_EMPTY_OBJECT );
+			TaskAntsAppointmentService.isAppointmentDeletionSuccessful( JSON_EMPTY_OBJECT );
+		}
+		catch( Exception e )
+		{
+			AppLogService.debug( "ANTS warm-up: failed to build the JSON readers", e );
+		}
+	}
+
+	/**
+	 * Open a connection to the ANTS API, so that the DNS resolution and the TLS setup are done before the first
+	 * ANTS action. The request is sent without token, so it isn't counted in the ANTS quotas
+	 * 
+	 * @return true if the ANTS API answered, even with an error status
+	 */
+	private static boolean warmUpConnection( )
+	{
+		try
+		{
+			new HttpAccess( ).doGet( AntsSettings.getCurrent( ).getBaseUrl( ) );
+			return true;
+		}
+		catch( InvalidResponseStatus e )
+		{
+			// An error status still means the connection was established
+			return true;
+		}
+		catch( HttpAccessException e )
+		{
+			AppLogService.debug( "ANTS warm-up: failed to connect to the ANTS API", e );
+			return false;
+		}
+	}
+
+	/**
+	 * Convert a duration to milliseconds
+	 * 
+	 * @param lNanos
+	 *            The duration, in nanoseconds
+	 * @return the duration, in milliseconds
+	 */
+	private static long toMillis( long lNanos )
+	{
+		return TimeUnit.NANOSECONDS.toMillis( lNanos );
+	}
+}
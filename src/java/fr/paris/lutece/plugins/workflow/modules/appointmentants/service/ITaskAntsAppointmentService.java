@@ -33,8 +33,15 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import javax.servlet.http.HttpServletRequest;
 
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentSummary;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history.TaskAntsAppointmentHistory;
 
 public interface ITaskAntsAppointmentService {
@@ -42,6 +49,126 @@ public interface ITaskAntsAppointmentService {
 	public boolean createAntsAppointment( HttpServletRequest request, int idAppointment, int idTask, TaskAntsAppointmentHistory antsAppointmentHistory );
 	
 	public boolean deleteAntsAppointment( HttpServletRequest request, int idAppointment, int idTask, TaskAntsAppointmentHistory antsAppointmentHistory );
+
+	/**
+	 * Retry the creation or the deletion of the ANTS appointments of a list of appointments, as a single batch, for
+	 * the application numbers saved in the history of their failed executions
+	 * 
+	 * @param mapAntsApplicationNumbers
+	 * 				The ANTS application numbers saved in the task's history, with the ID of the appointments as keys
+	 * @param mapSummaries
+	 * 				The details of the appointments, as loaded by findAppointmentSummaries
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointments are deleted (true) or created (false)
+	 * @return
+	 * 				The outcome of each appointment, with the ID of the appointments as keys
+	 */
+	public Map<Integer, TaskAntsAppointmentHistory> retryAntsAppointments( Map<Integer, String> mapAntsApplicationNumbers,
+			Map<Integer, TaskAntsAppointmentSummary> mapSummaries, boolean isDeletingAppointment );
+
+	/**
+	 * Load the Form, the starting date and the cancellation state of a list of appointments, with set-based queries
+	 * 
+	 * @param listIdAppointment
+	 * 				IDs of the appointments to load
+	 * @return
+	 * 				The details of the appointments, with their ID as keys. Appointments that don't exist anymore
+	 * 				are not present
+	 */
+	public Map<Integer, TaskAntsAppointmentSummary> findAppointmentSummaries( Collection<Integer> listIdAppointment );
+
+	/**
+	 * Create the ANTS appointments of a list of appointments, as a single batch
+	 * 
+	 * @param request
+	 * 				request to use
+	 * @param listIdAppointment
+	 * 				IDs of the appointments to process
+	 * @param idTask
+	 * 				ID of the workflow task calling this method
+	 * @return
+	 * 				The outcome of each appointment (success state and ANTS application numbers), with the ID
+	 * 				of the appointments as keys
+	 */
+	public Map<Integer, TaskAntsAppointmentHistory> createAntsAppointments( HttpServletRequest request, List<Integer> listIdAppointment, int idTask );
+
+	/**
+	 * Delete the ANTS appointments of a list of appointments, as a single batch
+	 * 
+	 * @param request
+	 * 				request to use
+	 * @param listIdAppointment
+	 * 				IDs of the appointments to process
+	 * @param idTask
+	 * 				ID of the workflow task calling this method
+	 * @return
+	 * 				The outcome of each appointment (success state and ANTS application numbers), with the ID
+	 * 				of the appointments as keys
+	 */
+	public Map<Integer, TaskAntsAppointmentHistory> deleteAntsAppointments( HttpServletRequest request, List<Integer> listIdAppointment, int idTask );
+
+	/**
+	 * Create the ANTS appointments of a list of appointments asynchronously. The data of the appointments is
+	 * loaded by the calling thread, the ANTS calls are made by the executor
+	 * 
+	 * @param request
+	 * 				request to use
+	 * @param listIdAppointment
+	 * 				IDs of the appointments to process
+	 * @param idTask
+	 * 				ID of the workflow task calling this method
+	 * @param executor
+	 * 				The executor making the ANTS calls
+	 * @return
+	 * 				The future outcome of each appointment, with the ID of the appointments as keys
+	 */
+	public CompletableFuture<Map<Integer, TaskAntsAppointmentHistory>> createAntsAppointmentsAsync( HttpServletRequest request, List<Integer> listIdAppointment,
+			int idTask, Executor executor );
+
+	/**
+	 * Delete the ANTS appointments of a list of appointments asynchronously. The data of the appointments is
+	 * loaded by the calling thread, the ANTS calls are made by the executor
+	 * 
+	 * @param request
+	 * 				request to use
+	 * @param listIdAppointment
+	 * 				IDs of the appointments to process
+	 * @param idTask
+	 * 				ID of the workflow task calling this method
+	 * @param executor
+	 * 				The executor making the ANTS calls
+	 * @return
+	 * 				The future outcome of each appointment, with the ID of the appointments as keys
+	 */
+	public CompletableFuture<Map<Integer, TaskAntsAppointmentHistory>> deleteAntsAppointmentsAsync( HttpServletRequest request, List<Integer> listIdAppointment,
+			int idTask, Executor executor );
 	
 	public int getAntsApplicationFieldId( int idTask );
+
+	/**
+	 * Get the ANTS application numbers of an appointment, from the Entry set in the configuration of the ANTS tasks
+	 * of its Form
+	 * 
+	 * @param idAppointment
+	 * 				ID of the appointment
+	 * @param idForm
+	 * 				ID of the Form of the appointment
+	 * @return
+	 * 				The ANTS application numbers, empty if there is none or if no ANTS task is configured for the Form
+	 */
+	public List<String> getAntsApplicationNumbers( int idAppointment, int idForm );
+
+	/**
+	 * Synchronize the ANTS appointments of an appointment with its current state, sending only the calls needed
+	 * 
+	 * @param idAppointment
+	 * 				ID of the appointment
+	 * @param idForm
+	 * 				ID of the Form of the appointment, used when the appointment has been removed
+	 * @param knownApplicationNumbers
+	 * 				The application numbers the appointment had since the last synchronization
+	 * @return
+	 * 				true if ANTS is up to date, false otherwise
+	 */
+	public boolean synchronizeAntsAppointment( int idAppointment, int idForm, Collection<String> knownApplicationNumbers );
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Bounded pool of threads used to run ANTS operations in parallel (batches of appointments, chunks of status
+ * requests, calls of the tasks with a deadline, etc.). The pool is sized from the ceiling of the concurrency limit
+ * of the ANTS calls, so that it never caps the limit, and its queue is bounded: the operations that don't fit in it
+ * are rejected instead of waiting without end
+ */
+public final class TaskAntsAppointmentExecutor
+{
+	private static final String PROPERTY_EXECUTOR_THREADS = "ants.api.executor.threads";
+	private static final String PROPERTY_EXECUTOR_QUEUE_SIZE = "ants.api.executor.queue.size";
+	private static final String PROPERTY_CONCURRENCY_LIMIT_MAX = "ants.api.concurrency.limit.max";
+	private static final int DEFAULT_CONCURRENCY_LIMIT_MAX = 50;
+	private static final int DEFAULT_EXECUTOR_QUEUE_SIZE = 500;
+
+	private static final String THREAD_NAME_PREFIX = WorkflowAppointmentAntsPlugin.PLUGIN_NAME + "-executor-";
+	private static final long THREAD_KEEP_ALIVE_SECONDS = 60L;
+
+	private static final ExecutorService EXECUTOR = createExecutor( );
+
+	/**
+	 * Executor running the tasks in the thread submitting them
+	 */
+	private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+	/**
+	 * Private constructor
+	 */
+	private TaskAntsAppointmentExecutor( )
+	{
+	}
+
+	/**
+	 * Get the executor running the tasks in the thread submitting them
+	 * 
+	 * @return the executor
+	 */
+	public static Executor getDirectExecutor( )
+	{
+		return DIRECT_EXECUTOR;
+	}
+
+	/**
+	 * Get the executor running the ANTS operations
+	 * 
+	 * @return the executor
+	 */
+	public static ExecutorService getExecutor( )
+	{
+		return EXECUTOR;
+	}
+
+	/**
+	 * Run every task with the executor and wait for all of them to be done. When called from a thread of the executor
+	 * itself, the tasks are run sequentially in the current thread, so that nested calls can never wait for a thread
+	 * that is not available. The tasks run with the execution context of the calling thread
+	 * 
+	 * @param listTasks
+	 *            The tasks to run
+	 * @return the results of the tasks, in the same order as the tasks. The result of a task that failed is null
+	 */
+	public static <T> List<T> invokeAll( List<? extends Callable<T>> listTasks )
+	{
+		List<T> listResults = new ArrayList<>( listTasks.size( ) );
+
+		if ( isExecutorThread( ) || listTasks.size( ) == 1 )
+		{
+			for ( Callable<T> task : listTasks )
+			{
+				listResults.add( call( task ) );
+			}
+			return listResults;
+		}
+
+		List<Future<T>> listFutures = new ArrayList<>( listTasks.size( ) );
+		for ( Callable<T> task : listTasks )
+		{
+			Callable<T> contextTask = AntsExecutionContext.wrap( task );
+			try
+			{
+				listFutures.add( EXECUTOR.submit( contextTask ) );
+			}
+			catch( RejectedExecutionException e )
+			{
+				// The pool is full: the caller runs the task itself, which slows it down
+				listFutures.add( CompletableFuture.completedFuture( call( contextTask ) ) );
+			}
+		}
+		for ( Future<T> future : listFutures )
+		{
+			listResults.add( getResult( future ) );
+		}
+		return listResults;
+	}
+
+	/**
+	 * Get the executor to use for the asynchronous ANTS operations started by the current thread. From a thread of
+	 * the executor itself, the operations run in the current thread, so that waiting for their result can never
+	 * wait for a thread that is not available
+	 * 
+	 * @return the executor
+	 */
+	public static Executor getAsyncExecutor( )
+	{
+		return isExecutorThread( ) ? DIRECT_EXECUTOR : EXECUTOR;
+	}
+
+	/**
+	 * Run a task asynchronously, with the execution context of the calling thread. The stages depending on the
+	 * returned future that are triggered by its completion run with the same context. When the pool is full, the
+	 * task is not run: the future is completed exceptionally and the execution is reported as rejected
+	 * 
+	 * @param task
+	 *            The task to run
+	 * @param executor
+	 *            The executor running the task
+	 * @return the future result of the task, completed exceptionally if the task failed
+	 */
+	public static <T> CompletableFuture<T> supplyAsync( Callable<T> task, Executor executor )
+	{
+		CompletableFuture<T> future = new CompletableFuture<>( );
+
+		// The future is completed within the context, so that the dependent stages inherit it
+		Callable<Void> contextTask = AntsExecutionContext.wrap( ( ) -> {
+			try
+			{
+				future.complete( task.call( ) );
+			}
+			catch( Exception e )
+			{
+				future.completeExceptionally( e );
+			}
+			return null;
+		} );
+
+		try
+		{
+			executor.execute( ( ) -> call( contextTask ) );
+		}
+		catch( RejectedExecutionException e )
+		{
+			AntsExecutionContext context = AntsExecutionContext.getCurrent( );
+			if( context != null )
+			{
+				context.setCallRejected( );
+			}
+			AppLogService.error( "ANTS operation rejected: the queue of the executor is full" );
+			future.completeExceptionally( e );
+		}
+		return future;
+	}
+
+	/**
+	 * Check whether the current thread belongs to the executor
+	 * 
+	 * @return true if the current thread is one of the executor's threads
+	 */
+	public static boolean isExecutorThread( )
+	{
+		return Thread.currentThread( ).getName( ).startsWith( THREAD_NAME_PREFIX );
+	}
+
+	/**
+	 * Run a task in the current thread
+	 * 
+	 * @param task
+	 *            The task to run
+	 * @return the result of the task, or null if it failed
+	 */
+	private static <T> T call( Callable<T> task )
+	{
+		try
+		{
+			return task.call( );
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( THREAD_NAME_PREFIX, e );
+			return null;
+		}
+	}
+
+	/**
+	 * Wait for the result of a task run by the executor
+	 * 
+	 * @param future
+	 *            The Future of the task
+	 * @return the result of the task, or null if it failed
+	 */
+	private static <T> T getResult( Future<T> future )
+	{
+		try
+		{
+			return future.get( );
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+			AppLogService.error( THREAD_NAME_PREFIX, e );
+		}
+		catch( ExecutionException e )
+		{
+			AppLogService.error( THREAD_NAME_PREFIX, e.getCause( ) );
+		}
+		return null;
+	}
+
+	/**
+	 * Create the executor. Its threads are daemon threads that are released when they remain idle. Unless set, the
+	 * amount of threads is the ceiling of the concurrency limit of the ANTS calls
+	 * 
+	 * @return the executor
+	 */
+	private static ExecutorService createExecutor( )
+	{
+		int nbThreads = AppPropertiesService.getPropertyInt( PROPERTY_EXECUTOR_THREADS, 0 );
+		if ( nbThreads <= 0 )
+		{
+			nbThreads = AppPropertiesService.getPropertyInt( PROPERTY_CONCURRENCY_LIMIT_MAX, DEFAULT_CONCURRENCY_LIMIT_MAX );
+		}
+		nbThreads = Math.max( 1, nbThreads );
+		int nQueueSize = Math.max( 1, AppPropertiesService.getPropertyInt( PROPERTY_EXECUTOR_QUEUE_SIZE, DEFAULT_EXECUTOR_QUEUE_SIZE ) );
+
+		final AtomicInteger threadCounter = new AtomicInteger( );
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread( runnable, THREAD_NAME_PREFIX + threadCounter.incrementAndGet( ) );
+			thread.setDaemon( true );
+			return thread;
+		};
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor( nbThreads, nbThreads, THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>( nQueueSize ), threadFactory );
+		executor.allowCoreThreadTimeOut( true );
+
+		return executor;
+	}
+}
@@ -36,42 +36,65 @@ package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.servlet.http.HttpServletRequest;
 
-import fr.paris.lutece.portal.service.datastore.DatastoreService;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.ArrayUtils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import fr.paris.lutece.plugins.appointment.business.appointment.Appointment;
-import fr.paris.lutece.plugins.appointment.business.localization.Localization;
+import fr.paris.lutece.plugins.appointment.service.AppointmentPlugin;
 import fr.paris.lutece.plugins.appointment.service.AppointmentResponseService;
 import fr.paris.lutece.plugins.appointment.service.AppointmentService;
 import fr.paris.lutece.plugins.appointment.service.AppointmentUtilities;
-import fr.paris.lutece.plugins.appointment.service.LocalizationService;
 import fr.paris.lutece.plugins.appointment.web.dto.AppointmentDTO;
 import fr.paris.lutece.plugins.genericattributes.business.Response;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.ITaskAntsAppointmentResponseDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfig;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfigDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentResponseDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentSummary;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history.TaskAntsAppointmentHistory;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.pojo.AntsAddAppointmentResponsePOJO;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.pojo.AntsDeleteAppointmentResponsePOJO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.pojo.AntsAppointmentPOJO;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.pojo.AntsStatusResponsePOJO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.jfr.AntsEventFactory;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.jfr.IAntsJsonParseEvent;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.jfr.IAntsTaskExecutionEvent;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsEndpoint;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsSettings;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.TaskAntsAppointmentRest;
-import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.TaskAntsAppointmentRestConstants;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.tracing.AntsSpan;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.tracing.AntsTracer;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+import fr.paris.lutece.portal.service.plugin.PluginService;
 import fr.paris.lutece.portal.service.util.AppLogService;
 import fr.paris.lutece.portal.service.util.AppPropertiesService;
 import fr.paris.lutece.util.httpaccess.HttpAccessException;
@@ -90,50 +113,29 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 	@Named( TaskAntsAppointmentConfigDAO.BEAN_NAME )
 	private TaskAntsAppointmentConfigDAO _task_ants_appointment_dao;	
 
-	/**
-	 * ANTS' API URLs
-	 */
-	private static final String ANTS_BASE_URL =
-			AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_URL );
-	private static final String ANTS_STATUS_URL =
-			AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_URL_STATUS_APPOINTMENT );
-
-	/**
-	 * ANTS' API URL Parameters
-	 */
-	private static final String URL_PARAMETER_APPLICATION_ID =
-			AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_APPLICATION_ID );
-	private static final String URL_PARAMETER_APPLICATION_IDS =
-			AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_APPLICATION_IDS );
-	private static final String URL_PARAMETER_MANAGEMENT_URL =
-			AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_MANAGEMENT_URL );
-	private static final String URL_PARAMETER_MEETING_POINT =
-			AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_MEETING_POINT );
-	private static final String URL_PARAMETER_MEETING_POINT_ID =
-            AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_MEETING_POINT_ID );
-	private static final String URL_PARAMETER_APPOINTMENT_DATE =
-			AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_APPOINTMENT_DATE );
+	@Inject
+	@Named( TaskAntsAppointmentResponseDAO.BEAN_NAME )
+	private ITaskAntsAppointmentResponseDAO _task_ants_appointment_response_dao;
 
 	/**
-	 * Value of the ANTS API Token
+	 * Maximum amount of ANTS application numbers checked with a single status request
 	 */
-	private static final String PROPERTY_API_OPT_AUTH_TOKEN_VALUE =
-			String.valueOf( DatastoreService.getDataValue( TaskAntsAppointmentRestConstants.ANTS_TOKEN_VALUE ,"") );
+	private static final int STATUS_MAX_APPLICATION_IDS =
+			AppPropertiesService.getPropertyInt( "ants.api.status.max.application.ids", 50 );
 
 	/**
-	 * Status value of an ANTS appointment ("validated", "consumed", etc.)
+	 * Maximum length of the URL of a status request
 	 */
-	private static final String STATUS_VALIDATED =
-			AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_APPOINTMENT_VALIDATED );
+	private static final int STATUS_MAX_URL_LENGTH =
+			AppPropertiesService.getPropertyInt( "ants.api.status.max.url.length", 2000 );
 
 	/**
-	 * Variables for general use
+	 * JSON readers of the ANTS responses, shared since they are thread-safe and costly to build
 	 */
-	private static final String APPLICATION_NUMBERS_SEPARATOR =
-			AppPropertiesService.getProperty( "ants.api.application.numbers.separator" );
-
-	private static final String PARIS_USER_ACCOUNT_URL =
-			AppPropertiesService.getProperty( "paris.user.account.url" );
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper( );
+	private static final ObjectReader STATUS_RESPONSE_READER = OBJECT_MAPPER.readerFor( AntsStatusResponsePOJO.class );
+	private static final ObjectReader ADD_RESPONSE_READER = OBJECT_MAPPER.readerFor( AntsAddAppointmentResponsePOJO.class );
+	private static final ObjectReader DELETE_RESPONSE_READER = OBJECT_MAPPER.readerFor( AntsDeleteAppointmentResponsePOJO.class );
 
 	/**
 	 * Variables used to save / retrieve specific details of an appointment
@@ -142,6 +144,22 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 	public static final String KEY_LOCATION = "location";
 	public static final String KEY_DATE = "date";
 	public static final String KEY_FORM_ID = "formId";
+	public static final String KEY_STARTING_DATE_TIME = "startingDateTime";
+	public static final String KEY_CANCELLED = "cancelled";
+
+	/**
+	 * Names and attributes of the spans of the executions
+	 */
+	private static final String SPAN_CREATE = "ants.appointment.create";
+	private static final String SPAN_DELETE = "ants.appointment.delete";
+	private static final String SPAN_RETRY = "ants.appointment.retry";
+	private static final String SPAN_SYNCHRONIZE = "ants.appointment.synchronize";
+	private static final String SPAN_LOAD_APPOINTMENT = "appointment.load";
+	private static final String SPAN_LOAD_RESPONSES = "appointment.responses";
+	private static final String ATTRIBUTE_APPOINTMENT_ID = "appointment.id";
+	private static final String ATTRIBUTE_TASK_ID = "workflow.task.id";
+	private static final String ATTRIBUTE_NUMBER_COUNT = "ants.number.count";
+	private static final String ATTRIBUTE_SUCCESSFUL = "ants.successful";
 
 	private TaskAntsAppointmentService( )
 	{
@@ -164,18 +182,44 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 	@Override
 	public boolean createAntsAppointment( HttpServletRequest request, int idAppointment, int idTask, TaskAntsAppointmentHistory antsAppointmentHistory )
 	{
-		Map<String, String> applicationContent = getAppointmentData( request, idAppointment, false );
+		try ( AntsSpan span = AntsTracer.startSpan( SPAN_CREATE ) )
+		{
+			span.setAttribute( ATTRIBUTE_APPOINTMENT_ID, idAppointment ).setAttribute( ATTRIBUTE_TASK_ID, idTask );
+
+			boolean isSuccessful = createAntsAppointment( request, idAppointment, idTask, antsAppointmentHistory, span );
+			span.setAttribute( ATTRIBUTE_SUCCESSFUL, isSuccessful );
 
-		boolean isAppointmentCreated = false;
+			return isSuccessful;
+		}
+	}
+
+	/**
+	 * Create an appointment in the ANTS database, within the span of the execution
+	 * 
+	 * @param request
+	 * 				request to use
+	 * @param idAppointment
+	 * 				ID of the appointment that will be processed
+	 * @param idTask
+	 * 				ID of the workflow task calling this method
+	 * @param antsAppointmentHistory
+	 * 				Instance of TaskAntsAppointmentHistory object used to save the task's history
+	 * @param span
+	 * 				The span of the execution
+	 * @return
+	 * 				true if it was successfully created, returns false if it failed
+	 */
+	private boolean createAntsAppointment( HttpServletRequest request, int idAppointment, int idTask, TaskAntsAppointmentHistory antsAppointmentHistory,
+			AntsSpan span )
+	{
+		Map<String, String> applicationContent = loadAppointmentData( request, idAppointment, false );
 
 		// Get the ANTS application numbers from the appointment's Responses
-		String strAntsApplicationNumbers = getAntsApplicationValuesFromResponse(
-				idAppointment,
-				getAntsApplicationFieldId( idTask )
-				);
+		String strAntsApplicationNumbers = loadAntsApplicationValues( idAppointment, idTask );
 
 		// Split the potential ANTS application values retrieved from the appointment's Responses
-		List<String> applicationNumberList = splitAntsApplicationValues( strAntsApplicationNumbers, APPLICATION_NUMBERS_SEPARATOR );
+		List<String> applicationNumberList = splitAntsApplicationValues( strAntsApplicationNumbers, AntsSettings.getCurrent( ).getApplicationNumbersSeparator( ) );
+		span.setAttribute( ATTRIBUTE_NUMBER_COUNT, applicationNumberList.size( ) );
 
 		// If the appointment has no application number(s), then stop the task
 		if( CollectionUtils.isEmpty( applicationNumberList ) )
@@ -190,137 +234,970 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 
         // Retrieve the ID of the current appointment's Form
         int formId = Integer.parseInt( applicationContent.get( KEY_FORM_ID ) );
+        reportFormId( formId );
         // Generate the value of the "meeting_point_id" for this appointment
         String strMeetingPointId = AntsAppointmentUtils.generateAntsMeetingPointId( formId );
 
-		// Check if the application number used are valid and allow appointments creation
-		if( isApplicationNumberListValidForCreation( idAppointment, applicationNumberList, strMeetingPointId ) ) {
+		// Keep the application numbers of the appointment in the lookup index
+		updateApplicationNumberIndex( idAppointment, applicationNumberList, applicationContent, false );
+
+		// Check the status of the application numbers, then create an ANTS appointment for each of them
+		return processApplicationNumbers( idAppointment, applicationNumberList, applicationContent, strMeetingPointId, false );
+	}
+
+	/**
+	 * Remove an appointment from the ANTS database
+	 * 
+	 * @param request
+	 * 				request to use
+	 * @param idAppointment
+	 * 				ID of the appointment that will be processed
+	 * @param idTask
+	 * 				ID of the workflow task calling this method
+	 * @param antsAppointmentHistory
+	 * 				Instance of TaskAntsAppointmentHistory object used to save the task's history
+	 * @return
+	 * 				true if it was successfully deleted, returns false if it failed
+	 */
+	@Override
+	public boolean deleteAntsAppointment( HttpServletRequest request, int idAppointment, int idTask, TaskAntsAppointmentHistory antsAppointmentHistory )
+	{
+		try ( AntsSpan span = AntsTracer.startSpan( SPAN_DELETE ) )
+		{
+			span.setAttribute( ATTRIBUTE_APPOINTMENT_ID, idAppointment ).setAttribute( ATTRIBUTE_TASK_ID, idTask );
+
+			boolean isSuccessful = deleteAntsAppointment( request, idAppointment, idTask, antsAppointmentHistory, span );
+			span.setAttribute( ATTRIBUTE_SUCCESSFUL, isSuccessful );
+
+			return isSuccessful;
+		}
+	}
+
+	/**
+	 * Remove an appointment from the ANTS database, within the span of the execution
+	 * 
+	 * @param request
+	 * 				request to use
+	 * @param idAppointment
+	 * 				ID of the appointment that will be processed
+	 * @param idTask
+	 * 				ID of the workflow task calling this method
+	 * @param antsAppointmentHistory
+	 * 				Instance of TaskAntsAppointmentHistory object used to save the task's history
+	 * @param span
+	 * 				The span of the execution
+	 * @return
+	 * 				true if it was successfully deleted, returns false if it failed
+	 */
+	private boolean deleteAntsAppointment( HttpServletRequest request, int idAppointment, int idTask, TaskAntsAppointmentHistory antsAppointmentHistory,
+			AntsSpan span )
+	{
+		Map<String, String> applicationContent = loadAppointmentData( request, idAppointment, true );
+
+		// Get the ANTS application numbers from the appointment's Responses
+		String strAntsApplicationNumbers = loadAntsApplicationValues( idAppointment, idTask );
+
+		// Split the potential ANTS application values retrieved from the appointment's Responses
+		List<String> applicationNumberList = splitAntsApplicationValues( strAntsApplicationNumbers, AntsSettings.getCurrent( ).getApplicationNumbersSeparator( ) );
+		span.setAttribute( ATTRIBUTE_NUMBER_COUNT, applicationNumberList.size( ) );
+
+		// If the appointment has no application number(s), then stop the task
+		if( CollectionUtils.isEmpty( applicationNumberList ) )
+		{
+			AppLogService.info( "{} - Appointment with ID {} has no ANTS number", BEAN_SERVICE, idAppointment );
+			// Return true so the task stops with a positive result
+			return true;
+		}
+
+		// Set the ANTS application numbers in the task's history
+		antsAppointmentHistory.setAntsApplicationNumbers( strAntsApplicationNumbers );
+
+        // Retrieve the ID of the current appointment's Form
+        int formId = Integer.parseInt( applicationContent.get( KEY_FORM_ID ) );
+        reportFormId( formId );
+        // Generate the value of the "meeting_point_id" for this appointment
+        String strMeetingPointId = AntsAppointmentUtils.generateAntsMeetingPointId( formId );
+
+		// Remove the application numbers of a cancelled or removed appointment from the lookup index
+		updateApplicationNumberIndex( idAppointment, applicationNumberList, applicationContent, true );
+
+		// Check the status of the application numbers, then delete the ANTS appointment of each of them
+		return processApplicationNumbers( idAppointment, applicationNumberList, applicationContent, strMeetingPointId, true );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> getAntsApplicationNumbers( int idAppointment, int idForm )
+	{
+		int idFieldEntry = getAntsApplicationFieldIdByForm( idForm );
+
+		if( idFieldEntry <= 0 )
+		{
+			return Collections.emptyList( );
+		}
+		return splitAntsApplicationValues( getAntsApplicationValuesFromResponse( idAppointment, idFieldEntry ),
+				AntsSettings.getCurrent( ).getApplicationNumbersSeparator( ) );
+	}
+
+	/**
+	 * Synchronize the ANTS appointments of an appointment with its current state. The ANTS appointments of the
+	 * meeting point which don't match the appointment anymore (other date, previous address of the Form, cancelled or
+	 * removed appointment, removed application number) are deleted, and the missing one is created. Nothing is sent
+	 * when ANTS is up to date
+	 * 
+	 * @param idAppointment
+	 * 				ID of the appointment
+	 * @param idForm
+	 * 				ID of the Form of the appointment, used when the appointment has been removed
+	 * @param knownApplicationNumbers
+	 * 				The application numbers the appointment had since the last synchronization
+	 * @return
+	 * 				true if ANTS is up to date, false otherwise
+	 */
+	@Override
+	public boolean synchronizeAntsAppointment( int idAppointment, int idForm, Collection<String> knownApplicationNumbers )
+	{
+		try ( AntsSpan span = AntsTracer.startSpan( SPAN_SYNCHRONIZE ) )
+		{
+			span.setAttribute( ATTRIBUTE_APPOINTMENT_ID, idAppointment );
+
+			AppointmentDTO appointmentDto = AppointmentService.buildAppointmentDTOFromIdAppointment( idAppointment );
+			boolean isActive = appointmentDto != null && !appointmentDto.getIsCancelled( );
+			int idAppointmentForm = appointmentDto != null ? appointmentDto.getIdForm( ) : idForm;
+
+			List<String> currentApplicationNumbers = isActive ? getAntsApplicationNumbers( idAppointment, idAppointmentForm ) : Collections.emptyList( );
+			Set<String> setApplicationNumbers = new LinkedHashSet<>( knownApplicationNumbers );
+			setApplicationNumbers.addAll( currentApplicationNumbers );
+			span.setAttribute( ATTRIBUTE_NUMBER_COUNT, setApplicationNumbers.size( ) );
+
+			if( setApplicationNumbers.isEmpty( ) || idAppointmentForm <= 0 )
+			{
+				return true;
+			}
+
+			if( isActive )
+			{
+				AntsApplicationNumberIndexService.getInstance( ).index( idAppointment, idAppointmentForm, appointmentDto.getStartingDateTime( ),
+						currentApplicationNumbers );
+			}
+			else
+			{
+				AntsApplicationNumberIndexService.getInstance( ).remove( idAppointment );
+			}
+			reportFormId( idAppointmentForm );
+
+			String strMeetingPointId = AntsAppointmentUtils.generateAntsMeetingPointId( idAppointmentForm );
+			Map<String, String> applicationContent = isActive ? getAppointmentData( null, idAppointment, false ) : null;
+			String strAddress = AntsFormLocationCacheService.getInstance( ).getLocation( idAppointmentForm );
+			String strLocation = cleanUrl( strAddress ).replace( "+", "%20" );
+
+			boolean isSuccessful = true;
+			try
+			{
+				Map<String, AntsStatusResponsePOJO> mapStatus = getAntsStatusResponseAsMap( new ArrayList<>( setApplicationNumbers ), strMeetingPointId );
+
+				for( String strApplicationNumber : setApplicationNumbers )
+				{
+					LocalDateTime dateExpected = currentApplicationNumbers.contains( strApplicationNumber ) ? appointmentDto.getStartingDateTime( ) : null;
+					isSuccessful &= synchronizeApplicationNumber( idAppointment, strApplicationNumber, mapStatus.get( strApplicationNumber ), strMeetingPointId,
+							strAddress, strLocation, dateExpected, applicationContent );
+				}
+			}
+			catch( HttpAccessException | IOException e )
+			{
+				AppLogService.error( "{} - Failed to synchronize the ANTS appointments of appointment {}", BEAN_SERVICE, idAppointment, e );
+				span.setError( e.getMessage( ) );
+				isSuccessful = false;
+			}
+			span.setAttribute( ATTRIBUTE_SUCCESSFUL, isSuccessful );
+
+			return isSuccessful;
+		}
+	}
+
+	/**
+	 * Synchronize the ANTS appointments of one application number with the expected date
+	 * 
+	 * @param idAppointment
+	 * 				ID of the appointment
+	 * @param strApplicationNumber
+	 * 				The application number
+	 * @param statusResponse
+	 * 				The status of the application number
+	 * @param strMeetingPointId
+	 * 				The value of the "meeting_point_id" of the appointment's Form
+	 * @param strAddress
+	 * 				The current address of the appointment's Form
+	 * @param strLocation
+	 * 				The encoded location of the appointment's Form
+	 * @param dateExpected
+	 * 				The date of the ANTS appointment expected at the meeting point, null if none is expected
+	 * @param applicationContent
+	 * 				The details of the appointment (URL, location, date), null if the appointment isn't active
+	 * @return
+	 * 				true if the ANTS appointments of the application number are up to date
+	 * @throws HttpAccessException
+	 * 				If an ANTS call failed
+	 * @throws IOException
+	 * 				If the response of an ANTS call couldn't be read
+	 */
+	private static boolean synchronizeApplicationNumber( int idAppointment, String strApplicationNumber, AntsStatusResponsePOJO statusResponse,
+			String strMeetingPointId, String strAddress, String strLocation, LocalDateTime dateExpected, Map<String, String> applicationContent )
+			throws HttpAccessException, IOException
+	{
+		if( statusResponse == null || !StringUtils.equals( statusResponse.getStatus( ), AntsSettings.getCurrent( ).getStatusValidated( ) ) )
+		{
+			AppLogService.info( "{} - ANTS number '{}' of appointment {} can't be synchronized: no valid status", BEAN_SERVICE, strApplicationNumber, idAppointment );
+			return dateExpected == null;
+		}
+
+		AntsSettings settings = AntsSettings.getCurrent( );
+		boolean isUpToDate = false;
+		int nOtherAppointments = 0;
+
+		for( AntsAppointmentPOJO appointment : ArrayUtils.nullToEmpty( statusResponse.getAppointments( ), AntsAppointmentPOJO[].class ) )
+		{
+			if( !StringUtils.equals( appointment.getMeetingPointId( ), strMeetingPointId ) )
+			{
+				nOtherAppointments++;
+				continue;
+			}
+
+			String strDate = StringUtils.defaultString( appointment.getAppointmentDate( ) );
+			String strAntsAddress = appointment.getMeetingPoint( );
+			boolean isSameAddress = strAntsAddress == null || StringUtils.equals( strAntsAddress.trim( ), StringUtils.trim( strAddress ) );
+
+			if( !isUpToDate && isSameAddress && appointment.isSameAppointment( strMeetingPointId, dateExpected ) )
+			{
+				isUpToDate = true;
+				continue;
+			}
+
+			// The ANTS appointment of the meeting point is obsolete, it is deleted with the address it was created with
+			String strDeleteUrl = buildAntsDeleteAppointmentUrl( settings.getBaseUrl( ), settings.getDeleteAppointmentUrl( ), strApplicationNumber,
+					strAntsAddress != null ? cleanUrl( strAntsAddress ).replace( "+", "%20" ) : strLocation, strMeetingPointId,
+					cleanUrl( strDate ).replace( "+", "%20" ) );
+			if( !deleteAntsAppointmentRestCall( strDeleteUrl ) )
+			{
+				return false;
+			}
+		}
+
+		if( dateExpected == null || isUpToDate )
+		{
+			return true;
+		}
+		if( nOtherAppointments > 0 )
+		{
+			AppLogService.error( "{} - ANTS number '{}' of appointment {} already has {} appointment(s) at other meeting points",
+					BEAN_SERVICE, strApplicationNumber, idAppointment, nOtherAppointments );
+			return false;
+		}
+
+		return addAntsAppointmentRestCall( buildAntsAddAppointmentUrl( settings.getBaseUrl( ), settings.getAddAppointmentUrl( ), strApplicationNumber,
+				applicationContent.get( KEY_URL ), applicationContent.get( KEY_LOCATION ), strMeetingPointId, applicationContent.get( KEY_DATE ) ) );
+	}
+
+	/**
+	 * Get the ID of the Entry holding the ANTS application numbers of a Form, from the configuration of the ANTS tasks
+	 * 
+	 * @param idForm
+	 * 				ID of the Form
+	 * @return
+	 * 				The ID of the Entry, 0 if no ANTS task is configured for the Form
+	 */
+	private int getAntsApplicationFieldIdByForm( int idForm )
+	{
+		for( TaskAntsAppointmentConfig config : _task_ants_appointment_dao.loadAll( ) )
+		{
+			if( config.getIdForm( ) == idForm )
+			{
+				return config.getIdFieldEntry( );
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Load the details of an appointment, within a span
+	 * 
+	 * @param request
+	 * 				request to use, can be null
+	 * @param idAppointment
+	 * 				ID of the appointment
+	 * @param isDeletingAppointment
+	 * 				Whether the appointment is being deleted
+	 * @return
+	 * 				The details of the appointment (URL, location, date, form)
+	 */
+	private static Map<String, String> loadAppointmentData( HttpServletRequest request, int idAppointment, boolean isDeletingAppointment )
+	{
+		try ( AntsSpan span = AntsTracer.startSpan( SPAN_LOAD_APPOINTMENT ) )
+		{
+			return getAppointmentData( request, idAppointment, isDeletingAppointment );
+		}
+	}
+
+	/**
+	 * Load the ANTS application numbers of an appointment from its Responses, within a span
+	 * 
+	 * @param idAppointment
+	 * 				ID of the appointment
+	 * @param idTask
+	 * 				ID of the workflow task
+	 * @return
+	 * 				The ANTS application numbers, as saved in the Responses
+	 */
+	private String loadAntsApplicationValues( int idAppointment, int idTask )
+	{
+		try ( AntsSpan span = AntsTracer.startSpan( SPAN_LOAD_RESPONSES ) )
+		{
+			return getAntsApplicationValuesFromResponse( idAppointment, getAntsApplicationFieldId( idTask ) );
+		}
+	}
+
+	/**
+	 * Keep the lookup index of the application numbers in sync with an appointment being processed: the application
+	 * numbers of a created appointment are indexed, those of a cancelled or removed appointment are removed
+	 * 
+	 * @param idAppointment
+	 * 				ID of the appointment
+	 * @param applicationNumberList
+	 * 				The ANTS application numbers of the appointment
+	 * @param applicationContent
+	 * 				The details of the appointment, as returned by getAppointmentData
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointments are deleted (true) or created (false)
+	 */
+	private static void updateApplicationNumberIndex( int idAppointment, List<String> applicationNumberList, Map<String, String> applicationContent,
+			boolean isDeletingAppointment )
+	{
+		if( !isDeletingAppointment )
+		{
+			String strStartingDateTime = applicationContent.get( KEY_STARTING_DATE_TIME );
+
+			AntsApplicationNumberIndexService.getInstance( ).index( idAppointment, Integer.parseInt( applicationContent.get( KEY_FORM_ID ) ),
+					StringUtils.isNotEmpty( strStartingDateTime ) ? LocalDateTime.parse( strStartingDateTime ) : null, applicationNumberList );
+		}
+		else if( Boolean.parseBoolean( applicationContent.get( KEY_CANCELLED ) ) )
+		{
+			AntsApplicationNumberIndexService.getInstance( ).remove( idAppointment );
+		}
+	}
+
+	/**
+	 * Report the Form of the appointment being processed to the execution's context
+	 * 
+	 * @param idForm
+	 * 				ID of the appointment's Form
+	 */
+	private static void reportFormId( int idForm )
+	{
+		AntsExecutionContext context = AntsExecutionContext.getCurrent( );
+
+		if( context != null )
+		{
+			context.setIdForm( idForm );
+		}
+	}
+
+	/**
+	 * Check the status of the application numbers of an appointment, then create or delete their ANTS appointments
+	 * 
+	 * @param idAppointment
+	 * 				ID of the appointment being processed
+	 * @param applicationNumberList
+	 * 				The application numbers of the appointment
+	 * @param applicationContent
+	 * 				The details of the appointment (URL, location, date)
+	 * @param strMeetingPointId
+	 * 				The value of the "meeting_point_id" for the appointment's Form
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointments are deleted (true) or created (false)
+	 * @return
+	 * 				true if every ANTS appointment was created / deleted, false otherwise
+	 */
+	private static boolean processApplicationNumbers( int idAppointment, List<String> applicationNumberList, Map<String, String> applicationContent,
+			String strMeetingPointId, boolean isDeletingAppointment )
+	{
+		AntsExecutionContext context = AntsExecutionContext.getCurrent( );
+
+		if( context != null )
+		{
+			context.setIdAppointment( idAppointment );
+		}
+
+		IAntsTaskExecutionEvent event = AntsEventFactory.beginTaskExecutionEvent( );
+
+		// Without deadline, nothing can be deferred: the calls run in the current thread
+		Executor executor = context != null && context.hasDeadline( ) ? TaskAntsAppointmentExecutor.getAsyncExecutor( )
+				: TaskAntsAppointmentExecutor.getDirectExecutor( );
+
+		boolean isSuccessful = awaitOutcome( idAppointment, processApplicationNumbersAsync(
+				idAppointment,
+				applicationNumberList,
+				strMeetingPointId,
+				getAntsStatusOfApplicationNumbersAsync( Collections.singletonMap( idAppointment, applicationNumberList ), strMeetingPointId,
+						isDeletingAppointment, executor ),
+				buildAntsUrls( applicationNumberList, applicationContent, strMeetingPointId, isDeletingAppointment ),
+				getStartingDateTime( applicationContent ),
+				isDeletingAppointment,
+				executor ) );
+
+		event.commit( isDeletingAppointment ? AntsEndpoint.DELETE.name( ) : AntsEndpoint.ADD.name( ), applicationNumberList.size( ),
+				isSuccessful, context != null && context.isDeferred( ) );
+
+		return isSuccessful;
+	}
+
+	/**
+	 * Wait for the outcome of the ANTS calls of an appointment, within the deadline of the current execution. When the
+	 * deadline is reached, the calls go on in the background and the execution's context is marked as deferred
+	 * 
+	 * @param idAppointment
+	 * 				ID of the appointment being processed
+	 * @param outcome
+	 * 				The future outcome of the ANTS calls
+	 * @return
+	 * 				true if every ANTS call was successful, false if one of them failed or if the calls were deferred
+	 */
+	private static boolean awaitOutcome( int idAppointment, CompletableFuture<Boolean> outcome )
+	{
+		AntsExecutionContext context = AntsExecutionContext.getCurrent( );
+
+		// Without deadline, or when the calls run in the current thread, simply wait for them
+		if( context == null || !context.hasDeadline( ) || TaskAntsAppointmentExecutor.isExecutorThread( ) )
+		{
+			return outcome.join( );
+		}
+
+		try
+		{
+			return outcome.get( context.getRemainingNanos( ), TimeUnit.NANOSECONDS );
+		}
+		catch( TimeoutException e )
+		{
+			AppLogService.info( "{} - Deadline reached for appointment with ID {}, the ANTS calls go on in the background", BEAN_SERVICE, idAppointment );
+			context.defer( outcome );
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+			context.defer( outcome );
+		}
+		catch( ExecutionException e )
+		{
+			AppLogService.error( BEAN_SERVICE, e.getCause( ) );
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Integer, TaskAntsAppointmentHistory> createAntsAppointments( HttpServletRequest request, List<Integer> listIdAppointment, int idTask )
+	{
+		return createAntsAppointmentsAsync( request, listIdAppointment, idTask, TaskAntsAppointmentExecutor.getAsyncExecutor( ) ).join( );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Integer, TaskAntsAppointmentHistory> deleteAntsAppointments( HttpServletRequest request, List<Integer> listIdAppointment, int idTask )
+	{
+		return deleteAntsAppointmentsAsync( request, listIdAppointment, idTask, TaskAntsAppointmentExecutor.getAsyncExecutor( ) ).join( );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Map<Integer, TaskAntsAppointmentHistory>> createAntsAppointmentsAsync( HttpServletRequest request, List<Integer> listIdAppointment,
+			int idTask, Executor executor )
+	{
+		return processAntsAppointmentsAsync( request, listIdAppointment, idTask, false, executor );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableFuture<Map<Integer, TaskAntsAppointmentHistory>> deleteAntsAppointmentsAsync( HttpServletRequest request, List<Integer> listIdAppointment,
+			int idTask, Executor executor )
+	{
+		return processAntsAppointmentsAsync( request, listIdAppointment, idTask, true, executor );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Integer, TaskAntsAppointmentHistory> retryAntsAppointments( Map<Integer, String> mapAntsApplicationNumbers,
+			Map<Integer, TaskAntsAppointmentSummary> mapSummaries, boolean isDeletingAppointment )
+	{
+		try ( AntsSpan span = AntsTracer.startSpan( SPAN_RETRY ) )
+		{
+			return processAntsApplicationNumbersAsync( null, mapAntsApplicationNumbers, mapSummaries, isDeletingAppointment,
+					TaskAntsAppointmentExecutor.getAsyncExecutor( ) ).join( );
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<Integer, TaskAntsAppointmentSummary> findAppointmentSummaries( Collection<Integer> listIdAppointment )
+	{
+		if( listIdAppointment.isEmpty( ) )
+		{
+			return Collections.emptyMap( );
+		}
+		try ( AntsSpan span = AntsTracer.startSpan( SPAN_LOAD_APPOINTMENT ) )
+		{
+			return _task_ants_appointment_response_dao.selectAppointmentSummaries( new ArrayList<>( listIdAppointment ),
+					PluginService.getPlugin( AppointmentPlugin.PLUGIN_NAME ) );
+		}
+	}
+
+	/**
+	 * Create or delete the ANTS appointments of a list of appointments, for the application numbers saved in their
+	 * Responses. The configuration of the task is loaded once, and the Responses of the appointments with set-based
+	 * queries
+	 * 
+	 * @param request
+	 * 				request to use
+	 * @param listIdAppointment
+	 * 				IDs of the appointments to process
+	 * @param idTask
+	 * 				ID of the workflow task calling this method
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointments are deleted (true) or created (false)
+	 * @param executor
+	 * 				The executor making the ANTS calls
+	 * @return
+	 * 				The future outcome of each appointment, as a history object, with the ID of the appointments as keys.
+	 * 				Every appointment fails if the task has no configuration
+	 */
+	private CompletableFuture<Map<Integer, TaskAntsAppointmentHistory>> processAntsAppointmentsAsync( HttpServletRequest request, List<Integer> listIdAppointment,
+			int idTask, boolean isDeletingAppointment, Executor executor )
+	{
+		Map<Integer, String> mapAntsApplicationNumbers = new LinkedHashMap<>( );
+
+		if( listIdAppointment.isEmpty( ) )
+		{
+			return CompletableFuture.completedFuture( new LinkedHashMap<>( ) );
+		}
+
+		// Load the task's config once
+		TaskAntsAppointmentConfig config = _task_ants_appointment_dao.load( idTask );
+
+		if( config == null )
+		{
+			Map<Integer, TaskAntsAppointmentHistory> mapOutcomes = new LinkedHashMap<>( );
+
+			for( Integer idAppointment : listIdAppointment )
+			{
+				mapOutcomes.put( idAppointment, new TaskAntsAppointmentHistory( ) );
+			}
+			AppLogService.error( "{} - The task with ID {} has no configuration, {} appointment(s) not processed", BEAN_SERVICE, idTask, mapOutcomes.size( ) );
+
+			return CompletableFuture.completedFuture( mapOutcomes );
+		}
+
+		// Load the ANTS application numbers of every appointment with a single query
+		Map<Integer, String> mapResponseValues = _task_ants_appointment_response_dao.selectResponseValuesByAppointments(
+				new ArrayList<>( new LinkedHashSet<>( listIdAppointment ) ),
+				config.getIdFieldEntry( ),
+				PluginService.getPlugin( AppointmentPlugin.PLUGIN_NAME ) );
+
+		for( Integer idAppointment : listIdAppointment )
+		{
+			mapAntsApplicationNumbers.put( idAppointment, mapResponseValues.get( idAppointment ) );
+		}
+		return processAntsApplicationNumbersAsync( request, mapAntsApplicationNumbers, null, isDeletingAppointment, executor );
+	}
+
+	/**
+	 * Create or delete the ANTS appointments of a list of appointments. The details of the appointments are loaded
+	 * with set-based queries in the current thread, and the lookup index of their application numbers is updated. The
+	 * ANTS calls are then composed as a dependency graph: the status of each meeting point is checked with multi-id
+	 * requests, and each appointment's creations / deletions are sent as soon as the status of its meeting point is known
+	 * 
+	 * @param request
+	 * 				request to use, can be null
+	 * @param mapAntsApplicationNumbers
+	 * 				The ANTS application numbers of each appointment (can be null), with the ID of the appointments as keys
+	 * @param mapPreloadedSummaries
+	 * 				The details of the appointments if they are already loaded, null to load them
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointments are deleted (true) or created (false)
+	 * @param executor
+	 * 				The executor making the ANTS calls
+	 * @return
+	 * 				The future outcome of each appointment, as a history object, with the ID of the appointments as keys
+	 */
+	private CompletableFuture<Map<Integer, TaskAntsAppointmentHistory>> processAntsApplicationNumbersAsync( HttpServletRequest request,
+			Map<Integer, String> mapAntsApplicationNumbers, Map<Integer, TaskAntsAppointmentSummary> mapPreloadedSummaries, boolean isDeletingAppointment,
+			Executor executor )
+	{
+		Map<Integer, TaskAntsAppointmentHistory> mapOutcomes = new LinkedHashMap<>( );
+		Map<Integer, List<String>> mapApplicationNumberLists = new LinkedHashMap<>( );
+
+		for( Map.Entry<Integer, String> antsApplicationNumbers : mapAntsApplicationNumbers.entrySet( ) )
+		{
+			int idAppointment = antsApplicationNumbers.getKey( );
+			TaskAntsAppointmentHistory outcome = new TaskAntsAppointmentHistory( );
+			mapOutcomes.put( idAppointment, outcome );
+
+			String strAntsApplicationNumbers = antsApplicationNumbers.getValue( );
+			List<String> applicationNumberList = splitAntsApplicationValues( strAntsApplicationNumbers, AntsSettings.getCurrent( ).getApplicationNumbersSeparator( ) );
+
+			// An appointment without application number is considered as successfully processed
+			if( CollectionUtils.isEmpty( applicationNumberList ) )
+			{
+				AppLogService.info( "{} - Appointment with ID {} has no ANTS number", BEAN_SERVICE, idAppointment );
+				outcome.setTaskSuccessState( true );
+				continue;
+			}
+			outcome.setAntsApplicationNumbers( strAntsApplicationNumbers );
+			mapApplicationNumberLists.put( idAppointment, applicationNumberList );
+		}
+		if( mapApplicationNumberLists.isEmpty( ) )
+		{
+			return CompletableFuture.completedFuture( mapOutcomes );
+		}
+
+		// Load the details of every appointment having ANTS application numbers at once
+		Map<Integer, TaskAntsAppointmentSummary> mapSummaries = mapPreloadedSummaries != null ? mapPreloadedSummaries
+				: findAppointmentSummaries( mapApplicationNumberLists.keySet( ) );
+
+		// Group the appointments having ANTS application numbers by meeting point
+		Map<String, Map<Integer, List<String>>> mapNumbersByMeetingPoint = new LinkedHashMap<>( );
+		Map<Integer, Map<String, String>> mapApplicationContents = new HashMap<>( );
+		Map<Integer, String> mapLocationsByForm = new HashMap<>( );
+
+		for( Map.Entry<Integer, List<String>> applicationNumbers : mapApplicationNumberLists.entrySet( ) )
+		{
+			int idAppointment = applicationNumbers.getKey( );
+			List<String> applicationNumberList = applicationNumbers.getValue( );
+
+			// The previous data of a rescheduled appointment is used for its deletion
+			AppointmentDTO oldAppointment = isDeletingAppointment ? getOldAppointment( request, idAppointment ) : null;
+			TaskAntsAppointmentSummary summary = oldAppointment != null ? toSummary( oldAppointment ) : mapSummaries.get( idAppointment );
+
+			Map<String, String> applicationContent = buildAppointmentData( summary, mapLocationsByForm );
+			mapApplicationContents.put( idAppointment, applicationContent );
+			updateApplicationNumberIndex( idAppointment, applicationNumberList, applicationContent, isDeletingAppointment );
+
+			String strMeetingPointId = AntsAppointmentUtils.generateAntsMeetingPointId( Integer.parseInt( applicationContent.get( KEY_FORM_ID ) ) );
+			mapNumbersByMeetingPoint.computeIfAbsent( strMeetingPointId, key -> new LinkedHashMap<>( ) ).put( idAppointment, applicationNumberList );
+		}
+
+		// Check the status of each meeting point, then create or delete the ANTS appointments of its valid appointments
+		List<CompletableFuture<Void>> listOutcomeFutures = new ArrayList<>( );
+
+		for( Map.Entry<String, Map<Integer, List<String>>> meetingPoint : mapNumbersByMeetingPoint.entrySet( ) )
+		{
+			String strMeetingPointId = meetingPoint.getKey( );
+			CompletableFuture<Map<String, AntsStatusResponsePOJO>> statusFuture =
+					getAntsStatusOfApplicationNumbersAsync( meetingPoint.getValue( ), strMeetingPointId, isDeletingAppointment, executor );
+
+			for( Map.Entry<Integer, List<String>> appointment : meetingPoint.getValue( ).entrySet( ) )
+			{
+				int idAppointment = appointment.getKey( );
+				List<String> applicationNumberList = appointment.getValue( );
+				TaskAntsAppointmentHistory outcome = mapOutcomes.get( idAppointment );
+
+				Map<String, String> applicationContent = mapApplicationContents.get( idAppointment );
+				List<String> listAntsUrls = buildAntsUrls( applicationNumberList, applicationContent, strMeetingPointId, isDeletingAppointment );
+				listOutcomeFutures.add( processApplicationNumbersAsync( idAppointment, applicationNumberList, strMeetingPointId, statusFuture, listAntsUrls,
+						getStartingDateTime( applicationContent ), isDeletingAppointment, executor )
+						.thenAccept( outcome::setTaskSuccessState ) );
+			}
+		}
+
+		return CompletableFuture.allOf( listOutcomeFutures.toArray( new CompletableFuture<?>[ 0 ] ) )
+				.thenApply( done -> mapOutcomes );
+	}
+
+	/**
+	 * Get asynchronously the status of the application numbers of several appointments sharing the same meeting point.
+	 * For a creation, the fresh status checked by the front-office validation of the booking is used instead of
+	 * calling ANTS again
+	 * 
+	 * @param mapApplicationNumbers
+	 * 				The application numbers of each appointment
+	 * @param strMeetingPointId
+	 * 				The value of the "meeting_point_id" parameter
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointments are deleted (true) or created (false)
+	 * @param executor
+	 * 				The executor making the ANTS calls
+	 * @return
+	 * 				The future status of the application numbers, with the application numbers as keys. Completed with
+	 * 				an empty Map if the status couldn't be retrieved
+	 */
+	private static CompletableFuture<Map<String, AntsStatusResponsePOJO>> getAntsStatusOfApplicationNumbersAsync( Map<Integer, List<String>> mapApplicationNumbers,
+			String strMeetingPointId, boolean isDeletingAppointment, Executor executor )
+	{
+		List<String> listAllApplicationNumbers = new ArrayList<>( );
+		for( List<String> applicationNumberList : mapApplicationNumbers.values( ) )
+		{
+			listAllApplicationNumbers.addAll( applicationNumberList );
+		}
+
+		Map<String, AntsStatusResponsePOJO> mapCachedStatus = isDeletingAppointment ? Collections.emptyMap( )
+				: AntsStatusCacheService.getInstance( ).takeStatus( strMeetingPointId, listAllApplicationNumbers );
+		List<String> listMissingApplicationNumbers = new ArrayList<>( listAllApplicationNumbers );
+		listMissingApplicationNumbers.removeAll( mapCachedStatus.keySet( ) );
+
+		if( listMissingApplicationNumbers.isEmpty( ) )
+		{
+			AppLogService.debug( "{} - Status of the ANTS numbers {} reused from the validation", BEAN_SERVICE, mapCachedStatus.keySet( ) );
+			return CompletableFuture.completedFuture( mapCachedStatus );
+		}
+
+		return getAntsStatusResponseAsMapAsync( listMissingApplicationNumbers, strMeetingPointId, executor )
+				.thenApply( mapStatus -> {
+					if( mapCachedStatus.isEmpty( ) )
+					{
+						return mapStatus;
+					}
+					Map<String, AntsStatusResponsePOJO> mapAllStatus = new LinkedHashMap<>( mapCachedStatus );
+					mapAllStatus.putAll( mapStatus );
+					return mapAllStatus;
+				} )
+				.exceptionally( e -> {
+					AppLogService.error( BEAN_SERVICE, e );
+					return Collections.emptyMap( );
+				} );
+	}
+
+	/**
+	 * Create or delete the ANTS appointments of an appointment once the status of its application numbers is known.
+	 * Nothing is sent if the status of one of the application numbers doesn't allow it, and nothing is sent for an
+	 * application number whose ANTS appointment is already in the expected state (already created at the meeting point
+	 * at the same date, or already deleted). The calls of the different application numbers are sent concurrently. An application number already being processed the same way by
+	 * another execution isn't sent again: the outcome of the operation in flight is used instead
+	 * 
+	 * @param idAppointment
+	 * 				ID of the appointment being processed
+	 * @param applicationNumberList
+	 * 				The application numbers of the appointment
+	 * @param strMeetingPointId
+	 * 				The value of the "meeting_point_id" for the appointment's Form
+	 * @param statusFuture
+	 * 				The future status of the application numbers, with the application numbers as keys
+	 * @param listAntsUrls
+	 * 				The URLs to call, one per application number
+	 * @param dateAppointment
+	 * 				The date of the ANTS appointments to create or delete, null if unknown
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointments are deleted (true) or created (false)
+	 * @param executor
+	 * 				The executor making the ANTS calls
+	 * @return
+	 * 				The future outcome: true if every call was successful, false otherwise. Never completed exceptionally
+	 */
+	private static CompletableFuture<Boolean> processApplicationNumbersAsync( int idAppointment, List<String> applicationNumberList,
+			String strMeetingPointId, CompletableFuture<Map<String, AntsStatusResponsePOJO>> statusFuture, List<String> listAntsUrls,
+			LocalDateTime dateAppointment, boolean isDeletingAppointment, Executor executor )
+	{
+		// Register the operations of the application numbers, or share the identical operations already in flight
+		AntsSingleFlightRegistry registry = AntsSingleFlightRegistry.getInstance( );
+		Map<Integer, CompletableFuture<Boolean>> mapOwnedFlights = new LinkedHashMap<>( );
+		List<CompletableFuture<Boolean>> listSharedFlights = new ArrayList<>( );
+
+		for( int nIndex = 0; nIndex < applicationNumberList.size( ); nIndex++ )
+		{
+			CompletableFuture<Boolean> flight = new CompletableFuture<>( );
+			CompletableFuture<Boolean> sharedFlight = registry.register(
+					AntsSingleFlightRegistry.buildKey( isDeletingAppointment, applicationNumberList.get( nIndex ), strMeetingPointId ), flight );
+
+			if( sharedFlight != null )
+			{
+				listSharedFlights.add( sharedFlight );
+			}
+			else
+			{
+				mapOwnedFlights.put( nIndex, flight );
+			}
+		}
 
-			// For each application number available, create a new ANTS appointment
-			for( String appplicationNumber : applicationNumberList ) {
+		CompletableFuture<Boolean> ownedOutcome = mapOwnedFlights.isEmpty( ) ? CompletableFuture.completedFuture( Boolean.TRUE )
+				: statusFuture.thenCompose( mapStatus -> {
+					if( !isStatusMapValid( idAppointment, applicationNumberList, mapStatus, strMeetingPointId, dateAppointment, isDeletingAppointment ) )
+					{
+						return CompletableFuture.completedFuture( Boolean.FALSE );
+					}
 
-				// Build the ANTS URL used to create a new appointment
-				String antsURL = buildAntsAddAppointmentUrl(
-						AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_URL),
-						AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_URL_ADD_APPOINTMENT),
-						appplicationNumber,
-						applicationContent.get( KEY_URL ),
-						applicationContent.get( KEY_LOCATION ),
-						strMeetingPointId,
-						applicationContent.get( KEY_DATE )
-						);
-				try {
-					// Create the appointment on the ANTS database
-					isAppointmentCreated = addAntsAppointmentRestCall( antsURL );
-
-					AppLogService.debug(
-							"{} ANTS appointment with number '{}' was {} for appointment with ID {}",
-							BEAN_SERVICE,
-							appplicationNumber,
-							isAppointmentCreated ? "created" : "not created",
-							idAppointment
-							);
-
-					// If the appointment was not created
-					if( !isAppointmentCreated )
+					// Each flight is completed with the outcome of its call, before the outcome of the appointment
+					for( Map.Entry<Integer, CompletableFuture<Boolean>> ownedFlight : mapOwnedFlights.entrySet( ) )
 					{
-						return isAppointmentCreated;
+						String applicationNumber = applicationNumberList.get( ownedFlight.getKey( ) );
+
+						if( isAntsAppointmentUpToDate( mapStatus.get( applicationNumber ), strMeetingPointId, dateAppointment, isDeletingAppointment ) )
+						{
+							AppLogService.info( "{} - ANTS appointment of ANTS number '{}' of appointment {} already {}", BEAN_SERVICE, applicationNumber,
+									idAppointment, isDeletingAppointment ? "deleted" : "created" );
+							ownedFlight.getValue( ).complete( Boolean.TRUE );
+							continue;
+						}
+						callAntsUrlAsync( listAntsUrls.get( ownedFlight.getKey( ) ), isDeletingAppointment, executor )
+								.thenAccept( ownedFlight.getValue( )::complete );
 					}
-				}
-				catch( Exception e )
-				{
+
+					Collection<CompletableFuture<Boolean>> listCallFutures = mapOwnedFlights.values( );
+					return CompletableFuture.allOf( listCallFutures.toArray( new CompletableFuture<?>[ 0 ] ) )
+							.thenApply( done -> listCallFutures.stream( ).allMatch( CompletableFuture::join ) );
+				} ).exceptionally( e -> {
 					AppLogService.error( BEAN_SERVICE, e );
-				}
+					return Boolean.FALSE;
+				} );
+
+		// Unregister the flights which weren't sent (invalid status, failure)
+		ownedOutcome.whenComplete( ( isSuccessful, e ) -> mapOwnedFlights.values( ).forEach( flight -> flight.complete( Boolean.FALSE ) ) );
+
+		listSharedFlights.add( ownedOutcome );
+		return CompletableFuture.allOf( listSharedFlights.toArray( new CompletableFuture<?>[ 0 ] ) ).thenApply( done -> {
+			boolean isSuccessful = listSharedFlights.stream( ).allMatch( CompletableFuture::join );
+
+			if( !isSuccessful )
+			{
+				AppLogService.info( "{} - ANTS appointment could not be {} for appointment with ID {}",
+						BEAN_SERVICE, isDeletingAppointment ? "deleted" : "created", idAppointment );
 			}
-		}
-		return isAppointmentCreated;
+			return isSuccessful;
+		} );
 	}
 
 	/**
-	 * Remove an appointment from the ANTS database
+	 * Check if the status of every application number of an appointment allows it to be created or deleted, or
+	 * shows that it already is
 	 * 
-	 * @param request
-	 * 				request to use
 	 * @param idAppointment
-	 * 				ID of the appointment that will be processed
-	 * @param idTask
-	 * 				ID of the workflow task calling this method
-	 * @param antsAppointmentHistory
-	 * 				Instance of TaskAntsAppointmentHistory object used to save the task's history
+	 * 				ID of the appointment being processed
+	 * @param applicationNumberList
+	 * 				The application numbers of the appointment
+	 * @param mapStatus
+	 * 				The status of the application numbers, with the application numbers as keys
+	 * @param strMeetingPointId
+	 * 				The value of the "meeting_point_id" for the appointment's Form
+	 * @param dateAppointment
+	 * 				The date of the ANTS appointments to create or delete, null if unknown
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointments are deleted (true) or created (false)
 	 * @return
-	 * 				true if it was successfully deleted, returns false if it failed
+	 * 				true if every application number has a valid status, false otherwise
 	 */
-	@Override
-	public boolean deleteAntsAppointment( HttpServletRequest request, int idAppointment, int idTask, TaskAntsAppointmentHistory antsAppointmentHistory )
+	private static boolean isStatusMapValid( int idAppointment, List<String> applicationNumberList, Map<String, AntsStatusResponsePOJO> mapStatus,
+			String strMeetingPointId, LocalDateTime dateAppointment, boolean isDeletingAppointment )
 	{
-		Map<String, String> applicationContent = getAppointmentData( request, idAppointment, true );
-
-		boolean isAppointmentDeleted = false;
-
-		// Get the ANTS application numbers from the appointment's Responses
-		String strAntsApplicationNumbers = getAntsApplicationValuesFromResponse(
-				idAppointment,
-				getAntsApplicationFieldId( idTask )
-				);
-
-		// Split the potential ANTS application values retrieved from the appointment's Responses
-		List<String> applicationNumberList = splitAntsApplicationValues( strAntsApplicationNumbers, APPLICATION_NUMBERS_SEPARATOR );
-
-		// If the appointment has no application number(s), then stop the task
-		if( CollectionUtils.isEmpty( applicationNumberList ) )
+		for( String applicationNumber : applicationNumberList )
 		{
-			AppLogService.info( "{} - Appointment with ID {} has no ANTS number", BEAN_SERVICE, idAppointment );
-			// Return true so the task stops with a positive result
-			return true;
-		}
+			AntsStatusResponsePOJO statusResponse = mapStatus.get( applicationNumber );
 
-		// Set the ANTS application numbers in the task's history
-		antsAppointmentHistory.setAntsApplicationNumbers( strAntsApplicationNumbers );
+			if( statusResponse == null )
+			{
+				AppLogService.info( "{} - No status retrieved for the ANTS number '{}' of appointment {}", BEAN_SERVICE, applicationNumber, idAppointment );
+				return false;
+			}
+			boolean isValid = ( isDeletingAppointment ? isStatusValidForDeletion( statusResponse ) : isStatusValidForCreation( statusResponse ) )
+					|| isAntsAppointmentUpToDate( statusResponse, strMeetingPointId, dateAppointment, isDeletingAppointment );
 
-        // Retrieve the ID of the current appointment's Form
-        int formId = Integer.parseInt( applicationContent.get( KEY_FORM_ID ) );
-        // Generate the value of the "meeting_point_id" for this appointment
-        String strMeetingPointId = AntsAppointmentUtils.generateAntsMeetingPointId( formId );
+			if( !isValid )
+			{
+				AppLogService.error( "{} - ANTS appointment not valid for {}: Appointment {} with ANTS number '{}' has a status '{}' and {} appointment(s)",
+						BEAN_SERVICE, isDeletingAppointment ? "deletion" : "creation", idAppointment, applicationNumber,
+						statusResponse.getStatus( ), ArrayUtils.getLength( statusResponse.getAppointments( ) ) );
+				return false;
+			}
+		}
+		return true;
+	}
 
-		// Check if the application numbers used are valid and still allow the appointments to be deleted
-		if( isApplicationNumberListValidForDeletion( idAppointment, applicationNumberList, strMeetingPointId ) ) {
-			// For each application number available, delete any existing ANTS appointment
-			for( String appplicationNumber : applicationNumberList ) {
+	/**
+	 * Build the URLs used to create or delete the ANTS appointments of each application number
+	 * 
+	 * @param applicationNumberList
+	 * 				The application numbers to process
+	 * @param applicationContent
+	 * 				The details of the appointment (URL, location, date)
+	 * @param strMeetingPointId
+	 * 				The value of the "meeting_point_id" for the appointment's Form
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointments are deleted (true) or created (false)
+	 * @return
+	 * 				The list of URLs to call
+	 */
+	private static List<String> buildAntsUrls( List<String> applicationNumberList, Map<String, String> applicationContent, String strMeetingPointId,
+			boolean isDeletingAppointment )
+	{
+		AntsSettings settings = AntsSettings.getCurrent( );
+		List<String> listAntsUrls = new ArrayList<>( applicationNumberList.size( ) );
 
-				// Build the ANTS URL used to delete an appointment
-				String antsURL = buildAntsDeleteAppointmentUrl(
-						AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_URL),
-						AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_URL_DELETE_APPOINTMENT),
-						appplicationNumber,
+		for( String applicationNumber : applicationNumberList )
+		{
+			if( isDeletingAppointment )
+			{
+				listAntsUrls.add( buildAntsDeleteAppointmentUrl(
+						settings.getBaseUrl( ),
+						settings.getDeleteAppointmentUrl( ),
+						applicationNumber,
 						applicationContent.get( KEY_LOCATION ),
 						strMeetingPointId,
-						applicationContent.get( KEY_DATE )
-						);
-				try {
-					// Delete the appointment from the ANTS database
-					isAppointmentDeleted = deleteAntsAppointmentRestCall( antsURL );
-
-					AppLogService.debug(
-							"{} ANTS appointment with number '{}' was {} for appointment with ID {}",
-							BEAN_SERVICE,
-							appplicationNumber,
-							isAppointmentDeleted ? "deleted" : "not deleted",
-							idAppointment
-							);
-
-					// If the appointment was not deleted successfully
-					if( !isAppointmentDeleted )
-					{
-						return isAppointmentDeleted;
-					}
-				}
-				catch ( Exception e )
-				{
-					AppLogService.error( BEAN_SERVICE, e );
-				}
+						applicationContent.get( KEY_DATE ) ) );
+			}
+			else
+			{
+				listAntsUrls.add( buildAntsAddAppointmentUrl(
+						settings.getBaseUrl( ),
+						settings.getAddAppointmentUrl( ),
+						applicationNumber,
+						applicationContent.get( KEY_URL ),
+						applicationContent.get( KEY_LOCATION ),
+						strMeetingPointId,
+						applicationContent.get( KEY_DATE ) ) );
 			}
 		}
-		return isAppointmentDeleted;
+		return listAntsUrls;
+	}
+
+	/**
+	 * Call the ANTS API asynchronously to create or delete the ANTS appointment of one application number
+	 * 
+	 * @param antsUrl
+	 * 				The URL to call
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointment is deleted (true) or created (false)
+	 * @param executor
+	 * 				The executor making the call
+	 * @return
+	 * 				The future outcome: true if the call was successful, false otherwise. Never completed exceptionally
+	 */
+	private static CompletableFuture<Boolean> callAntsUrlAsync( String antsUrl, boolean isDeletingAppointment, Executor executor )
+	{
+		CompletableFuture<String> responseFuture = isDeletingAppointment
+				? TaskAntsAppointmentRest.deleteAntsAppointmentAsync( antsUrl, AntsSettings.getCurrent( ).getToken( ), executor )
+				: TaskAntsAppointmentRest.addAntsAppointmentAsync( antsUrl, AntsSettings.getCurrent( ).getToken( ), executor );
+
+		return responseFuture.thenApply( response -> {
+			try
+			{
+				return isDeletingAppointment ? isAppointmentDeletionSuccessful( response ) : isAppointmentCreationSuccessful( response );
+			}
+			catch( IOException e )
+			{
+				throw new CompletionException( e );
+			}
+		} ).exceptionally( e -> {
+			AppLogService.error( BEAN_SERVICE, e );
+			return Boolean.FALSE;
+		} );
 	}
 
 	/**
@@ -366,11 +1243,12 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 				append( addAppointmentUrl );
 
 		UrlItem urlItem = new UrlItem( antsApiUrl.toString( ) );
-		urlItem.addParameter(URL_PARAMETER_APPLICATION_ID, applicationId );
-		urlItem.addParameter(URL_PARAMETER_MANAGEMENT_URL, managementUrl );
-		urlItem.addParameter(URL_PARAMETER_MEETING_POINT, meetingPoint );
-		urlItem.addParameter(URL_PARAMETER_MEETING_POINT_ID, strMeetingPointId );
-		urlItem.addParameter(URL_PARAMETER_APPOINTMENT_DATE, dateTime );
+		AntsSettings settings = AntsSettings.getCurrent( );
+		urlItem.addParameter( settings.getParameterApplicationId( ), applicationId );
+		urlItem.addParameter( settings.getParameterManagementUrl( ), managementUrl );
+		urlItem.addParameter( settings.getParameterMeetingPoint( ), meetingPoint );
+		urlItem.addParameter( settings.getParameterMeetingPointId( ), strMeetingPointId );
+		urlItem.addParameter( settings.getParameterAppointmentDate( ), dateTime );
 
 		return urlItem.getUrl( );
 	}
@@ -387,7 +1265,7 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 	 */
 	public static boolean addAntsAppointmentRestCall( String antsUrl ) throws HttpAccessException, IOException
 	{
-		String response = TaskAntsAppointmentRest.addAntsAppointment( antsUrl, PROPERTY_API_OPT_AUTH_TOKEN_VALUE );
+		String response = TaskAntsAppointmentRest.addAntsAppointment( antsUrl, AntsSettings.getCurrent( ).getToken( ) );
 
 		return isAppointmentCreationSuccessful( response );
 	}
@@ -416,10 +1294,11 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 				append( deleteAppointmentUrl );
 
 		UrlItem urlItem = new UrlItem( antsApiUrl.toString( ) );
-		urlItem.addParameter(URL_PARAMETER_APPLICATION_ID, applicationId );
-		urlItem.addParameter(URL_PARAMETER_MEETING_POINT, meetingPoint );
-		urlItem.addParameter(URL_PARAMETER_MEETING_POINT_ID, strMeetingPointId );
-		urlItem.addParameter(URL_PARAMETER_APPOINTMENT_DATE, dateTime );
+		AntsSettings settings = AntsSettings.getCurrent( );
+		urlItem.addParameter( settings.getParameterApplicationId( ), applicationId );
+		urlItem.addParameter( settings.getParameterMeetingPoint( ), meetingPoint );
+		urlItem.addParameter( settings.getParameterMeetingPointId( ), strMeetingPointId );
+		urlItem.addParameter( settings.getParameterAppointmentDate( ), dateTime );
 
 		return urlItem.getUrl( );
 	}
@@ -436,7 +1315,7 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 	 */
 	public static boolean deleteAntsAppointmentRestCall( String antsUrl ) throws HttpAccessException, IOException
 	{
-		String response = TaskAntsAppointmentRest.deleteAntsAppointment( antsUrl, PROPERTY_API_OPT_AUTH_TOKEN_VALUE );
+		String response = TaskAntsAppointmentRest.deleteAntsAppointment( antsUrl, AntsSettings.getCurrent( ).getToken( ) );
 
 		return isAppointmentDeletionSuccessful( response );
 	}
@@ -452,18 +1331,39 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 	 * 				Whether the appointment is getting deleted (true) or if it is being created (false)
 	 * @return
 	 * 				A <Key, Value> list of the current appointment's URL,
-	 * 				location and date
+	 * 				location, date, Form and cancellation state
 	 */
 	public static Map<String, String> getAppointmentData( HttpServletRequest request, int idAppointment, boolean isDeletingAppointment )
 	{
-		Map<String, String> appointmentDataMap = new HashMap<>( );
+		return getAppointmentData( request, idAppointment, isDeletingAppointment, new HashMap<>( ) );
+	}
+
+	/**
+	 * Retrieve the details of the current appointment (user name, email, date, etc.), by using a cache
+	 * of the locations of the forms already processed
+	 * 
+	 * @param request
+	 * 				The request from the current context
+	 * @param idAppointment
+	 * 				The ID of the appointment to process
+	 * @param isDeletingAntsAppointment
+	 * 				Whether the appointment is getting deleted (true) or if it is being created (false)
+	 * @param mapLocationsByForm
+	 * 				The locations of the forms already processed, with the ID of the forms as keys
+	 * @return
+	 * 				A <Key, Value> list of the current appointment's URL,
+	 * 				location, date, Form and cancellation state
+	 */
+	private static Map<String, String> getAppointmentData( HttpServletRequest request, int idAppointment, boolean isDeletingAppointment,
+			Map<Integer, String> mapLocationsByForm )
+	{
 		AppointmentDTO appointmentDto = null;
 
 		// Check if the current appointment is being deleted
 		if( isDeletingAppointment )
 		{
 			// Get the appointement's previous data, in case it is being rescheduled
-			appointmentDto = getOldAppointment( request );
+			appointmentDto = getOldAppointment( request, idAppointment );
 
 			if( appointmentDto == null )
 			{
@@ -477,64 +1377,112 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 			appointmentDto = AppointmentService.buildAppointmentDTOFromIdAppointment( idAppointment );
 		}
 
+		return buildAppointmentData( appointmentDto != null ? toSummary( appointmentDto ) : null, mapLocationsByForm );
+	}
+
+	/**
+	 * Build the details of an appointment used by the ANTS calls
+	 * 
+	 * @param summary
+	 * 				The Form, date and cancellation state of the appointment, null if it doesn't exist anymore
+	 * @param mapLocationsByForm
+	 * 				The locations of the forms already processed, with the ID of the forms as keys
+	 * @return
+	 * 				A <Key, Value> list of the appointment's URL,
+	 * 				location, date, Form and cancellation state
+	 */
+	private static Map<String, String> buildAppointmentData( TaskAntsAppointmentSummary summary, Map<Integer, String> mapLocationsByForm )
+	{
+		Map<String, String> appointmentDataMap = new HashMap<>( );
+
 		// Get the URL of the user's account on PARIS' web site, and encode it
 		appointmentDataMap.put(
 				KEY_URL,
-				cleanUrl( PARIS_USER_ACCOUNT_URL ) );
+				cleanUrl( AntsSettings.getCurrent( ).getUserAccountUrl( ) ) );
 
 		// Get the appointment's location
 		String appointmentLocation = "";
 
-		if( appointmentDto != null ) {
-			Localization localization = LocalizationService.findLocalizationWithFormId( appointmentDto.getIdForm( ) );
-			if( localization != null && localization.getAddress( ) != null )
-			{
-				appointmentLocation = localization.getAddress( );
-			}
+		if( summary != null ) {
+			appointmentLocation = mapLocationsByForm.computeIfAbsent( summary.getIdForm( ),
+					idForm -> AntsFormLocationCacheService.getInstance( ).getLocation( idForm ) );
 		}
 		appointmentDataMap.put(
 				KEY_LOCATION,
 				cleanUrl( appointmentLocation ).replace( "+" , "%20" ) );
 
 		// Get the appointment's date and time
-		String appointmentDateTime = "";
-
-		if( appointmentDto != null )
-		{
-			String startingDateTime = appointmentDto.getStartingDateTime( ).toString( );
+		String startingDateTime = summary != null && summary.getStartingDate( ) != null ? summary.getStartingDate( ).toLocalDateTime( ).toString( ) : "";
 
-			// Encode the date and time so they fit properly in a URL and encode the ':' characters
-			appointmentDateTime = cleanUrl( startingDateTime ).replace( "+" , "%20" );
-		}
+		// Encode the date and time so they fit properly in a URL and encode the ':' characters
 		appointmentDataMap.put(
 				KEY_DATE,
-				appointmentDateTime );
+				cleanUrl( startingDateTime ).replace( "+" , "%20" ) );
+		appointmentDataMap.put(
+				KEY_STARTING_DATE_TIME,
+				startingDateTime );
 
         // Get the ID of this appointment's Form
-        int appointmentFormId = appointmentDto != null ? appointmentDto.getIdForm( ) : 0;
+        int appointmentFormId = summary != null ? summary.getIdForm( ) : 0;
         appointmentDataMap.put( KEY_FORM_ID, Integer.toString( appointmentFormId ) );
 
+        // Whether the appointment is cancelled or removed
+        appointmentDataMap.put( KEY_CANCELLED, Boolean.toString( summary == null || summary.isCancelled( ) ) );
+
 		return appointmentDataMap;
 	}
 
+	/**
+	 * Get the details of an appointment used by the ANTS calls from its AppointmentDTO
+	 * 
+	 * @param appointmentDto
+	 * 				The AppointmentDTO of the appointment
+	 * @return
+	 * 				The Form, date and cancellation state of the appointment
+	 */
+	private static TaskAntsAppointmentSummary toSummary( AppointmentDTO appointmentDto )
+	{
+		TaskAntsAppointmentSummary summary = new TaskAntsAppointmentSummary( );
+		summary.setIdAppointment( appointmentDto.getIdAppointment( ) );
+		summary.setIdForm( appointmentDto.getIdForm( ) );
+		summary.setStartingDate( appointmentDto.getStartingDateTime( ) != null ? Timestamp.valueOf( appointmentDto.getStartingDateTime( ) ) : null );
+		summary.setCancelled( appointmentDto.getIsCancelled( ) );
+
+		return summary;
+	}
+
 	/**
 	 * Get the AppointmentDTO containing the previous data of an appointment. It is retrieved
 	 * from the request's attributes
 	 * 
 	 * @param request
-	 * 				The request containing the AppointmentDTO in its attributes
+	 * 				The request containing the AppointmentDTO in its attributes, can be null
+	 * @param idAppointment
+	 * 				The ID of the appointment being processed
 	 * @return
 	 * 				The AppointmentDTO Object containing the previous data if it was found,
 	 * 				returns null otherwise
 	 */
-	private static AppointmentDTO getOldAppointment( HttpServletRequest request )
+	private static AppointmentDTO getOldAppointment( HttpServletRequest request, int idAppointment )
 	{
 		AppointmentDTO oldAppointment = null;
 
+		// Retries run outside of any request
+		if( request == null )
+		{
+			return null;
+		}
+
 		try
 		{
 			// Retrieve the previous appointment from the request's parameters
 			oldAppointment = ( AppointmentDTO ) request.getAttribute( AppointmentUtilities.OLD_APPOINTMENT_DTO );
+
+			// Ignore the previous data if it belongs to another appointment (when a list of appointments is processed)
+			if( oldAppointment != null && oldAppointment.getIdAppointment( ) != idAppointment )
+			{
+				oldAppointment = null;
+			}
 		}
 		catch ( Exception e )
 		{
@@ -556,13 +1504,93 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 	public static List<AntsStatusResponsePOJO> getAntsStatusResponseAsObjects( List<String> applicationNumberList, String strMeetingPointId )
 			throws HttpAccessException
 	{
-		String getStatusUrl = buildAntsGetStatusAppointmentUrl( applicationNumberList, strMeetingPointId );
+		return new ArrayList<>( getAntsStatusResponseAsMap( applicationNumberList, strMeetingPointId ).values( ) );
+	}
+
+	/**
+	 * Get the status of every ANTS application numbers given as parameter. The application numbers are
+	 * split in chunks so that each status request stays under the configured URL length and amount of
+	 * application numbers. The chunks are checked concurrently and their results are merged
+	 * 
+	 * @param applicationNumberList
+	 *            List of the application numbers for which the status will be retrieved
+	 * @param strMeetingPointId
+	 *            The value of the "meeting_point_id" parameter
+	 * @return The status of the given ANTS application numbers, with the application numbers as keys. Returns an empty Map if no element was found
+	 * @throws HttpAccessException
+	 *            If the status of one of the chunks couldn't be retrieved
+	 */
+	public static Map<String, AntsStatusResponsePOJO> getAntsStatusResponseAsMap( List<String> applicationNumberList, String strMeetingPointId )
+			throws HttpAccessException
+	{
+		try
+		{
+			return getAntsStatusResponseAsMapAsync( applicationNumberList, strMeetingPointId, TaskAntsAppointmentExecutor.getAsyncExecutor( ) ).join( );
+		}
+		catch( CompletionException e )
+		{
+			if( e.getCause( ) instanceof HttpAccessException )
+			{
+				throw ( HttpAccessException ) e.getCause( );
+			}
+			throw new HttpAccessException( BEAN_SERVICE + " - Failed to retrieve the status of the ANTS application numbers", e );
+		}
+	}
 
-		String response = "";
+	/**
+	 * Get asynchronously the status of every ANTS application numbers given as parameter. The application numbers
+	 * are split in chunks so that each status request stays under the configured URL length and amount of
+	 * application numbers. The chunks are checked concurrently and their results are merged
+	 * 
+	 * @param applicationNumberList
+	 *            List of the application numbers for which the status will be retrieved
+	 * @param strMeetingPointId
+	 *            The value of the "meeting_point_id" parameter
+	 * @param executor
+	 *            The executor making the ANTS calls
+	 * @return The future status of the given ANTS application numbers, with the application numbers as keys. Completed
+	 *         exceptionally if the status of one of the chunks couldn't be retrieved
+	 */
+	public static CompletableFuture<Map<String, AntsStatusResponsePOJO>> getAntsStatusResponseAsMapAsync( List<String> applicationNumberList,
+			String strMeetingPointId, Executor executor )
+	{
+		List<List<String>> listChunks = splitApplicationNumbersIntoChunks(
+				applicationNumberList,
+				buildAntsGetStatusAppointmentUrl( Collections.emptyList( ), strMeetingPointId ).length( ),
+				AntsSettings.getCurrent( ).getParameterApplicationIds( ),
+				STATUS_MAX_URL_LENGTH,
+				STATUS_MAX_APPLICATION_IDS );
+
+		List<CompletableFuture<Map<String, AntsStatusResponsePOJO>>> listChunkFutures = new ArrayList<>( listChunks.size( ) );
+		for( List<String> listChunk : listChunks )
+		{
+			listChunkFutures.add( TaskAntsAppointmentRest
+					.getAntsAppointmentStatusAsync( buildAntsGetStatusAppointmentUrl( listChunk, strMeetingPointId ), AntsSettings.getCurrent( ).getToken( ),
+							listChunk.size( ), executor )
+					.thenApply( TaskAntsAppointmentService::parseStatusResponse ) );
+		}
 
-		List<AntsStatusResponsePOJO> statusObjectsList = new ArrayList<>( );
+		// Merge the results of the chunks, in the order of the application numbers
+		return CompletableFuture.allOf( listChunkFutures.toArray( new CompletableFuture<?>[ 0 ] ) ).thenApply( done -> {
+			Map<String, AntsStatusResponsePOJO> mapStatus = new LinkedHashMap<>( );
+			for( CompletableFuture<Map<String, AntsStatusResponsePOJO>> chunkFuture : listChunkFutures )
+			{
+				mapStatus.putAll( chunkFuture.join( ) );
+			}
+			return mapStatus;
+		} );
+	}
 
-		response = TaskAntsAppointmentRest.getAntsAppointmentStatus( getStatusUrl, PROPERTY_API_OPT_AUTH_TOKEN_VALUE );
+	/**
+	 * Parse the response of a status request
+	 * 
+	 * @param response
+	 *            The content of the response
+	 * @return The status of the application numbers, with the application numbers as keys. Returns an empty Map if the response
+	 *         is empty or invalid
+	 */
+	private static Map<String, AntsStatusResponsePOJO> parseStatusResponse( String response )
+	{
 		AppLogService.debug( "{} - ANTS GET STATUS request successful - Response: {}", BEAN_SERVICE, response );
 
 		// If the HTTP call was made and returned a response
@@ -570,14 +1598,61 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 		{
 			try
 			{
-				statusObjectsList = getStatusResponseAsObject( response );
+				return getStatusResponseAsMap( response );
 			}
-			catch( IOException e)
+			catch( IOException e )
 			{
 				AppLogService.error( BEAN_SERVICE, e );
 			}
 		}
-		return statusObjectsList;
+		return Collections.emptyMap( );
+	}
+
+	/**
+	 * Split a list of ANTS application numbers into chunks, so that the status URL built for each chunk
+	 * doesn't exceed a maximum length nor a maximum amount of application numbers. Duplicated application
+	 * numbers are only checked once
+	 * 
+	 * @param applicationNumberList
+	 *            The application numbers to split
+	 * @param nBaseUrlLength
+	 *            The length of the status URL without any application number
+	 * @param strParameterName
+	 *            The name of the URL parameter used for each application number
+	 * @param nMaxUrlLength
+	 *            The maximum length of a status URL
+	 * @param nMaxApplicationIds
+	 *            The maximum amount of application numbers in a status URL
+	 * @return the chunks of application numbers. Every chunk contains at least one application number
+	 */
+	public static List<List<String>> splitApplicationNumbersIntoChunks( List<String> applicationNumberList, int nBaseUrlLength, String strParameterName,
+			int nMaxUrlLength, int nMaxApplicationIds )
+	{
+		List<List<String>> listChunks = new ArrayList<>( );
+		List<String> listCurrentChunk = new ArrayList<>( );
+		int nCurrentUrlLength = nBaseUrlLength;
+
+		for( String applicationNumber : new LinkedHashSet<>( applicationNumberList ) )
+		{
+			// "&" + parameter name + "=" + value
+			int nParameterLength = strParameterName.length( ) + applicationNumber.length( ) + 2;
+
+			if( !listCurrentChunk.isEmpty( ) &&
+					( listCurrentChunk.size( ) >= nMaxApplicationIds || nCurrentUrlLength + nParameterLength > nMaxUrlLength ) )
+			{
+				listChunks.add( listCurrentChunk );
+				listCurrentChunk = new ArrayList<>( );
+				nCurrentUrlLength = nBaseUrlLength;
+			}
+			listCurrentChunk.add( applicationNumber );
+			nCurrentUrlLength += nParameterLength;
+		}
+
+		if( !listCurrentChunk.isEmpty( ) )
+		{
+			listChunks.add( listCurrentChunk );
+		}
+		return listChunks;
 	}
 
 	/**
@@ -591,20 +1666,22 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
      */
 	public static String buildAntsGetStatusAppointmentUrl( List<String> applicationIdsList, String strMeetingPointId )
 	{
+		AntsSettings settings = AntsSettings.getCurrent( );
+
 		// Build the base ANTS API URL used to retrieve the status of appointments
 		StringBuilder antsApisUrl = new StringBuilder(
-				ANTS_BASE_URL ).append( ANTS_STATUS_URL );
+				settings.getBaseUrl( ) ).append( settings.getStatusUrl( ) );
 
 		UrlItem urlItem = new UrlItem( antsApisUrl.toString( ) );
 
 		// Add every ANTS application number to the URL's parameters
 		for( String applicationId : applicationIdsList )
 		{
-			urlItem.addParameter( URL_PARAMETER_APPLICATION_IDS, applicationId );
+			urlItem.addParameter( settings.getParameterApplicationIds( ), applicationId );
 		}
 
 		// Add the "meeting_point_id" parameter to the URL
-		urlItem.addParameter( URL_PARAMETER_MEETING_POINT_ID, strMeetingPointId );
+		urlItem.addParameter( settings.getParameterMeetingPointId( ), strMeetingPointId );
 
 		return urlItem.getUrl();
 	}
@@ -645,17 +1722,16 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 		for( AntsStatusResponsePOJO statusResponse : statusResponseList )
 		{
 			String statusAntsNumber = statusResponse.getStatus( );
-			Object[] listAntsNumberAppointments = statusResponse.getAppointments( );
+			AntsAppointmentPOJO[] listAntsNumberAppointments = statusResponse.getAppointments( );
 
 			/* If the application number hasn't been validated, or if it already has
 			 * appointments tied to it, then we shouldn't create any appointment
 			 * */
-			if( !StringUtils.equals( statusAntsNumber, STATUS_VALIDATED ) ||
-					ArrayUtils.isNotEmpty( listAntsNumberAppointments ) )
+			if( !isStatusValidForCreation( statusResponse ) )
 			{
 				AppLogService.error(
 						"{} - ANTS appointment not valid for creation: Appointment {} with ANTS number '{}' has a status '{}' and {} appointment(s)",
-						BEAN_SERVICE, idAppointment, Arrays.toString( applicationNumberList.toArray( ) ), statusAntsNumber, listAntsNumberAppointments.length );
+						BEAN_SERVICE, idAppointment, Arrays.toString( applicationNumberList.toArray( ) ), statusAntsNumber, ArrayUtils.getLength( listAntsNumberAppointments ) );
 				return false;
 			}
 		}
@@ -699,13 +1775,12 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 		for( AntsStatusResponsePOJO statusResponse : statusResponseList )
 		{
 			String statusAntsNumber = statusResponse.getStatus( );
-			Object[] listAntsNumberAppointments = statusResponse.getAppointments( );
+			AntsAppointmentPOJO[] listAntsNumberAppointments = statusResponse.getAppointments( );
 
 			/* If the application number hasn't been validated, and if it has no
 			 * appointment tied to it, then we can't delete it
 			 * */
-			if( !StringUtils.equals( statusAntsNumber, STATUS_VALIDATED ) ||
-					ArrayUtils.isEmpty( listAntsNumberAppointments ) )
+			if( !isStatusValidForDeletion( statusResponse ) )
 			{
 				AppLogService.error(
 						"{} - ANTS appointment not valid for deletion: Appointment {} with ANTS number '{}' has a status '{}' and no appointment",
@@ -716,6 +1791,128 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 		return true;
 	}
 
+	/**
+	 * Check if the status of an application number allows to add a new appointment ('validated' status
+	 * and empty list of appointments)
+	 * 
+	 * @param statusResponse
+	 * 				The status of the application number
+	 * @return
+	 * 				true if an appointment can be created, false otherwise
+	 */
+	public static boolean isStatusValidForCreation( AntsStatusResponsePOJO statusResponse )
+	{
+		return StringUtils.equals( statusResponse.getStatus( ), AntsSettings.getCurrent( ).getStatusValidated( ) ) &&
+				ArrayUtils.isEmpty( statusResponse.getAppointments( ) );
+	}
+
+	/**
+	 * Check if the status of an application number allows to delete its existing appointments ('validated'
+	 * status and at least 1 element in its list of appointments)
+	 * 
+	 * @param statusResponse
+	 * 				The status of the application number
+	 * @return
+	 * 				true if the appointments can be deleted, false otherwise
+	 */
+	public static boolean isStatusValidForDeletion( AntsStatusResponsePOJO statusResponse )
+	{
+		return StringUtils.equals( statusResponse.getStatus( ), AntsSettings.getCurrent( ).getStatusValidated( ) ) &&
+				ArrayUtils.isNotEmpty( statusResponse.getAppointments( ) );
+	}
+
+	/**
+	 * Find the ANTS appointment of an application number at a meeting point and a date
+	 * 
+	 * @param statusResponse
+	 * 				The status of the application number
+	 * @param strMeetingPointId
+	 * 				The value of the "meeting_point_id" of the meeting point
+	 * @param dateAppointment
+	 * 				The date of the appointment
+	 * @return
+	 * 				The ANTS appointment, or null if the application number has no appointment at this meeting point and date
+	 */
+	public static AntsAppointmentPOJO findAntsAppointment( AntsStatusResponsePOJO statusResponse, String strMeetingPointId, LocalDateTime dateAppointment )
+	{
+		for( AntsAppointmentPOJO appointment : ArrayUtils.nullToEmpty( statusResponse.getAppointments( ), AntsAppointmentPOJO[].class ) )
+		{
+			if( appointment.isSameAppointment( strMeetingPointId, dateAppointment ) )
+			{
+				return appointment;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Check if the application number has an ANTS appointment at a meeting point, whatever its date
+	 * 
+	 * @param statusResponse
+	 * 				The status of the application number
+	 * @param strMeetingPointId
+	 * 				The value of the "meeting_point_id" of the meeting point
+	 * @return
+	 * 				true if the application number has at least one ANTS appointment at the meeting point
+	 */
+	public static boolean hasAntsAppointmentAtMeetingPoint( AntsStatusResponsePOJO statusResponse, String strMeetingPointId )
+	{
+		for( AntsAppointmentPOJO appointment : ArrayUtils.nullToEmpty( statusResponse.getAppointments( ), AntsAppointmentPOJO[].class ) )
+		{
+			if( StringUtils.equals( appointment.getMeetingPointId( ), strMeetingPointId ) )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Check if the ANTS appointment of a validated application number is already in the expected state: present at
+	 * the meeting point and date when it is created, and no appointment at all at the meeting point when it is
+	 * deleted. An ANTS appointment of the meeting point at another date is still deleted, as the dates of ANTS and of
+	 * the appointment may differ (time zone, rescheduled appointment)
+	 * 
+	 * @param statusResponse
+	 * 				The status of the application number, can be null
+	 * @param strMeetingPointId
+	 * 				The value of the "meeting_point_id" of the meeting point
+	 * @param dateAppointment
+	 * 				The date of the appointment, null if unknown
+	 * @param isDeletingAppointment
+	 * 				Whether the ANTS appointment is deleted (true) or created (false)
+	 * @return
+	 * 				true if there's nothing to send to ANTS for this application number
+	 */
+	public static boolean isAntsAppointmentUpToDate( AntsStatusResponsePOJO statusResponse, String strMeetingPointId, LocalDateTime dateAppointment,
+			boolean isDeletingAppointment )
+	{
+		if( statusResponse == null || !StringUtils.equals( statusResponse.getStatus( ), AntsSettings.getCurrent( ).getStatusValidated( ) ) )
+		{
+			return false;
+		}
+		if( isDeletingAppointment )
+		{
+			return !hasAntsAppointmentAtMeetingPoint( statusResponse, strMeetingPointId );
+		}
+		return dateAppointment != null && findAntsAppointment( statusResponse, strMeetingPointId, dateAppointment ) != null;
+	}
+
+	/**
+	 * Get the starting date and time of an appointment from its details
+	 * 
+	 * @param applicationContent
+	 * 				The details of the appointment
+	 * @return
+	 * 				The starting date and time, or null if unknown
+	 */
+	private static LocalDateTime getStartingDateTime( Map<String, String> applicationContent )
+	{
+		String strStartingDateTime = applicationContent.get( KEY_STARTING_DATE_TIME );
+
+		return StringUtils.isNotBlank( strStartingDateTime ) ? LocalDateTime.parse( strStartingDateTime ) : null;
+	}
+
 	/**
 	 * Creates a List of {@link AntsStatusResponsePOJO} Objects from a json String containing the status
 	 * and appointments list that were returned by the ANTS API
@@ -730,10 +1927,27 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 	 */
 	public static List<AntsStatusResponsePOJO> getStatusResponseAsObject( String response ) throws IOException
 	{
-		ObjectMapper mapper = new ObjectMapper( );
-		JsonNode jsonNode = mapper.readTree( response );
+		return new ArrayList<>( getStatusResponseAsMap( response ).values( ) );
+	}
+
+	/**
+	 * Creates a Map of {@link AntsStatusResponsePOJO} Objects from a json String containing the status
+	 * and appointments list that were returned by the ANTS API
+	 * 
+	 * @param response
+	 * 				The content of the HTTP response returned by the ANTS API after getting the status of 
+	 * 				one or more ANTS application number(s)
+	 * @return
+	 * 				A Map of AntsStatusResponsePOJO Objects, with the ANTS application numbers as keys
+	 * @throws IOException
+	 */
+	public static Map<String, AntsStatusResponsePOJO> getStatusResponseAsMap( String response ) throws IOException
+	{
+		IAntsJsonParseEvent event = AntsEventFactory.beginJsonParseEvent( );
+
+		JsonNode jsonNode = OBJECT_MAPPER.readTree( response );
 
-		List<AntsStatusResponsePOJO> statusList = new ArrayList<>( );
+		Map<String, AntsStatusResponsePOJO> statusMap = new LinkedHashMap<>( );
 
 		Iterator<String> fieldNames = jsonNode.fieldNames();
 
@@ -742,12 +1956,14 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 		{
 			String fieldName = fieldNames.next( );
 			JsonNode field = jsonNode.get( fieldName );
-			statusList.add(
-					mapper.readerFor( AntsStatusResponsePOJO.class )
-					.readValue( field.toString() )
-					);
+			AntsStatusResponsePOJO statusResponse = STATUS_RESPONSE_READER.readValue( field );
+			statusResponse.setApplicationNumber( fieldName );
+			statusMap.put( fieldName, statusResponse );
 		}
-		return statusList;
+
+		event.commit( AntsEndpoint.STATUS.name( ), statusMap.size( ), response );
+
+		return statusMap;
 	}
 
 	/**
@@ -783,11 +1999,12 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 	 */
 	public static boolean isAppointmentCreationSuccessful( String response ) throws IOException
 	{
-		ObjectMapper mapper = new ObjectMapper( );
+		IAntsJsonParseEvent event = AntsEventFactory.beginJsonParseEvent( );
 
 		// Convert the content of the response into an Object
-		AntsAddAppointmentResponsePOJO responseObject =
-				mapper.readValue( response, AntsAddAppointmentResponsePOJO.class );
+		AntsAddAppointmentResponsePOJO responseObject = ADD_RESPONSE_READER.readValue( response );
+
+		event.commit( AntsEndpoint.ADD.name( ), 1, response );
 
 		// Check the result from the Object
 		return responseObject.isSuccess( );
@@ -805,11 +2022,12 @@ public class TaskAntsAppointmentService implements ITaskAntsAppointmentService {
 	 */
 	public static boolean isAppointmentDeletionSuccessful( String response ) throws IOException
 	{
-		ObjectMapper mapper = new ObjectMapper( );
+		IAntsJsonParseEvent event = AntsEventFactory.beginJsonParseEvent( );
 
 		// Convert the content of the response into an Object
-		AntsDeleteAppointmentResponsePOJO responseObject =
-				mapper.readValue( response, AntsDeleteAppointmentResponsePOJO.class );
+		AntsDeleteAppointmentResponsePOJO responseObject = DELETE_RESPONSE_READER.readValue( response );
+
+		event.commit( AntsEndpoint.DELETE.name( ), 1, response );
 
 		/*
 		 * Check the Response:
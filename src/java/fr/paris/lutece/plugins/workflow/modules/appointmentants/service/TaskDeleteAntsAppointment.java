@@ -33,6 +33,9 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 import javax.inject.Inject;
@@ -43,6 +46,10 @@ import fr.paris.lutece.api.user.User;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history.TaskAntsAppointmentHistory;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.history.ITaskAntsAppointmentHistoryService;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.history.TaskAntsAppointmentHistoryService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint.AntsMeetingPointDirectoryService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsSettings;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.statistics.AntsStatisticsService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
 import fr.paris.lutece.plugins.workflow.utils.WorkflowUtils;
 import fr.paris.lutece.plugins.workflowcore.business.resource.ResourceHistory;
 import fr.paris.lutece.plugins.workflowcore.service.config.ITaskConfigService;
@@ -51,6 +58,7 @@ import fr.paris.lutece.plugins.workflowcore.service.resource.ResourceHistoryServ
 import fr.paris.lutece.plugins.workflowcore.service.task.SimpleTask;
 import fr.paris.lutece.portal.service.i18n.I18nService;
 import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
 
 /**
  * 
@@ -86,6 +94,12 @@ public class TaskDeleteAntsAppointment extends SimpleTask
 	@Named( TaskAntsAppointmentHistoryService.BEAN_SERVICE )
 	private ITaskAntsAppointmentHistoryService _antsAppointmentHistoryService;
 
+	/**
+	 * Time budget (ms) of the ANTS calls of an execution
+	 */
+	private static final String PROPERTY_TASK_DEADLINE = "ants.task.deadline";
+	private static final long DEFAULT_TASK_DEADLINE = 5000L;
+
 	/**
 	 * Title of the task
 	 */
@@ -100,12 +114,23 @@ public class TaskDeleteAntsAppointment extends SimpleTask
 		// Get the resourceHistory to find the resource (i.e the appointment) to work with
 		ResourceHistory resourceHistory = _resourceHistoryService.findByPrimaryKey( nIdResourceHistory );
 
+		// The ANTS appointments follow the changes of the appointment: the debounced synchronization sends the net change
+		if( AntsAppointmentSyncService.isEnabled( ) )
+		{
+			notifySynchronization( resourceHistory.getIdResource( ), nIdResourceHistory );
+			return true;
+		}
+
 		// Task's execution result
 		boolean isTaskResultPositive = false;
 
 		// Create the current task's history object
 		TaskAntsAppointmentHistory antsAppointmentHistory = new TaskAntsAppointmentHistory( );
 
+		// Bind the execution's context to the current thread, so the ANTS calls can report their outcome
+		AntsExecutionContext context = AntsExecutionContext.start( );
+		context.setDeadline( AppPropertiesService.getPropertyLong( PROPERTY_TASK_DEADLINE, DEFAULT_TASK_DEADLINE ) );
+
 		try
 		{
 			isTaskResultPositive = _antsAppointmentService.deleteAntsAppointment( request, resourceHistory.getIdResource( ), this.getId( ), antsAppointmentHistory );
@@ -114,11 +139,57 @@ public class TaskDeleteAntsAppointment extends SimpleTask
 		{
 			AppLogService.error( CLASS_NAME, e );
 		}
+		finally
+		{
+			AntsExecutionContext.end( );
+		}
 
-		saveTaskHistory( antsAppointmentHistory, nIdResourceHistory, isTaskResultPositive );
+		saveTaskHistory( antsAppointmentHistory, nIdResourceHistory, isTaskResultPositive, context );
+
+		// The deadline was reached: the ANTS calls go on in the background and complete the history once they are done or failed
+		if( context.getDeferredOutcome( ) != null )
+		{
+			context.getDeferredOutcome( ).whenComplete( ( isSuccessful, e ) -> {
+				if( e != null )
+				{
+					context.setLastError( e.toString( ) );
+				}
+				completeTaskHistory( antsAppointmentHistory, e == null && Boolean.TRUE.equals( isSuccessful ), context );
+			} );
+			return true;
+		}
 		return isTaskResultPositive;
 	}
 
+	/**
+	 * Save the current task's history as deferred, then leave the ANTS calls to the debounced synchronization of the
+	 * appointment, which completes the history once it ran. The history is retried if the synchronization is lost
+	 * 
+	 * @param idAppointment
+	 *            ID of the appointment
+	 * @param idResourceHistory
+	 *            ID of the resource history used for the task
+	 */
+	private void notifySynchronization( int idAppointment, int idResourceHistory )
+	{
+		AntsAppointmentSyncService syncService = AntsAppointmentSyncService.getInstance( );
+		int idForm = AntsAppointmentUtils.getIdForm( idAppointment );
+		List<String> applicationNumberList = idForm > 0 ? _antsAppointmentService.getAntsApplicationNumbers( idAppointment, idForm ) : new ArrayList<>( );
+
+		TaskAntsAppointmentHistory antsAppointmentHistory = new TaskAntsAppointmentHistory( );
+		antsAppointmentHistory.setIdResourceHistory( idResourceHistory );
+		antsAppointmentHistory.setIdTask( this.getId( ) );
+		antsAppointmentHistory.setExecutionDate( new Timestamp( System.currentTimeMillis( ) ) );
+		antsAppointmentHistory.setAntsApplicationNumbers( String.join( AntsSettings.getCurrent( ).getApplicationNumbersSeparator( ), applicationNumberList ) );
+		TaskAntsAppointmentHistoryService.setPendingOutcome( antsAppointmentHistory, syncService.getMaxWaitMillis( ) );
+
+		_antsAppointmentHistoryService.create( antsAppointmentHistory, WorkflowUtils.getPlugin( ) );
+		AntsStatisticsService.record( getTaskType( ).getKey( ), idForm, antsAppointmentHistory );
+
+		syncService.notifyChange( idAppointment, idForm, applicationNumberList,
+				( isSuccessful, context ) -> completeTaskHistory( antsAppointmentHistory, isSuccessful, context ) );
+	}
+
 	/**
 	 * Save the current task's history in the database
 	 * 
@@ -128,14 +199,44 @@ public class TaskDeleteAntsAppointment extends SimpleTask
 	 *            ID of the resource history used for the task
 	 * @param isTaskSuccessful
 	 *            Boolean result returned by the task
+	 * @param context
+	 *            Context of the task's execution
 	 */
-	private void saveTaskHistory( TaskAntsAppointmentHistory antsAppointmentHistory, int idResourceHistory, boolean isTaskSuccessful )
+	private void saveTaskHistory( TaskAntsAppointmentHistory antsAppointmentHistory, int idResourceHistory, boolean isTaskSuccessful,
+			AntsExecutionContext context )
 	{
 		antsAppointmentHistory.setIdResourceHistory( idResourceHistory );
 		antsAppointmentHistory.setIdTask( this.getId( ) );
-		antsAppointmentHistory.setTaskSuccessState( isTaskSuccessful );
+		antsAppointmentHistory.setExecutionDate( new Timestamp( System.currentTimeMillis( ) ) );
+		TaskAntsAppointmentHistoryService.setOutcome( antsAppointmentHistory, isTaskSuccessful, context );
 
 		_antsAppointmentHistoryService.create( antsAppointmentHistory, WorkflowUtils.getPlugin( ) );
+		AntsStatisticsService.record( getTaskType( ).getKey( ), context.getIdForm( ), antsAppointmentHistory );
+	}
+
+	/**
+	 * Save the outcome of ANTS calls that were deferred, or left to the synchronization, in the current task's history
+	 * 
+	 * @param antsAppointmentHistory
+	 *            Instance of TaskAntsAppointmentHistory object saved when the calls were deferred
+	 * @param isTaskSuccessful
+	 *            Boolean result of the deferred calls
+	 * @param context
+	 *            Context of the task's execution
+	 */
+	private void completeTaskHistory( TaskAntsAppointmentHistory antsAppointmentHistory, boolean isTaskSuccessful, AntsExecutionContext context )
+	{
+		try
+		{
+			TaskAntsAppointmentHistoryService.setDeferredOutcome( antsAppointmentHistory, isTaskSuccessful, context );
+
+			_antsAppointmentHistoryService.updateOutcome( antsAppointmentHistory, WorkflowUtils.getPlugin( ) );
+			AntsStatisticsService.record( getTaskType( ).getKey( ), context.getIdForm( ), antsAppointmentHistory );
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( CLASS_NAME, e );
+		}
 	}
 
 	/**
@@ -155,6 +256,7 @@ public class TaskDeleteAntsAppointment extends SimpleTask
 	{
 		_config.remove( this.getId( ) );
 		_antsAppointmentHistoryService.removeByTask( this.getId( ), WorkflowUtils.getPlugin( ) );
+		AntsMeetingPointDirectoryService.getInstance( ).invalidate( );
 	}
 
 	/**
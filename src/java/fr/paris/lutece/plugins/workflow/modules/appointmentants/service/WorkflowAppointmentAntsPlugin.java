@@ -33,6 +33,7 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
 
+import fr.paris.lutece.portal.service.init.ShutdownServiceManager;
 import fr.paris.lutece.portal.service.plugin.Plugin;
 import fr.paris.lutece.portal.service.plugin.PluginDefaultImplementation;
 import fr.paris.lutece.portal.service.plugin.PluginService;
@@ -54,6 +55,17 @@ public class WorkflowAppointmentAntsPlugin extends PluginDefaultImplementation
      */
     public static final String BEAN_CONFIG = PLUGIN_NAME + ".taskAntsAppointmentConfigService";
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void init( )
+    {
+        super.init( );
+        AntsWarmUpService.start( );
+        ShutdownServiceManager.registerShutdownService( new AntsShutdownService( ) );
+    }
+
     /**
      * Get this Plugin
      *
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.daemon;
+
+import java.time.LocalDate;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsApplicationNumberIndexService;
+import fr.paris.lutece.portal.service.daemon.Daemon;
+import fr.paris.lutece.portal.service.datastore.DatastoreService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Daemon filling the index of the ANTS application numbers with the upcoming appointments taken before the index
+ * existed. The backfill runs once: its completion is saved in the datastore, and removing this value runs it again
+ */
+public class AntsApplicationNumberBackfillDaemon extends Daemon
+{
+	private static final String DATASTORE_KEY_BACKFILL_DONE = "module.appointment.ants.site_property.numbers.backfill.done";
+	private static final String PROPERTY_BACKFILL_PAGE_SIZE = "ants.numbers.backfill.page.size";
+	private static final int DEFAULT_BACKFILL_PAGE_SIZE = 500;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void run( )
+	{
+		if ( Boolean.parseBoolean( DatastoreService.getDataValue( DATASTORE_KEY_BACKFILL_DONE, Boolean.FALSE.toString( ) ) ) )
+		{
+			setLastRunLogs( "ANTS application number index already backfilled" );
+			return;
+		}
+
+		long lStartTime = System.currentTimeMillis( );
+		int nIndexed = AntsApplicationNumberIndexService.getInstance( ).backfill( LocalDate.now( ).atStartOfDay( ),
+				AppPropertiesService.getPropertyInt( PROPERTY_BACKFILL_PAGE_SIZE, DEFAULT_BACKFILL_PAGE_SIZE ) );
+
+		DatastoreService.setDataValue( DATASTORE_KEY_BACKFILL_DONE, Boolean.TRUE.toString( ) );
+		setLastRunLogs( nIndexed + " appointment(s) indexed in " + ( System.currentTimeMillis( ) - lStartTime ) + " ms" );
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.daemon;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.history.ITaskAntsAppointmentHistoryService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.history.TaskAntsAppointmentHistoryService;
+import fr.paris.lutece.plugins.workflow.utils.WorkflowUtils;
+import fr.paris.lutece.portal.service.daemon.Daemon;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Daemon removing the history of the ANTS tasks older than the retention period. The history is removed in small
+ * chunks ordered by key, and each run removes a bounded amount of chunks, so that the table is never locked for long.
+ * The daily statistics keep the aggregates of the removed executions
+ */
+public class AntsHistoryRetentionDaemon extends Daemon
+{
+	private static final String PROPERTY_RETENTION_DAYS = "ants.history.retention.days";
+	private static final String PROPERTY_PURGE_MAX_CHUNKS = "ants.history.purge.max.chunks";
+	private static final int DEFAULT_RETENTION_DAYS = 365;
+	private static final int DEFAULT_PURGE_MAX_CHUNKS = 100;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void run( )
+	{
+		int nRetentionDays = AppPropertiesService.getPropertyInt( PROPERTY_RETENTION_DAYS, DEFAULT_RETENTION_DAYS );
+
+		if ( nRetentionDays <= 0 )
+		{
+			setLastRunLogs( "ANTS history retention disabled" );
+			return;
+		}
+
+		ITaskAntsAppointmentHistoryService historyService = SpringContextService.getBean( TaskAntsAppointmentHistoryService.BEAN_SERVICE );
+		Timestamp dateLimit = new Timestamp( System.currentTimeMillis( ) - TimeUnit.DAYS.toMillis( nRetentionDays ) );
+
+		long lStartTime = System.currentTimeMillis( );
+		int nRemoved = historyService.removeExpired( dateLimit,
+				AppPropertiesService.getPropertyInt( PROPERTY_PURGE_MAX_CHUNKS, DEFAULT_PURGE_MAX_CHUNKS ), WorkflowUtils.getPlugin( ) );
+
+		AppLogService.info( "{} ANTS history entries older than {} removed in {} ms", nRemoved, dateLimit, System.currentTimeMillis( ) - lStartTime );
+		setLastRunLogs( nRemoved + " ANTS history entries older than " + nRetentionDays + " days removed" );
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.daemon;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.ITaskAntsAppointmentNodeLeaseDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentNodeLeaseDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsRateLimiter;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+import fr.paris.lutece.portal.service.daemon.Daemon;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Daemon sharing the ANTS quotas between the nodes of the cluster. Each run renews the lease of this node,
+ * counts the nodes holding a lease and gives this node its share of the rate limits
+ */
+public class AntsRateLimitLeaseDaemon extends Daemon
+{
+	private static final String PROPERTY_CLUSTER_ENABLED = "ants.api.ratelimit.cluster.enabled";
+	private static final String PROPERTY_LEASE_DURATION = "ants.api.ratelimit.cluster.lease.duration";
+	private static final long DEFAULT_LEASE_DURATION = 120L;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void run( )
+	{
+		AntsRateLimiter rateLimiter = AntsRateLimiter.getInstance( );
+
+		if ( AppPropertiesService.getPropertyBoolean( PROPERTY_CLUSTER_ENABLED, false ) )
+		{
+			try
+			{
+				int nbNodes = renewLease( );
+				rateLimiter.setClusterSize( nbNodes );
+				AppLogService.debug( "ANTS rate limits shared between {} node(s)", nbNodes );
+			}
+			catch( Exception e )
+			{
+				// Keep the current share: the lease expires by itself if this node can't renew it
+				AppLogService.error( "Failed to renew the ANTS rate limit lease of node {}", AntsAppointmentUtils.getNodeId( ), e );
+			}
+		}
+
+		setLastRunLogs( rateLimiter.getStatistics( ) );
+	}
+
+	/**
+	 * Renew the lease of this node and count the nodes currently holding a lease
+	 * 
+	 * @return the amount of active nodes, including this one
+	 */
+	private int renewLease( )
+	{
+		ITaskAntsAppointmentNodeLeaseDAO leaseDAO = SpringContextService.getBean( TaskAntsAppointmentNodeLeaseDAO.BEAN_NAME );
+		Plugin plugin = WorkflowAppointmentAntsPlugin.getPlugin( );
+
+		long lNow = System.currentTimeMillis( );
+		long lLeaseDuration = TimeUnit.SECONDS.toMillis( AppPropertiesService.getPropertyLong( PROPERTY_LEASE_DURATION, DEFAULT_LEASE_DURATION ) );
+		Timestamp now = new Timestamp( lNow );
+
+		leaseDAO.deleteExpiredLeases( now, plugin );
+		leaseDAO.storeLease( AntsAppointmentUtils.getNodeId( ), new Timestamp( lNow + lLeaseDuration ), plugin );
+
+		return Math.max( 1, leaseDAO.countActiveLeases( now, plugin ) );
+	}
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.daemon;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentSummary;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history.TaskAntsAppointmentHistory;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsExecutionContext;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.ITaskAntsAppointmentService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.TaskAddAntsAppointment;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.TaskAntsAppointmentService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.TaskDeleteAntsAppointment;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.history.ITaskAntsAppointmentHistoryService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.history.TaskAntsAppointmentHistoryService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsConcurrencyLimiter;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.statistics.AntsStatisticsService;
+import fr.paris.lutece.plugins.workflow.utils.WorkflowUtils;
+import fr.paris.lutece.plugins.workflowcore.business.resource.ResourceHistory;
+import fr.paris.lutece.plugins.workflowcore.service.resource.IResourceHistoryService;
+import fr.paris.lutece.plugins.workflowcore.service.resource.ResourceHistoryService;
+import fr.paris.lutece.plugins.workflowcore.service.task.ITask;
+import fr.paris.lutece.plugins.workflowcore.service.task.ITaskService;
+import fr.paris.lutece.plugins.workflowcore.service.task.TaskService;
+import fr.paris.lutece.portal.service.daemon.Daemon;
+import fr.paris.lutece.portal.service.i18n.I18nService;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Daemon retrying the ANTS calls of the failed executions of the ANTS tasks. Only the failed operation (creation or
+ * deletion) is retried, for the application numbers saved in the task's history, and the history is updated with the
+ * outcome of the retry. The creations and the deletions are each retried as a single batch. The daemon skips its run while the ANTS calls in flight show a peak of activity
+ */
+public class AntsRetryDaemon extends Daemon
+{
+	private static final String PROPERTY_RETRY_MAX_AGE = "ants.retry.max.age";
+	private static final String PROPERTY_RETRY_BATCH_SIZE = "ants.retry.batch.size";
+	private static final long DEFAULT_RETRY_MAX_AGE = 72L;
+	private static final int DEFAULT_RETRY_BATCH_SIZE = 50;
+	private static final int LAST_ERROR_MAX_LENGTH = 255;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void run( )
+	{
+		AntsConcurrencyLimiter limiter = AntsConcurrencyLimiter.getInstance( );
+
+		// Leave the ANTS API to the users during peaks of activity
+		if ( limiter.getInFlight( ) * 2 > limiter.getLimit( ) )
+		{
+			setLastRunLogs( "Retries skipped: " + limiter.getInFlight( ) + " ANTS calls in flight (limit: " + limiter.getLimit( ) + ")" );
+			return;
+		}
+
+		ITaskAntsAppointmentHistoryService historyService = SpringContextService.getBean( TaskAntsAppointmentHistoryService.BEAN_SERVICE );
+		Plugin plugin = WorkflowUtils.getPlugin( );
+
+		long lNow = System.currentTimeMillis( );
+		long lMaxAge = TimeUnit.HOURS.toMillis( AppPropertiesService.getPropertyLong( PROPERTY_RETRY_MAX_AGE, DEFAULT_RETRY_MAX_AGE ) );
+
+		List<TaskAntsAppointmentHistory> listHistory = historyService.findRetryable( new Timestamp( lNow ), new Timestamp( lNow - lMaxAge ),
+				AppPropertiesService.getPropertyInt( PROPERTY_RETRY_BATCH_SIZE, DEFAULT_RETRY_BATCH_SIZE ), plugin );
+
+		ITaskService taskService = SpringContextService.getBean( TaskService.BEAN_SERVICE );
+		Map<Integer, ITask> mapTasks = new HashMap<>( );
+		Map<Integer, TaskAntsAppointmentHistory> mapCreations = new LinkedHashMap<>( );
+		Map<Integer, TaskAntsAppointmentHistory> mapDeletions = new LinkedHashMap<>( );
+
+		for ( TaskAntsAppointmentHistory history : listHistory )
+		{
+			ITask task = mapTasks.computeIfAbsent( history.getIdTask( ), idTask -> taskService.findByPrimaryKey( idTask, I18nService.getDefaultLocale( ) ) );
+			ResourceHistory resourceHistory = getResourceHistory( history.getIdResourceHistory( ) );
+
+			// The task or the action's history was removed in the meantime: there is nothing left to retry
+			if ( !( task instanceof TaskAddAntsAppointment || task instanceof TaskDeleteAntsAppointment ) || resourceHistory == null )
+			{
+				history.setNextAttemptDate( null );
+				historyService.updateOutcome( history, plugin );
+				continue;
+			}
+
+			// Another failed execution of the same appointment is left to the next run
+			Map<Integer, TaskAntsAppointmentHistory> mapBatch = task instanceof TaskDeleteAntsAppointment ? mapDeletions : mapCreations;
+			mapBatch.putIfAbsent( resourceHistory.getIdResource( ), history );
+		}
+
+		int nSuccess = retry( mapCreations, false, mapTasks, historyService, plugin ) + retry( mapDeletions, true, mapTasks, historyService, plugin );
+
+		setLastRunLogs( ( mapCreations.size( ) + mapDeletions.size( ) ) + " execution(s) retried, " + nSuccess + " successful" );
+	}
+
+	/**
+	 * Retry the ANTS calls of failed executions as a single batch, and save the outcome of the retry in their history.
+	 * The duration and the details of the calls saved in each history are those of the whole batch
+	 * 
+	 * @param mapHistory
+	 *            The history of the failed executions, with the ID of their appointment as keys
+	 * @param isDeletingAppointment
+	 *            Whether the ANTS appointments are deleted (true) or created (false)
+	 * @param mapTasks
+	 *            The tasks of the failed executions, with their ID as keys
+	 * @param historyService
+	 *            The service saving the history
+	 * @param plugin
+	 *            The workflow plugin
+	 * @return the amount of successful retries
+	 */
+	private static int retry( Map<Integer, TaskAntsAppointmentHistory> mapHistory, boolean isDeletingAppointment, Map<Integer, ITask> mapTasks,
+			ITaskAntsAppointmentHistoryService historyService, Plugin plugin )
+	{
+		if ( mapHistory.isEmpty( ) )
+		{
+			return 0;
+		}
+
+		ITaskAntsAppointmentService antsAppointmentService = SpringContextService.getBean( TaskAntsAppointmentService.BEAN_SERVICE );
+		Map<Integer, String> mapAntsApplicationNumbers = new LinkedHashMap<>( );
+
+		for ( Map.Entry<Integer, TaskAntsAppointmentHistory> history : mapHistory.entrySet( ) )
+		{
+			mapAntsApplicationNumbers.put( history.getKey( ), history.getValue( ).getAntsApplicationNumbers( ) );
+		}
+
+		Map<Integer, TaskAntsAppointmentSummary> mapSummaries = Collections.emptyMap( );
+		Map<Integer, TaskAntsAppointmentHistory> mapOutcomes = Collections.emptyMap( );
+		String strError = null;
+
+		AntsExecutionContext context = AntsExecutionContext.start( );
+		try
+		{
+			mapSummaries = antsAppointmentService.findAppointmentSummaries( mapAntsApplicationNumbers.keySet( ) );
+			mapOutcomes = antsAppointmentService.retryAntsAppointments( mapAntsApplicationNumbers, mapSummaries, isDeletingAppointment );
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( "Failed to retry the ANTS calls of {} execution(s)", mapHistory.size( ), e );
+			strError = StringUtils.left( e.toString( ), LAST_ERROR_MAX_LENGTH );
+		}
+		finally
+		{
+			AntsExecutionContext.end( );
+		}
+
+		int nSuccess = 0;
+
+		for ( Map.Entry<Integer, TaskAntsAppointmentHistory> entry : mapHistory.entrySet( ) )
+		{
+			int idAppointment = entry.getKey( );
+			TaskAntsAppointmentHistory history = entry.getValue( );
+			TaskAntsAppointmentHistory outcome = mapOutcomes.get( idAppointment );
+			boolean isSuccessful = outcome != null && outcome.isTaskSuccessful( );
+
+			history.setAttemptCount( history.getAttemptCount( ) + 1 );
+			TaskAntsAppointmentHistoryService.setOutcome( history, isSuccessful, context );
+			if ( strError != null )
+			{
+				history.setLastError( strError );
+			}
+			historyService.updateOutcome( history, plugin );
+
+			TaskAntsAppointmentSummary summary = mapSummaries.get( idAppointment );
+			AntsStatisticsService.recordRetry( mapTasks.get( history.getIdTask( ) ).getTaskType( ).getKey( ), summary != null ? summary.getIdForm( ) : 0 );
+
+			AppLogService.info( "ANTS calls of appointment {} retried (attempt {}): {}", idAppointment, history.getAttemptCount( ), history.getTaskStatus( ) );
+
+			if ( isSuccessful )
+			{
+				nSuccess++;
+			}
+		}
+		return nSuccess;
+	}
+
+	/**
+	 * Get the resource history of a failed execution
+	 * 
+	 * @param idResourceHistory
+	 *            ID of the resource history
+	 * @return the resource history, or null if it doesn't exist anymore
+	 */
+	private static ResourceHistory getResourceHistory( int idResourceHistory )
+	{
+		IResourceHistoryService resourceHistoryService = SpringContextService.getBean( ResourceHistoryService.BEAN_SERVICE );
+
+		return resourceHistoryService.findByPrimaryKey( idResourceHistory );
+	}
+}
@@ -33,6 +33,11 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.history;
 
+import java.sql.Timestamp;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history.TaskAntsAppointmentHistory;
 import fr.paris.lutece.portal.service.plugin.Plugin;
 
@@ -48,6 +53,31 @@ public interface ITaskAntsAppointmentHistoryService
 	 */
 	void create( TaskAntsAppointmentHistory taskAntsAppointmentHistory, Plugin plugin );
 
+	/**
+	 * Update the outcome (success state, status and retries) of an entry of the ANTS task's history table
+	 * 
+	 * @param taskAntsAppointmentHistory
+	 *            TaskAntsAppointmentHistory object holding the new outcome
+	 * @param plugin
+	 *            The Plugin
+	 */
+	void updateOutcome( TaskAntsAppointmentHistory taskAntsAppointmentHistory, Plugin plugin );
+
+	/**
+	 * Find the entries of failed executions whose ANTS calls are due for a retry, the oldest retry first
+	 * 
+	 * @param dateNow
+	 *            The current date: only the retries planned before it are returned
+	 * @param dateMinExecution
+	 *            The date of the oldest execution to retry
+	 * @param nLimit
+	 *            The maximum amount of entries to return
+	 * @param plugin
+	 *            The Plugin
+	 * @return the entries to retry
+	 */
+	List<TaskAntsAppointmentHistory> findRetryable( Timestamp dateNow, Timestamp dateMinExecution, int nLimit, Plugin plugin );
+
 	/**
 	 * Remove the ANTS task's history associated with the history
 	 * and task specified in parameters
@@ -62,7 +92,8 @@ public interface ITaskAntsAppointmentHistoryService
 	void removeByHistory( int idHistory, int idTask, Plugin plugin );
 
 	/**
-	 * Remove the ANTS task's history associated with the task specified in parameters
+	 * Remove the ANTS task's history associated with the task specified in parameters. The history is removed
+	 * in small chunks
 	 * 
 	 * @param idTask
 	 *            ID of the task
@@ -71,6 +102,19 @@ public interface ITaskAntsAppointmentHistoryService
 	 */
 	void removeByTask( int idTask, Plugin plugin );
 
+	/**
+	 * Remove the ANTS task's history older than a date, in small chunks
+	 * 
+	 * @param dateLimit
+	 *            The date before which the history is removed
+	 * @param nMaxChunks
+	 *            The maximum amount of chunks to remove
+	 * @param plugin
+	 *            The Plugin
+	 * @return the amount of entries removed
+	 */
+	int removeExpired( Timestamp dateLimit, int nMaxChunks, Plugin plugin );
+
 	/**
 	 * Find the data that matches the specified parameters, from the ANTS task's history table
 	 * 
@@ -83,4 +127,21 @@ public interface ITaskAntsAppointmentHistoryService
 	 * @return The TaskAntsAppointmentHistory object matching the parameters, or null if none was found
 	 */
 	TaskAntsAppointmentHistory findByPrimaryKey( int idHistory, int idTask, Plugin plugin );
+
+	/**
+	 * Find the data that matches the specified parameters, from the ANTS task's history table. The first call of a
+	 * request loads the data of every history of the same resource in a single query, and keeps it in the request
+	 * for the next calls (e.g the other lines of the resource's history page)
+	 * 
+	 * @param idHistory
+	 *            ID of the resource history used for the task
+	 * @param idTask
+	 *            ID of the task
+	 * @param request
+	 *            The current request, used as cache. Can be null
+	 * @param plugin
+	 *            The Plugin
+	 * @return The TaskAntsAppointmentHistory object matching the parameters, or null if none was found
+	 */
+	TaskAntsAppointmentHistory findByPrimaryKey( int idHistory, int idTask, HttpServletRequest request, Plugin plugin );
 }
@@ -33,14 +33,25 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.history;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.servlet.http.HttpServletRequest;
 
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history.ITaskAntsAppointmentHistoryDAO;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history.TaskAntsAppointmentHistory;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history.TaskAntsAppointmentHistoryDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsExecutionContext;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
 import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+import org.apache.commons.lang3.StringUtils;
 
 /**
  * 
@@ -58,6 +69,33 @@ public class TaskAntsAppointmentHistoryService implements ITaskAntsAppointmentHi
 	@Named( TaskAntsAppointmentHistoryDAO.BEAN_NAME )
 	private ITaskAntsAppointmentHistoryDAO _task_ants_appointment_history_dao;
 
+	/**
+	 * Request attribute holding the histories already loaded during the request
+	 */
+	private static final String ATTRIBUTE_HISTORY_CACHE = WorkflowAppointmentAntsPlugin.PLUGIN_NAME + ".historyCache";
+
+	/**
+	 * Amount of records deleted at once when the history is purged
+	 */
+	private static final String PROPERTY_PURGE_CHUNK_SIZE = "ants.history.purge.chunk.size";
+	private static final int DEFAULT_PURGE_CHUNK_SIZE = 500;
+
+	/**
+	 * Retries of the failed executions: maximum amount of retries, delay (s) before the first retry and
+	 * maximum delay (s) between two retries. The delay doubles after each failed retry
+	 */
+	private static final String PROPERTY_RETRY_MAX_ATTEMPTS = "ants.retry.max.attempts";
+	private static final String PROPERTY_RETRY_DELAY = "ants.retry.delay";
+	private static final String PROPERTY_RETRY_MAX_DELAY = "ants.retry.max.delay";
+	private static final int DEFAULT_RETRY_MAX_ATTEMPTS = 5;
+	private static final long DEFAULT_RETRY_DELAY = 300L;
+	private static final long DEFAULT_RETRY_MAX_DELAY = 21600L;
+
+	/**
+	 * Size of the last_error and call_details columns
+	 */
+	private static final int TEXT_MAX_LENGTH = 255;
+
 	private TaskAntsAppointmentHistoryService( )
 	{
 	}
@@ -73,6 +111,61 @@ public class TaskAntsAppointmentHistoryService implements ITaskAntsAppointmentHi
 
 	/**
      * {@inheritDoc}
+     */
+	@Override
+	public void updateOutcome( TaskAntsAppointmentHistory history, Plugin plugin )
+	{
+		_task_ants_appointment_history_dao.updateOutcome( history, plugin );
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public TaskAntsAppointmentHistory findByPrimaryKey( int idHistory, int idTask, HttpServletRequest request, Plugin plugin )
+	{
+		if( request == null )
+		{
+			return findByPrimaryKey( idHistory, idTask, plugin );
+		}
+
+		@SuppressWarnings( "unchecked" )
+		Map<Integer, List<TaskAntsAppointmentHistory>> mapHistoryCache = ( Map<Integer, List<TaskAntsAppointmentHistory>> ) request.getAttribute( ATTRIBUTE_HISTORY_CACHE );
+
+		if( mapHistoryCache == null )
+		{
+			mapHistoryCache = new HashMap<>( );
+			request.setAttribute( ATTRIBUTE_HISTORY_CACHE, mapHistoryCache );
+		}
+
+		// Load the histories of the whole resource the first time one of them is displayed
+		if( !mapHistoryCache.containsKey( idHistory ) )
+		{
+			mapHistoryCache.putAll( _task_ants_appointment_history_dao.selectByResourceOfHistory( idHistory, plugin ) );
+			mapHistoryCache.putIfAbsent( idHistory, new ArrayList<>( ) );
+		}
+
+		for( TaskAntsAppointmentHistory history : mapHistoryCache.get( idHistory ) )
+		{
+			if( history.getIdTask( ) == idTask )
+			{
+				return history;
+			}
+		}
+		return null;
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public List<TaskAntsAppointmentHistory> findRetryable( Timestamp dateNow, Timestamp dateMinExecution, int nLimit, Plugin plugin )
+	{
+		return _task_ants_appointment_history_dao.selectRetryable( dateNow, dateMinExecution, nLimit, plugin );
+	}
+
+	/**
+     * {@inheritDoc}
      */
 	@Override
 	public void removeByHistory( int idHistory, int idTask, Plugin plugin )
@@ -86,7 +179,63 @@ public class TaskAntsAppointmentHistoryService implements ITaskAntsAppointmentHi
 	@Override
 	public void removeByTask( int idTask, Plugin plugin )
 	{
-		_task_ants_appointment_history_dao.deleteByTask( idTask, plugin );
+		int nChunkSize = getPurgeChunkSize( );
+		int idHistoryAfter = 0;
+		List<Integer> listIdHistory;
+
+		// Delete the history in small chunks, so that the table is never locked for long
+		do
+		{
+			listIdHistory = _task_ants_appointment_history_dao.selectIdHistoryByTask( idTask, idHistoryAfter, nChunkSize, plugin );
+
+			List<TaskAntsAppointmentHistory> listHistory = new ArrayList<>( );
+			for( int idHistory : listIdHistory )
+			{
+				TaskAntsAppointmentHistory history = new TaskAntsAppointmentHistory( );
+				history.setIdResourceHistory( idHistory );
+				history.setIdTask( idTask );
+				listHistory.add( history );
+
+				idHistoryAfter = idHistory;
+			}
+			_task_ants_appointment_history_dao.deleteByKeys( listHistory, plugin );
+		}
+		while( listIdHistory.size( ) == nChunkSize );
+	}
+
+	/**
+     * {@inheritDoc}
+     */
+	@Override
+	public int removeExpired( Timestamp dateLimit, int nMaxChunks, Plugin plugin )
+	{
+		int nChunkSize = getPurgeChunkSize( );
+		int nRemoved = 0;
+		int idHistoryAfter = 0;
+		int idTaskAfter = 0;
+
+		for( int nChunk = 0; nChunk < nMaxChunks; nChunk++ )
+		{
+			List<TaskAntsAppointmentHistory> listHistory = _task_ants_appointment_history_dao.selectExpiredKeys( dateLimit, idHistoryAfter, idTaskAfter,
+					nChunkSize, plugin );
+
+			if( listHistory.isEmpty( ) )
+			{
+				break;
+			}
+			_task_ants_appointment_history_dao.deleteByKeys( listHistory, plugin );
+			nRemoved += listHistory.size( );
+
+			if( listHistory.size( ) < nChunkSize )
+			{
+				break;
+			}
+
+			TaskAntsAppointmentHistory lastHistory = listHistory.get( listHistory.size( ) - 1 );
+			idHistoryAfter = lastHistory.getIdResourceHistory( );
+			idTaskAfter = lastHistory.getIdTask( );
+		}
+		return nRemoved;
 	}
 
 	/**
@@ -97,4 +246,175 @@ public class TaskAntsAppointmentHistoryService implements ITaskAntsAppointmentHi
 	{
 		return _task_ants_appointment_history_dao.load( idHistory, idTask, plugin );
 	}
+
+	/**
+	 * Get the detailed status of a task's execution
+	 * 
+	 * @param isTaskSuccessful
+	 *            Boolean result returned by the task
+	 * @param context
+	 *            Context of the task's execution
+	 * @return the status to save in the task's history
+	 */
+	public static String getTaskStatus( boolean isTaskSuccessful, AntsExecutionContext context )
+	{
+		return getTaskStatus( isTaskSuccessful, context, true );
+	}
+
+	/**
+	 * Get the detailed status of a task's execution
+	 * 
+	 * @param isTaskSuccessful
+	 *            Boolean result returned by the task
+	 * @param context
+	 *            Context of the task's execution
+	 * @param isDeferrable
+	 *            false if the outcome is the final one of calls that were deferred
+	 * @return the status to save in the task's history
+	 */
+	private static String getTaskStatus( boolean isTaskSuccessful, AntsExecutionContext context, boolean isDeferrable )
+	{
+		if( isTaskSuccessful )
+		{
+			return TaskAntsAppointmentHistory.STATUS_SUCCESS;
+		}
+		if( isDeferrable && context != null && context.isDeferred( ) )
+		{
+			return TaskAntsAppointmentHistory.STATUS_DEFERRED;
+		}
+		if( context != null && context.isCallRejected( ) )
+		{
+			return TaskAntsAppointmentHistory.STATUS_REJECTED;
+		}
+		return TaskAntsAppointmentHistory.STATUS_FAILURE;
+	}
+
+	/**
+	 * Set the outcome of an execution in its history: success state, detailed status, last error returned by the
+	 * ANTS API, date of the next retry, and the duration and details of the ANTS calls
+	 * 
+	 * @param history
+	 *            The history of the execution
+	 * @param isTaskSuccessful
+	 *            Boolean result of the execution
+	 * @param context
+	 *            Context of the execution
+	 */
+	public static void setOutcome( TaskAntsAppointmentHistory history, boolean isTaskSuccessful, AntsExecutionContext context )
+	{
+		setOutcome( history, isTaskSuccessful, context, true );
+	}
+
+	/**
+	 * Set the final outcome of the ANTS calls of an execution that were deferred, once they are done or failed
+	 * 
+	 * @param history
+	 *            The history of the execution, saved when the calls were deferred
+	 * @param isTaskSuccessful
+	 *            Boolean result of the deferred calls
+	 * @param context
+	 *            Context of the execution
+	 */
+	public static void setDeferredOutcome( TaskAntsAppointmentHistory history, boolean isTaskSuccessful, AntsExecutionContext context )
+	{
+		setOutcome( history, isTaskSuccessful, context, false );
+	}
+
+	/**
+	 * Set the outcome of an execution in its history
+	 * 
+	 * @param history
+	 *            The history of the execution
+	 * @param isTaskSuccessful
+	 *            Boolean result of the execution
+	 * @param context
+	 *            Context of the execution
+	 * @param isDeferrable
+	 *            false if the outcome is the final one of calls that were deferred
+	 */
+	private static void setOutcome( TaskAntsAppointmentHistory history, boolean isTaskSuccessful, AntsExecutionContext context, boolean isDeferrable )
+	{
+		history.setTaskSuccessState( isTaskSuccessful );
+		history.setTaskStatus( getTaskStatus( isTaskSuccessful, context, isDeferrable ) );
+
+		if( context != null )
+		{
+			if( context.getLastError( ) != null )
+			{
+				history.setLastError( StringUtils.left( context.getLastError( ), TEXT_MAX_LENGTH ) );
+			}
+			history.setDurationMillis( context.getElapsedMillis( ) );
+			history.setCallCount( context.getCallCount( ) );
+			history.setCallDetails( StringUtils.left( context.getCallDetails( ), TEXT_MAX_LENGTH ) );
+			history.setHttpStatus( context.getHttpStatus( ) );
+			history.setCorrelationId( context.getCorrelationId( ) );
+		}
+		scheduleNextAttempt( history );
+	}
+
+	/**
+	 * Set the outcome of an execution whose ANTS calls are left to the debounced synchronization of the appointment:
+	 * the execution is deferred until the synchronization completes it, and is retried if it doesn't complete after
+	 * its maximum wait (restart of the node)
+	 * 
+	 * @param history
+	 *            The history of the execution
+	 * @param lMaxWaitMillis
+	 *            Maximum wait (ms) before the synchronization runs
+	 */
+	public static void setPendingOutcome( TaskAntsAppointmentHistory history, long lMaxWaitMillis )
+	{
+		history.setTaskSuccessState( false );
+		history.setTaskStatus( TaskAntsAppointmentHistory.STATUS_DEFERRED );
+		scheduleNextAttempt( history );
+
+		if( history.getNextAttemptDate( ) != null )
+		{
+			history.setNextAttemptDate( new Timestamp( history.getNextAttemptDate( ).getTime( ) + lMaxWaitMillis ) );
+		}
+	}
+
+	/**
+	 * Plan the next retry of the ANTS calls of an execution. Only the failed or rejected executions having ANTS
+	 * application numbers are retried, with an exponential backoff, until the maximum amount of retries is reached.
+	 * A deferred execution gets a retry date as well, replaced by its final outcome once its calls are done: it is
+	 * retried if they never complete (restart of the node)
+	 * 
+	 * @param history
+	 *            The history of the execution, holding its outcome and the amount of retries already made
+	 */
+	public static void scheduleNextAttempt( TaskAntsAppointmentHistory history )
+	{
+		history.setNextAttemptDate( null );
+
+		boolean isRetryable = TaskAntsAppointmentHistory.STATUS_FAILURE.equals( history.getTaskStatus( ) )
+				|| TaskAntsAppointmentHistory.STATUS_REJECTED.equals( history.getTaskStatus( ) )
+				|| TaskAntsAppointmentHistory.STATUS_DEFERRED.equals( history.getTaskStatus( ) );
+
+		if( !isRetryable || StringUtils.isBlank( history.getAntsApplicationNumbers( ) )
+				|| history.getAttemptCount( ) >= AppPropertiesService.getPropertyInt( PROPERTY_RETRY_MAX_ATTEMPTS, DEFAULT_RETRY_MAX_ATTEMPTS ) )
+		{
+			return;
+		}
+
+		long lDelay = AppPropertiesService.getPropertyLong( PROPERTY_RETRY_DELAY, DEFAULT_RETRY_DELAY );
+		long lMaxDelay = AppPropertiesService.getPropertyLong( PROPERTY_RETRY_MAX_DELAY, DEFAULT_RETRY_MAX_DELAY );
+
+		// Double the delay after each retry, without overflowing
+		for( int nAttempt = 0; nAttempt < history.getAttemptCount( ) && lDelay < lMaxDelay; nAttempt++ )
+		{
+			lDelay *= 2;
+		}
+		history.setNextAttemptDate( new Timestamp( System.currentTimeMillis( ) + TimeUnit.SECONDS.toMillis( Math.min( lDelay, lMaxDelay ) ) ) );
+	}
+
+	/**
+	 * Get the amount of records deleted at once when the history is purged
+	 * 
+	 * @return the size of a chunk
+	 */
+	private static int getPurgeChunkSize( )
+	{
+		return Math.max( 1, AppPropertiesService.getPropertyInt( PROPERTY_PURGE_CHUNK_SIZE, DEFAULT_PURGE_CHUNK_SIZE ) );
+	}
 }
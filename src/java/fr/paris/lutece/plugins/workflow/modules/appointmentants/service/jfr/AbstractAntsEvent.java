@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.jfr;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsExecutionContext;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * 
+ * Base of the Flight Recorder events of the module, carrying the business context of the ANTS execution
+ * they belong to. The thresholds of the events can be changed in a JFR configuration file
+ * (see workflow-appointmentants.jfc). The events are only created through {@link AntsEventFactory}, which checks
+ * that the Flight Recorder API is available
+ *
+ */
+@Category( { "Lutece", "ANTS" } )
+public abstract class AbstractAntsEvent extends Event
+{
+	@Name( "appointmentId" )
+	@Label( "Appointment ID" )
+	@Description( "ID of the appointment processed, 0 if unknown" )
+	protected int _nIdAppointment;
+
+	@Name( "formId" )
+	@Label( "Form ID" )
+	@Description( "ID of the Form of the appointment, 0 if unknown" )
+	protected int _nIdForm;
+
+	@Name( "numberCount" )
+	@Label( "Application Numbers" )
+	@Description( "Amount of ANTS application numbers concerned" )
+	protected int _nNumberCount;
+
+	/**
+	 * Fill the business context of the event from the context of the current execution
+	 * 
+	 * @param nNumberCount
+	 *            The amount of ANTS application numbers concerned
+	 */
+	protected void setBusinessContext( int nNumberCount )
+	{
+		AntsExecutionContext context = AntsExecutionContext.getCurrent( );
+
+		if( context != null )
+		{
+			_nIdAppointment = context.getIdAppointment( );
+			_nIdForm = context.getIdForm( );
+		}
+		_nNumberCount = nNumberCount;
+	}
+}
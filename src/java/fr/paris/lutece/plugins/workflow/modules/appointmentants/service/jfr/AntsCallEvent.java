@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * 
+ * Flight Recorder event of a call to the ANTS API (status check, add or delete)
+ *
+ */
+@Name( AntsCallEvent.NAME )
+@Label( "ANTS Call" )
+@Description( "Call to the ANTS API, including the wait for the rate and concurrency limits" )
+@Threshold( "20 ms" )
+public class AntsCallEvent extends AbstractAntsEvent implements IAntsCallEvent
+{
+	public static final String NAME = "fr.paris.lutece.ants.Call";
+
+	@Name( "endpoint" )
+	@Label( "Endpoint" )
+	private String _strEndpoint;
+
+	@Name( "httpStatus" )
+	@Label( "HTTP Status" )
+	@Description( "HTTP status of the response, 0 if the call failed or wasn't sent" )
+	private int _nHttpStatus;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void commit( String strEndpoint, int nNumberCount, int nHttpStatus )
+	{
+		end( );
+
+		if( shouldCommit( ) )
+		{
+			setBusinessContext( nNumberCount );
+			_strEndpoint = strEndpoint;
+			_nHttpStatus = nHttpStatus;
+			commit( );
+		}
+	}
+}
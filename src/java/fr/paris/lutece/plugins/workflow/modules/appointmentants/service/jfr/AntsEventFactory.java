@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.jfr;
+
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * 
+ * Factory of the Flight Recorder events of the module. The Flight Recorder API (jdk.jfr) is missing from the Java 8
+ * runtimes older than 8u262: the events are then replaced by events doing nothing, and the event classes are never
+ * loaded
+ *
+ */
+public final class AntsEventFactory
+{
+	private static final String JFR_EVENT_CLASS = "jdk.jfr.Event";
+
+	private static final IAntsCallEvent NO_OP_CALL_EVENT = ( strEndpoint, nNumberCount, nHttpStatus ) -> {
+	};
+	private static final IAntsJsonParseEvent NO_OP_JSON_PARSE_EVENT = ( strEndpoint, nNumberCount, strResponse ) -> {
+	};
+	private static final IAntsTaskExecutionEvent NO_OP_TASK_EXECUTION_EVENT = ( strOperation, nNumberCount, bSuccessful, bDeferred ) -> {
+	};
+
+	private static final boolean JFR_AVAILABLE = isJfrAvailable( );
+
+	/**
+	 * Private constructor
+	 */
+	private AntsEventFactory( )
+	{
+	}
+
+	/**
+	 * Begin the event of a call to the ANTS API
+	 * 
+	 * @return the event, to commit once the call is done
+	 */
+	public static IAntsCallEvent beginCallEvent( )
+	{
+		if( !JFR_AVAILABLE )
+		{
+			return NO_OP_CALL_EVENT;
+		}
+		AntsCallEvent event = new AntsCallEvent( );
+		event.begin( );
+		return event;
+	}
+
+	/**
+	 * Begin the event of the parsing of a response of the ANTS API
+	 * 
+	 * @return the event, to commit once the response is parsed
+	 */
+	public static IAntsJsonParseEvent beginJsonParseEvent( )
+	{
+		if( !JFR_AVAILABLE )
+		{
+			return NO_OP_JSON_PARSE_EVENT;
+		}
+		AntsJsonParseEvent event = new AntsJsonParseEvent( );
+		event.begin( );
+		return event;
+	}
+
+	/**
+	 * Begin the event of the creation or the deletion of the ANTS appointments of an appointment
+	 * 
+	 * @return the event, to commit once the ANTS appointments are processed
+	 */
+	public static IAntsTaskExecutionEvent beginTaskExecutionEvent( )
+	{
+		if( !JFR_AVAILABLE )
+		{
+			return NO_OP_TASK_EXECUTION_EVENT;
+		}
+		AntsTaskExecutionEvent event = new AntsTaskExecutionEvent( );
+		event.begin( );
+		return event;
+	}
+
+	/**
+	 * Check whether the Flight Recorder API is available in the runtime
+	 * 
+	 * @return true if the Flight Recorder events can be recorded
+	 */
+	private static boolean isJfrAvailable( )
+	{
+		try
+		{
+			Class.forName( JFR_EVENT_CLASS, false, AntsEventFactory.class.getClassLoader( ) );
+			return true;
+		}
+		catch( ClassNotFoundException | LinkageError e )
+		{
+			AppLogService.info( "Flight Recorder API not available in this runtime, the ANTS events are not recorded" );
+			return false;
+		}
+	}
+}
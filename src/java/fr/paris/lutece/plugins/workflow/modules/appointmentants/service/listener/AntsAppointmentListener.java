@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.listener;
+
+import java.util.List;
+import java.util.Locale;
+
+import fr.paris.lutece.plugins.appointment.service.listeners.IAppointmentListener;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsAppointmentSyncService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.slot.AntsSlotIndexService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+
+/**
+ * Listener of the changes of the appointments, synchronizing their ANTS appointments and refreshing the available
+ * slots served to ANTS when enabled
+ */
+public class AntsAppointmentListener implements IAppointmentListener
+{
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void notifyAppointmentCreated( int nIdAppointment )
+	{
+		notifyChange( nIdAppointment );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void notifyAppointmentUpdated( int nIdAppointment )
+	{
+		notifyChange( nIdAppointment );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void notifyAppointmentRemoval( int nIdAppointment )
+	{
+		notifyChange( nIdAppointment );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String appointmentDateChanged( int nIdAppointment, List<Integer> listIdSlot, Locale locale )
+	{
+		notifyChange( nIdAppointment );
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void notifyAppointmentWFActionTriggered( int nIdAppointment, int nIdAction )
+	{
+		// The workflow actions changing the appointment are notified as updates
+	}
+
+	/**
+	 * Notify the change of an appointment to the synchronization service and to the slot index, if enabled. The Form
+	 * of the appointment is read once, from its slot, for both of them
+	 * 
+	 * @param nIdAppointment
+	 *            ID of the appointment
+	 */
+	private static void notifyChange( int nIdAppointment )
+	{
+		boolean isSyncEnabled = AntsAppointmentSyncService.isEnabled( );
+
+		if( !isSyncEnabled && !AntsSlotIndexService.isEnabled( ) )
+		{
+			return;
+		}
+
+		int nIdForm = AntsAppointmentUtils.getIdForm( nIdAppointment );
+		AntsSlotIndexService.getInstance( ).notifyAppointmentChange( nIdForm );
+
+		if( isSyncEnabled )
+		{
+			AntsAppointmentSyncService.getInstance( ).notifyChange( nIdAppointment, nIdForm );
+		}
+	}
+}
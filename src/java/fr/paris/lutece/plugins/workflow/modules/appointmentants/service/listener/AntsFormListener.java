@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.listener;
+
+import fr.paris.lutece.plugins.appointment.service.listeners.IFormListener;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsFormEntriesCacheService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsFormLocationCacheService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint.AntsMeetingPointDirectoryService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint.AntsRelocationService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.slot.AntsSlotIndexService;
+
+/**
+ * Listener of the changes of the appointment Forms, removing their cached data (title, entries, location, meeting
+ * point directory), refreshing their available slots and relocating their ANTS appointments when their address changes
+ */
+public class AntsFormListener implements IFormListener
+{
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void notifyFormCreation( int nIdForm )
+	{
+		AntsFormEntriesCacheService.getInstance( ).removeForms( );
+		AntsMeetingPointDirectoryService.getInstance( ).invalidate( );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void notifyFormChange( int nIdForm )
+	{
+		removeFormFromCaches( nIdForm );
+		AntsRelocationService.getInstance( ).notifyFormChange( nIdForm );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void notifyFormRemoval( int nIdForm )
+	{
+		removeFormFromCaches( nIdForm );
+	}
+
+	/**
+	 * Remove the data of a Form from the caches
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form
+	 */
+	private static void removeFormFromCaches( int nIdForm )
+	{
+		AntsFormEntriesCacheService.getInstance( ).removeForms( );
+		AntsFormEntriesCacheService.getInstance( ).removeEntries( nIdForm );
+		AntsFormLocationCacheService.getInstance( ).removeLocation( nIdForm );
+		AntsSlotIndexService.getInstance( ).notifyFormChange( nIdForm );
+		AntsMeetingPointDirectoryService.getInstance( ).invalidate( );
+	}
+}
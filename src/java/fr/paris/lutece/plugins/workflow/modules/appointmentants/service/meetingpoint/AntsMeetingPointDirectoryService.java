@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.appointment.business.form.Form;
+import fr.paris.lutece.plugins.appointment.business.localization.Localization;
+import fr.paris.lutece.plugins.appointment.service.FormService;
+import fr.paris.lutece.plugins.appointment.service.LocalizationService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfig;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfigDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Directory of the meeting points published to ANTS: one entry per Form with an ANTS task, with its Localization.
+ * The directory is serialized, compressed and tagged once in a snapshot, rebuilt only after a change of the Forms or
+ * of the ANTS tasks' configurations
+ *
+ */
+public final class AntsMeetingPointDirectoryService
+{
+	private static final String PROPERTY_MEETING_POINTS_ENABLED = "ants.meetingpoints.enabled";
+	private static final String PROPERTY_MEETING_POINTS_WEBSITE = "ants.meetingpoints.website";
+
+	private static final String KEY_ID = "id";
+	private static final String KEY_NAME = "name";
+	private static final String KEY_LONGITUDE = "longitude";
+	private static final String KEY_LATITUDE = "latitude";
+	private static final String KEY_PUBLIC_ENTRY_ADDRESS = "public_entry_address";
+	private static final String KEY_WEBSITE = "website";
+
+	private static final String ALGORITHM_ETAG = "SHA-256";
+	private static final int ETAG_LENGTH = 16;
+
+	private static final ObjectMapper MAPPER = new ObjectMapper( );
+
+	private static final AntsMeetingPointDirectoryService INSTANCE = new AntsMeetingPointDirectoryService( );
+
+	private volatile Snapshot _snapshot;
+
+	/**
+	 * Serialized directory, with its ETag
+	 */
+	public static final class Snapshot
+	{
+		private final byte [ ] _json;
+		private final byte [ ] _gzip;
+		private final String _strETag;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param json
+		 *            The directory in JSON
+		 * @param gzip
+		 *            The directory in JSON, compressed with gzip
+		 * @param strETag
+		 *            The ETag of the directory
+		 */
+		Snapshot( byte [ ] json, byte [ ] gzip, String strETag )
+		{
+			_json = json;
+			_gzip = gzip;
+			_strETag = strETag;
+		}
+
+		/**
+		 * Get the directory in JSON
+		 * 
+		 * @return the directory in JSON
+		 */
+		public byte [ ] getJson( )
+		{
+			return _json;
+		}
+
+		/**
+		 * Get the directory in JSON, compressed with gzip
+		 * 
+		 * @return the compressed directory
+		 */
+		public byte [ ] getGzip( )
+		{
+			return _gzip;
+		}
+
+		/**
+		 * Get the ETag of the directory, quoted
+		 * 
+		 * @return the ETag
+		 */
+		public String getETag( )
+		{
+			return _strETag;
+		}
+	}
+
+	/**
+	 * Private constructor
+	 */
+	private AntsMeetingPointDirectoryService( )
+	{
+	}
+
+	/**
+	 * Get the instance of the service
+	 * 
+	 * @return the instance of the service
+	 */
+	public static AntsMeetingPointDirectoryService getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Check whether the meeting points are published to ANTS
+	 * 
+	 * @return true if the meeting point endpoint is enabled
+	 */
+	public static boolean isEnabled( )
+	{
+		return AppPropertiesService.getPropertyBoolean( PROPERTY_MEETING_POINTS_ENABLED, false );
+	}
+
+	/**
+	 * Get the snapshot of the directory, building it if it was invalidated
+	 * 
+	 * @return the snapshot of the directory
+	 * @throws IOException
+	 *             If the directory couldn't be serialized
+	 */
+	public Snapshot getSnapshot( ) throws IOException
+	{
+		Snapshot snapshot = _snapshot;
+
+		if( snapshot == null )
+		{
+			synchronized( this )
+			{
+				snapshot = _snapshot;
+				if( snapshot == null )
+				{
+					snapshot = buildSnapshot( );
+					_snapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Invalidate the snapshot, after a change of the Forms or of the ANTS tasks' configurations
+	 */
+	public void invalidate( )
+	{
+		_snapshot = null;
+	}
+
+	/**
+	 * Build the snapshot of the directory
+	 * 
+	 * @return the snapshot
+	 * @throws IOException
+	 *             If the directory couldn't be serialized
+	 */
+	private static Snapshot buildSnapshot( ) throws IOException
+	{
+		TaskAntsAppointmentConfigDAO configDAO = SpringContextService.getBean( TaskAntsAppointmentConfigDAO.BEAN_NAME );
+		String strWebsite = AppPropertiesService.getProperty( PROPERTY_MEETING_POINTS_WEBSITE, "" );
+
+		TreeSet<Integer> setIdForms = new TreeSet<>( );
+		for( TaskAntsAppointmentConfig config : configDAO.loadAll( ) )
+		{
+			if( config.getIdForm( ) > 0 )
+			{
+				setIdForms.add( config.getIdForm( ) );
+			}
+		}
+
+		List<Map<String, Object>> listMeetingPoints = new ArrayList<>( setIdForms.size( ) );
+		for( int nIdForm : setIdForms )
+		{
+			Form form = FormService.findFormLightByPrimaryKey( nIdForm );
+
+			if( form == null || !form.getIsActive( ) )
+			{
+				continue;
+			}
+
+			Localization localization = LocalizationService.findLocalizationWithFormId( nIdForm );
+			Map<String, Object> mapMeetingPoint = new LinkedHashMap<>( );
+			mapMeetingPoint.put( KEY_ID, AntsAppointmentUtils.generateAntsMeetingPointId( nIdForm ) );
+			mapMeetingPoint.put( KEY_NAME, form.getTitle( ) );
+			mapMeetingPoint.put( KEY_LONGITUDE, localization != null ? localization.getLongitude( ) : null );
+			mapMeetingPoint.put( KEY_LATITUDE, localization != null ? localization.getLatitude( ) : null );
+			mapMeetingPoint.put( KEY_PUBLIC_ENTRY_ADDRESS, localization != null ? localization.getAddress( ) : null );
+			mapMeetingPoint.put( KEY_WEBSITE, MessageFormat.format( strWebsite, String.valueOf( nIdForm ) ) );
+			listMeetingPoints.add( mapMeetingPoint );
+		}
+
+		byte [ ] json = MAPPER.writeValueAsBytes( listMeetingPoints );
+
+		AppLogService.info( "ANTS meeting point directory rebuilt: {} meeting point(s)", listMeetingPoints.size( ) );
+
+		return new Snapshot( json, AntsAppointmentUtils.gzip( json ), buildETag( json ) );
+	}
+
+	/**
+	 * Build the ETag of a content, from its digest
+	 * 
+	 * @param content
+	 *            The content
+	 * @return the quoted ETag
+	 */
+	private static String buildETag( byte [ ] content )
+	{
+		try
+		{
+			byte [ ] digest = MessageDigest.getInstance( ALGORITHM_ETAG ).digest( content );
+			char [ ] hex = new char [ ETAG_LENGTH * 2];
+			for( int i = 0; i < ETAG_LENGTH; i++ )
+			{
+				hex [i * 2] = Character.forDigit( ( digest [i] >> 4 ) & 0xF, 16 );
+				hex [i * 2 + 1] = Character.forDigit( digest [i] & 0xF, 16 );
+			}
+			return "\"" + new String( hex ) + "\"";
+		}
+		catch( NoSuchAlgorithmException e )
+		{
+			// Every JVM provides SHA-256
+			throw new IllegalStateException( e );
+		}
+	}
+}
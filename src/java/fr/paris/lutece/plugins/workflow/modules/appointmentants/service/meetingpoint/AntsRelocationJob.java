@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint;
+
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of the relocation of the ANTS appointments of a Form, after a change of its address. The counters are
+ * updated by the threads relocating the appointments, and read by the admin page
+ */
+public final class AntsRelocationJob
+{
+	/**
+	 * State of a relocation
+	 */
+	public enum State
+	{
+		/**
+		 * The appointments are being relocated
+		 */
+		RUNNING,
+
+		/**
+		 * Every appointment has been processed, some of them may have failed
+		 */
+		COMPLETED,
+
+		/**
+		 * The relocation stopped before the end, because of an error
+		 */
+		ABORTED
+	}
+
+	private final int _nIdForm;
+	private volatile String _strAddress;
+	private final Timestamp _dateStart = new Timestamp( System.currentTimeMillis( ) );
+	private final AtomicInteger _nFoundCount = new AtomicInteger( );
+	private final AtomicInteger _nRelocatedCount = new AtomicInteger( );
+	private final AtomicInteger _nFailureCount = new AtomicInteger( );
+	private final AtomicBoolean _bRestartRequested = new AtomicBoolean( );
+	private volatile State _state = State.RUNNING;
+	private volatile Timestamp _dateEnd;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form
+	 * @param strAddress
+	 *            The new address of the Form
+	 */
+	AntsRelocationJob( int nIdForm, String strAddress )
+	{
+		_nIdForm = nIdForm;
+		_strAddress = strAddress;
+	}
+
+	/**
+	 * Get the ID of the Form
+	 * 
+	 * @return the ID of the Form
+	 */
+	public int getIdForm( )
+	{
+		return _nIdForm;
+	}
+
+	/**
+	 * Get the new address of the Form
+	 * 
+	 * @return the address
+	 */
+	public String getAddress( )
+	{
+		return _strAddress;
+	}
+
+	/**
+	 * Get the state of the relocation
+	 * 
+	 * @return the state
+	 */
+	public State getState( )
+	{
+		return _state;
+	}
+
+	/**
+	 * Check whether the relocation is running
+	 * 
+	 * @return true if the relocation is running
+	 */
+	public boolean isRunning( )
+	{
+		return _state == State.RUNNING;
+	}
+
+	/**
+	 * Get the start date of the relocation
+	 * 
+	 * @return the start date
+	 */
+	public Timestamp getDateStart( )
+	{
+		return _dateStart;
+	}
+
+	/**
+	 * Get the end date of the relocation
+	 * 
+	 * @return the end date, null while the relocation is running
+	 */
+	public Timestamp getDateEnd( )
+	{
+		return _dateEnd;
+	}
+
+	/**
+	 * Get the amount of upcoming appointments found so far
+	 * 
+	 * @return the amount of appointments found
+	 */
+	public int getFoundCount( )
+	{
+		return _nFoundCount.get( );
+	}
+
+	/**
+	 * Get the amount of appointments whose ANTS appointments are up to date
+	 * 
+	 * @return the amount of appointments relocated
+	 */
+	public int getRelocatedCount( )
+	{
+		return _nRelocatedCount.get( );
+	}
+
+	/**
+	 * Get the amount of appointments which couldn't be relocated
+	 * 
+	 * @return the amount of failures
+	 */
+	public int getFailureCount( )
+	{
+		return _nFailureCount.get( );
+	}
+
+	/**
+	 * Get the amount of appointments processed so far
+	 * 
+	 * @return the amount of appointments processed
+	 */
+	public int getProcessedCount( )
+	{
+		return _nRelocatedCount.get( ) + _nFailureCount.get( );
+	}
+
+	/**
+	 * Count appointments found
+	 * 
+	 * @param nCount
+	 *            The amount of appointments found
+	 */
+	void addFound( int nCount )
+	{
+		_nFoundCount.addAndGet( nCount );
+	}
+
+	/**
+	 * Count the outcome of the relocation of an appointment
+	 * 
+	 * @param bSuccessful
+	 *            Whether the ANTS appointments are up to date
+	 */
+	void addOutcome( boolean bSuccessful )
+	{
+		( bSuccessful ? _nRelocatedCount : _nFailureCount ).incrementAndGet( );
+	}
+
+	/**
+	 * Ask for another pass once the current one is over, the address having changed again during the relocation
+	 * 
+	 * @param strAddress
+	 *            The new address of the Form
+	 */
+	void requestRestart( String strAddress )
+	{
+		_strAddress = strAddress;
+		_bRestartRequested.set( true );
+	}
+
+	/**
+	 * Check whether another pass has been asked for, and clear the request
+	 * 
+	 * @return true if another pass has been asked for
+	 */
+	boolean takeRestart( )
+	{
+		return _bRestartRequested.getAndSet( false );
+	}
+
+	/**
+	 * End the relocation
+	 * 
+	 * @param state
+	 *            The final state
+	 */
+	void end( State state )
+	{
+		_dateEnd = new Timestamp( System.currentTimeMillis( ) );
+		_state = state;
+	}
+}
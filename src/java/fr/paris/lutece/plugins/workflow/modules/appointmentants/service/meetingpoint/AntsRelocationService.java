@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.appointment.business.localization.Localization;
+import fr.paris.lutece.plugins.appointment.service.AppointmentPlugin;
+import fr.paris.lutece.plugins.appointment.service.LocalizationService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.ITaskAntsAppointmentResponseDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfig;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfigDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentNumber;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentResponseDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsExecutionContext;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsFormLocationCacheService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.ITaskAntsAppointmentService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.TaskAntsAppointmentService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsSettings;
+import fr.paris.lutece.portal.service.datastore.DatastoreService;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.plugin.PluginService;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Relocation of the ANTS appointments of a Form after a change of its address: the ANTS appointments of its upcoming
+ * appointments still have the previous address as "meeting_point", so each of them is deleted then created again
+ * with the new address. The appointments are read by batches, and the appointments of a batch are synchronized by a
+ * bounded pool of threads. A relocation is started from the admin page, or when a change of the address of a Form
+ * is detected
+ *
+ */
+public final class AntsRelocationService
+{
+	private static final String PROPERTY_RELOCATION_AUTO = "ants.relocation.auto";
+	private static final String PROPERTY_RELOCATION_THREADS = "ants.relocation.threads";
+	private static final String PROPERTY_RELOCATION_BATCH_SIZE = "ants.relocation.batch.size";
+	private static final int DEFAULT_RELOCATION_THREADS = 4;
+	private static final int DEFAULT_RELOCATION_BATCH_SIZE = 100;
+
+	private static final String DATASTORE_KEY_ADDRESS_PREFIX = "module.appointment.ants.site_property.relocation.address.";
+	private static final String THREAD_NAME_COORDINATOR = "ants-relocation-";
+	private static final String THREAD_NAME_WORKER = "ants-relocation-worker-";
+
+	private static final AntsRelocationService INSTANCE = new AntsRelocationService( );
+
+	private final Map<Integer, AntsRelocationJob> _mapJobs = new ConcurrentHashMap<>( );
+	private final ExecutorService _coordinator = Executors.newCachedThreadPool( buildThreadFactory( THREAD_NAME_COORDINATOR ) );
+	private final ExecutorService _workers = Executors.newFixedThreadPool(
+			Math.max( 1, AppPropertiesService.getPropertyInt( PROPERTY_RELOCATION_THREADS, DEFAULT_RELOCATION_THREADS ) ),
+			buildThreadFactory( THREAD_NAME_WORKER ) );
+
+	/**
+	 * Private constructor
+	 */
+	private AntsRelocationService( )
+	{
+	}
+
+	/**
+	 * Get the instance of the service
+	 * 
+	 * @return the instance of the service
+	 */
+	public static AntsRelocationService getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Start the relocation of the ANTS appointments of a Form. When a relocation of the Form is already running, it
+	 * makes another pass once it is over instead
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form
+	 * @return the relocation, or null if the Form has no ANTS task
+	 */
+	public AntsRelocationJob start( int nIdForm )
+	{
+		int nIdEntry = getAntsEntryId( nIdForm );
+
+		if( nIdEntry <= 0 )
+		{
+			return null;
+		}
+
+		String strAddress = AntsFormLocationCacheService.getInstance( ).getLocation( nIdForm );
+		DatastoreService.setDataValue( DATASTORE_KEY_ADDRESS_PREFIX + nIdForm, strAddress.trim( ) );
+
+		AntsRelocationJob newJob = new AntsRelocationJob( nIdForm, strAddress );
+		AntsRelocationJob job = _mapJobs.compute( nIdForm, ( id, current ) -> {
+			if( current != null && current.isRunning( ) )
+			{
+				current.requestRestart( strAddress );
+				return current;
+			}
+			return newJob;
+		} );
+
+		if( job == newJob )
+		{
+			_coordinator.execute( ( ) -> run( job, nIdEntry ) );
+		}
+		return job;
+	}
+
+	/**
+	 * Detect a change of the address of a Form, and start the relocation of its ANTS appointments when the automatic
+	 * relocation is enabled. The last address of each Form with an ANTS task is kept in the datastore: the first
+	 * change of a Form only records its address
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form
+	 */
+	public void notifyFormChange( int nIdForm )
+	{
+		if( !AppPropertiesService.getPropertyBoolean( PROPERTY_RELOCATION_AUTO, false ) || getAntsEntryId( nIdForm ) <= 0 )
+		{
+			return;
+		}
+
+		Localization localization = LocalizationService.findLocalizationWithFormId( nIdForm );
+		String strAddress = localization != null ? StringUtils.trimToEmpty( localization.getAddress( ) ) : StringUtils.EMPTY;
+		String strPreviousAddress = DatastoreService.getDataValue( DATASTORE_KEY_ADDRESS_PREFIX + nIdForm, null );
+
+		if( strPreviousAddress == null )
+		{
+			DatastoreService.setDataValue( DATASTORE_KEY_ADDRESS_PREFIX + nIdForm, strAddress );
+		}
+		else if( !strPreviousAddress.equals( strAddress ) )
+		{
+			AppLogService.info( "Address of Form {} changed from '{}' to '{}': relocating its ANTS appointments", nIdForm, strPreviousAddress, strAddress );
+			start( nIdForm );
+		}
+	}
+
+	/**
+	 * Get the last relocation of each Form, the most recent first
+	 * 
+	 * @return the relocations
+	 */
+	public List<AntsRelocationJob> getJobs( )
+	{
+		List<AntsRelocationJob> listJobs = new ArrayList<>( _mapJobs.values( ) );
+		listJobs.sort( Comparator.comparing( AntsRelocationJob::getDateStart ).reversed( ) );
+
+		return listJobs;
+	}
+
+	/**
+	 * Relocate the upcoming appointments of a Form, as many passes as asked for
+	 * 
+	 * @param job
+	 *            The relocation
+	 * @param nIdEntry
+	 *            ID of the Entry holding the application numbers in the Form
+	 */
+	private void run( AntsRelocationJob job, int nIdEntry )
+	{
+		try
+		{
+			do
+			{
+				relocate( job, nIdEntry );
+
+				// Ended under the lock of the Form's entry, so that a restart asked for meanwhile is never lost
+				_mapJobs.computeIfPresent( job.getIdForm( ), ( id, current ) -> {
+					if( !job.takeRestart( ) )
+					{
+						job.end( AntsRelocationJob.State.COMPLETED );
+					}
+					return current;
+				} );
+			}
+			while( job.isRunning( ) );
+
+			AppLogService.info( "ANTS appointments of Form {} relocated: {} appointment(s), {} failure(s)", job.getIdForm( ), job.getProcessedCount( ),
+					job.getFailureCount( ) );
+		}
+		catch( Exception e )
+		{
+			job.end( AntsRelocationJob.State.ABORTED );
+			AppLogService.error( "Relocation of the ANTS appointments of Form {} aborted", job.getIdForm( ), e );
+		}
+	}
+
+	/**
+	 * Read the upcoming appointments of a Form by batches, and synchronize the ANTS appointments of each batch before
+	 * reading the next one
+	 * 
+	 * @param job
+	 *            The relocation
+	 * @param nIdEntry
+	 *            ID of the Entry holding the application numbers in the Form
+	 */
+	private void relocate( AntsRelocationJob job, int nIdEntry )
+	{
+		ITaskAntsAppointmentResponseDAO responseDAO = SpringContextService.getBean( TaskAntsAppointmentResponseDAO.BEAN_NAME );
+		Plugin appointmentPlugin = PluginService.getPlugin( AppointmentPlugin.PLUGIN_NAME );
+		int nBatchSize = Math.max( 1, AppPropertiesService.getPropertyInt( PROPERTY_RELOCATION_BATCH_SIZE, DEFAULT_RELOCATION_BATCH_SIZE ) );
+		Timestamp dateFrom = Timestamp.valueOf( LocalDateTime.now( ) );
+		String strSeparator = AntsSettings.getCurrent( ).getApplicationNumbersSeparator( );
+
+		int nIdAppointmentAfter = 0;
+		List<TaskAntsAppointmentNumber> listResponses;
+
+		do
+		{
+			listResponses = responseDAO.selectResponseValuesByForm( job.getIdForm( ), nIdEntry, dateFrom, nIdAppointmentAfter, nBatchSize, appointmentPlugin );
+			List<CompletableFuture<Void>> listFutures = new ArrayList<>( );
+
+			for( TaskAntsAppointmentNumber response : listResponses )
+			{
+				// Keep the first response of an appointment, like the ANTS tasks do
+				if( response.getIdAppointment( ) != nIdAppointmentAfter )
+				{
+					int nIdAppointment = response.getIdAppointment( );
+					List<String> listApplicationNumbers = TaskAntsAppointmentService.splitAntsApplicationValues( response.getApplicationNumber( ),
+							strSeparator );
+
+					listFutures.add( CompletableFuture.runAsync( ( ) -> job.addOutcome( synchronize( nIdAppointment, job.getIdForm( ), listApplicationNumbers ) ),
+							_workers ) );
+					nIdAppointmentAfter = nIdAppointment;
+				}
+			}
+			job.addFound( listFutures.size( ) );
+
+			CompletableFuture.allOf( listFutures.toArray( new CompletableFuture [ 0] ) ).join( );
+		}
+		while( listResponses.size( ) == nBatchSize );
+	}
+
+	/**
+	 * Synchronize the ANTS appointments of an appointment with the address of its Form, within an execution context
+	 * 
+	 * @param nIdAppointment
+	 *            ID of the appointment
+	 * @param nIdForm
+	 *            ID of the Form of the appointment
+	 * @param listApplicationNumbers
+	 *            The application numbers of the appointment
+	 * @return true if the ANTS appointments are up to date
+	 */
+	private static boolean synchronize( int nIdAppointment, int nIdForm, List<String> listApplicationNumbers )
+	{
+		ITaskAntsAppointmentService antsAppointmentService = SpringContextService.getBean( TaskAntsAppointmentService.BEAN_SERVICE );
+
+		AntsExecutionContext.start( );
+		try
+		{
+			return antsAppointmentService.synchronizeAntsAppointment( nIdAppointment, nIdForm, listApplicationNumbers );
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( "Relocation of the ANTS appointments of appointment {} failed", nIdAppointment, e );
+			return false;
+		}
+		finally
+		{
+			AntsExecutionContext.end( );
+		}
+	}
+
+	/**
+	 * Get the ID of the Entry holding the application numbers in a Form, from the configurations of the ANTS tasks
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form
+	 * @return the ID of the Entry, or 0 if the Form has no ANTS task
+	 */
+	private static int getAntsEntryId( int nIdForm )
+	{
+		TaskAntsAppointmentConfigDAO configDAO = SpringContextService.getBean( TaskAntsAppointmentConfigDAO.BEAN_NAME );
+
+		for( TaskAntsAppointmentConfig config : configDAO.loadAll( ) )
+		{
+			if( config.getIdForm( ) == nIdForm && config.getIdFieldEntry( ) > 0 )
+			{
+				return config.getIdFieldEntry( );
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Build a factory of daemon threads
+	 * 
+	 * @param strThreadName
+	 *            The prefix of the names of the threads
+	 * @return the factory
+	 */
+	private static ThreadFactory buildThreadFactory( String strThreadName )
+	{
+		AtomicInteger threadCount = new AtomicInteger( );
+
+		return runnable -> {
+			Thread thread = new Thread( runnable, strThreadName + threadCount.incrementAndGet( ) );
+			thread.setDaemon( true );
+			return thread;
+		};
+	}
+}
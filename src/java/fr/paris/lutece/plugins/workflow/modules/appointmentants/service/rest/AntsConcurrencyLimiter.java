@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Bulkhead limiting the amount of ANTS calls in flight on this node. The limit adapts to the latency
+ * observed (AIMD): it slowly grows while the calls are as fast as the fastest successful calls seen so far
+ * on the same endpoint, and it is reduced as soon as the calls slow down or fail, so that a slow ANTS API
+ * can't hold every request thread of the webapp. Callers exceeding the limit wait in a queue for a
+ * configurable time, then are rejected
+ */
+public final class AntsConcurrencyLimiter
+{
+	/**
+	 * Outcome of a call, deciding how it is taken into account by the limit
+	 */
+	public enum Outcome
+	{
+		/**
+		 * The call succeeded: its latency is sampled
+		 */
+		SUCCESS,
+		/**
+		 * The call failed in a way that reveals an overload (timeout, server error, HTTP 429...)
+		 */
+		DROPPED,
+		/**
+		 * The call got an answer that tells nothing about the load of the ANTS API (client error...): its
+		 * latency is not sampled
+		 */
+		IGNORED
+	}
+
+	private static final String PROPERTY_LIMIT_INITIAL = "ants.api.concurrency.limit.initial";
+	private static final String PROPERTY_LIMIT_MIN = "ants.api.concurrency.limit.min";
+	private static final String PROPERTY_LIMIT_MAX = "ants.api.concurrency.limit.max";
+	private static final String PROPERTY_QUEUE_TIMEOUT = "ants.api.concurrency.queue.timeout";
+	private static final String PROPERTY_LATENCY_TOLERANCE = "ants.api.concurrency.latency.tolerance";
+	private static final String PROPERTY_BACKOFF_RATIO = "ants.api.concurrency.backoff.ratio";
+
+	/**
+	 * Amount of successful calls to an endpoint after which its reference latency is reset, to follow the changes
+	 * of the ANTS API's latency
+	 */
+	private static final int LATENCY_RESET_SAMPLES = 1000;
+
+	private static final AntsConcurrencyLimiter INSTANCE = new AntsConcurrencyLimiter(
+			AppPropertiesService.getPropertyInt( PROPERTY_LIMIT_INITIAL, 10 ),
+			AppPropertiesService.getPropertyInt( PROPERTY_LIMIT_MIN, 2 ),
+			AppPropertiesService.getPropertyInt( PROPERTY_LIMIT_MAX, 50 ),
+			AppPropertiesService.getPropertyLong( PROPERTY_QUEUE_TIMEOUT, 2000L ),
+			Double.parseDouble( AppPropertiesService.getProperty( PROPERTY_LATENCY_TOLERANCE, "2.0" ) ),
+			Double.parseDouble( AppPropertiesService.getProperty( PROPERTY_BACKOFF_RATIO, "0.9" ) ) );
+
+	private final Lock _lock = new ReentrantLock( );
+	private final Condition _permitReleased = _lock.newCondition( );
+
+	private final int _nMinLimit;
+	private final int _nMaxLimit;
+	private final long _lQueueTimeoutNanos;
+	private final double _dLatencyTolerance;
+	private final double _dBackoffRatio;
+
+	private double _dLimit;
+	private int _nInFlight;
+	private final long [ ] _lMinLatencyNanos = new long [ AntsEndpoint.values( ).length];
+	private final int [ ] _nSamples = new int [ AntsEndpoint.values( ).length];
+
+	/**
+	 * Constructor
+	 * 
+	 * @param nInitialLimit
+	 *            The initial amount of calls allowed in flight
+	 * @param nMinLimit
+	 *            The floor of the limit
+	 * @param nMaxLimit
+	 *            The ceiling of the limit
+	 * @param lQueueTimeoutMillis
+	 *            Maximum time a caller waits for a permit, in milliseconds. 0 to reject the callers immediately
+	 * @param dLatencyTolerance
+	 *            Ratio between the latency of a call and the lowest latency observed above which the limit is reduced
+	 * @param dBackoffRatio
+	 *            Ratio applied to the limit when it is reduced
+	 */
+	AntsConcurrencyLimiter( int nInitialLimit, int nMinLimit, int nMaxLimit, long lQueueTimeoutMillis, double dLatencyTolerance, double dBackoffRatio )
+	{
+		_nMinLimit = Math.max( 1, nMinLimit );
+		_nMaxLimit = Math.max( _nMinLimit, nMaxLimit );
+		_lQueueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos( Math.max( 0L, lQueueTimeoutMillis ) );
+		_dLatencyTolerance = dLatencyTolerance;
+		_dBackoffRatio = dBackoffRatio;
+		_dLimit = Math.min( _nMaxLimit, Math.max( _nMinLimit, nInitialLimit ) );
+		Arrays.fill( _lMinLatencyNanos, Long.MAX_VALUE );
+	}
+
+	/**
+	 * Get the limiter shared by all the ANTS calls of this node
+	 * 
+	 * @return the limiter
+	 */
+	public static AntsConcurrencyLimiter getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Get a permit to make a call, waiting for one to be released if the limit is reached
+	 * 
+	 * @return true if the permit was granted, false if no permit was released before the end of the queue timeout
+	 */
+	public boolean acquire( )
+	{
+		return acquire( Long.MAX_VALUE );
+	}
+
+	/**
+	 * Get a permit to make a call, waiting for one to be released if the limit is reached
+	 * 
+	 * @param lMaxWaitNanos
+	 *            The maximum time the caller can wait, in nanoseconds (the time left to its execution), capped by the
+	 *            queue timeout
+	 * @return true if the permit was granted, false if no permit was released in time
+	 */
+	public boolean acquire( long lMaxWaitNanos )
+	{
+		_lock.lock( );
+		try
+		{
+			long lRemainingNanos = Math.min( _lQueueTimeoutNanos, lMaxWaitNanos );
+
+			while ( _nInFlight >= ( int ) _dLimit )
+			{
+				if ( lRemainingNanos <= 0L )
+				{
+					return false;
+				}
+				lRemainingNanos = _permitReleased.awaitNanos( lRemainingNanos );
+			}
+			_nInFlight++;
+			return true;
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+			return false;
+		}
+		finally
+		{
+			_lock.unlock( );
+		}
+	}
+
+	/**
+	 * Release a permit, and adapt the limit to the outcome of the call. The latency of a successful call is only
+	 * compared to the latencies of the previous successful calls to the same endpoint, as the endpoints of the
+	 * ANTS API don't answer at the same speed
+	 * 
+	 * @param endpoint
+	 *            The endpoint called
+	 * @param lLatencyNanos
+	 *            The duration of the call, in nanoseconds
+	 * @param outcome
+	 *            The outcome of the call
+	 */
+	public void release( AntsEndpoint endpoint, long lLatencyNanos, Outcome outcome )
+	{
+		_lock.lock( );
+		try
+		{
+			_nInFlight--;
+
+			if ( outcome == Outcome.DROPPED )
+			{
+				decreaseLimit( );
+			}
+			else if ( outcome == Outcome.SUCCESS )
+			{
+				int nIndex = endpoint.ordinal( );
+
+				if ( ++_nSamples [nIndex] >= LATENCY_RESET_SAMPLES )
+				{
+					_nSamples [nIndex] = 0;
+					_lMinLatencyNanos [nIndex] = Long.MAX_VALUE;
+				}
+				_lMinLatencyNanos [nIndex] = Math.min( _lMinLatencyNanos [nIndex], lLatencyNanos );
+
+				if ( lLatencyNanos > _lMinLatencyNanos [nIndex] * _dLatencyTolerance )
+				{
+					decreaseLimit( );
+				}
+				else if ( _nInFlight + 1 >= _dLimit / 2 )
+				{
+					// Only grow the limit when it is actually used
+					_dLimit = Math.min( _nMaxLimit, _dLimit + 1 / _dLimit );
+				}
+			}
+			_permitReleased.signalAll( );
+		}
+		finally
+		{
+			_lock.unlock( );
+		}
+	}
+
+	/**
+	 * Get the current amount of calls allowed in flight
+	 * 
+	 * @return the current limit
+	 */
+	public int getLimit( )
+	{
+		_lock.lock( );
+		try
+		{
+			return ( int ) _dLimit;
+		}
+		finally
+		{
+			_lock.unlock( );
+		}
+	}
+
+	/**
+	 * Get the amount of calls currently in flight
+	 * 
+	 * @return the amount of calls in flight
+	 */
+	public int getInFlight( )
+	{
+		_lock.lock( );
+		try
+		{
+			return _nInFlight;
+		}
+		finally
+		{
+			_lock.unlock( );
+		}
+	}
+
+	/**
+	 * Reduce the limit, without going under its floor. Must be called while holding the lock
+	 */
+	private void decreaseLimit( )
+	{
+		_dLimit = Math.max( _nMinLimit, _dLimit * _dBackoffRatio );
+	}
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Client-side rate limiter of the ANTS calls, honouring the quotas applied by ANTS to each editor token.
+ * Each endpoint has its own token bucket. The configured rates are the budget of the whole cluster: when
+ * several nodes share the same token, each node gets an equal share of that budget
+ */
+public final class AntsRateLimiter
+{
+	private static final String PROPERTY_PREFIX = "ants.api.ratelimit.";
+	private static final String PROPERTY_SUFFIX_RATE = ".rate";
+	private static final String PROPERTY_SUFFIX_BURST = ".burst";
+	private static final String PROPERTY_MAX_WAIT = "ants.api.ratelimit.max.wait";
+	private static final String PROPERTY_THROTTLED_PAUSE = "ants.api.ratelimit.throttled.pause";
+
+	/**
+	 * Header sent by ANTS with the HTTP 429 responses
+	 */
+	public static final String HEADER_RETRY_AFTER = "Retry-After";
+
+	private static final AntsRateLimiter INSTANCE = new AntsRateLimiter( );
+
+	private final Map<AntsEndpoint, AntsTokenBucket> _mapBuckets = new EnumMap<>( AntsEndpoint.class );
+	private final Map<AntsEndpoint, Double> _mapClusterRates = new EnumMap<>( AntsEndpoint.class );
+	private final Map<AntsEndpoint, AtomicLong> _mapCallCounts = new EnumMap<>( AntsEndpoint.class );
+	private final Map<AntsEndpoint, AtomicLong> _mapWaitTimes = new EnumMap<>( AntsEndpoint.class );
+	private final Map<AntsEndpoint, AtomicLong> _mapMaxWaitTimes = new EnumMap<>( AntsEndpoint.class );
+	private final Map<AntsEndpoint, AtomicLong> _mapRejectedCounts = new EnumMap<>( AntsEndpoint.class );
+	private final Map<AntsEndpoint, AtomicLong> _mapThrottledCounts = new EnumMap<>( AntsEndpoint.class );
+	private final long _lMaxWaitNanos;
+	private final long _lThrottledPauseSeconds;
+
+	/**
+	 * Private constructor, reading the configuration of each endpoint
+	 */
+	private AntsRateLimiter( )
+	{
+		_lMaxWaitNanos = TimeUnit.MILLISECONDS.toNanos( AppPropertiesService.getPropertyLong( PROPERTY_MAX_WAIT, 5000L ) );
+		_lThrottledPauseSeconds = AppPropertiesService.getPropertyLong( PROPERTY_THROTTLED_PAUSE, 5L );
+
+		long lNowNanos = System.nanoTime( );
+		for ( AntsEndpoint endpoint : AntsEndpoint.values( ) )
+		{
+			double dRate = NumberUtils.toDouble( AppPropertiesService.getProperty( PROPERTY_PREFIX + endpoint.getKey( ) + PROPERTY_SUFFIX_RATE ), 0 );
+			double dBurst = NumberUtils.toDouble( AppPropertiesService.getProperty( PROPERTY_PREFIX + endpoint.getKey( ) + PROPERTY_SUFFIX_BURST ), 1 );
+
+			// A rate of 0 disables the rate limit of the endpoint
+			if ( dRate > 0 )
+			{
+				_mapBuckets.put( endpoint, new AntsTokenBucket( dRate, dBurst, lNowNanos ) );
+				_mapClusterRates.put( endpoint, dRate );
+			}
+			_mapCallCounts.put( endpoint, new AtomicLong( ) );
+			_mapWaitTimes.put( endpoint, new AtomicLong( ) );
+			_mapMaxWaitTimes.put( endpoint, new AtomicLong( ) );
+			_mapRejectedCounts.put( endpoint, new AtomicLong( ) );
+			_mapThrottledCounts.put( endpoint, new AtomicLong( ) );
+		}
+	}
+
+	/**
+	 * Get the rate limiter shared by all the ANTS calls of this node
+	 * 
+	 * @return the rate limiter
+	 */
+	public static AntsRateLimiter getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Wait until a call to the endpoint is allowed
+	 * 
+	 * @param endpoint
+	 *            The endpoint to call
+	 * @param lMaxWaitNanos
+	 *            The maximum time the caller can wait, in nanoseconds (the time left to its execution), capped by the
+	 *            configured maximum
+	 * @return the time waited, in milliseconds
+	 * @throws AntsCallRejectedException
+	 *             If the call would have to wait longer than the maximum
+	 */
+	public long acquire( AntsEndpoint endpoint, long lMaxWaitNanos ) throws AntsCallRejectedException
+	{
+		AntsTokenBucket bucket = _mapBuckets.get( endpoint );
+		_mapCallCounts.get( endpoint ).incrementAndGet( );
+
+		if ( bucket == null )
+		{
+			return 0L;
+		}
+
+		long lWaitNanos = bucket.reserve( System.nanoTime( ), Math.min( _lMaxWaitNanos, lMaxWaitNanos ) );
+		if ( lWaitNanos < 0 )
+		{
+			_mapRejectedCounts.get( endpoint ).incrementAndGet( );
+			throw new AntsCallRejectedException( "The rate limit of the ANTS endpoint '" + endpoint.getKey( ) + "' was reached, the call was not sent" );
+		}
+
+		if ( lWaitNanos > 0 )
+		{
+			try
+			{
+				TimeUnit.NANOSECONDS.sleep( lWaitNanos );
+			}
+			catch( InterruptedException e )
+			{
+				Thread.currentThread( ).interrupt( );
+				throw new AntsCallRejectedException( "Interrupted while waiting for the rate limit of the ANTS endpoint '" + endpoint.getKey( ) + "'" );
+			}
+		}
+
+		long lWaitMillis = TimeUnit.NANOSECONDS.toMillis( lWaitNanos );
+		_mapWaitTimes.get( endpoint ).addAndGet( lWaitMillis );
+		_mapMaxWaitTimes.get( endpoint ).accumulateAndGet( lWaitMillis, Math::max );
+
+		if ( lWaitMillis > 0 )
+		{
+			AppLogService.debug( "ANTS call to endpoint '{}' waited {} ms for the rate limit", endpoint.getKey( ), lWaitMillis );
+		}
+		return lWaitMillis;
+	}
+
+	/**
+	 * Slow down the calls to an endpoint after ANTS answered with an HTTP 429 status
+	 * 
+	 * @param endpoint
+	 *            The endpoint that was called
+	 * @param strRetryAfter
+	 *            The value of the Retry-After header of the response (a delay in seconds or an HTTP date), can be null
+	 */
+	public void onThrottled( AntsEndpoint endpoint, String strRetryAfter )
+	{
+		_mapThrottledCounts.get( endpoint ).incrementAndGet( );
+
+		long lPauseSeconds = getRetryAfterSeconds( strRetryAfter, _lThrottledPauseSeconds );
+		AppLogService.info( "ANTS endpoint '{}' throttled the calls: pausing them for {} s", endpoint.getKey( ), lPauseSeconds );
+
+		AntsTokenBucket bucket = _mapBuckets.get( endpoint );
+		if ( bucket != null )
+		{
+			bucket.pauseUntil( System.nanoTime( ) + TimeUnit.SECONDS.toNanos( lPauseSeconds ) );
+		}
+	}
+
+	/**
+	 * Share the budget of each endpoint between the nodes of the cluster
+	 * 
+	 * @param nbNodes
+	 *            The amount of nodes currently using the ANTS API
+	 */
+	public void setClusterSize( int nbNodes )
+	{
+		int nbActiveNodes = Math.max( 1, nbNodes );
+		long lNowNanos = System.nanoTime( );
+
+		for ( Map.Entry<AntsEndpoint, AntsTokenBucket> bucket : _mapBuckets.entrySet( ) )
+		{
+			bucket.getValue( ).setRate( _mapClusterRates.get( bucket.getKey( ) ) / nbActiveNodes, lNowNanos );
+		}
+	}
+
+	/**
+	 * Get a summary of the calls made to each endpoint, with the time they waited for the rate limit
+	 * 
+	 * @return the summary, on one line per endpoint
+	 */
+	public String getStatistics( )
+	{
+		StringBuilder sbStatistics = new StringBuilder( );
+
+		for ( AntsEndpoint endpoint : AntsEndpoint.values( ) )
+		{
+			long lCallCount = _mapCallCounts.get( endpoint ).get( );
+			long lWaitTime = _mapWaitTimes.get( endpoint ).get( );
+			AntsTokenBucket bucket = _mapBuckets.get( endpoint );
+
+			sbStatistics.append( endpoint.getKey( ) )
+					.append( ": rate=" ).append( bucket != null ? String.format( "%.2f/s", bucket.getRate( ) ) : "unlimited" )
+					.append( ", calls=" ).append( lCallCount )
+					.append( ", average wait=" ).append( lCallCount > 0 ? lWaitTime / lCallCount : 0 ).append( " ms" )
+					.append( ", max wait=" ).append( _mapMaxWaitTimes.get( endpoint ).get( ) ).append( " ms" )
+					.append( ", rejected=" ).append( _mapRejectedCounts.get( endpoint ).get( ) )
+					.append( ", throttled by ANTS=" ).append( _mapThrottledCounts.get( endpoint ).get( ) )
+					.append( '\n' );
+		}
+		return sbStatistics.toString( );
+	}
+
+	/**
+	 * Get the delay requested by a Retry-After header
+	 * 
+	 * @param strRetryAfter
+	 *            The value of the header: a delay in seconds or an HTTP date
+	 * @param lDefaultSeconds
+	 *            The delay used when the header is missing or invalid
+	 * @return the delay, in seconds
+	 */
+	static long getRetryAfterSeconds( String strRetryAfter, long lDefaultSeconds )
+	{
+		if ( StringUtils.isBlank( strRetryAfter ) )
+		{
+			return lDefaultSeconds;
+		}
+
+		String strValue = strRetryAfter.trim( );
+		if ( StringUtils.isNumeric( strValue ) )
+		{
+			return NumberUtils.toLong( strValue, lDefaultSeconds );
+		}
+
+		try
+		{
+			ZonedDateTime retryDate = ZonedDateTime.parse( strValue, DateTimeFormatter.RFC_1123_DATE_TIME );
+			return Math.max( 0L, retryDate.toEpochSecond( ) - ZonedDateTime.now( ).toEpochSecond( ) );
+		}
+		catch( DateTimeParseException e )
+		{
+			return lDefaultSeconds;
+		}
+	}
+}
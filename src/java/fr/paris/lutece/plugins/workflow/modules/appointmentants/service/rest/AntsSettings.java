@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import fr.paris.lutece.portal.service.datastore.DatastoreService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * Immutable snapshot of the settings used to call the ANTS API (token, URLs, parameter names, etc.). The current
+ * snapshot is read without any lock or property lookup, and is replaced periodically, so that a new token set in
+ * the site properties is used without restarting the webapp
+ */
+public final class AntsSettings
+{
+	private static final String PROPERTY_APPLICATION_NUMBERS_SEPARATOR = "ants.api.application.numbers.separator";
+	private static final String PROPERTY_USER_ACCOUNT_URL = "paris.user.account.url";
+	private static final String PROPERTY_REFRESH_INTERVAL = "ants.settings.refresh.interval";
+	private static final String PROPERTY_CORRELATION_HEADER = "ants.tracing.correlation.header";
+	private static final long DEFAULT_REFRESH_INTERVAL = 60L;
+
+	private static final AtomicReference<AntsSettings> CURRENT_SETTINGS = new AtomicReference<>( );
+	private static final AtomicBoolean REFRESHING = new AtomicBoolean( );
+	private static volatile long _lNextRefreshNanos;
+
+	private final String _strToken;
+	private final String _strTokenHeader;
+	private final String _strBaseUrl;
+	private final String _strAddAppointmentUrl;
+	private final String _strDeleteAppointmentUrl;
+	private final String _strStatusUrl;
+	private final String _strParameterApplicationId;
+	private final String _strParameterApplicationIds;
+	private final String _strParameterManagementUrl;
+	private final String _strParameterMeetingPoint;
+	private final String _strParameterMeetingPointId;
+	private final String _strParameterAppointmentDate;
+	private final String _strApplicationNumbersSeparator;
+	private final String _strStatusValidated;
+	private final String _strUserAccountUrl;
+	private final String _strCorrelationHeader;
+
+	/**
+	 * Constructor, reading the current value of each setting
+	 */
+	private AntsSettings( )
+	{
+		_strToken = String.valueOf( DatastoreService.getDataValue( TaskAntsAppointmentRestConstants.ANTS_TOKEN_VALUE, "" ) );
+		_strTokenHeader = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_TOKEN_HEADER );
+		_strBaseUrl = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_URL );
+		_strAddAppointmentUrl = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_URL_ADD_APPOINTMENT );
+		_strDeleteAppointmentUrl = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_URL_DELETE_APPOINTMENT );
+		_strStatusUrl = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_URL_STATUS_APPOINTMENT );
+		_strParameterApplicationId = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_APPLICATION_ID );
+		_strParameterApplicationIds = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_APPLICATION_IDS );
+		_strParameterManagementUrl = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_MANAGEMENT_URL );
+		_strParameterMeetingPoint = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_MEETING_POINT );
+		_strParameterMeetingPointId = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_MEETING_POINT_ID );
+		_strParameterAppointmentDate = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_APPOINTMENT_DATE );
+		_strApplicationNumbersSeparator = AppPropertiesService.getProperty( PROPERTY_APPLICATION_NUMBERS_SEPARATOR );
+		_strStatusValidated = AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_APPOINTMENT_VALIDATED );
+		_strUserAccountUrl = AppPropertiesService.getProperty( PROPERTY_USER_ACCOUNT_URL );
+		_strCorrelationHeader = AppPropertiesService.getProperty( PROPERTY_CORRELATION_HEADER );
+	}
+
+	/**
+	 * Get the current settings. They are reloaded by the first caller once the refresh interval has elapsed, the
+	 * other callers keep using the previous settings in the meantime
+	 * 
+	 * @return the current settings
+	 */
+	public static AntsSettings getCurrent( )
+	{
+		AntsSettings settings = CURRENT_SETTINGS.get( );
+
+		if ( ( settings == null || System.nanoTime( ) - _lNextRefreshNanos >= 0 ) && REFRESHING.compareAndSet( false, true ) )
+		{
+			try
+			{
+				settings = refresh( );
+			}
+			finally
+			{
+				REFRESHING.set( false );
+			}
+		}
+		else if ( settings == null )
+		{
+			// Another thread is loading the first settings
+			settings = new AntsSettings( );
+		}
+		return settings;
+	}
+
+	/**
+	 * Reload the settings immediately
+	 * 
+	 * @return the new settings
+	 */
+	public static AntsSettings refresh( )
+	{
+		AntsSettings settings = new AntsSettings( );
+		AntsSettings previousSettings = CURRENT_SETTINGS.getAndSet( settings );
+		_lNextRefreshNanos = System.nanoTime( )
+				+ TimeUnit.SECONDS.toNanos( AppPropertiesService.getPropertyLong( PROPERTY_REFRESH_INTERVAL, DEFAULT_REFRESH_INTERVAL ) );
+
+		if ( previousSettings != null && !Objects.equals( previousSettings._strToken, settings._strToken ) )
+		{
+			AppLogService.info( "The ANTS token was changed, the new token is used for the next ANTS calls" );
+		}
+		return settings;
+	}
+
+	/**
+	 * @return the token of the ANTS API
+	 */
+	public String getToken( )
+	{
+		return _strToken;
+	}
+
+	/**
+	 * @return the name of the header holding the token
+	 */
+	public String getTokenHeader( )
+	{
+		return _strTokenHeader;
+	}
+
+	/**
+	 * @return the base URL of the ANTS API
+	 */
+	public String getBaseUrl( )
+	{
+		return _strBaseUrl;
+	}
+
+	/**
+	 * @return the path of the endpoint adding appointments
+	 */
+	public String getAddAppointmentUrl( )
+	{
+		return _strAddAppointmentUrl;
+	}
+
+	/**
+	 * @return the path of the endpoint deleting appointments
+	 */
+	public String getDeleteAppointmentUrl( )
+	{
+		return _strDeleteAppointmentUrl;
+	}
+
+	/**
+	 * @return the path of the endpoint getting the status of application numbers
+	 */
+	public String getStatusUrl( )
+	{
+		return _strStatusUrl;
+	}
+
+	/**
+	 * @return the name of the "application_id" parameter
+	 */
+	public String getParameterApplicationId( )
+	{
+		return _strParameterApplicationId;
+	}
+
+	/**
+	 * @return the name of the "application_ids" parameter
+	 */
+	public String getParameterApplicationIds( )
+	{
+		return _strParameterApplicationIds;
+	}
+
+	/**
+	 * @return the name of the "management_url" parameter
+	 */
+	public String getParameterManagementUrl( )
+	{
+		return _strParameterManagementUrl;
+	}
+
+	/**
+	 * @return the name of the "meeting_point" parameter
+	 */
+	public String getParameterMeetingPoint( )
+	{
+		return _strParameterMeetingPoint;
+	}
+
+	/**
+	 * @return the name of the "meeting_point_id" parameter
+	 */
+	public String getParameterMeetingPointId( )
+	{
+		return _strParameterMeetingPointId;
+	}
+
+	/**
+	 * @return the name of the "appointment_date" parameter
+	 */
+	public String getParameterAppointmentDate( )
+	{
+		return _strParameterAppointmentDate;
+	}
+
+	/**
+	 * @return the separator of the application numbers saved in the appointments' responses
+	 */
+	public String getApplicationNumbersSeparator( )
+	{
+		return _strApplicationNumbersSeparator;
+	}
+
+	/**
+	 * @return the status of a validated application number
+	 */
+	public String getStatusValidated( )
+	{
+		return _strStatusValidated;
+	}
+
+	/**
+	 * @return the URL of the users' account, sent as management URL of the appointments
+	 */
+	public String getUserAccountUrl( )
+	{
+		return _strUserAccountUrl;
+	}
+
+	/**
+	 * @return the name of the header carrying the correlation ID of the execution in the ANTS calls, empty if it isn't sent
+	 */
+	public String getCorrelationHeader( )
+	{
+		return _strCorrelationHeader;
+	}
+}
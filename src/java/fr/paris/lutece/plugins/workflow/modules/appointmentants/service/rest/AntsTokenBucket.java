@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket smoothing the calls made to an ANTS endpoint. Tokens are added at a constant rate, up to
+ * the size of the burst. A caller takes a token if one is available, otherwise it reserves the next token
+ * and waits for it, so that the callers are served in order without exceeding the rate. While the bucket
+ * is paused, no token is added: the callers queued during the pause are spread at the normal rate after it
+ */
+public final class AntsTokenBucket
+{
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos( 1 );
+
+	private final double _dBurst;
+	private double _dRatePerSecond;
+	private double _dTokens;
+	/**
+	 * Time up to which the tokens were added. It is in the future while the bucket is paused
+	 */
+	private long _lLastRefillNanos;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param dRatePerSecond
+	 *            The amount of tokens added per second
+	 * @param dBurst
+	 *            The maximum amount of tokens stored
+	 * @param lNowNanos
+	 *            The current time, in nanoseconds
+	 */
+	public AntsTokenBucket( double dRatePerSecond, double dBurst, long lNowNanos )
+	{
+		_dRatePerSecond = dRatePerSecond;
+		_dBurst = Math.max( 1, dBurst );
+		_dTokens = _dBurst;
+		_lLastRefillNanos = lNowNanos;
+	}
+
+	/**
+	 * Reserve a token
+	 * 
+	 * @param lNowNanos
+	 *            The current time, in nanoseconds
+	 * @param lMaxWaitNanos
+	 *            The maximum time the caller accepts to wait for the token
+	 * @return the time the caller has to wait before using the token, in nanoseconds, or -1 if it should wait
+	 *         longer than the maximum time (in that case no token is reserved)
+	 */
+	public synchronized long reserve( long lNowNanos, long lMaxWaitNanos )
+	{
+		refill( lNowNanos );
+
+		// The reserved token is the one following the tokens already reserved, produced from the last refill
+		long lAvailableNanos = _lLastRefillNanos;
+		if ( _dTokens < 1 )
+		{
+			lAvailableNanos += ( long ) ( ( 1 - _dTokens ) * NANOS_PER_SECOND / _dRatePerSecond );
+		}
+		long lWaitNanos = Math.max( 0L, lAvailableNanos - lNowNanos );
+
+		if ( lWaitNanos > lMaxWaitNanos )
+		{
+			return -1L;
+		}
+		_dTokens -= 1;
+
+		return lWaitNanos;
+	}
+
+	/**
+	 * Stop delivering tokens until the specified time (the endpoint asked to slow down)
+	 * 
+	 * @param lUntilNanos
+	 *            The time at which the tokens are delivered again, in nanoseconds
+	 */
+	public synchronized void pauseUntil( long lUntilNanos )
+	{
+		// No token is produced before the end of the pause, and the stored tokens are dropped but one, so that
+		// the calls resume at the end of the pause at the normal rate instead of a burst
+		_lLastRefillNanos = Math.max( _lLastRefillNanos, lUntilNanos );
+		_dTokens = Math.min( _dTokens, 1 );
+	}
+
+	/**
+	 * Change the rate of the bucket (when the share of this node in the cluster changes)
+	 * 
+	 * @param dRatePerSecond
+	 *            The new amount of tokens added per second
+	 * @param lNowNanos
+	 *            The current time, in nanoseconds
+	 */
+	public synchronized void setRate( double dRatePerSecond, long lNowNanos )
+	{
+		refill( lNowNanos );
+		_dRatePerSecond = dRatePerSecond;
+	}
+
+	/**
+	 * Get the current rate of the bucket
+	 * 
+	 * @return the amount of tokens added per second
+	 */
+	public synchronized double getRate( )
+	{
+		return _dRatePerSecond;
+	}
+
+	/**
+	 * Add the tokens produced since the last refill
+	 * 
+	 * @param lNowNanos
+	 *            The current time, in nanoseconds
+	 */
+	private void refill( long lNowNanos )
+	{
+		if ( lNowNanos > _lLastRefillNanos )
+		{
+			_dTokens = Math.min( _dBurst, _dTokens + ( lNowNanos - _lLastRefillNanos ) * _dRatePerSecond / NANOS_PER_SECOND );
+			_lLastRefillNanos = lNowNanos;
+		}
+	}
+}
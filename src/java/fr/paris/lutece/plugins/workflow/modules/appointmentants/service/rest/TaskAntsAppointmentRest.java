@@ -35,10 +35,22 @@ package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
-import fr.paris.lutece.portal.service.util.AppPropertiesService;
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsExecutionContext;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.TaskAntsAppointmentExecutor;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.jfr.AntsEventFactory;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.jfr.IAntsCallEvent;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.tracing.AntsSpan;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.tracing.AntsTracer;
+import fr.paris.lutece.portal.service.util.AppLogService;
 import fr.paris.lutece.util.httpaccess.HttpAccess;
 import fr.paris.lutece.util.httpaccess.HttpAccessException;
+import fr.paris.lutece.util.httpaccess.InvalidResponseStatus;
 
 /**
  * 
@@ -47,6 +59,35 @@ import fr.paris.lutece.util.httpaccess.HttpAccessException;
  */
 public class TaskAntsAppointmentRest {
 
+	/**
+	 * HTTP status of a successful call
+	 */
+	private static final int HTTP_STATUS_OK = 200;
+
+	/**
+	 * Lowest HTTP status revealing that the ANTS API is failing or overloaded
+	 */
+	private static final int HTTP_STATUS_SERVER_ERROR = 500;
+
+	/**
+	 * HTTP status returned by ANTS when the quota of the token is exceeded
+	 */
+	private static final int HTTP_STATUS_TOO_MANY_REQUESTS = 429;
+
+	/**
+	 * W3C Trace Context header, linking the ANTS calls to the spans of the execution
+	 */
+	private static final String HEADER_TRACE_PARENT = "traceparent";
+
+	/**
+	 * A call to the ANTS API
+	 */
+	@FunctionalInterface
+	private interface AntsCall
+	{
+		String execute( ) throws HttpAccessException;
+	}
+
 	private TaskAntsAppointmentRest( )
 	{
 	}
@@ -69,9 +110,11 @@ public class TaskAntsAppointmentRest {
 		HttpAccess httpAccess = new HttpAccess(  );
 		
 		Map<String, String> headersRequest = new HashMap<>( );
-        headersRequest.put( AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_TOKEN_HEADER ), token );
+        headersRequest.put( AntsSettings.getCurrent( ).getTokenHeader( ), token );
+
+        Map<String, String> headersResponse = new HashMap<>( );
 
-        return httpAccess.doPost( addAppointmentUrl, null, null, null, headersRequest );
+        return tracedCall( AntsEndpoint.ADD, 1, headersRequest, headersResponse, ( ) -> httpAccess.doPost( addAppointmentUrl, null, null, null, headersRequest, headersResponse ) );
 	}
 	
 	/**
@@ -92,9 +135,11 @@ public class TaskAntsAppointmentRest {
 		HttpAccess httpAccess = new HttpAccess(  );
 		
 		Map<String, String> headersRequest = new HashMap<>( );
-        headersRequest.put( AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_TOKEN_HEADER ), token );
+        headersRequest.put( AntsSettings.getCurrent( ).getTokenHeader( ), token );
 
-        return httpAccess.doDelete( deleteAppointmentUrl, null, null, headersRequest, null );
+        Map<String, String> headersResponse = new HashMap<>( );
+
+        return tracedCall( AntsEndpoint.DELETE, 1, headersRequest, headersResponse, ( ) -> httpAccess.doDelete( deleteAppointmentUrl, null, null, headersRequest, headersResponse ) );
 	}
 	
 	/**
@@ -111,12 +156,325 @@ public class TaskAntsAppointmentRest {
 	 */
 	public static String getAntsAppointmentStatus( String getStatusUrl, String token ) 
 			throws HttpAccessException
+	{
+		return getAntsAppointmentStatus( getStatusUrl, token, 0 );
+	}
+
+	/**
+	 * Get the status of 1 or more appointments from the ANTS database
+	 * through their API, by using a GET method
+	 * 
+	 * @param getStatusUrl
+	 * 				The URL used to make the REST call
+	 * @param token
+	 * 				The API key to use in the REST call
+	 * @param nNumberCount
+	 * 				The amount of application numbers checked by the call
+	 * @return
+	 * 				The content of the call's response
+	 * @throws HttpAccessException
+	 */
+	public static String getAntsAppointmentStatus( String getStatusUrl, String token, int nNumberCount )
+			throws HttpAccessException
 	{
 		HttpAccess httpAccess = new HttpAccess(  );
 		
 		Map<String, String> headersRequest = new HashMap<>( );
-        headersRequest.put( AppPropertiesService.getProperty( TaskAntsAppointmentRestConstants.ANTS_TOKEN_HEADER ), token );
+        headersRequest.put( AntsSettings.getCurrent( ).getTokenHeader( ), token );
+
+        Map<String, String> headersResponse = new HashMap<>( );
+
+        return tracedCall( AntsEndpoint.STATUS, nNumberCount, headersRequest, headersResponse, ( ) -> httpAccess.doGet( getStatusUrl, null, null, headersRequest, headersResponse ) );
+	}
+
+	/**
+	 * Add an appointment to the ANTS database asynchronously
+	 * 
+	 * @param addAppointmentUrl
+	 * 				The URL used to make the REST call
+	 * @param token
+	 * 				The API key to use in the REST call
+	 * @param executor
+	 * 				The executor making the call
+	 * @return
+	 * 				The future content of the call's response, completed with an {@link HttpAccessException} if the call failed
+	 */
+	public static CompletableFuture<String> addAntsAppointmentAsync( String addAppointmentUrl, String token, Executor executor )
+	{
+		return TaskAntsAppointmentExecutor.supplyAsync( ( ) -> addAntsAppointment( addAppointmentUrl, token ), executor );
+	}
 
-        return httpAccess.doGet( getStatusUrl, null, null, headersRequest );
+	/**
+	 * Delete an appointment from the ANTS database asynchronously
+	 * 
+	 * @param deleteAppointmentUrl
+	 * 				The URL used to make the REST call
+	 * @param token
+	 * 				The API key to use in the REST call
+	 * @param executor
+	 * 				The executor making the call
+	 * @return
+	 * 				The future content of the call's response, completed with an {@link HttpAccessException} if the call failed
+	 */
+	public static CompletableFuture<String> deleteAntsAppointmentAsync( String deleteAppointmentUrl, String token, Executor executor )
+	{
+		return TaskAntsAppointmentExecutor.supplyAsync( ( ) -> deleteAntsAppointment( deleteAppointmentUrl, token ), executor );
+	}
+
+	/**
+	 * Get the status of 1 or more appointments from the ANTS database asynchronously
+	 * 
+	 * @param getStatusUrl
+	 * 				The URL used to make the REST call
+	 * @param token
+	 * 				The API key to use in the REST call
+	 * @param nNumberCount
+	 * 				The amount of application numbers checked by the call
+	 * @param executor
+	 * 				The executor making the call
+	 * @return
+	 * 				The future content of the call's response, completed with an {@link HttpAccessException} if the call failed
+	 */
+	public static CompletableFuture<String> getAntsAppointmentStatusAsync( String getStatusUrl, String token, int nNumberCount, Executor executor )
+	{
+		return TaskAntsAppointmentExecutor.supplyAsync( ( ) -> getAntsAppointmentStatus( getStatusUrl, token, nNumberCount ), executor );
+	}
+
+	/**
+	 * Make a call to the ANTS API within a span, sending the correlation ID of the current execution
+	 * 
+	 * @param endpoint
+	 * 				The endpoint called
+	 * @param nNumberCount
+	 * 				The amount of application numbers sent by the call
+	 * @param headersRequest
+	 * 				The headers of the request, completed with the correlation headers
+	 * @param headersResponse
+	 * 				The map filled with the headers of the call's response
+	 * @param antsCall
+	 * 				The call to make
+	 * @return
+	 * 				The content of the call's response
+	 * @throws HttpAccessException
+	 * 				If the call failed, or an {@link AntsCallRejectedException} if it wasn't allowed to be sent
+	 */
+	private static String tracedCall( AntsEndpoint endpoint, int nNumberCount, Map<String, String> headersRequest,
+			Map<String, String> headersResponse, AntsCall antsCall ) throws HttpAccessException
+	{
+		try ( AntsSpan span = AntsTracer.startSpan( "ants.call " + endpoint.name( ) ) )
+		{
+			span.setAttribute( "ants.endpoint", endpoint.name( ) ).setAttribute( "ants.number.count", nNumberCount );
+			addCorrelationHeaders( headersRequest, span );
+
+			try
+			{
+				String response = callWithinLimit( endpoint, nNumberCount, headersResponse, antsCall );
+				span.setAttribute( "http.status_code", HTTP_STATUS_OK );
+				return response;
+			}
+			catch( InvalidResponseStatus e )
+			{
+				span.setAttribute( "http.status_code", e.getResponseStatus( ) ).setError( e.getMessage( ) );
+				throw e;
+			}
+			catch( HttpAccessException e )
+			{
+				span.setError( e.getMessage( ) );
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Add to the headers of a request the correlation ID of the current execution, and the span of the call
+	 * 
+	 * @param headersRequest
+	 * 				The headers of the request
+	 * @param span
+	 * 				The span of the call
+	 */
+	private static void addCorrelationHeaders( Map<String, String> headersRequest, AntsSpan span )
+	{
+		AntsExecutionContext context = AntsExecutionContext.getCurrent( );
+		String strCorrelationHeader = AntsSettings.getCurrent( ).getCorrelationHeader( );
+
+		if( context != null && StringUtils.isNotBlank( strCorrelationHeader ) )
+		{
+			headersRequest.put( strCorrelationHeader, context.getCorrelationId( ) );
+		}
+		if( span.isRecording( ) )
+		{
+			headersRequest.put( HEADER_TRACE_PARENT, span.getTraceParent( ) );
+		}
+	}
+
+	/**
+	 * Make a call to the ANTS API once the rate limit of the endpoint allows it, and a permit has been
+	 * granted by the concurrency limiter
+	 * 
+	 * @param endpoint
+	 * 				The endpoint called
+	 * @param nNumberCount
+	 * 				The amount of application numbers sent by the call, reported to Flight Recorder
+	 * @param headersResponse
+	 * 				The map filled with the headers of the call's response
+	 * @param antsCall
+	 * 				The call to make
+	 * @return
+	 * 				The content of the call's response
+	 * @throws HttpAccessException
+	 * 				If the call failed, or an {@link AntsCallRejectedException} if it wasn't allowed to be sent
+	 */
+	private static String callWithinLimit( AntsEndpoint endpoint, int nNumberCount, Map<String, String> headersResponse, AntsCall antsCall )
+			throws HttpAccessException
+	{
+		AntsExecutionContext context = AntsExecutionContext.getCurrent( );
+
+		IAntsCallEvent event = AntsEventFactory.beginCallEvent( );
+
+		long lRateLimitWait = 0L;
+		try
+		{
+			lRateLimitWait = AntsRateLimiter.getInstance( ).acquire( endpoint, getRemainingBudget( context ) );
+		}
+		catch( AntsCallRejectedException e )
+		{
+			reportRejectedCall( context );
+			event.commit( endpoint.name( ), nNumberCount, 0 );
+			AppLogService.error( e.getMessage( ) );
+			throw e;
+		}
+		if( context != null )
+		{
+			context.addRateLimitWait( lRateLimitWait );
+		}
+
+		AntsConcurrencyLimiter limiter = AntsConcurrencyLimiter.getInstance( );
+
+		if( !limiter.acquire( getRemainingBudget( context ) ) )
+		{
+			reportRejectedCall( context );
+			event.commit( endpoint.name( ), nNumberCount, 0 );
+			AppLogService.error( "ANTS call rejected: {} calls already in flight (limit: {})", limiter.getInFlight( ), limiter.getLimit( ) );
+			throw new AntsCallRejectedException( "Too many ANTS calls in flight, the call was not sent" );
+		}
+
+		long lStartTime = System.nanoTime( );
+		AntsConcurrencyLimiter.Outcome outcome = AntsConcurrencyLimiter.Outcome.DROPPED;
+		int nHttpStatus = 0;
+		try
+		{
+			String response = antsCall.execute( );
+			outcome = AntsConcurrencyLimiter.Outcome.SUCCESS;
+			nHttpStatus = HTTP_STATUS_OK;
+			return response;
+		}
+		catch( InvalidResponseStatus e )
+		{
+			nHttpStatus = e.getResponseStatus( );
+
+			// Client errors are not a sign of overload, except when ANTS asks to slow down. Their latency is not
+			// sampled either, as a fast rejection would set a reference latency no successful call can reach
+			if( e.getResponseStatus( ) < HTTP_STATUS_SERVER_ERROR && e.getResponseStatus( ) != HTTP_STATUS_TOO_MANY_REQUESTS )
+			{
+				outcome = AntsConcurrencyLimiter.Outcome.IGNORED;
+			}
+
+			if( e.getResponseStatus( ) == HTTP_STATUS_TOO_MANY_REQUESTS )
+			{
+				AntsRateLimiter.getInstance( ).onThrottled( endpoint, getHeaderValue( headersResponse, AntsRateLimiter.HEADER_RETRY_AFTER ) );
+			}
+			reportError( context, endpoint, e.getMessage( ) );
+			throw e;
+		}
+		catch( HttpAccessException e )
+		{
+			reportError( context, endpoint, e.getMessage( ) );
+			throw e;
+		}
+		finally
+		{
+			long lLatency = System.nanoTime( ) - lStartTime;
+			limiter.release( endpoint, lLatency, outcome );
+
+			if( context != null )
+			{
+				context.recordCall( endpoint.name( ), nHttpStatus, TimeUnit.NANOSECONDS.toMillis( lLatency ) );
+			}
+			event.commit( endpoint.name( ), nNumberCount, nHttpStatus );
+		}
+	}
+
+	/**
+	 * Get the time a call can spend waiting for the limiters, so that the waits can't use up the time budget of
+	 * the execution before its calls are deferred
+	 * 
+	 * @param context
+	 * 				The context of the current execution, can be null
+	 * @return
+	 * 				The time left to the execution in nanoseconds, or Long.MAX_VALUE if it has no deadline or if its
+	 * 				calls already go on in the background
+	 */
+	private static long getRemainingBudget( AntsExecutionContext context )
+	{
+		if( context == null || context.isDeferred( ) )
+		{
+			return Long.MAX_VALUE;
+		}
+		return context.getRemainingNanos( );
+	}
+
+	/**
+	 * Report to the execution's context that an ANTS call was not sent
+	 * 
+	 * @param context
+	 * 				The context of the current execution, can be null
+	 */
+	private static void reportRejectedCall( AntsExecutionContext context )
+	{
+		if( context != null )
+		{
+			context.setCallRejected( );
+		}
+	}
+
+	/**
+	 * Report to the execution's context the error returned by an ANTS call
+	 * 
+	 * @param context
+	 * 				The context of the current execution, can be null
+	 * @param endpoint
+	 * 				The endpoint called
+	 * @param strError
+	 * 				The error returned by the call
+	 */
+	private static void reportError( AntsExecutionContext context, AntsEndpoint endpoint, String strError )
+	{
+		if( context != null )
+		{
+			context.setLastError( endpoint.name( ) + ": " + strError );
+		}
+	}
+
+	/**
+	 * Get the value of a response header, whatever the case of its name
+	 * 
+	 * @param headersResponse
+	 * 				The headers of the response
+	 * @param strHeaderName
+	 * 				The name of the header
+	 * @return
+	 * 				The value of the header, or null if it is missing
+	 */
+	private static String getHeaderValue( Map<String, String> headersResponse, String strHeaderName )
+	{
+		for( Map.Entry<String, String> header : headersResponse.entrySet( ) )
+		{
+			if( strHeaderName.equalsIgnoreCase( header.getKey( ) ) )
+			{
+				return header.getValue( );
+			}
+		}
+		return null;
 	}
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.slot;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 
+ * Immutable snapshot of the available slots of a meeting point (i.e an appointment Form), indexed by starting date.
+ * A new snapshot replaces the previous one each time the Form is refreshed, so a snapshot can be read without any lock
+ *
+ */
+public final class AntsMeetingPointSlots
+{
+	private final int _nIdForm;
+	private final String _strMeetingPointId;
+	private final NavigableMap<LocalDateTime, Integer> _mapRemainingPlaces;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form
+	 * @param strMeetingPointId
+	 *            The "meeting_point_id" of the Form
+	 * @param mapRemainingPlaces
+	 *            The remaining places of the available slots, by starting date
+	 */
+	public AntsMeetingPointSlots( int nIdForm, String strMeetingPointId, NavigableMap<LocalDateTime, Integer> mapRemainingPlaces )
+	{
+		_nIdForm = nIdForm;
+		_strMeetingPointId = strMeetingPointId;
+		_mapRemainingPlaces = Collections.unmodifiableNavigableMap( new TreeMap<>( mapRemainingPlaces ) );
+	}
+
+	/**
+	 * Get the ID of the Form
+	 * 
+	 * @return the ID of the Form
+	 */
+	public int getIdForm( )
+	{
+		return _nIdForm;
+	}
+
+	/**
+	 * Get the "meeting_point_id" of the Form
+	 * 
+	 * @return the "meeting_point_id"
+	 */
+	public String getMeetingPointId( )
+	{
+		return _strMeetingPointId;
+	}
+
+	/**
+	 * Get the number of available slots
+	 * 
+	 * @return the number of available slots
+	 */
+	public int size( )
+	{
+		return _mapRemainingPlaces.size( );
+	}
+
+	/**
+	 * Get the available slots starting within a period, with enough remaining places
+	 * 
+	 * @param dateFrom
+	 *            Start of the period (inclusive)
+	 * @param dateTo
+	 *            End of the period (exclusive)
+	 * @param nPlaces
+	 *            Number of places needed
+	 * @return the remaining places of the slots, by starting date
+	 */
+	public NavigableMap<LocalDateTime, Integer> getSlots( LocalDateTime dateFrom, LocalDateTime dateTo, int nPlaces )
+	{
+		if( !dateFrom.isBefore( dateTo ) )
+		{
+			return Collections.emptyNavigableMap( );
+		}
+
+		NavigableMap<LocalDateTime, Integer> mapSlots = _mapRemainingPlaces.subMap( dateFrom, true, dateTo, false );
+
+		if( nPlaces <= 1 )
+		{
+			return mapSlots;
+		}
+
+		NavigableMap<LocalDateTime, Integer> mapFilteredSlots = new TreeMap<>( );
+		mapSlots.forEach( ( date, nRemainingPlaces ) -> {
+			if( nRemainingPlaces >= nPlaces )
+			{
+				mapFilteredSlots.put( date, nRemainingPlaces );
+			}
+		} );
+		return mapFilteredSlots;
+	}
+}
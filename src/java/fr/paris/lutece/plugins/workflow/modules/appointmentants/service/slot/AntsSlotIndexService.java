@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.slot;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import fr.paris.lutece.plugins.appointment.business.form.Form;
+import fr.paris.lutece.plugins.appointment.business.planning.WeekDefinition;
+import fr.paris.lutece.plugins.appointment.business.rule.ReservationRule;
+import fr.paris.lutece.plugins.appointment.business.slot.Slot;
+import fr.paris.lutece.plugins.appointment.service.FormService;
+import fr.paris.lutece.plugins.appointment.service.ReservationRuleService;
+import fr.paris.lutece.plugins.appointment.service.SlotService;
+import fr.paris.lutece.plugins.appointment.service.WeekDefinitionService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfig;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfigDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * In-memory index of the available slots of the meeting points exposed to ANTS, i.e the Forms with an ANTS task.
+ * The index is rebuilt periodically, to follow the horizon and the changes of the planning, and the Forms whose
+ * appointments changed in the meantime are refreshed incrementally, so the ANTS slot queries never read the
+ * appointment tables
+ *
+ */
+public final class AntsSlotIndexService
+{
+	private static final String PROPERTY_SLOTS_ENABLED = "ants.slots.enabled";
+	private static final String PROPERTY_SLOTS_HORIZON = "ants.slots.index.horizon";
+	private static final String PROPERTY_SLOTS_FULL_REFRESH = "ants.slots.index.full.refresh";
+	private static final int DEFAULT_SLOTS_HORIZON = 90;
+	private static final long DEFAULT_SLOTS_FULL_REFRESH = 3600L;
+
+	private static final AntsSlotIndexService INSTANCE = new AntsSlotIndexService( );
+
+	private final Map<String, AntsMeetingPointSlots> _mapIndex = new ConcurrentHashMap<>( );
+	private final Set<Integer> _setChangedForms = ConcurrentHashMap.newKeySet( );
+	private volatile long _lLastFullRefreshMillis;
+
+	/**
+	 * Private constructor
+	 */
+	private AntsSlotIndexService( )
+	{
+	}
+
+	/**
+	 * Get the instance of the service
+	 * 
+	 * @return the instance of the service
+	 */
+	public static AntsSlotIndexService getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * Check whether the available slots are exposed to ANTS
+	 * 
+	 * @return true if the slot endpoint is enabled
+	 */
+	public static boolean isEnabled( )
+	{
+		return AppPropertiesService.getPropertyBoolean( PROPERTY_SLOTS_ENABLED, false );
+	}
+
+	/**
+	 * Get the available slots of a meeting point, building the index on the first call
+	 * 
+	 * @param strMeetingPointId
+	 *            The "meeting_point_id" of the meeting point
+	 * @return the available slots of the meeting point, or null if it isn't exposed to ANTS
+	 */
+	public AntsMeetingPointSlots getMeetingPointSlots( String strMeetingPointId )
+	{
+		if( _lLastFullRefreshMillis == 0L )
+		{
+			refresh( );
+		}
+		return _mapIndex.get( strMeetingPointId );
+	}
+
+	/**
+	 * Notify a change of the appointments of a Form, so its slots are refreshed on the next run
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form
+	 */
+	public void notifyFormChange( int nIdForm )
+	{
+		if( isEnabled( ) )
+		{
+			_setChangedForms.add( nIdForm );
+		}
+	}
+
+	/**
+	 * Notify a change of an appointment, so the slots of its Form are refreshed on the next run. When the Form of the
+	 * appointment is unknown (the appointment is already removed), every indexed Form is refreshed
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form of the appointment, 0 if unknown
+	 */
+	public void notifyAppointmentChange( int nIdForm )
+	{
+		if( !isEnabled( ) )
+		{
+			return;
+		}
+		if( nIdForm > 0 )
+		{
+			_setChangedForms.add( nIdForm );
+		}
+		else
+		{
+			_mapIndex.values( ).forEach( slots -> _setChangedForms.add( slots.getIdForm( ) ) );
+		}
+	}
+
+	/**
+	 * Refresh the index: rebuild it entirely once the full refresh interval has elapsed, refresh the changed Forms
+	 * otherwise
+	 * 
+	 * @return the number of Forms refreshed
+	 */
+	public synchronized int refresh( )
+	{
+		long lNow = System.currentTimeMillis( );
+		long lFullRefreshMillis = TimeUnit.SECONDS.toMillis( AppPropertiesService.getPropertyLong( PROPERTY_SLOTS_FULL_REFRESH, DEFAULT_SLOTS_FULL_REFRESH ) );
+
+		if( _lLastFullRefreshMillis == 0L || lNow - _lLastFullRefreshMillis >= lFullRefreshMillis )
+		{
+			return rebuild( lNow );
+		}
+
+		int nRefreshed = 0;
+		for( Iterator<Integer> iterator = _setChangedForms.iterator( ); iterator.hasNext( ); )
+		{
+			int nIdForm = iterator.next( );
+			iterator.remove( );
+
+			// Only the Forms exposed to ANTS are indexed
+			if( _mapIndex.containsKey( AntsAppointmentUtils.generateAntsMeetingPointId( nIdForm ) ) )
+			{
+				refreshForm( nIdForm );
+				nRefreshed++;
+			}
+		}
+		return nRefreshed;
+	}
+
+	/**
+	 * Rebuild the index with the Forms of the ANTS tasks
+	 * 
+	 * @param lNow
+	 *            Time of the rebuild
+	 * @return the number of Forms indexed
+	 */
+	private int rebuild( long lNow )
+	{
+		_setChangedForms.clear( );
+
+		Set<String> setMeetingPointIds = new HashSet<>( );
+		TaskAntsAppointmentConfigDAO configDAO = SpringContextService.getBean( TaskAntsAppointmentConfigDAO.BEAN_NAME );
+
+		for( TaskAntsAppointmentConfig config : configDAO.loadAll( ) )
+		{
+			String strMeetingPointId = AntsAppointmentUtils.generateAntsMeetingPointId( config.getIdForm( ) );
+
+			if( config.getIdForm( ) > 0 && setMeetingPointIds.add( strMeetingPointId ) && !refreshForm( config.getIdForm( ) ) )
+			{
+				setMeetingPointIds.remove( strMeetingPointId );
+			}
+		}
+
+		// Remove the Forms which are no longer exposed to ANTS
+		_mapIndex.keySet( ).retainAll( setMeetingPointIds );
+		_lLastFullRefreshMillis = lNow;
+
+		AppLogService.info( "ANTS slot index rebuilt: {} meeting point(s)", _mapIndex.size( ) );
+
+		return _mapIndex.size( );
+	}
+
+	/**
+	 * Refresh the available slots of a Form, or remove it from the index if it is no longer active
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form
+	 * @return true if the Form is indexed
+	 */
+	private boolean refreshForm( int nIdForm )
+	{
+		String strMeetingPointId = AntsAppointmentUtils.generateAntsMeetingPointId( nIdForm );
+		Form form = FormService.findFormLightByPrimaryKey( nIdForm );
+
+		if( form == null || !form.getIsActive( ) )
+		{
+			_mapIndex.remove( strMeetingPointId );
+			return false;
+		}
+
+		try
+		{
+			_mapIndex.put( strMeetingPointId, new AntsMeetingPointSlots( nIdForm, strMeetingPointId, loadAvailableSlots( nIdForm ) ) );
+			return true;
+		}
+		catch( Exception e )
+		{
+			// Keep serving the previous slots of the Form
+			AppLogService.error( "Failed to refresh the ANTS slot index of Form {}", nIdForm, e );
+			return _mapIndex.containsKey( strMeetingPointId );
+		}
+	}
+
+	/**
+	 * Load the available slots of a Form, from today until the horizon of the index
+	 * 
+	 * @param nIdForm
+	 *            ID of the Form
+	 * @return the remaining places of the available slots, by starting date
+	 */
+	private static NavigableMap<LocalDateTime, Integer> loadAvailableSlots( int nIdForm )
+	{
+		LocalDate dateStart = LocalDate.now( );
+		LocalDate dateEnd = dateStart.plusDays( AppPropertiesService.getPropertyInt( PROPERTY_SLOTS_HORIZON, DEFAULT_SLOTS_HORIZON ) );
+		LocalDateTime dateNow = LocalDateTime.now( );
+
+		List<WeekDefinition> listWeekDefinition = WeekDefinitionService.findListWeekDefinition( nIdForm );
+		Map<WeekDefinition, ReservationRule> mapReservationRule = ReservationRuleService.findAllReservationRule( nIdForm, listWeekDefinition );
+
+		NavigableMap<LocalDateTime, Integer> mapRemainingPlaces = new TreeMap<>( );
+		for( Slot slot : SlotService.buildListSlot( nIdForm, mapReservationRule, dateStart, dateEnd ) )
+		{
+			if( slot.getIsOpen( ) && slot.getNbPotentialRemainingPlaces( ) > 0 && slot.getStartingDateTime( ).isAfter( dateNow ) )
+			{
+				mapRemainingPlaces.put( slot.getStartingDateTime( ), slot.getNbPotentialRemainingPlaces( ) );
+			}
+		}
+		return mapRemainingPlaces;
+	}
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.slot;
+
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+import fr.paris.lutece.portal.service.cache.AbstractCacheableService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Cache of the responses to the ANTS slot queries. A response is built once from the slot index, serialized in JSON
+ * and compressed, then served as is until it expires or the slots of one of its meeting points are refreshed
+ *
+ */
+public final class AntsSlotResponseCacheService extends AbstractCacheableService<String, AntsSlotResponseCacheService.AntsSlotResponse>
+{
+	private static final String SERVICE_NAME = "ANTS Slot Response Cache Service";
+
+	private static final String PROPERTY_SLOTS_CACHE_TTL = "ants.slots.cache.ttl";
+	private static final String PROPERTY_SLOTS_CALLBACK_URL = "ants.slots.callback.url";
+	private static final String PROPERTY_SLOTS_PLACES_PER_DOCUMENT = "ants.slots.places.per.document";
+	private static final long DEFAULT_SLOTS_CACHE_TTL = 30L;
+
+	private static final String KEY_DATETIME = "datetime";
+	private static final String KEY_CALLBACK_URL = "callback_url";
+	private static final char KEY_SEPARATOR = '|';
+
+	private static final DateTimeFormatter FORMATTER_DATETIME = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+	private static final ObjectMapper MAPPER = new ObjectMapper( );
+
+	private static final AntsSlotResponseCacheService INSTANCE = new AntsSlotResponseCacheService( );
+
+	/**
+	 * Response to an ANTS slot query, with the snapshots of the meeting points it was built from
+	 */
+	public static final class AntsSlotResponse
+	{
+		private final byte [ ] _json;
+		private final byte [ ] _gzip;
+		private final List<AntsMeetingPointSlots> _listSnapshots;
+		private final List<String> _listMeetingPointIds;
+		private final long _lCreationMillis;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param json
+		 *            The response in JSON
+		 * @param gzip
+		 *            The response in JSON, compressed with gzip
+		 * @param listMeetingPointIds
+		 *            The meeting points of the query
+		 * @param listSnapshots
+		 *            The slots of the meeting points the response was built from
+		 */
+		AntsSlotResponse( byte [ ] json, byte [ ] gzip, List<String> listMeetingPointIds, List<AntsMeetingPointSlots> listSnapshots )
+		{
+			_json = json;
+			_gzip = gzip;
+			_listMeetingPointIds = listMeetingPointIds;
+			_listSnapshots = listSnapshots;
+			_lCreationMillis = System.currentTimeMillis( );
+		}
+
+		/**
+		 * Get the response in JSON
+		 * 
+		 * @return the response in JSON
+		 */
+		public byte [ ] getJson( )
+		{
+			return _json;
+		}
+
+		/**
+		 * Get the response in JSON, compressed with gzip
+		 * 
+		 * @return the compressed response
+		 */
+		public byte [ ] getGzip( )
+		{
+			return _gzip;
+		}
+
+		/**
+		 * Check whether the response is still up to date
+		 * 
+		 * @param index
+		 *            The slot index
+		 * @param lTtlMillis
+		 *            Time to live of the responses
+		 * @return true if the response hasn't expired and its meeting points haven't been refreshed since
+		 */
+		boolean isValid( AntsSlotIndexService index, long lTtlMillis )
+		{
+			if( System.currentTimeMillis( ) - _lCreationMillis >= lTtlMillis )
+			{
+				return false;
+			}
+			for( int i = 0; i < _listMeetingPointIds.size( ); i++ )
+			{
+				if( index.getMeetingPointSlots( _listMeetingPointIds.get( i ) ) != _listSnapshots.get( i ) )
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Private constructor
+	 */
+	private AntsSlotResponseCacheService( )
+	{
+		initCache( );
+	}
+
+	/**
+	 * Get the instance of the service
+	 * 
+	 * @return the instance of the service
+	 */
+	public static AntsSlotResponseCacheService getInstance( )
+	{
+		return INSTANCE;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String getName( )
+	{
+		return SERVICE_NAME;
+	}
+
+	/**
+	 * Get the response to an ANTS slot query, from the cache if it is still up to date
+	 * 
+	 * @param listMeetingPointIds
+	 *            The meeting points of the query
+	 * @param dateStart
+	 *            The first day of the query
+	 * @param dateEnd
+	 *            The last day of the query
+	 * @param nDocumentsNumber
+	 *            The number of documents of the query
+	 * @return the response
+	 * @throws IOException
+	 *             If the response couldn't be serialized
+	 */
+	public AntsSlotResponse getResponse( List<String> listMeetingPointIds, LocalDate dateStart, LocalDate dateEnd, int nDocumentsNumber ) throws IOException
+	{
+		List<String> listSortedMeetingPointIds = new ArrayList<>( new TreeSet<>( listMeetingPointIds ) );
+		int nPlaces = AppPropertiesService.getPropertyBoolean( PROPERTY_SLOTS_PLACES_PER_DOCUMENT, false ) ? nDocumentsNumber : 1;
+
+		String strKey = String.join( ",", listSortedMeetingPointIds ) + KEY_SEPARATOR + dateStart + KEY_SEPARATOR + dateEnd + KEY_SEPARATOR + nPlaces;
+		long lTtlMillis = TimeUnit.SECONDS.toMillis( AppPropertiesService.getPropertyLong( PROPERTY_SLOTS_CACHE_TTL, DEFAULT_SLOTS_CACHE_TTL ) );
+		AntsSlotIndexService index = AntsSlotIndexService.getInstance( );
+
+		AntsSlotResponse response = getFromCache( strKey );
+		if( response == null || !response.isValid( index, lTtlMillis ) )
+		{
+			response = buildResponse( index, listSortedMeetingPointIds, dateStart, dateEnd, nPlaces );
+			putInCache( strKey, response );
+		}
+		return response;
+	}
+
+	/**
+	 * Build the response to an ANTS slot query from the slot index
+	 * 
+	 * @param index
+	 *            The slot index
+	 * @param listMeetingPointIds
+	 *            The meeting points of the query, sorted
+	 * @param dateStart
+	 *            The first day of the query
+	 * @param dateEnd
+	 *            The last day of the query
+	 * @param nPlaces
+	 *            The number of places needed in a slot
+	 * @return the response
+	 * @throws IOException
+	 *             If the response couldn't be serialized
+	 */
+	private static AntsSlotResponse buildResponse( AntsSlotIndexService index, List<String> listMeetingPointIds, LocalDate dateStart, LocalDate dateEnd,
+			int nPlaces ) throws IOException
+	{
+		String strCallbackUrl = AppPropertiesService.getProperty( PROPERTY_SLOTS_CALLBACK_URL, "" );
+		ZoneId zoneId = ZoneId.systemDefault( );
+		LocalDateTime dateFrom = LocalDateTime.now( ).isAfter( dateStart.atStartOfDay( ) ) ? LocalDateTime.now( ) : dateStart.atStartOfDay( );
+
+		Map<String, List<Map<String, String>>> mapResponse = new LinkedHashMap<>( );
+		List<AntsMeetingPointSlots> listSnapshots = new ArrayList<>( listMeetingPointIds.size( ) );
+
+		for( String strMeetingPointId : listMeetingPointIds )
+		{
+			AntsMeetingPointSlots meetingPointSlots = index.getMeetingPointSlots( strMeetingPointId );
+			listSnapshots.add( meetingPointSlots );
+
+			if( meetingPointSlots == null )
+			{
+				continue;
+			}
+
+			String strIdForm = String.valueOf( meetingPointSlots.getIdForm( ) );
+			List<Map<String, String>> listSlots = new ArrayList<>( );
+
+			for( LocalDateTime dateSlot : meetingPointSlots.getSlots( dateFrom, dateEnd.plusDays( 1 ).atStartOfDay( ), nPlaces ).keySet( ) )
+			{
+				Map<String, String> mapSlot = new LinkedHashMap<>( );
+				mapSlot.put( KEY_DATETIME, dateSlot.atZone( zoneId ).format( FORMATTER_DATETIME ) );
+				mapSlot.put( KEY_CALLBACK_URL, MessageFormat.format( strCallbackUrl, strIdForm, dateSlot.toString( ) ) );
+				listSlots.add( mapSlot );
+			}
+			mapResponse.put( strMeetingPointId, listSlots );
+		}
+
+		byte [ ] json = MAPPER.writeValueAsBytes( mapResponse );
+
+		return new AntsSlotResponse( json, AntsAppointmentUtils.gzip( json ), listMeetingPointIds, listSnapshots );
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.statistics;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history.TaskAntsAppointmentHistory;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.statistics.AntsDailyStatistics;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.statistics.AntsDailyStatisticsDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.statistics.IAntsDailyStatisticsDAO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
+import fr.paris.lutece.portal.service.spring.SpringContextService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * Service maintaining the daily statistics of the ANTS tasks. The statistics are updated each time the outcome of an
+ * execution is saved in its history, so that reading them never requires to scan the history table
+ */
+public final class AntsStatisticsService
+{
+	private static final String CSV_SEPARATOR = ";";
+	private static final String CSV_LINE_SEPARATOR = "\r\n";
+	private static final String CSV_HEADER = String.join( CSV_SEPARATOR, "date", "id_form", "task_type", "success_count", "failure_count",
+			"rejected_count", "deferred_count", "retry_count", "average_duration_ms", "max_duration_ms" );
+
+	/**
+	 * Private constructor
+	 */
+	private AntsStatisticsService( )
+	{
+	}
+
+	/**
+	 * Add the outcome of an execution to the statistics of the current day. A failure to update the statistics is
+	 * logged, it never fails the execution
+	 * 
+	 * @param strTaskType
+	 *            Key of the task type
+	 * @param idForm
+	 *            ID of the Form of the appointment, 0 if unknown
+	 * @param history
+	 *            The history of the execution, holding its outcome and duration
+	 */
+	public static void record( String strTaskType, int idForm, TaskAntsAppointmentHistory history )
+	{
+		AntsDailyStatistics statistics = new AntsDailyStatistics( );
+		statistics.setDate( Date.valueOf( LocalDate.now( ) ) );
+		statistics.setIdForm( idForm );
+		statistics.setTaskType( strTaskType );
+
+		String strStatus = history.getTaskStatus( );
+
+		if ( TaskAntsAppointmentHistory.STATUS_DEFERRED.equals( strStatus ) )
+		{
+			// The duration is counted once the deferred calls are completed
+			statistics.setDeferredCount( 1 );
+		}
+		else
+		{
+			if ( TaskAntsAppointmentHistory.STATUS_SUCCESS.equals( strStatus ) )
+			{
+				statistics.setSuccessCount( 1 );
+			}
+			else if ( TaskAntsAppointmentHistory.STATUS_REJECTED.equals( strStatus ) )
+			{
+				statistics.setRejectedCount( 1 );
+			}
+			else
+			{
+				statistics.setFailureCount( 1 );
+			}
+			statistics.setTotalDurationMillis( history.getDurationMillis( ) );
+			statistics.setMaxDurationMillis( history.getDurationMillis( ) );
+		}
+
+		increment( statistics );
+	}
+
+	/**
+	 * Add a retry of a failed execution to the statistics of the current day. The outcome of the execution was
+	 * already counted by its first attempt, so a retry is only counted as such. A failure to update the statistics is
+	 * logged, it never fails the retry
+	 * 
+	 * @param strTaskType
+	 *            Key of the task type
+	 * @param idForm
+	 *            ID of the Form of the appointment, 0 if unknown
+	 */
+	public static void recordRetry( String strTaskType, int idForm )
+	{
+		AntsDailyStatistics statistics = new AntsDailyStatistics( );
+		statistics.setDate( Date.valueOf( LocalDate.now( ) ) );
+		statistics.setIdForm( idForm );
+		statistics.setTaskType( strTaskType );
+		statistics.setRetryCount( 1 );
+
+		increment( statistics );
+	}
+
+	/**
+	 * Add counts and durations to the statistics of a day, Form and task type
+	 * 
+	 * @param statistics
+	 *            The counts and durations to add
+	 */
+	private static void increment( AntsDailyStatistics statistics )
+	{
+		try
+		{
+			getDAO( ).increment( statistics, WorkflowAppointmentAntsPlugin.getPlugin( ) );
+		}
+		catch( Exception e )
+		{
+			AppLogService.error( "Failed to update the ANTS statistics of task type {}", statistics.getTaskType( ), e );
+		}
+	}
+
+	/**
+	 * Get the statistics of a period
+	 * 
+	 * @param dateStart
+	 *            The first day of the period
+	 * @param dateEnd
+	 *            The last day of the period
+	 * @return the statistics of the period, ordered by day, Form and task type
+	 */
+	public static List<AntsDailyStatistics> getStatistics( Date dateStart, Date dateEnd )
+	{
+		return getDAO( ).selectByPeriod( dateStart, dateEnd, WorkflowAppointmentAntsPlugin.getPlugin( ) );
+	}
+
+	/**
+	 * Export statistics as CSV
+	 * 
+	 * @param listStatistics
+	 *            The statistics to export
+	 * @return the content of the CSV file, with a header line
+	 */
+	public static String toCsv( List<AntsDailyStatistics> listStatistics )
+	{
+		StringBuilder sbCsv = new StringBuilder( CSV_HEADER ).append( CSV_LINE_SEPARATOR );
+
+		for ( AntsDailyStatistics statistics : listStatistics )
+		{
+			sbCsv.append( String.join( CSV_SEPARATOR, String.valueOf( statistics.getDate( ) ), String.valueOf( statistics.getIdForm( ) ),
+					statistics.getTaskType( ), String.valueOf( statistics.getSuccessCount( ) ), String.valueOf( statistics.getFailureCount( ) ),
+					String.valueOf( statistics.getRejectedCount( ) ), String.valueOf( statistics.getDeferredCount( ) ),
+					String.valueOf( statistics.getRetryCount( ) ),
+					String.valueOf( statistics.getAverageDurationMillis( ) ), String.valueOf( statistics.getMaxDurationMillis( ) ) ) );
+			sbCsv.append( CSV_LINE_SEPARATOR );
+		}
+		return sbCsv.toString( );
+	}
+
+	/**
+	 * Get the DAO of the statistics
+	 * 
+	 * @return the DAO
+	 */
+	private static IAntsDailyStatisticsDAO getDAO( )
+	{
+		return SpringContextService.getBean( AntsDailyStatisticsDAO.BEAN_NAME );
+	}
+}
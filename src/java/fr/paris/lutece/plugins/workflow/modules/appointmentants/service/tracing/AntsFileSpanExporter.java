@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.tracing;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPathService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Exporter writing the spans in a local file, one JSON object per line, with the field names of the OpenTelemetry
+ * protocol (OTLP/JSON) so that the traces can be analysed offline. The spans are queued and written by a background
+ * thread, so that the executions never wait for the file. Once the file reaches its maximum size, it is renamed with
+ * the ".1" suffix, replacing the previous one, and a new file is started
+ *
+ */
+public class AntsFileSpanExporter implements IAntsSpanExporter
+{
+	/**
+	 * Path of the file, absolute or relative to the webapp
+	 */
+	private static final String PROPERTY_FILE_PATH = "ants.tracing.file.path";
+	private static final String DEFAULT_FILE_PATH = "/WEB-INF/logs/ants-traces.jsonl";
+
+	/**
+	 * Maximum size of the file (MB), 0 for no limit, and maximum amount of spans waiting to be written
+	 */
+	private static final String PROPERTY_FILE_MAX_SIZE = "ants.tracing.file.max.size";
+	private static final long DEFAULT_FILE_MAX_SIZE = 50L;
+	private static final String PROPERTY_QUEUE_SIZE = "ants.tracing.file.queue.size";
+	private static final int DEFAULT_QUEUE_SIZE = 10000;
+
+	private static final String ROTATED_FILE_SUFFIX = ".1";
+	private static final String THREAD_NAME = WorkflowAppointmentAntsPlugin.PLUGIN_NAME + "-span-exporter";
+	private static final long FLUSH_INTERVAL_MILLIS = 1000L;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper( );
+
+	private final File _file;
+	private final long _lMaxFileSize;
+	private final BlockingQueue<AntsSpan> _queue;
+	private final AtomicLong _lDroppedSpans = new AtomicLong( );
+	private final Thread _thread;
+	private volatile boolean _bClosed;
+
+	/**
+	 * Writer of the file and size of the file, only used by the background thread until the exporter is closed
+	 */
+	private BufferedWriter _writer;
+	private long _lFileSize;
+
+	/**
+	 * Constructor, using the file set in the properties
+	 */
+	public AntsFileSpanExporter( )
+	{
+		String strPath = AppPropertiesService.getProperty( PROPERTY_FILE_PATH, DEFAULT_FILE_PATH );
+		File file = new File( strPath );
+
+		_file = file.isAbsolute( ) ? file : new File( AppPathService.getAbsolutePathFromRelativePath( strPath ) );
+		_lMaxFileSize = AppPropertiesService.getPropertyLong( PROPERTY_FILE_MAX_SIZE, DEFAULT_FILE_MAX_SIZE ) * 1024L * 1024L;
+		_queue = new ArrayBlockingQueue<>( Math.max( 1, AppPropertiesService.getPropertyInt( PROPERTY_QUEUE_SIZE, DEFAULT_QUEUE_SIZE ) ) );
+
+		_thread = new Thread( this::writeQueuedSpans, THREAD_NAME );
+		_thread.setDaemon( true );
+		_thread.start( );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void export( AntsSpan span )
+	{
+		// The spans are dropped rather than slowing down the executions when the file can't keep up
+		if( _bClosed || !_queue.offer( span ) )
+		{
+			_lDroppedSpans.incrementAndGet( );
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close( )
+	{
+		_bClosed = true;
+
+		try
+		{
+			_thread.join( 2 * FLUSH_INTERVAL_MILLIS );
+		}
+		catch( InterruptedException e )
+		{
+			Thread.currentThread( ).interrupt( );
+		}
+
+		if( !_thread.isAlive( ) )
+		{
+			List<AntsSpan> listSpans = new ArrayList<>( );
+			_queue.drainTo( listSpans );
+			write( listSpans );
+			closeWriter( );
+		}
+	}
+
+	/**
+	 * Write the queued spans until the exporter is closed, flushing the file after each batch
+	 */
+	private void writeQueuedSpans( )
+	{
+		List<AntsSpan> listSpans = new ArrayList<>( );
+
+		while( !_bClosed )
+		{
+			try
+			{
+				AntsSpan span = _queue.poll( FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS );
+
+				if( span != null )
+				{
+					listSpans.add( span );
+					_queue.drainTo( listSpans );
+					write( listSpans );
+					listSpans.clear( );
+				}
+			}
+			catch( InterruptedException e )
+			{
+				Thread.currentThread( ).interrupt( );
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Write a batch of spans in the file, rotating it when it reaches its maximum size
+	 * 
+	 * @param listSpans
+	 *            The spans to write
+	 */
+	private void write( List<AntsSpan> listSpans )
+	{
+		for( AntsSpan span : listSpans )
+		{
+			try
+			{
+				String strLine = toJson( span );
+
+				if( _writer == null || ( _lMaxFileSize > 0 && _lFileSize >= _lMaxFileSize ) )
+				{
+					openWriter( );
+				}
+				_writer.write( strLine );
+				_writer.newLine( );
+				_lFileSize += strLine.length( ) + 1;
+			}
+			catch( IOException e )
+			{
+				AppLogService.error( "Unable to export the span {} to {}", span.getName( ), _file, e );
+				closeWriter( );
+			}
+		}
+
+		try
+		{
+			if( _writer != null )
+			{
+				_writer.flush( );
+			}
+		}
+		catch( IOException e )
+		{
+			AppLogService.error( "Unable to flush the spans to {}", _file, e );
+			closeWriter( );
+		}
+
+		long lDroppedSpans = _lDroppedSpans.getAndSet( 0L );
+
+		if( lDroppedSpans > 0 )
+		{
+			AppLogService.warn( "{} ANTS span(s) dropped, the export to {} couldn't keep up", lDroppedSpans, _file );
+		}
+	}
+
+	/**
+	 * Open the writer of the file, after renaming the file if it reached its maximum size
+	 * 
+	 * @throws IOException
+	 *             If the file couldn't be renamed or opened
+	 */
+	private void openWriter( ) throws IOException
+	{
+		closeWriter( );
+
+		if( _lMaxFileSize > 0 && _file.length( ) >= _lMaxFileSize )
+		{
+			Files.move( _file.toPath( ), new File( _file.getPath( ) + ROTATED_FILE_SUFFIX ).toPath( ), StandardCopyOption.REPLACE_EXISTING );
+		}
+		_writer = Files.newBufferedWriter( _file.toPath( ), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND );
+		_lFileSize = _file.length( );
+	}
+
+	/**
+	 * Close the writer of the file, if it is open
+	 */
+	private void closeWriter( )
+	{
+		if( _writer == null )
+		{
+			return;
+		}
+		try
+		{
+			_writer.close( );
+		}
+		catch( IOException e )
+		{
+			AppLogService.error( "Unable to close the spans file {}", _file, e );
+		}
+		_writer = null;
+	}
+
+	/**
+	 * Write a span as a JSON object
+	 * 
+	 * @param span
+	 *            The span
+	 * @return the span in JSON
+	 * @throws JsonProcessingException
+	 *             If the span couldn't be written
+	 */
+	static String toJson( AntsSpan span ) throws JsonProcessingException
+	{
+		Map<String, Object> mapSpan = new LinkedHashMap<>( );
+		mapSpan.put( "traceId", span.getTraceId( ) );
+		mapSpan.put( "spanId", span.getSpanId( ) );
+		mapSpan.put( "parentSpanId", span.getParentSpanId( ) );
+		mapSpan.put( "name", span.getName( ) );
+		mapSpan.put( "startTimeUnixNano", span.getStartEpochNanos( ) );
+		mapSpan.put( "endTimeUnixNano", span.getEndEpochNanos( ) );
+
+		List<Map<String, Object>> listAttributes = new ArrayList<>( );
+		for( Map.Entry<String, Object> attribute : span.getAttributes( ).entrySet( ) )
+		{
+			Map<String, Object> mapAttribute = new LinkedHashMap<>( );
+			mapAttribute.put( "key", attribute.getKey( ) );
+			mapAttribute.put( "value", toAnyValue( attribute.getValue( ) ) );
+			listAttributes.add( mapAttribute );
+		}
+		mapSpan.put( "attributes", listAttributes );
+
+		Map<String, Object> mapStatus = new LinkedHashMap<>( );
+		mapStatus.put( "code", span.getStatus( ) );
+		mapSpan.put( "status", mapStatus );
+
+		return OBJECT_MAPPER.writeValueAsString( mapSpan );
+	}
+
+	/**
+	 * Wrap the value of an attribute in the typed object used by OTLP/JSON
+	 * 
+	 * @param value
+	 *            The value of the attribute
+	 * @return the typed value
+	 */
+	private static Map<String, Object> toAnyValue( Object value )
+	{
+		if( value instanceof Boolean )
+		{
+			return Collections.singletonMap( "boolValue", value );
+		}
+		if( value instanceof Integer || value instanceof Long )
+		{
+			// 64 bits integers are written as strings in OTLP/JSON
+			return Collections.singletonMap( "intValue", String.valueOf( value ) );
+		}
+		if( value instanceof Number )
+		{
+			return Collections.singletonMap( "doubleValue", value );
+		}
+		return Collections.singletonMap( "stringValue", String.valueOf( value ) );
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 
+ * A timed stage of an ANTS execution. Its identifiers follow the W3C Trace Context format used by OpenTelemetry, so
+ * that the exported spans can be loaded in any compatible tool. A span must be closed by the thread which started it
+ *
+ */
+public class AntsSpan implements AutoCloseable
+{
+	/**
+	 * Span returned when the tracing is disabled, recording nothing
+	 */
+	static final AntsSpan NOOP = new AntsSpan( );
+
+	public static final String STATUS_OK = "OK";
+	public static final String STATUS_ERROR = "ERROR";
+
+	private final String _strTraceId;
+	private final String _strSpanId;
+	private final String _strParentSpanId;
+	private final String _strName;
+	private final long _lStartEpochNanos;
+	private final long _lStartNanos;
+	private final Map<String, Object> _mapAttributes;
+	private final AntsSpan _previousSpan;
+	private final IAntsSpanExporter _exporter;
+	private long _lEndEpochNanos;
+	private String _strStatus = STATUS_OK;
+
+	/**
+	 * Constructor of the no-op span
+	 */
+	private AntsSpan( )
+	{
+		_strTraceId = null;
+		_strSpanId = null;
+		_strParentSpanId = null;
+		_strName = null;
+		_lStartEpochNanos = 0L;
+		_lStartNanos = 0L;
+		_mapAttributes = Collections.emptyMap( );
+		_previousSpan = null;
+		_exporter = null;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param strTraceId
+	 *            The ID of the trace
+	 * @param strParentSpanId
+	 *            The ID of the parent span, null for a root span
+	 * @param strName
+	 *            The name of the span
+	 * @param previousSpan
+	 *            The span which was current when this one started
+	 * @param exporter
+	 *            The exporter of the span
+	 */
+	AntsSpan( String strTraceId, String strParentSpanId, String strName, AntsSpan previousSpan, IAntsSpanExporter exporter )
+	{
+		_strTraceId = strTraceId;
+		_strSpanId = AntsTracer.generateSpanId( );
+		_strParentSpanId = strParentSpanId;
+		_strName = strName;
+		_lStartEpochNanos = System.currentTimeMillis( ) * 1_000_000L;
+		_lStartNanos = System.nanoTime( );
+		_mapAttributes = new LinkedHashMap<>( );
+		_previousSpan = previousSpan;
+		_exporter = exporter;
+	}
+
+	/**
+	 * Check whether this span is recorded
+	 * 
+	 * @return false for the no-op span
+	 */
+	public boolean isRecording( )
+	{
+		return _exporter != null;
+	}
+
+	/**
+	 * Set an attribute of the span
+	 * 
+	 * @param strKey
+	 *            The key of the attribute
+	 * @param value
+	 *            The value of the attribute
+	 * @return this span
+	 */
+	public AntsSpan setAttribute( String strKey, Object value )
+	{
+		if( isRecording( ) )
+		{
+			_mapAttributes.put( strKey, value );
+		}
+		return this;
+	}
+
+	/**
+	 * Mark the span as failed
+	 * 
+	 * @param strError
+	 *            The error which occurred
+	 * @return this span
+	 */
+	public AntsSpan setError( String strError )
+	{
+		if( isRecording( ) )
+		{
+			_strStatus = STATUS_ERROR;
+			_mapAttributes.put( "error.message", strError );
+		}
+		return this;
+	}
+
+	/**
+	 * End the span, export it and restore the span which was current when it started
+	 */
+	@Override
+	public void close( )
+	{
+		if( isRecording( ) )
+		{
+			_lEndEpochNanos = _lStartEpochNanos + ( System.nanoTime( ) - _lStartNanos );
+			AntsTracer.setCurrentSpan( _previousSpan );
+			_exporter.export( this );
+		}
+	}
+
+	/**
+	 * Build the value of the W3C "traceparent" header for a call made within this span
+	 * 
+	 * @return the value of the header, or null if the span isn't recorded
+	 */
+	public String getTraceParent( )
+	{
+		return isRecording( ) ? "00-" + _strTraceId + "-" + _strSpanId + "-01" : null;
+	}
+
+	/**
+	 * Get the ID of the trace of the span
+	 * 
+	 * @return the ID of the trace, 32 hexadecimal characters
+	 */
+	public String getTraceId( )
+	{
+		return _strTraceId;
+	}
+
+	/**
+	 * Get the ID of the span
+	 * 
+	 * @return the ID of the span, 16 hexadecimal characters
+	 */
+	public String getSpanId( )
+	{
+		return _strSpanId;
+	}
+
+	/**
+	 * Get the ID of the parent span
+	 * 
+	 * @return the ID of the parent span, null for a root span
+	 */
+	public String getParentSpanId( )
+	{
+		return _strParentSpanId;
+	}
+
+	/**
+	 * Get the name of the span
+	 * 
+	 * @return the name of the span
+	 */
+	public String getName( )
+	{
+		return _strName;
+	}
+
+	/**
+	 * Get the start time of the span
+	 * 
+	 * @return the start time, in nanoseconds since the epoch
+	 */
+	public long getStartEpochNanos( )
+	{
+		return _lStartEpochNanos;
+	}
+
+	/**
+	 * Get the end time of the span
+	 * 
+	 * @return the end time, in nanoseconds since the epoch
+	 */
+	public long getEndEpochNanos( )
+	{
+		return _lEndEpochNanos;
+	}
+
+	/**
+	 * Get the status of the span
+	 * 
+	 * @return {@link #STATUS_OK} or {@link #STATUS_ERROR}
+	 */
+	public String getStatus( )
+	{
+		return _strStatus;
+	}
+
+	public Map<String, Object> getAttributes( )
+	{
+		return Collections.unmodifiableMap( _mapAttributes );
+	}
+}
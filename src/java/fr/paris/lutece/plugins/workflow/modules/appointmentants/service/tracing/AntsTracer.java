@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsExecutionContext;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Tracer of the stages of the ANTS executions (appointment loading, ANTS calls...). The tracing is disabled by default:
+ * the spans are then no-op objects and cost nothing. It is enabled by setting an exporter in the properties, either
+ * the local file exporter ("file") or the class name of an {@link IAntsSpanExporter}. The spans of an execution share
+ * the correlation ID of its {@link AntsExecutionContext} as trace ID
+ *
+ */
+public final class AntsTracer
+{
+	/**
+	 * Properties of the tracing
+	 */
+	private static final String PROPERTY_EXPORTER = "ants.tracing.exporter";
+	private static final String EXPORTER_FILE = "file";
+
+	/**
+	 * Exporter of the spans, null when the tracing is disabled
+	 */
+	private static final IAntsSpanExporter EXPORTER = createExporter( AppPropertiesService.getProperty( PROPERTY_EXPORTER ) );
+
+	/**
+	 * Span currently open in each thread
+	 */
+	private static final ThreadLocal<AntsSpan> CURRENT_SPAN = new ThreadLocal<>( );
+
+	/**
+	 * Private constructor
+	 */
+	private AntsTracer( )
+	{
+	}
+
+	/**
+	 * Check whether the spans are recorded
+	 * 
+	 * @return true if an exporter is set
+	 */
+	public static boolean isEnabled( )
+	{
+		return EXPORTER != null;
+	}
+
+	/**
+	 * Close the exporter of the spans, when the webapp stops
+	 */
+	public static void shutdown( )
+	{
+		if( EXPORTER != null )
+		{
+			EXPORTER.close( );
+		}
+	}
+
+	/**
+	 * Start a span, child of the span currently open in this thread. The span becomes the current one until it is
+	 * closed, and must be closed by this thread
+	 * 
+	 * @param strName
+	 *            The name of the span
+	 * @return the new span, or a no-op span if the tracing is disabled
+	 */
+	public static AntsSpan startSpan( String strName )
+	{
+		if( EXPORTER == null )
+		{
+			return AntsSpan.NOOP;
+		}
+
+		AntsSpan parentSpan = CURRENT_SPAN.get( );
+		String strTraceId;
+		String strParentSpanId = null;
+
+		if( parentSpan != null )
+		{
+			strTraceId = parentSpan.getTraceId( );
+			strParentSpanId = parentSpan.getSpanId( );
+		}
+		else
+		{
+			AntsExecutionContext context = AntsExecutionContext.getCurrent( );
+			strTraceId = context != null ? context.getCorrelationId( ) : generateTraceId( );
+		}
+
+		AntsSpan span = new AntsSpan( strTraceId, strParentSpanId, strName, parentSpan, EXPORTER );
+		CURRENT_SPAN.set( span );
+
+		return span;
+	}
+
+	/**
+	 * Get the span currently open in this thread
+	 * 
+	 * @return the current span, or null if none is open
+	 */
+	public static AntsSpan getCurrentSpan( )
+	{
+		return CURRENT_SPAN.get( );
+	}
+
+	/**
+	 * Set the span currently open in this thread, to propagate it to the tasks run by another thread
+	 * 
+	 * @param span
+	 *            The span, null to clear it
+	 */
+	public static void setCurrentSpan( AntsSpan span )
+	{
+		if( span == null )
+		{
+			CURRENT_SPAN.remove( );
+		}
+		else
+		{
+			CURRENT_SPAN.set( span );
+		}
+	}
+
+	/**
+	 * Generate a random trace ID
+	 * 
+	 * @return a trace ID of 32 hexadecimal characters
+	 */
+	public static String generateTraceId( )
+	{
+		ThreadLocalRandom random = ThreadLocalRandom.current( );
+
+		return toHex( random.nextLong( ) ) + toHex( random.nextLong( ) );
+	}
+
+	/**
+	 * Generate a random span ID
+	 * 
+	 * @return a span ID of 16 hexadecimal characters
+	 */
+	static String generateSpanId( )
+	{
+		return toHex( ThreadLocalRandom.current( ).nextLong( ) );
+	}
+
+	/**
+	 * Write a value as 16 hexadecimal characters
+	 * 
+	 * @param lValue
+	 *            The value
+	 * @return the value in hexadecimal, padded with zeros
+	 */
+	private static String toHex( long lValue )
+	{
+		return StringUtils.leftPad( Long.toHexString( lValue ), 16, '0' );
+	}
+
+	/**
+	 * Create the exporter set in the properties
+	 * 
+	 * @param strExporter
+	 *            "file" for the local file exporter, or the class name of an exporter
+	 * @return the exporter, or null if none is set or it couldn't be created
+	 */
+	private static IAntsSpanExporter createExporter( String strExporter )
+	{
+		if( StringUtils.isBlank( strExporter ) )
+		{
+			return null;
+		}
+		if( EXPORTER_FILE.equalsIgnoreCase( strExporter.trim( ) ) )
+		{
+			return new AntsFileSpanExporter( );
+		}
+		try
+		{
+			return ( IAntsSpanExporter ) Class.forName( strExporter.trim( ) ).getDeclaredConstructor( ).newInstance( );
+		}
+		catch( ReflectiveOperationException | ClassCastException e )
+		{
+			AppLogService.error( "Unable to create the ANTS span exporter {}, the tracing is disabled", strExporter, e );
+			return null;
+		}
+	}
+}
@@ -33,9 +33,19 @@
  */
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.util;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
 import org.apache.commons.lang.StringUtils;
 
 import fr.paris.lutece.plugins.appointment.business.appointment.Appointment;
+import fr.paris.lutece.plugins.appointment.business.slot.Slot;
+import fr.paris.lutece.plugins.appointment.service.AppointmentService;
+import fr.paris.lutece.plugins.appointment.service.SlotService;
 import fr.paris.lutece.portal.service.util.AppPropertiesService;
 
 /**
@@ -44,9 +54,14 @@ import fr.paris.lutece.portal.service.util.AppPropertiesService;
 public final class AntsAppointmentUtils
 {
     private static final String PROPERTY_SITE_NAME = "lutece.name";
+    private static final String PROPERTY_NODE_ID = "ants.api.node.id";
+    private static final String DEFAULT_HOST_NAME = "node";
+    private static final int NODE_SUFFIX_LENGTH = 8;
 
     public static final String CONSTANT_UNDERSCORE = "_";
 
+    private static String _strNodeId;
+
     /**
      * Private constructor
      */
@@ -80,6 +95,27 @@ public final class AntsAppointmentUtils
         return strMeetingPointId.toString( );
     }
 
+    /**
+     * Get the ID of the Form of an appointment from its slot, without building the whole appointment
+     * 
+     * @param idAppointment
+     *            ID of the appointment
+     * @return the ID of the Form, or 0 if the appointment or its slot doesn't exist anymore
+     */
+    public static int getIdForm( int idAppointment )
+    {
+        Appointment appointment = AppointmentService.findAppointmentById( idAppointment );
+
+        if ( appointment == null || appointment.getListAppointmentSlot( ) == null || appointment.getListAppointmentSlot( ).isEmpty( ) )
+        {
+            return 0;
+        }
+
+        Slot slot = SlotService.findSlotById( appointment.getListAppointmentSlot( ).get( 0 ).getIdSlot( ) );
+
+        return slot != null ? slot.getIdForm( ) : 0;
+    }
+
     /**
      * Get the value of the current webApp's name from a file property
      * 
@@ -89,4 +125,55 @@ public final class AntsAppointmentUtils
     {
         return AppPropertiesService.getProperty( PROPERTY_SITE_NAME, StringUtils.EMPTY );
     }
+
+    /**
+     * Get the ID identifying this node of the cluster. The ID is read from a file property, or generated
+     * from the host's name when the property isn't set
+     * 
+     * @return the ID of the node
+     */
+    public static synchronized String getNodeId( )
+    {
+        if ( _strNodeId == null )
+        {
+            String strNodeId = AppPropertiesService.getProperty( PROPERTY_NODE_ID );
+
+            if ( StringUtils.isBlank( strNodeId ) )
+            {
+                String strHostName;
+                try
+                {
+                    strHostName = InetAddress.getLocalHost( ).getHostName( );
+                }
+                catch( UnknownHostException e )
+                {
+                    strHostName = DEFAULT_HOST_NAME;
+                }
+                // The suffix distinguishes several webapps running on the same host
+                strNodeId = strHostName + CONSTANT_UNDERSCORE + UUID.randomUUID( ).toString( ).substring( 0, NODE_SUFFIX_LENGTH );
+            }
+            _strNodeId = strNodeId;
+        }
+        return _strNodeId;
+    }
+
+    /**
+     * Compress a content with gzip
+     * 
+     * @param content
+     *            The content
+     * @return the compressed content
+     * @throws IOException
+     *             If the content couldn't be compressed
+     */
+    public static byte [ ] gzip( byte [ ] content ) throws IOException
+    {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream( content.length / 4 + 64 );
+
+        try ( GZIPOutputStream gzipOutputStream = new GZIPOutputStream( outputStream ) )
+        {
+            gzipOutputStream.write( content );
+        }
+        return outputStream.toByteArray( );
+    }
 }
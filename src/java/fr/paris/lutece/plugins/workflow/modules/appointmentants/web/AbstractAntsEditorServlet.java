@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.util.AntsAppointmentUtils;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Base of the read-only endpoints queried by ANTS, as an editor of appointments: authentication of ANTS and writing of
+ * the precomputed JSON responses, compressed when ANTS accepts it
+ *
+ */
+public abstract class AbstractAntsEditorServlet extends HttpServlet
+{
+	private static final long serialVersionUID = -2718153260439375914L;
+
+	private static final String PROPERTY_EDITOR_AUTH_TOKEN = "ants.editor.auth.token";
+
+	private static final String HEADER_AUTH_TOKEN = "x-hub-rdv-auth-token";
+	private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+	private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+	private static final String HEADER_VARY = "Vary";
+	private static final String ENCODING_GZIP = "gzip";
+	private static final String CONTENT_TYPE_JSON = "application/json";
+	private static final int GZIP_MIN_LENGTH = 1024;
+
+	/**
+	 * Check the authentication token of ANTS, when one is set
+	 * 
+	 * @param request
+	 *            The request
+	 * @return true if the request is authorized
+	 */
+	protected static boolean isAuthorized( HttpServletRequest request )
+	{
+		return isAuthorized( request, false );
+	}
+
+	/**
+	 * Check the authentication token of ANTS. The endpoints returning the data of the appointments require it: they
+	 * refuse every request while no token is set
+	 * 
+	 * @param request
+	 *            The request
+	 * @param isTokenRequired
+	 *            true to refuse the request when no token is set, false to accept it
+	 * @return true if the request is authorized
+	 */
+	protected static boolean isAuthorized( HttpServletRequest request, boolean isTokenRequired )
+	{
+		String strToken = AppPropertiesService.getProperty( PROPERTY_EDITOR_AUTH_TOKEN );
+
+		if( StringUtils.isEmpty( strToken ) )
+		{
+			return !isTokenRequired;
+		}
+
+		String strRequestToken = StringUtils.defaultString( request.getHeader( HEADER_AUTH_TOKEN ) );
+
+		return MessageDigest.isEqual( strToken.getBytes( StandardCharsets.UTF_8 ), strRequestToken.getBytes( StandardCharsets.UTF_8 ) );
+	}
+
+	/**
+	 * Write a JSON response built for the request, compressed if the client accepts it and the content is large
+	 * enough to benefit from it
+	 * 
+	 * @param request
+	 *            The request
+	 * @param response
+	 *            The response
+	 * @param json
+	 *            The content in JSON
+	 * @throws IOException
+	 *             If the response couldn't be written
+	 */
+	protected static void writeJson( HttpServletRequest request, HttpServletResponse response, byte [ ] json ) throws IOException
+	{
+		writeJson( request, response, json, isGzipAccepted( request ) && json.length >= GZIP_MIN_LENGTH ? AntsAppointmentUtils.gzip( json ) : null );
+	}
+
+	/**
+	 * Write a JSON response, compressed if the client accepts it. The headers specific to the endpoint must be set
+	 * before
+	 * 
+	 * @param request
+	 *            The request
+	 * @param response
+	 *            The response
+	 * @param json
+	 *            The content in JSON
+	 * @param gzip
+	 *            The content in JSON, compressed with gzip, or null to send it uncompressed
+	 * @throws IOException
+	 *             If the response couldn't be written
+	 */
+	protected static void writeJson( HttpServletRequest request, HttpServletResponse response, byte [ ] json, byte [ ] gzip ) throws IOException
+	{
+		boolean isGzipAccepted = gzip != null && isGzipAccepted( request );
+		byte [ ] content = isGzipAccepted ? gzip : json;
+
+		response.setContentType( CONTENT_TYPE_JSON );
+		response.setCharacterEncoding( StandardCharsets.UTF_8.name( ) );
+		response.setHeader( HEADER_VARY, HEADER_ACCEPT_ENCODING );
+		if( isGzipAccepted )
+		{
+			response.setHeader( HEADER_CONTENT_ENCODING, ENCODING_GZIP );
+		}
+		response.setContentLength( content.length );
+
+		try ( OutputStream outputStream = response.getOutputStream( ) )
+		{
+			outputStream.write( content );
+		}
+	}
+
+	/**
+	 * Check whether the client accepts the responses compressed with gzip
+	 * 
+	 * @param request
+	 *            The request
+	 * @return true if gzip is accepted
+	 */
+	private static boolean isGzipAccepted( HttpServletRequest request )
+	{
+		String strAcceptEncoding = request.getHeader( HEADER_ACCEPT_ENCODING );
+
+		return strAcceptEncoding != null && strAcceptEncoding.toLowerCase( ).contains( ENCODING_GZIP );
+	}
+}
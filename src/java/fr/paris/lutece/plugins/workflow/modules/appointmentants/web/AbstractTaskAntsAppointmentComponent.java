@@ -34,7 +34,6 @@
 package fr.paris.lutece.plugins.workflow.modules.appointmentants.web;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -43,14 +42,15 @@ import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.lang3.StringUtils;
 
-import fr.paris.lutece.plugins.appointment.service.EntryService;
-import fr.paris.lutece.plugins.appointment.service.FormService;
-import fr.paris.lutece.plugins.genericattributes.business.Entry;
 import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentConfig;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history.TaskAntsAppointmentHistory;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsFormEntriesCacheService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint.AntsMeetingPointDirectoryService;
 import fr.paris.lutece.plugins.workflow.utils.WorkflowUtils;
 import fr.paris.lutece.plugins.workflow.web.task.NoFormTaskComponent;
 import fr.paris.lutece.plugins.workflowcore.service.config.ITaskConfigService;
 import fr.paris.lutece.plugins.workflowcore.service.task.ITask;
+import fr.paris.lutece.portal.service.i18n.I18nService;
 import fr.paris.lutece.portal.service.template.AppTemplateService;
 import fr.paris.lutece.portal.service.util.AppPathService;
 import fr.paris.lutece.util.ReferenceList;
@@ -84,6 +84,11 @@ public abstract class AbstractTaskAntsAppointmentComponent extends NoFormTaskCom
 	// JSPs
 	private static final String JSP_MODIFY_TASK = "jsp/admin/plugins/workflow/ModifyTask.jsp";
 
+	// MESSAGES
+	private static final String MESSAGE_CALL_DETAILS = "module.workflow.appointmentants.ants_appointment.message.callDetails";
+	private static final String MESSAGE_LAST_ERROR = "module.workflow.appointmentants.ants_appointment.message.lastError";
+	private static final String MESSAGE_CORRELATION_ID = "module.workflow.appointmentants.ants_appointment.message.correlationId";
+
 	/**
 	 * Build and display the configuration page for the current task
 	 * 
@@ -107,7 +112,7 @@ public abstract class AbstractTaskAntsAppointmentComponent extends NoFormTaskCom
 		int idForm = getCurrentFormId( request, config );
 
 		// Get the list of existing forms		
-		ReferenceList formsList = FormService.findAllInReferenceList( );
+		ReferenceList formsList = AntsFormEntriesCacheService.getInstance( ).getForms( );
 		// Get the list of entries for the given form. Empty if no form as been selected yet
 		ReferenceList entriesList = getFieldsList( idForm );
 
@@ -186,6 +191,10 @@ public abstract class AbstractTaskAntsAppointmentComponent extends NoFormTaskCom
 		{
 			configService.update( config );
 		}
+
+		// The Form may have been added to, or removed from, the meeting points published to ANTS
+		AntsMeetingPointDirectoryService.getInstance( ).invalidate( );
+
 		return null;
 	}
 
@@ -204,20 +213,7 @@ public abstract class AbstractTaskAntsAppointmentComponent extends NoFormTaskCom
 		// If the ID is not -1, then retrieve the entries of the corresponding form
 		if( idForm != -1 )
 		{
-			List<Entry> entriesList = EntryService.findListEntry( idForm );
-
-			ReferenceList entriesRefList = new ReferenceList( );
-			for ( Entry entry : entriesList )
-			{
-				/* Only retrieve the Entry if it has a title. Their title is used to identify them
-				 * when they are in a drop-down list
-				 * */
-				if( StringUtils.isNotEmpty( entry.getTitle( ) ) )
-				{
-					entriesRefList.addItem( entry.getIdEntry( ), entry.getTitle( ) );
-				}
-			}
-			return entriesRefList;
+			return AntsFormEntriesCacheService.getInstance( ).getEntries( idForm );
 		}
 		else
 		{
@@ -283,6 +279,41 @@ public abstract class AbstractTaskAntsAppointmentComponent extends NoFormTaskCom
 		return -1;
 	}
 
+	/**
+	 * Build the information about the ANTS calls of a task's execution (amount of calls, duration, HTTP status and
+	 * latency of each call, last error), displayed after the outcome of the task in the appointment's history
+	 * 
+	 * @param history
+	 * 				The history of the task's execution
+	 * @param locale
+	 * 				Language used
+	 * @return
+	 * 				The information about the ANTS calls, or an empty String if no call was made
+	 */
+	protected static String getCallInformation( TaskAntsAppointmentHistory history, Locale locale )
+	{
+		if( history.getCallCount( ) == 0 )
+		{
+			return StringUtils.EMPTY;
+		}
+
+		StringBuilder sbInformation = new StringBuilder( " " );
+		sbInformation.append( I18nService.getLocalizedString( MESSAGE_CALL_DETAILS,
+				new Object[] { history.getCallCount( ), history.getDurationMillis( ), history.getCallDetails( ) }, locale ) );
+
+		if( !history.isTaskSuccessful( ) && StringUtils.isNotBlank( history.getLastError( ) ) )
+		{
+			sbInformation.append( ' ' );
+			sbInformation.append( I18nService.getLocalizedString( MESSAGE_LAST_ERROR, new Object[] { history.getLastError( ) }, locale ) );
+		}
+		if( StringUtils.isNotBlank( history.getCorrelationId( ) ) )
+		{
+			sbInformation.append( ' ' );
+			sbInformation.append( I18nService.getLocalizedString( MESSAGE_CORRELATION_ID, new Object[] { history.getCorrelationId( ) }, locale ) );
+		}
+		return sbInformation.toString( );
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.web;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentNumber;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsApplicationNumberIndexService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Read-only endpoint answering whether ANTS application numbers have appointments with us, when and where. The
+ * application numbers are looked up in their index, and many of them can be given in a single call
+ *
+ */
+public class AntsApplicationNumberServlet extends AbstractAntsEditorServlet
+{
+	private static final long serialVersionUID = -5404395217447720384L;
+
+	private static final String PROPERTY_NUMBERS_LOOKUP_ENABLED = "ants.numbers.lookup.enabled";
+	private static final String PROPERTY_NUMBERS_LOOKUP_MAX = "ants.numbers.lookup.max";
+	private static final int DEFAULT_NUMBERS_LOOKUP_MAX = 100;
+
+	private static final String PARAMETER_APPLICATION_IDS = "application_ids";
+
+	private static final String KEY_APPOINTMENT_ID = "appointment_id";
+	private static final String KEY_FORM_ID = "form_id";
+	private static final String KEY_APPOINTMENT_DATE = "appointment_date";
+	private static final String KEY_MEETING_POINT_ID = "meeting_point_id";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper( );
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void doGet( HttpServletRequest request, HttpServletResponse response ) throws IOException
+	{
+		if( !AppPropertiesService.getPropertyBoolean( PROPERTY_NUMBERS_LOOKUP_ENABLED, false ) )
+		{
+			response.sendError( HttpServletResponse.SC_NOT_FOUND );
+			return;
+		}
+		// The appointments of the application numbers are only given to an authenticated ANTS
+		if( !isAuthorized( request, true ) )
+		{
+			response.sendError( HttpServletResponse.SC_UNAUTHORIZED );
+			return;
+		}
+
+		Set<String> setApplicationNumbers = getApplicationNumbers( request );
+		if( setApplicationNumbers.isEmpty( )
+				|| setApplicationNumbers.size( ) > AppPropertiesService.getPropertyInt( PROPERTY_NUMBERS_LOOKUP_MAX, DEFAULT_NUMBERS_LOOKUP_MAX ) )
+		{
+			response.sendError( HttpServletResponse.SC_BAD_REQUEST );
+			return;
+		}
+
+		Map<String, List<Map<String, Object>>> mapResponse = new LinkedHashMap<>( );
+		try
+		{
+			AntsApplicationNumberIndexService.getInstance( ).find( setApplicationNumbers ).forEach( ( strApplicationNumber, listNumbers ) -> {
+				List<Map<String, Object>> listAppointments = new ArrayList<>( listNumbers.size( ) );
+				for( TaskAntsAppointmentNumber number : listNumbers )
+				{
+					Map<String, Object> mapAppointment = new LinkedHashMap<>( );
+					mapAppointment.put( KEY_APPOINTMENT_ID, number.getIdAppointment( ) );
+					mapAppointment.put( KEY_FORM_ID, number.getIdForm( ) );
+					mapAppointment.put( KEY_APPOINTMENT_DATE, number.getAppointmentDate( ) != null ? number.getAppointmentDate( ).toLocalDateTime( ).toString( ) : null );
+					mapAppointment.put( KEY_MEETING_POINT_ID, number.getMeetingPointId( ) );
+					listAppointments.add( mapAppointment );
+				}
+				mapResponse.put( strApplicationNumber, listAppointments );
+			} );
+		}
+		catch( RuntimeException e )
+		{
+			AppLogService.error( "Failed to look up the ANTS application numbers", e );
+			response.sendError( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+			return;
+		}
+
+		byte [ ] json = MAPPER.writeValueAsBytes( mapResponse );
+		writeJson( request, response, json );
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void doPost( HttpServletRequest request, HttpServletResponse response ) throws IOException
+	{
+		// Long lists of application numbers are sent in the body of the request
+		doGet( request, response );
+	}
+
+	/**
+	 * Get the application numbers of a query, given as repeated or comma-separated parameters
+	 * 
+	 * @param request
+	 *            The request
+	 * @return the application numbers of the query
+	 */
+	private static Set<String> getApplicationNumbers( HttpServletRequest request )
+	{
+		Set<String> setApplicationNumbers = new LinkedHashSet<>( );
+		String [ ] values = request.getParameterValues( PARAMETER_APPLICATION_IDS );
+
+		if( values != null )
+		{
+			for( String strValue : values )
+			{
+				for( String strApplicationNumber : StringUtils.split( strValue, ',' ) )
+				{
+					if( StringUtils.isNotBlank( strApplicationNumber ) )
+					{
+						setApplicationNumbers.add( strApplicationNumber.trim( ) );
+					}
+				}
+			}
+		}
+		return setApplicationNumbers;
+	}
+}
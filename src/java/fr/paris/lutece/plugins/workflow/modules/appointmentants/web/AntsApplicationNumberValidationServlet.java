@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.web;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsApplicationNumberValidationService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsApplicationNumberValidationService.ValidationResult;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsTokenBucket;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Front-office endpoint validating the ANTS application numbers while the users fill in the booking form. The
+ * validations are rate limited per session, since each one calls ANTS. The endpoint never creates a session: the
+ * requests without session are rate limited per client address
+ *
+ */
+public class AntsApplicationNumberValidationServlet extends HttpServlet
+{
+	private static final long serialVersionUID = 2974011653276480918L;
+
+	private static final String PROPERTY_VALIDATION_ENABLED = "ants.validation.enabled";
+	private static final String PROPERTY_VALIDATION_RATE_PER_MINUTE = "ants.validation.rate.per.minute";
+	private static final String PROPERTY_VALIDATION_BURST = "ants.validation.burst";
+	private static final int DEFAULT_VALIDATION_RATE_PER_MINUTE = 10;
+	private static final int DEFAULT_VALIDATION_BURST = 5;
+
+	private static final String PARAMETER_ID_FORM = "id_form";
+	private static final String PARAMETER_APPLICATION_NUMBERS = "application_numbers";
+	private static final String SESSION_ATTRIBUTE_RATE_LIMIT = "workflow-appointmentants.validationRateLimit";
+	private static final int SC_TOO_MANY_REQUESTS = 429;
+	private static final int MAX_TRACKED_ADDRESSES = 10000;
+	private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+	private static final String CACHE_CONTROL_NO_STORE = "no-store";
+	private static final String CONTENT_TYPE_JSON = "application/json";
+	private static final String ENCODING_UTF8 = "UTF-8";
+
+	private static final String KEY_VALID = "valid";
+	private static final String KEY_NUMBERS = "numbers";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper( );
+
+	/**
+	 * Rate limits of the requests without session, by client address. The least recently used addresses are
+	 * forgotten beyond the maximum amount of addresses tracked
+	 */
+	private static final Map<String, AntsTokenBucket> MAP_BUCKETS_BY_ADDRESS = Collections.synchronizedMap(
+			new LinkedHashMap<String, AntsTokenBucket>( 16, 0.75f, true )
+			{
+				private static final long serialVersionUID = -3180455203373384417L;
+
+				@Override
+				protected boolean removeEldestEntry( Map.Entry<String, AntsTokenBucket> eldest )
+				{
+					return size( ) > MAX_TRACKED_ADDRESSES;
+				}
+			} );
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void doGet( HttpServletRequest request, HttpServletResponse response ) throws IOException
+	{
+		if( !AppPropertiesService.getPropertyBoolean( PROPERTY_VALIDATION_ENABLED, false ) )
+		{
+			response.sendError( HttpServletResponse.SC_NOT_FOUND );
+			return;
+		}
+
+		int nIdForm = NumberUtils.toInt( request.getParameter( PARAMETER_ID_FORM ), 0 );
+		List<String> listApplicationNumbers = AntsApplicationNumberValidationService.getApplicationNumbers( request.getParameter( PARAMETER_APPLICATION_NUMBERS ) );
+
+		if( nIdForm <= 0 || listApplicationNumbers.isEmpty( ) || listApplicationNumbers.size( ) > AntsApplicationNumberValidationService.getMaxApplicationNumbers( ) )
+		{
+			response.sendError( HttpServletResponse.SC_BAD_REQUEST );
+			return;
+		}
+		if( !tryAcquire( request ) )
+		{
+			response.sendError( SC_TOO_MANY_REQUESTS );
+			return;
+		}
+
+		Map<String, ValidationResult> mapResults = AntsApplicationNumberValidationService.validate( nIdForm, listApplicationNumbers );
+
+		Map<String, Object> mapResponse = new LinkedHashMap<>( );
+		// Only the numbers known as invalid block the booking
+		mapResponse.put( KEY_VALID, mapResults.values( ).stream( ).allMatch( result -> result == ValidationResult.VALID || result == ValidationResult.UNAVAILABLE ) );
+		mapResponse.put( KEY_NUMBERS, mapResults );
+
+		response.setContentType( CONTENT_TYPE_JSON );
+		response.setCharacterEncoding( ENCODING_UTF8 );
+		response.setHeader( HEADER_CACHE_CONTROL, CACHE_CONTROL_NO_STORE );
+		MAPPER.writeValue( response.getOutputStream( ), mapResponse );
+	}
+
+	/**
+	 * Take a token from the rate limit of the session of the request, or of its client address if it has no session
+	 * 
+	 * @param request
+	 *            The request
+	 * @return true if the validation is allowed, false if the session or the address exceeds its rate
+	 */
+	private static boolean tryAcquire( HttpServletRequest request )
+	{
+		HttpSession session = request.getSession( false );
+		AntsTokenBucket bucket;
+
+		if( session != null )
+		{
+			synchronized( session )
+			{
+				bucket = (AntsTokenBucket) session.getAttribute( SESSION_ATTRIBUTE_RATE_LIMIT );
+				if( bucket == null )
+				{
+					bucket = createBucket( );
+					session.setAttribute( SESSION_ATTRIBUTE_RATE_LIMIT, bucket );
+				}
+			}
+		}
+		else
+		{
+			bucket = MAP_BUCKETS_BY_ADDRESS.computeIfAbsent( request.getRemoteAddr( ), strAddress -> createBucket( ) );
+		}
+		return bucket.reserve( System.nanoTime( ), 0L ) == 0L;
+	}
+
+	/**
+	 * Create the rate limit of a session or of a client address
+	 * 
+	 * @return the rate limit, full
+	 */
+	private static AntsTokenBucket createBucket( )
+	{
+		double dRatePerSecond = (double) AppPropertiesService.getPropertyInt( PROPERTY_VALIDATION_RATE_PER_MINUTE, DEFAULT_VALIDATION_RATE_PER_MINUTE )
+				/ TimeUnit.MINUTES.toSeconds( 1 );
+
+		return new AntsTokenBucket( dRatePerSecond, AppPropertiesService.getPropertyInt( PROPERTY_VALIDATION_BURST, DEFAULT_VALIDATION_BURST ),
+				System.nanoTime( ) );
+	}
+}
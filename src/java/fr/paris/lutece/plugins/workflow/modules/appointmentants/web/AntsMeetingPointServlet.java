@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.web;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint.AntsMeetingPointDirectoryService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint.AntsMeetingPointDirectoryService.Snapshot;
+import fr.paris.lutece.portal.service.util.AppLogService;
+
+/**
+ * 
+ * Read-only endpoint publishing the directory of our meeting points to ANTS. The directory is served from its
+ * snapshot, and ANTS can revalidate it with a conditional GET, answered without any content while it is unchanged
+ *
+ */
+public class AntsMeetingPointServlet extends AbstractAntsEditorServlet
+{
+	private static final long serialVersionUID = 4178303955263527136L;
+
+	private static final String HEADER_ETAG = "ETag";
+	private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+	private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+	private static final String CACHE_CONTROL_REVALIDATE = "private, no-cache";
+	private static final String ETAG_ANY = "*";
+	private static final String ETAG_WEAK_PREFIX = "W/";
+	private static final String GZIP_SUFFIX = "-gzip\"";
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void doGet( HttpServletRequest request, HttpServletResponse response ) throws IOException
+	{
+		if( !AntsMeetingPointDirectoryService.isEnabled( ) )
+		{
+			response.sendError( HttpServletResponse.SC_NOT_FOUND );
+			return;
+		}
+		if( !isAuthorized( request ) )
+		{
+			response.sendError( HttpServletResponse.SC_UNAUTHORIZED );
+			return;
+		}
+
+		Snapshot snapshot;
+		try
+		{
+			snapshot = AntsMeetingPointDirectoryService.getInstance( ).getSnapshot( );
+		}
+		catch( IOException | RuntimeException e )
+		{
+			AppLogService.error( "Failed to build the ANTS meeting point directory", e );
+			response.sendError( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+			return;
+		}
+
+		response.setHeader( HEADER_ETAG, snapshot.getETag( ) );
+		response.setHeader( HEADER_CACHE_CONTROL, CACHE_CONTROL_REVALIDATE );
+
+		if( isNotModified( request.getHeader( HEADER_IF_NONE_MATCH ), snapshot.getETag( ) ) )
+		{
+			response.setStatus( HttpServletResponse.SC_NOT_MODIFIED );
+			return;
+		}
+
+		writeJson( request, response, snapshot.getJson( ), snapshot.getGzip( ) );
+	}
+
+	/**
+	 * Check whether the ETags of a conditional GET match the current one. The weak ETags, and the ETags suffixed by the
+	 * web servers compressing the responses, are compared without their decoration
+	 * 
+	 * @param strIfNoneMatch
+	 *            The "If-None-Match" header of the request
+	 * @param strETag
+	 *            The current ETag
+	 * @return true if the directory is unchanged for the client
+	 */
+	static boolean isNotModified( String strIfNoneMatch, String strETag )
+	{
+		if( StringUtils.isBlank( strIfNoneMatch ) )
+		{
+			return false;
+		}
+		for( String strClientETag : StringUtils.split( strIfNoneMatch, ',' ) )
+		{
+			String strValue = StringUtils.removeStart( strClientETag.trim( ), ETAG_WEAK_PREFIX );
+
+			if( ETAG_ANY.equals( strValue ) || strETag.equals( strValue ) || strETag.equals( StringUtils.replace( strValue, GZIP_SUFFIX, "\"" ) ) )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
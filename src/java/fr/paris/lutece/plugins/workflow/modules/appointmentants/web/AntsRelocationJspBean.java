@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.web;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import fr.paris.lutece.plugins.appointment.service.FormService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint.AntsRelocationJob;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.meetingpoint.AntsRelocationService;
+import fr.paris.lutece.portal.service.admin.AccessDeniedException;
+import fr.paris.lutece.portal.service.security.SecurityTokenService;
+import fr.paris.lutece.portal.util.mvc.admin.MVCAdminJspBean;
+import fr.paris.lutece.portal.util.mvc.admin.annotations.Controller;
+import fr.paris.lutece.portal.util.mvc.commons.annotations.Action;
+import fr.paris.lutece.portal.util.mvc.commons.annotations.View;
+
+/**
+ * 
+ * Admin page starting the relocation of the ANTS appointments of a Form after a change of its address, and following
+ * the progress of the relocations
+ *
+ */
+@Controller( controllerJsp = "ManageAntsRelocations.jsp", controllerPath = "jsp/admin/plugins/workflow/modules/appointmentants/", right = AntsRelocationJspBean.RIGHT_MANAGE_ANTS_RELOCATIONS )
+public class AntsRelocationJspBean extends MVCAdminJspBean
+{
+	private static final long serialVersionUID = -6205829149315782604L;
+
+	// RIGHTS
+	public static final String RIGHT_MANAGE_ANTS_RELOCATIONS = "WORKFLOW_ANTS_RELOCATIONS";
+
+	// TEMPLATES
+	private static final String TEMPLATE_MANAGE_RELOCATIONS = "/admin/plugins/workflow/modules/appointmentants/manage_ants_relocations.html";
+
+	// PROPERTIES
+	private static final String PROPERTY_PAGE_TITLE_MANAGE_RELOCATIONS = "module.workflow.appointmentants.manage_relocations.pageTitle";
+
+	// MESSAGES
+	private static final String MESSAGE_RELOCATION_STARTED = "module.workflow.appointmentants.manage_relocations.relocationStarted";
+	private static final String MESSAGE_NO_ANTS_TASK = "module.workflow.appointmentants.manage_relocations.noAntsTask";
+
+	// VIEWS
+	private static final String VIEW_MANAGE_RELOCATIONS = "manageRelocations";
+
+	// ACTIONS
+	private static final String ACTION_RELOCATE = "relocate";
+
+	// PARAMETERS
+	private static final String PARAMETER_ID_FORM = "id_form";
+
+	// MARKS
+	private static final String MARK_RELOCATION_LIST = "relocation_list";
+	private static final String MARK_FORMS = "forms";
+
+	/**
+	 * Display the relocations and the Forms which can be relocated
+	 * 
+	 * @param request
+	 *            The HTTP request
+	 * @return the page
+	 */
+	@View( value = VIEW_MANAGE_RELOCATIONS, defaultView = true )
+	public String getManageRelocations( HttpServletRequest request )
+	{
+		Map<String, Object> model = getModel( );
+		model.put( MARK_RELOCATION_LIST, AntsRelocationService.getInstance( ).getJobs( ) );
+		model.put( MARK_FORMS, FormService.findAllInReferenceList( ) );
+		model.put( SecurityTokenService.MARK_TOKEN, SecurityTokenService.getInstance( ).getToken( request, ACTION_RELOCATE ) );
+
+		return getPage( PROPERTY_PAGE_TITLE_MANAGE_RELOCATIONS, TEMPLATE_MANAGE_RELOCATIONS, model );
+	}
+
+	/**
+	 * Start the relocation of the ANTS appointments of a Form
+	 * 
+	 * @param request
+	 *            The HTTP request
+	 * @return the page of the relocations
+	 * @throws AccessDeniedException
+	 *             If the security token is invalid
+	 */
+	@Action( ACTION_RELOCATE )
+	public String doRelocate( HttpServletRequest request ) throws AccessDeniedException
+	{
+		if( !SecurityTokenService.getInstance( ).validate( request, ACTION_RELOCATE ) )
+		{
+			throw new AccessDeniedException( "Invalid security token" );
+		}
+
+		AntsRelocationJob job = AntsRelocationService.getInstance( ).start( NumberUtils.toInt( request.getParameter( PARAMETER_ID_FORM ), 0 ) );
+
+		if( job != null )
+		{
+			addInfo( MESSAGE_RELOCATION_STARTED, getLocale( ) );
+		}
+		else
+		{
+			addError( MESSAGE_NO_ANTS_TASK, getLocale( ) );
+		}
+		return redirectView( request, VIEW_MANAGE_RELOCATIONS );
+	}
+}
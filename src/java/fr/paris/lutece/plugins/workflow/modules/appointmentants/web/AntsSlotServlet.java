@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.web;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.slot.AntsSlotIndexService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.slot.AntsSlotResponseCacheService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.slot.AntsSlotResponseCacheService.AntsSlotResponse;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.service.util.AppPropertiesService;
+
+/**
+ * 
+ * Read-only endpoint answering the queries of ANTS for the available slots of the meeting points. The slots are
+ * served from the in-memory slot index, and the responses are cached and compressed once, so a query never reads
+ * the appointment tables
+ *
+ */
+public class AntsSlotServlet extends AbstractAntsEditorServlet
+{
+	private static final long serialVersionUID = 6325472871853174562L;
+
+	private static final String PROPERTY_SLOTS_CACHE_TTL = "ants.slots.cache.ttl";
+	private static final String PROPERTY_SLOTS_MAX_MEETING_POINTS = "ants.slots.max.meeting.points";
+	private static final int DEFAULT_SLOTS_MAX_MEETING_POINTS = 50;
+	private static final int MAX_DOCUMENTS_NUMBER = 10;
+
+	private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+
+	private static final String PARAMETER_MEETING_POINT_IDS = "meeting_point_ids";
+	private static final String PARAMETER_START_DATE = "start_date";
+	private static final String PARAMETER_END_DATE = "end_date";
+	private static final String PARAMETER_DOCUMENTS_NUMBER = "documents_number";
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void doGet( HttpServletRequest request, HttpServletResponse response ) throws IOException
+	{
+		if( !AntsSlotIndexService.isEnabled( ) )
+		{
+			response.sendError( HttpServletResponse.SC_NOT_FOUND );
+			return;
+		}
+		if( !isAuthorized( request ) )
+		{
+			response.sendError( HttpServletResponse.SC_UNAUTHORIZED );
+			return;
+		}
+
+		List<String> listMeetingPointIds = getMeetingPointIds( request );
+		LocalDate dateStart;
+		LocalDate dateEnd;
+		int nDocumentsNumber;
+
+		try
+		{
+			dateStart = LocalDate.parse( request.getParameter( PARAMETER_START_DATE ) );
+			dateEnd = LocalDate.parse( request.getParameter( PARAMETER_END_DATE ) );
+			nDocumentsNumber = StringUtils.isBlank( request.getParameter( PARAMETER_DOCUMENTS_NUMBER ) ) ? 1
+					: Integer.parseInt( request.getParameter( PARAMETER_DOCUMENTS_NUMBER ).trim( ) );
+		}
+		catch( DateTimeParseException | NullPointerException | NumberFormatException e )
+		{
+			response.sendError( HttpServletResponse.SC_BAD_REQUEST );
+			return;
+		}
+
+		if( listMeetingPointIds.isEmpty( )
+				|| listMeetingPointIds.size( ) > AppPropertiesService.getPropertyInt( PROPERTY_SLOTS_MAX_MEETING_POINTS, DEFAULT_SLOTS_MAX_MEETING_POINTS )
+				|| dateEnd.isBefore( dateStart ) || nDocumentsNumber < 1 || nDocumentsNumber > MAX_DOCUMENTS_NUMBER )
+		{
+			response.sendError( HttpServletResponse.SC_BAD_REQUEST );
+			return;
+		}
+
+		AntsSlotResponse slotResponse;
+		try
+		{
+			slotResponse = AntsSlotResponseCacheService.getInstance( ).getResponse( listMeetingPointIds, dateStart, dateEnd, nDocumentsNumber );
+		}
+		catch( IOException | RuntimeException e )
+		{
+			AppLogService.error( "Failed to answer the ANTS slot query", e );
+			response.sendError( HttpServletResponse.SC_INTERNAL_SERVER_ERROR );
+			return;
+		}
+
+		response.setHeader( HEADER_CACHE_CONTROL, "private, max-age=" + AppPropertiesService.getPropertyLong( PROPERTY_SLOTS_CACHE_TTL, 30L ) );
+		writeJson( request, response, slotResponse.getJson( ), slotResponse.getGzip( ) );
+	}
+
+	/**
+	 * Get the meeting points of a query, given as repeated or comma-separated parameters
+	 * 
+	 * @param request
+	 *            The request
+	 * @return the meeting points of the query
+	 */
+	private static List<String> getMeetingPointIds( HttpServletRequest request )
+	{
+		List<String> listMeetingPointIds = new ArrayList<>( );
+		String [ ] values = request.getParameterValues( PARAMETER_MEETING_POINT_IDS );
+
+		if( values != null )
+		{
+			for( String strValue : values )
+			{
+				for( String strMeetingPointId : StringUtils.split( strValue, ',' ) )
+				{
+					if( StringUtils.isNotBlank( strMeetingPointId ) )
+					{
+						listMeetingPointIds.add( strMeetingPointId.trim( ) );
+					}
+				}
+			}
+		}
+		return listMeetingPointIds;
+	}
+}
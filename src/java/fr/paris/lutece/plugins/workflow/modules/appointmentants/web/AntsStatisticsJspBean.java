@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.web;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang3.StringUtils;
+
+import fr.paris.lutece.plugins.appointment.service.FormService;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.statistics.AntsDailyStatistics;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.statistics.AntsStatisticsService;
+import fr.paris.lutece.portal.util.mvc.admin.MVCAdminJspBean;
+import fr.paris.lutece.portal.util.mvc.admin.annotations.Controller;
+import fr.paris.lutece.portal.util.mvc.commons.annotations.Action;
+import fr.paris.lutece.portal.util.mvc.commons.annotations.View;
+import fr.paris.lutece.util.ReferenceItem;
+
+/**
+ * 
+ * Admin page displaying the daily statistics of the ANTS tasks, and exporting them as CSV. The page only reads
+ * the statistics table, never the history of the tasks
+ *
+ */
+@Controller( controllerJsp = "ManageAntsStatistics.jsp", controllerPath = "jsp/admin/plugins/workflow/modules/appointmentants/", right = AntsStatisticsJspBean.RIGHT_MANAGE_ANTS_STATISTICS )
+public class AntsStatisticsJspBean extends MVCAdminJspBean
+{
+	private static final long serialVersionUID = 3584239714567862130L;
+
+	// RIGHTS
+	public static final String RIGHT_MANAGE_ANTS_STATISTICS = "WORKFLOW_ANTS_STATISTICS";
+
+	// TEMPLATES
+	private static final String TEMPLATE_MANAGE_STATISTICS = "/admin/plugins/workflow/modules/appointmentants/manage_ants_statistics.html";
+
+	// PROPERTIES
+	private static final String PROPERTY_PAGE_TITLE_MANAGE_STATISTICS = "module.workflow.appointmentants.manage_statistics.pageTitle";
+
+	// VIEWS
+	private static final String VIEW_MANAGE_STATISTICS = "manageStatistics";
+
+	// ACTIONS
+	private static final String ACTION_EXPORT_STATISTICS = "exportStatistics";
+
+	// PARAMETERS
+	private static final String PARAMETER_DATE_START = "date_start";
+	private static final String PARAMETER_DATE_END = "date_end";
+
+	// MARKS
+	private static final String MARK_STATISTICS_LIST = "statistics_list";
+	private static final String MARK_FORMS = "forms";
+	private static final String MARK_DATE_START = "date_start";
+	private static final String MARK_DATE_END = "date_end";
+
+	// EXPORT
+	private static final String EXPORT_FILE_NAME = "ants_statistics.csv";
+	private static final String EXPORT_CONTENT_TYPE = "text/csv";
+
+	/**
+	 * Period displayed by default, in days
+	 */
+	private static final int DEFAULT_PERIOD = 30;
+
+	/**
+	 * Display the statistics of a period
+	 * 
+	 * @param request
+	 *            The HTTP request
+	 * @return the page
+	 */
+	@View( value = VIEW_MANAGE_STATISTICS, defaultView = true )
+	public String getManageStatistics( HttpServletRequest request )
+	{
+		LocalDate dateEnd = getDate( request, PARAMETER_DATE_END, LocalDate.now( ) );
+		LocalDate dateStart = getDate( request, PARAMETER_DATE_START, dateEnd.minusDays( DEFAULT_PERIOD ) );
+
+		Map<String, Object> model = getModel( );
+		model.put( MARK_STATISTICS_LIST, AntsStatisticsService.getStatistics( Date.valueOf( dateStart ), Date.valueOf( dateEnd ) ) );
+		model.put( MARK_FORMS, getFormTitles( ) );
+		model.put( MARK_DATE_START, dateStart.toString( ) );
+		model.put( MARK_DATE_END, dateEnd.toString( ) );
+
+		return getPage( PROPERTY_PAGE_TITLE_MANAGE_STATISTICS, TEMPLATE_MANAGE_STATISTICS, model );
+	}
+
+	/**
+	 * Export the statistics of a period as CSV
+	 * 
+	 * @param request
+	 *            The HTTP request
+	 * @return null, the CSV file is written in the response
+	 */
+	@Action( ACTION_EXPORT_STATISTICS )
+	public String doExportStatistics( HttpServletRequest request )
+	{
+		LocalDate dateEnd = getDate( request, PARAMETER_DATE_END, LocalDate.now( ) );
+		LocalDate dateStart = getDate( request, PARAMETER_DATE_START, dateEnd.minusDays( DEFAULT_PERIOD ) );
+
+		List<AntsDailyStatistics> listStatistics = AntsStatisticsService.getStatistics( Date.valueOf( dateStart ), Date.valueOf( dateEnd ) );
+
+		download( AntsStatisticsService.toCsv( listStatistics ).getBytes( StandardCharsets.UTF_8 ), EXPORT_FILE_NAME, EXPORT_CONTENT_TYPE );
+
+		return null;
+	}
+
+	/**
+	 * Get a date from the request's parameters
+	 * 
+	 * @param request
+	 *            The HTTP request
+	 * @param strParameterName
+	 *            Name of the parameter holding the date (yyyy-MM-dd)
+	 * @param dateDefault
+	 *            The date returned when the parameter is missing or invalid
+	 * @return the date
+	 */
+	private static LocalDate getDate( HttpServletRequest request, String strParameterName, LocalDate dateDefault )
+	{
+		String strDate = request.getParameter( strParameterName );
+
+		if( StringUtils.isBlank( strDate ) )
+		{
+			return dateDefault;
+		}
+		try
+		{
+			return LocalDate.parse( strDate );
+		}
+		catch( DateTimeParseException e )
+		{
+			return dateDefault;
+		}
+	}
+
+	/**
+	 * Get the title of the appointment Forms
+	 * 
+	 * @return the title of the Forms, with their ID as keys
+	 */
+	private static Map<String, String> getFormTitles( )
+	{
+		Map<String, String> mapForms = new HashMap<>( );
+
+		for( ReferenceItem item : FormService.findAllInReferenceList( ) )
+		{
+			mapForms.put( item.getCode( ), item.getName( ) );
+		}
+		return mapForms;
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2002-2025, City of Paris
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met:
+ *
+ *  1. Redistributions of source code must retain the above copyright notice
+ *     and the following disclaimer.
+ *
+ *  2. Redistributions in binary form must reproduce the above copyright notice
+ *     and the following disclaimer in the documentation and/or other materials
+ *     provided with the distribution.
+ *
+ *  3. Neither the name of 'Mairie de Paris' nor 'Lutece' nor the names of its
+ *     contributors may be used to endorse or promote products derived from
+ *     this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ *
+ * License 1.0
+ */
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.web;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.AntsFormEntriesCacheService;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.portal.web.admin.PluginAdminPageJspBean;
+import fr.paris.lutece.util.ReferenceItem;
+
+/**
+ * 
+ * JSON endpoint used by the configuration page of the ANTS tasks, to load the entries of a Form when it is selected
+ * without reloading the page
+ *
+ */
+public class AntsTaskConfigJspBean extends PluginAdminPageJspBean
+{
+	private static final long serialVersionUID = -2861437905513762413L;
+
+	// RIGHTS
+	public static final String RIGHT_MANAGE_WORKFLOW = "WORKFLOW_MANAGEMENT";
+
+	// PARAMETERS
+	private static final String PARAMETER_ID_FORM = "id_form";
+
+	// JSON
+	private static final String JSON_KEY_ID = "id";
+	private static final String JSON_KEY_TITLE = "title";
+	private static final String JSON_EMPTY_LIST = "[]";
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper( );
+
+	/**
+	 * Get the titled entries of the Form given in the request's parameters, as JSON
+	 * 
+	 * @param request
+	 *            The HTTP request
+	 * @return a JSON array of the entries (ID and title), empty if the Form is unknown
+	 */
+	public String getFormEntries( HttpServletRequest request )
+	{
+		int idForm = NumberUtils.toInt( request.getParameter( PARAMETER_ID_FORM ), -1 );
+
+		if( idForm <= 0 )
+		{
+			return JSON_EMPTY_LIST;
+		}
+
+		List<Map<String, String>> listEntries = new ArrayList<>( );
+
+		for( ReferenceItem item : AntsFormEntriesCacheService.getInstance( ).getEntries( idForm ) )
+		{
+			Map<String, String> mapEntry = new LinkedHashMap<>( );
+			mapEntry.put( JSON_KEY_ID, item.getCode( ) );
+			mapEntry.put( JSON_KEY_TITLE, item.getName( ) );
+			listEntries.add( mapEntry );
+		}
+
+		try
+		{
+			return OBJECT_MAPPER.writeValueAsString( listEntries );
+		}
+		catch( JsonProcessingException e )
+		{
+			AppLogService.error( "Failed to write the entries of form {} as JSON", idForm, e );
+			return JSON_EMPTY_LIST;
+		}
+	}
+}
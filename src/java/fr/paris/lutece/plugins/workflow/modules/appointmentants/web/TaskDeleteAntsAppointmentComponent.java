@@ -82,6 +82,8 @@ public class TaskDeleteAntsAppointmentComponent extends AbstractTaskAntsAppointm
 	private static final String MESSAGE_TASK_APPOINTMENT_DELETED_SUCCESS = "module.workflow.appointmentants.delete_appointment.message.appointmentDeletionSuccess";
 	private static final String MESSAGE_TASK_APPOINTMENT_DELETED_FAILURE = "module.workflow.appointmentants.delete_appointment.message.appointmentDeletionFailure";
 	private static final String MESSAGE_TASK_APPOINTMENT_NO_ANTS_NUMBER = "module.workflow.appointmentants.ants_appointment.message.noAntsApplicationNumber";
+	private static final String MESSAGE_TASK_APPOINTMENT_CALL_REJECTED = "module.workflow.appointmentants.ants_appointment.message.callRejected";
+	private static final String MESSAGE_TASK_APPOINTMENT_DEFERRED = "module.workflow.appointmentants.ants_appointment.message.deferred";
 
 	/**
      * {@inheritDoc}
@@ -109,10 +111,11 @@ public class TaskDeleteAntsAppointmentComponent extends AbstractTaskAntsAppointm
 	@Override
 	public String getDisplayTaskInformation( int nIdHistory, HttpServletRequest request, Locale locale, ITask task )
 	{
-		// Retrieve the task's history
+		// Retrieve the task's history, loaded with the other histories of the appointment
 		TaskAntsAppointmentHistory taskAppointmentHistory = _antsAppointmentHistoryService.findByPrimaryKey(
 				nIdHistory,
 				task.getId( ),
+				request,
 				WorkflowUtils.getPlugin( ) );
 
 		// If the task has history data, display it in the appointment's history
@@ -132,11 +135,23 @@ public class TaskDeleteAntsAppointmentComponent extends AbstractTaskAntsAppointm
 						locale );
 			}
 
+			// The ANTS API was not called because too many calls were already in flight
+			if( StringUtils.equals( taskAppointmentHistory.getTaskStatus( ), TaskAntsAppointmentHistory.STATUS_REJECTED ) )
+			{
+				return I18nService.getLocalizedString( MESSAGE_TASK_APPOINTMENT_CALL_REJECTED, args, locale ) + getCallInformation( taskAppointmentHistory, locale );
+			}
+
+			// The ANTS calls were still running when the deadline was reached
+			if( StringUtils.equals( taskAppointmentHistory.getTaskStatus( ), TaskAntsAppointmentHistory.STATUS_DEFERRED ) )
+			{
+				return I18nService.getLocalizedString( MESSAGE_TASK_APPOINTMENT_DEFERRED, args, locale ) + getCallInformation( taskAppointmentHistory, locale );
+			}
+
 			// Return the message to be displayed in the task's history informations
 			return I18nService.getLocalizedString(
 					taskAppointmentHistory.isTaskSuccessful( ) ? MESSAGE_TASK_APPOINTMENT_DELETED_SUCCESS : MESSAGE_TASK_APPOINTMENT_DELETED_FAILURE,
 					args,
-					locale );
+					locale ) + getCallInformation( taskAppointmentHistory, locale );
 		}
 		// If the task has no history data, nothing will be displayed
 		return StringUtils.EMPTY;
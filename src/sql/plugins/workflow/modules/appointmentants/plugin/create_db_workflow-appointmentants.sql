@@ -1,5 +1,9 @@
 DROP TABLE IF EXISTS workflow_task_ants_appointment;
 DROP TABLE IF EXISTS workflow_task_ants_appointment_history;
+DROP TABLE IF EXISTS workflow_task_ants_appointment_node_lease;
+DROP TABLE IF EXISTS workflow_task_ants_appointment_operation_lease;
+DROP TABLE IF EXISTS workflow_task_ants_appointment_stats;
+DROP TABLE IF EXISTS workflow_task_ants_appointment_number;
 
 --
 -- Table structure for the ANTS workflow tasks 
@@ -19,5 +23,67 @@ CREATE TABLE workflow_task_ants_appointment_history(
   id_task INT NOT NULL,
   is_task_successful SMALLINT NOT NULL DEFAULT 0,
   value_ants_application_numbers VARCHAR(255) DEFAULT NULL,
+  task_status VARCHAR(50) DEFAULT NULL,
+  execution_date TIMESTAMP NULL DEFAULT NULL,
+  attempt_count INT NOT NULL DEFAULT 0,
+  next_attempt_date TIMESTAMP NULL DEFAULT NULL,
+  last_error VARCHAR(255) DEFAULT NULL,
+  duration_ms BIGINT NOT NULL DEFAULT 0,
+  call_count INT NOT NULL DEFAULT 0,
+  call_details VARCHAR(255) DEFAULT NULL,
+  http_status INT NOT NULL DEFAULT 0,
+  correlation_id VARCHAR(32) DEFAULT NULL,
   PRIMARY KEY (id_history, id_task)
-);
\ No newline at end of file
+);
+CREATE INDEX idx_wf_task_ants_history_next_attempt ON workflow_task_ants_appointment_history (next_attempt_date);
+CREATE INDEX idx_wf_task_ants_history_id_task ON workflow_task_ants_appointment_history (id_task);
+CREATE INDEX idx_wf_task_ants_history_correlation ON workflow_task_ants_appointment_history (correlation_id);
+
+--
+-- Leases of the nodes sharing the ANTS rate limits
+--
+CREATE TABLE workflow_task_ants_appointment_node_lease(
+  node_id VARCHAR(255) NOT NULL,
+  lease_expiration TIMESTAMP NOT NULL,
+  PRIMARY KEY (node_id)
+);
+
+--
+-- Leases of the ANTS operations in flight on the nodes of the cluster
+--
+CREATE TABLE workflow_task_ants_appointment_operation_lease(
+  operation_key VARCHAR(255) NOT NULL,
+  node_id VARCHAR(255) NOT NULL,
+  lease_expiration TIMESTAMP NOT NULL,
+  PRIMARY KEY (operation_key)
+);
+
+--
+-- Daily statistics of the ANTS workflow tasks, updated with each outcome
+--
+CREATE TABLE workflow_task_ants_appointment_stats(
+  stat_date DATE NOT NULL,
+  id_form INT NOT NULL DEFAULT 0,
+  task_type VARCHAR(50) NOT NULL,
+  success_count INT NOT NULL DEFAULT 0,
+  failure_count INT NOT NULL DEFAULT 0,
+  rejected_count INT NOT NULL DEFAULT 0,
+  deferred_count INT NOT NULL DEFAULT 0,
+  retry_count INT NOT NULL DEFAULT 0,
+  total_duration_ms BIGINT NOT NULL DEFAULT 0,
+  max_duration_ms BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (stat_date, id_form, task_type)
+);
+
+--
+-- Index of the ANTS application numbers given in the appointments
+--
+CREATE TABLE workflow_task_ants_appointment_number(
+  application_number VARCHAR(255) NOT NULL,
+  id_appointment INT NOT NULL,
+  id_form INT NOT NULL DEFAULT 0,
+  appointment_date TIMESTAMP NULL DEFAULT NULL,
+  meeting_point_id VARCHAR(255) DEFAULT NULL,
+  PRIMARY KEY (application_number, id_appointment)
+);
+CREATE INDEX idx_wf_task_ants_number_id_appointment ON workflow_task_ants_appointment_number (id_appointment);
@@ -0,0 +1,95 @@
+--
+-- Detailed status of the ANTS workflow tasks' executions
+--
+ALTER TABLE workflow_task_ants_appointment_history ADD COLUMN task_status VARCHAR(50) DEFAULT NULL;
+
+--
+-- Leases of the nodes sharing the ANTS rate limits
+--
+CREATE TABLE workflow_task_ants_appointment_node_lease(
+  node_id VARCHAR(255) NOT NULL,
+  lease_expiration TIMESTAMP NOT NULL,
+  PRIMARY KEY (node_id)
+);
+
+--
+-- Retries of the failed executions of the ANTS workflow tasks
+--
+ALTER TABLE workflow_task_ants_appointment_history ADD COLUMN execution_date TIMESTAMP NULL DEFAULT NULL;
+ALTER TABLE workflow_task_ants_appointment_history ADD COLUMN attempt_count INT NOT NULL DEFAULT 0;
+ALTER TABLE workflow_task_ants_appointment_history ADD COLUMN next_attempt_date TIMESTAMP NULL DEFAULT NULL;
+ALTER TABLE workflow_task_ants_appointment_history ADD COLUMN last_error VARCHAR(255) DEFAULT NULL;
+CREATE INDEX idx_wf_task_ants_history_next_attempt ON workflow_task_ants_appointment_history (next_attempt_date);
+
+--
+-- Duration and details of the ANTS calls of the ANTS workflow tasks' executions
+--
+ALTER TABLE workflow_task_ants_appointment_history ADD COLUMN duration_ms BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE workflow_task_ants_appointment_history ADD COLUMN call_count INT NOT NULL DEFAULT 0;
+ALTER TABLE workflow_task_ants_appointment_history ADD COLUMN call_details VARCHAR(255) DEFAULT NULL;
+ALTER TABLE workflow_task_ants_appointment_history ADD COLUMN http_status INT NOT NULL DEFAULT 0;
+
+--
+-- Daily statistics of the ANTS workflow tasks, updated with each outcome
+--
+CREATE TABLE workflow_task_ants_appointment_stats(
+  stat_date DATE NOT NULL,
+  id_form INT NOT NULL DEFAULT 0,
+  task_type VARCHAR(50) NOT NULL,
+  success_count INT NOT NULL DEFAULT 0,
+  failure_count INT NOT NULL DEFAULT 0,
+  rejected_count INT NOT NULL DEFAULT 0,
+  deferred_count INT NOT NULL DEFAULT 0,
+  retry_count INT NOT NULL DEFAULT 0,
+  total_duration_ms BIGINT NOT NULL DEFAULT 0,
+  max_duration_ms BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (stat_date, id_form, task_type)
+);
+
+--
+-- Chunked removal of the history of a task
+--
+CREATE INDEX idx_wf_task_ants_history_id_task ON workflow_task_ants_appointment_history (id_task);
+
+--
+-- Execution date of the executions prior to this version, from their resource history, so that their
+-- retention starts from the actual date of the execution
+--
+UPDATE workflow_task_ants_appointment_history SET execution_date = (
+  SELECT r.creation_date FROM workflow_resource_history r WHERE r.id_history = workflow_task_ants_appointment_history.id_history
+) WHERE execution_date IS NULL;
+
+--
+-- Executions whose resource history was removed: their retention starts from the upgrade, so that they are
+-- purged as well
+--
+UPDATE workflow_task_ants_appointment_history SET execution_date = CURRENT_TIMESTAMP WHERE execution_date IS NULL;
+
+--
+-- Correlation of the ANTS workflow tasks' executions with their logs, spans and ANTS calls
+--
+ALTER TABLE workflow_task_ants_appointment_history ADD COLUMN correlation_id VARCHAR(32) DEFAULT NULL;
+CREATE INDEX idx_wf_task_ants_history_correlation ON workflow_task_ants_appointment_history (correlation_id);
+
+--
+-- Leases of the ANTS operations in flight on the nodes of the cluster
+--
+CREATE TABLE workflow_task_ants_appointment_operation_lease(
+  operation_key VARCHAR(255) NOT NULL,
+  node_id VARCHAR(255) NOT NULL,
+  lease_expiration TIMESTAMP NOT NULL,
+  PRIMARY KEY (operation_key)
+);
+
+--
+-- Index of the ANTS application numbers given in the appointments
+--
+CREATE TABLE workflow_task_ants_appointment_number(
+  application_number VARCHAR(255) NOT NULL,
+  id_appointment INT NOT NULL,
+  id_form INT NOT NULL DEFAULT 0,
+  appointment_date TIMESTAMP NULL DEFAULT NULL,
+  meeting_point_id VARCHAR(255) DEFAULT NULL,
+  PRIMARY KEY (application_number, id_appointment)
+);
+CREATE INDEX idx_wf_task_ants_number_id_appointment ON workflow_task_ants_appointment_number (id_appointment);
@@ -0,0 +1,123 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fr.paris.lutece.portal.service.database.PluginConnectionService;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.plugin.PluginDefaultImplementation;
+
+/**
+ * In-memory H2 database created with the create script of the module, for the DAO tests.
+ * The database lives as long as this object is open.
+ */
+public final class AntsH2Database implements AutoCloseable {
+    private static final String CREATE_SCRIPT = "src/sql/plugins/workflow/modules/appointmentants/plugin/create_db_workflow-appointmentants.sql";
+
+    private final String url;
+    private final Connection keepAlive;
+    private final H2ConnectionService connectionService;
+
+    public AntsH2Database(String name) throws SQLException, IOException {
+        url = "jdbc:h2:mem:" + name + ";MODE=MySQL";
+        keepAlive = DriverManager.getConnection(url);
+        connectionService = new H2ConnectionService(url);
+        runScript(new String(Files.readAllBytes(Paths.get(System.getProperty("basedir", "."), CREATE_SCRIPT)), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A plugin whose DAOUtil connections are those of this database.
+     */
+    public Plugin createPlugin(String name) {
+        Plugin plugin = new PluginDefaultImplementation();
+        plugin.setName(name);
+        plugin.setConnectionService(connectionService);
+        return plugin;
+    }
+
+    public PluginConnectionService getConnectionService() {
+        return connectionService;
+    }
+
+    /**
+     * The amount of connections taken by the DAOs, i.e. of queries they ran.
+     */
+    public int getConnectionCount() {
+        return connectionService.connectionCount.get();
+    }
+
+    public Connection getConnection() throws SQLException {
+        return DriverManager.getConnection(url);
+    }
+
+    public void execute(String sql) throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    public int count(String table) throws SQLException {
+        try (Statement statement = keepAlive.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private void runScript(String script) throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            if (!line.trim().startsWith("--")) {
+                sql.append(line).append('\n');
+            }
+        }
+        for (String statement : sql.toString().split(";")) {
+            if (!statement.trim().isEmpty()) {
+                execute(statement);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        keepAlive.close();
+    }
+
+    /**
+     * Opens a new connection for each DAOUtil, like a pool without idle connections.
+     */
+    private static final class H2ConnectionService extends PluginConnectionService {
+        private final String url;
+        private final AtomicInteger connectionCount = new AtomicInteger();
+
+        H2ConnectionService(String url) {
+            this.url = url;
+        }
+
+        @Override
+        public Connection getConnection() {
+            connectionCount.incrementAndGet();
+            try {
+                return DriverManager.getConnection(url);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void freeConnection(Connection connection) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.WorkflowAppointmentAntsPlugin;
+import fr.paris.lutece.portal.service.database.PluginConnectionService;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class TaskAntsAppointmentConfigDAOTest extends LuteceTestCase {
+    private static final int THREADS = 8;
+    private static final int CONFIGS_PER_THREAD = 50;
+
+    private AntsH2Database database;
+    private Plugin plugin;
+    private PluginConnectionService previousConnectionService;
+    private final TaskAntsAppointmentConfigDAO dao = new TaskAntsAppointmentConfigDAO();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        database = new AntsH2Database("config_" + getName());
+        // The DAO always uses the module's plugin: its connections are redirected to H2 during the test
+        plugin = WorkflowAppointmentAntsPlugin.getPlugin();
+        previousConnectionService = plugin.getConnectionService();
+        plugin.setConnectionService(database.getConnectionService());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        plugin.setConnectionService(previousConnectionService);
+        database.close();
+        super.tearDown();
+    }
+
+    public void testCrud() {
+        dao.insert(config(1, 10, 100));
+        assertEquals(10, dao.load(1).getIdForm());
+
+        TaskAntsAppointmentConfig config = config(1, 11, 110);
+        dao.store(config);
+        assertEquals(110, dao.load(1).getIdFieldEntry());
+        assertEquals(1, dao.loadAll().size());
+
+        dao.delete(1);
+        assertNull(dao.load(1));
+    }
+
+    public void testConcurrentInsertsAndLoads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                int firstTask = thread * CONFIGS_PER_THREAD + 1;
+                futures.add(executor.submit((Callable<Integer>) () -> {
+                    int mismatches = 0;
+                    for (int task = firstTask; task < firstTask + CONFIGS_PER_THREAD; task++) {
+                        dao.insert(config(task, task * 10, task * 100));
+                        TaskAntsAppointmentConfig loaded = dao.load(task);
+                        if (loaded == null || loaded.getIdForm() != task * 10) {
+                            mismatches++;
+                        }
+                        // Same read as the listeners and daemons scanning every ANTS task
+                        dao.loadAll();
+                    }
+                    return mismatches;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(Integer.valueOf(0), future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(THREADS * CONFIGS_PER_THREAD, dao.loadAll().size());
+    }
+
+    private static TaskAntsAppointmentConfig config(int idTask, int idForm, int idFieldEntry) {
+        TaskAntsAppointmentConfig config = new TaskAntsAppointmentConfig();
+        config.setIdTask(idTask);
+        config.setIdForm(idForm);
+        config.setIdFieldEntry(idFieldEntry);
+        return config;
+    }
+}
@@ -0,0 +1,49 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.sql.Timestamp;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.util.AppException;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class TaskAntsAppointmentOperationLeaseDAOTest extends LuteceTestCase {
+    private static final String KEY = "ADD:ABCDE12345";
+
+    private AntsH2Database database;
+    private Plugin plugin;
+    private final TaskAntsAppointmentOperationLeaseDAO dao = new TaskAntsAppointmentOperationLeaseDAO();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        database = new AntsH2Database("lease_" + getName());
+        plugin = database.createPlugin("workflow");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        database.close();
+        super.tearDown();
+    }
+
+    public void testLeaseHeldByAnotherNode() {
+        Timestamp expiration = new Timestamp(System.currentTimeMillis() + 60000);
+
+        assertTrue(dao.insertLease(KEY, "node1", expiration, plugin));
+        assertFalse(dao.insertLease(KEY, "node2", expiration, plugin));
+
+        dao.deleteLease(KEY, "node1", plugin);
+        assertTrue(dao.insertLease(KEY, "node2", expiration, plugin));
+    }
+
+    public void testDatabaseErrorIsThrown() throws Exception {
+        database.execute("DROP TABLE workflow_task_ants_appointment_operation_lease");
+
+        try {
+            dao.insertLease(KEY, "node1", new Timestamp(System.currentTimeMillis()), plugin);
+            fail("The insert error should be thrown");
+        } catch (AppException e) {
+            // expected
+        }
+    }
+}
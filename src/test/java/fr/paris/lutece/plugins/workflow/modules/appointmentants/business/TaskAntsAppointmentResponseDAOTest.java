@@ -0,0 +1,70 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class TaskAntsAppointmentResponseDAOTest extends LuteceTestCase {
+    private AntsH2Database database;
+    private Plugin plugin;
+    private final TaskAntsAppointmentResponseDAO dao = new TaskAntsAppointmentResponseDAO();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        database = new AntsH2Database("responses_" + getName());
+        plugin = database.createPlugin("appointment");
+        database.execute("CREATE TABLE appointment_appointment (id_appointment INT PRIMARY KEY, is_cancelled BOOLEAN DEFAULT FALSE)");
+        database.execute("CREATE TABLE appointment_slot (id_slot INT PRIMARY KEY, starting_date_time TIMESTAMP, id_form INT)");
+        database.execute("CREATE TABLE appointment_appointment_slot (id_appointment INT, id_slot INT)");
+
+        // Appointment 1 spans two slots, appointment 2 is cancelled, appointment 3 doesn't exist
+        database.execute("INSERT INTO appointment_slot VALUES (10, '2026-11-02 10:30:00', 7), (11, '2026-11-02 10:00:00', 7), (12, '2026-11-03 09:00:00', 8)");
+        database.execute("INSERT INTO appointment_appointment VALUES (1, FALSE), (2, TRUE)");
+        database.execute("INSERT INTO appointment_appointment_slot VALUES (1, 10), (1, 11), (2, 12)");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        database.close();
+        super.tearDown();
+    }
+
+    public void testSummariesAreLoadedWithASingleQuery() {
+        int connectionsBefore = database.getConnectionCount();
+
+        Map<Integer, TaskAntsAppointmentSummary> summaries = dao.selectAppointmentSummaries(Arrays.asList(1, 2, 3), plugin);
+
+        assertEquals(1, database.getConnectionCount() - connectionsBefore);
+        assertEquals(2, summaries.size());
+
+        TaskAntsAppointmentSummary first = summaries.get(1);
+        assertEquals(7, first.getIdForm());
+        assertEquals(Timestamp.valueOf("2026-11-02 10:00:00"), first.getStartingDate());
+        assertFalse(first.isCancelled());
+
+        TaskAntsAppointmentSummary second = summaries.get(2);
+        assertEquals(8, second.getIdForm());
+        assertTrue(second.isCancelled());
+
+        assertFalse(summaries.containsKey(3));
+    }
+
+    public void testSummariesAreLoadedByChunks() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 1; i <= 501; i++) {
+            ids.add(i);
+        }
+        int connectionsBefore = database.getConnectionCount();
+
+        Map<Integer, TaskAntsAppointmentSummary> summaries = dao.selectAppointmentSummaries(ids, plugin);
+
+        assertEquals(2, database.getConnectionCount() - connectionsBefore);
+        assertEquals(2, summaries.size());
+    }
+}
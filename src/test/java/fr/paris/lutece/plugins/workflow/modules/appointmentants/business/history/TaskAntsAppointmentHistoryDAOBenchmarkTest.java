@@ -0,0 +1,146 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.AntsH2Database;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.portal.service.util.AppLogService;
+import fr.paris.lutece.test.LuteceTestCase;
+
+/**
+ * Throughput baseline of the history persistence on H2, logged with the application logs. Excluded from the default
+ * build: run with mvn test -Pbenchmark (sizes can be changed with -Dants.benchmark.rows / -Dants.benchmark.queries).
+ */
+public class TaskAntsAppointmentHistoryDAOBenchmarkTest extends LuteceTestCase {
+    private static final int ROWS = Integer.getInteger("ants.benchmark.rows", 2000);
+    private static final int QUERIES = Integer.getInteger("ants.benchmark.queries", 100);
+    private static final int TASKS = 100;
+    private static final int BATCH_SIZE = 500;
+    private static final int PAGE_SIZE = 50;
+    private static final String TABLE = "workflow_task_ants_appointment_history";
+    // Same statement as the DAO, which has no batched insert yet
+    private static final String SQL_INSERT = "INSERT INTO workflow_task_ants_appointment_history ( id_history, id_task, is_task_successful, value_ants_application_numbers, task_status, execution_date, attempt_count, next_attempt_date, last_error, duration_ms, call_count, call_details, http_status, correlation_id ) VALUES ( ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ? )";
+
+    private AntsH2Database database;
+    private Plugin plugin;
+    private final TaskAntsAppointmentHistoryDAO dao = new TaskAntsAppointmentHistoryDAO();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        database = new AntsH2Database("benchmark_" + getName());
+        plugin = database.createPlugin("workflow");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        database.close();
+        super.tearDown();
+    }
+
+    public void testSingleVersusBatchedInserts() throws Exception {
+        long start = System.nanoTime();
+        for (int row = 0; row < ROWS; row++) {
+            dao.insert(history(row), plugin);
+        }
+        long singleNanos = System.nanoTime() - start;
+        assertEquals(ROWS, database.count(TABLE));
+
+        database.execute("DELETE FROM " + TABLE);
+        start = System.nanoTime();
+        try (Connection connection = database.getConnection(); PreparedStatement statement = connection.prepareStatement(SQL_INSERT)) {
+            connection.setAutoCommit(false);
+            for (int row = 0; row < ROWS; row++) {
+                bind(statement, history(row));
+                statement.addBatch();
+                if ((row + 1) % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+        long batchedNanos = System.nanoTime() - start;
+        assertEquals(ROWS, database.count(TABLE));
+
+        report("insert, single (DAO)", ROWS, singleNanos);
+        report("insert, batched by " + BATCH_SIZE, ROWS, batchedNanos);
+    }
+
+    public void testIndexedVersusUnindexedQueries() throws Exception {
+        for (int row = 0; row < ROWS; row++) {
+            dao.insert(history(row), plugin);
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        // Warm-up, so that the first measured series doesn't pay for the JIT
+        timeQueriesByTask(new int[2]);
+        timeRetryableQueries(now, new int[2]);
+
+        int[] indexed = new int[2];
+        long indexedByTaskNanos = timeQueriesByTask(indexed);
+        long indexedRetryableNanos = timeRetryableQueries(now, indexed);
+
+        database.execute("DROP INDEX idx_wf_task_ants_history_id_task");
+        database.execute("DROP INDEX idx_wf_task_ants_history_next_attempt");
+
+        int[] unindexed = new int[2];
+        long unindexedByTaskNanos = timeQueriesByTask(unindexed);
+        long unindexedRetryableNanos = timeRetryableQueries(now, unindexed);
+
+        assertEquals(indexed[0], unindexed[0]);
+        assertEquals(indexed[1], unindexed[1]);
+        report("history by task, indexed", QUERIES, indexedByTaskNanos);
+        report("history by task, unindexed", QUERIES, unindexedByTaskNanos);
+        report("retryable, indexed", QUERIES, indexedRetryableNanos);
+        report("retryable, unindexed", QUERIES, unindexedRetryableNanos);
+    }
+
+    private long timeQueriesByTask(int[] results) {
+        long start = System.nanoTime();
+        for (int query = 0; query < QUERIES; query++) {
+            results[0] += dao.selectIdHistoryByTask(query % TASKS, 0, PAGE_SIZE, plugin).size();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long timeRetryableQueries(Timestamp now, int[] results) {
+        long start = System.nanoTime();
+        for (int query = 0; query < QUERIES; query++) {
+            results[1] += dao.selectRetryable(now, new Timestamp(0), PAGE_SIZE, plugin).size();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static TaskAntsAppointmentHistory history(int row) {
+        // One execution out of ten is waiting for a retry, half of them already due
+        Timestamp nextAttempt = row % 10 != 0 ? null : new Timestamp(System.currentTimeMillis() + (row % 20 == 0 ? -60000 : 60000));
+        return TaskAntsAppointmentHistoryDAOTest.history(row / TASKS, row % TASKS, nextAttempt);
+    }
+
+    private static void bind(PreparedStatement statement, TaskAntsAppointmentHistory history) throws Exception {
+        int index = 0;
+        statement.setInt(++index, history.getIdResourceHistory());
+        statement.setInt(++index, history.getIdTask());
+        statement.setBoolean(++index, history.isTaskSuccessful());
+        statement.setString(++index, history.getAntsApplicationNumbers());
+        statement.setString(++index, history.getTaskStatus());
+        statement.setTimestamp(++index, history.getExecutionDate());
+        statement.setInt(++index, history.getAttemptCount());
+        statement.setTimestamp(++index, history.getNextAttemptDate());
+        statement.setString(++index, history.getLastError());
+        statement.setLong(++index, history.getDurationMillis());
+        statement.setInt(++index, history.getCallCount());
+        statement.setString(++index, history.getCallDetails());
+        statement.setInt(++index, history.getHttpStatus());
+        statement.setString(++index, history.getCorrelationId());
+    }
+
+    private static void report(String operation, int count, long nanos) {
+        double millis = nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        AppLogService.info(String.format("[ANTS benchmark] %-30s %8d ops in %9.1f ms = %10.0f ops/s", operation, count, millis,
+                count * 1000d / Math.max(millis, 0.001)));
+    }
+}
@@ -0,0 +1,110 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.business.history;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.AntsH2Database;
+import fr.paris.lutece.portal.service.plugin.Plugin;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class TaskAntsAppointmentHistoryDAOTest extends LuteceTestCase {
+    private static final String TABLE = "workflow_task_ants_appointment_history";
+    private static final int THREADS = 8;
+    private static final int HISTORY_PER_THREAD = 100;
+
+    private AntsH2Database database;
+    private Plugin plugin;
+    private final TaskAntsAppointmentHistoryDAO dao = new TaskAntsAppointmentHistoryDAO();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        database = new AntsH2Database("history_" + getName());
+        plugin = database.createPlugin("workflow");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        database.close();
+        super.tearDown();
+    }
+
+    public void testInsertLoadAndUpdateOutcome() {
+        TaskAntsAppointmentHistory history = history(1, 2, null);
+        dao.insert(history, plugin);
+
+        history.setTaskSuccessState(true);
+        history.setAttemptCount(2);
+        history.setCorrelationId("abc");
+        dao.updateOutcome(history, plugin);
+
+        TaskAntsAppointmentHistory loaded = dao.load(1, 2, plugin);
+        assertTrue(loaded.isTaskSuccessful());
+        assertEquals(2, loaded.getAttemptCount());
+        assertEquals("abc", loaded.getCorrelationId());
+        assertEquals("ABCDE12345", loaded.getAntsApplicationNumbers());
+    }
+
+    public void testSelectRetryableAndDeleteExpired() throws Exception {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        dao.insert(history(1, 1, new Timestamp(now.getTime() - 1000)), plugin);
+        dao.insert(history(2, 1, new Timestamp(now.getTime() + 60000)), plugin);
+        dao.insert(history(3, 1, null), plugin);
+        TaskAntsAppointmentHistory undated = history(4, 1, null);
+        undated.setExecutionDate(null);
+        dao.insert(undated, plugin);
+
+        List<TaskAntsAppointmentHistory> retryable = dao.selectRetryable(now, new Timestamp(0), 10, plugin);
+        assertEquals(1, retryable.size());
+        assertEquals(1, retryable.get(0).getIdResourceHistory());
+
+        List<TaskAntsAppointmentHistory> expired = dao.selectExpiredKeys(new Timestamp(now.getTime() + 1000), 0, 0, 10, plugin);
+        assertEquals(3, expired.size());
+        dao.deleteByKeys(expired, plugin);
+        assertEquals(1, database.count(TABLE));
+        assertNotNull(dao.load(4, 1, plugin));
+    }
+
+    public void testConcurrentInsertsAndLoads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                int idTask = thread + 1;
+                futures.add(executor.submit((Callable<Integer>) () -> {
+                    int mismatches = 0;
+                    for (int idHistory = 1; idHistory <= HISTORY_PER_THREAD; idHistory++) {
+                        dao.insert(history(idHistory, idTask, null), plugin);
+                        if (dao.load(idHistory, idTask, plugin) == null) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(Integer.valueOf(0), future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(THREADS * HISTORY_PER_THREAD, database.count(TABLE));
+        assertEquals(HISTORY_PER_THREAD, dao.selectIdHistoryByTask(1, 0, HISTORY_PER_THREAD * 2, plugin).size());
+    }
+
+    static TaskAntsAppointmentHistory history(int idHistory, int idTask, Timestamp nextAttempt) {
+        TaskAntsAppointmentHistory history = new TaskAntsAppointmentHistory();
+        history.setIdResourceHistory(idHistory);
+        history.setIdTask(idTask);
+        history.setAntsApplicationNumbers("ABCDE12345");
+        history.setTaskStatus("FAILED");
+        history.setExecutionDate(new Timestamp(System.currentTimeMillis()));
+        history.setNextAttemptDate(nextAttempt);
+        return history;
+    }
+}
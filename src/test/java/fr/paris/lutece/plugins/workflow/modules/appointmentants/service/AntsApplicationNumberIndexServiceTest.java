@@ -0,0 +1,27 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.TaskAntsAppointmentNumber;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class AntsApplicationNumberIndexServiceTest extends LuteceTestCase {
+
+    public void testNumbersAreMatchedRegardlessOfTheirCase() {
+        // A case-insensitive collation returns the stored number for any case of the number requested
+        TaskAntsAppointmentNumber number = new TaskAntsAppointmentNumber();
+        number.setApplicationNumber("ABCDE12345");
+        number.setIdAppointment(7);
+
+        Map<String, List<TaskAntsAppointmentNumber>> mapNumbers = AntsApplicationNumberIndexService.groupByApplicationNumber(
+                new LinkedHashSet<>(Arrays.asList("abcde12345", "ABCDE12345", "ZZZZZ00000")), Arrays.asList(number));
+
+        assertEquals(Arrays.asList("abcde12345", "ABCDE12345", "ZZZZZ00000"), Arrays.asList(mapNumbers.keySet().toArray()));
+        assertEquals(7, mapNumbers.get("abcde12345").get(0).getIdAppointment());
+        assertEquals(1, mapNumbers.get("ABCDE12345").size());
+        assertTrue(mapNumbers.get("ZZZZZ00000").isEmpty());
+    }
+}
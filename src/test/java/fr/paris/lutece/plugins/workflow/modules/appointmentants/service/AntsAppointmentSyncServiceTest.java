@@ -0,0 +1,66 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class AntsAppointmentSyncServiceTest extends LuteceTestCase {
+    public void testRapidChangesAreSynchronizedOnce() throws InterruptedException {
+        List<Collection<String>> syncs = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        AntsAppointmentSyncService service = new AntsAppointmentSyncService(200, 5000, 1, (id, form, numbers) -> {
+            syncs.add(numbers);
+            latch.countDown();
+            return true;
+        });
+
+        service.schedule(1, 10, new LinkedHashSet<>(Arrays.asList("A")));
+        service.schedule(1, 10, new LinkedHashSet<>(Arrays.asList("B")));
+        service.schedule(1, 0, new LinkedHashSet<>());
+        assertEquals(1, service.getPendingCount());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertEquals(1, syncs.size());
+        assertEquals(new HashSet<>(Arrays.asList("A", "B")), new HashSet<>(syncs.get(0)));
+        assertEquals(0, service.getPendingCount());
+    }
+
+    public void testMaxWaitBoundsTheDebounce() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AntsAppointmentSyncService service = new AntsAppointmentSyncService(10000, 300, 1, (id, form, numbers) -> {
+            latch.countDown();
+            return true;
+        });
+
+        service.schedule(1, 10, new LinkedHashSet<>(Arrays.asList("A")));
+        service.schedule(1, 10, new LinkedHashSet<>(Arrays.asList("A")));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    public void testMergedChangesNotifyEveryListener() throws InterruptedException {
+        List<Boolean> outcomes = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(2);
+        AntsAppointmentSyncService service = new AntsAppointmentSyncService(200, 5000, 1, (id, form, numbers) -> form > 0);
+
+        service.notifyChange(1, 10, Arrays.asList("A"), (isSuccessful, context) -> {
+            outcomes.add(isSuccessful);
+            latch.countDown();
+        });
+        service.notifyChange(1, 10, Arrays.asList("A"), (isSuccessful, context) -> {
+            outcomes.add(isSuccessful);
+            assertNotNull(context);
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(true, true), outcomes);
+    }
+}
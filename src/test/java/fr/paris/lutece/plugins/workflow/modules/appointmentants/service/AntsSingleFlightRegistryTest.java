@@ -0,0 +1,32 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class AntsSingleFlightRegistryTest extends LuteceTestCase {
+    private static final String KEY = AntsSingleFlightRegistry.buildKey(false, "1234567890", "meeting-point");
+
+    public void testIdenticalOperationSharesFlightInProgress() {
+        AntsSingleFlightRegistry registry = new AntsSingleFlightRegistry(false, 60);
+        CompletableFuture<Boolean> first = new CompletableFuture<>();
+        CompletableFuture<Boolean> second = new CompletableFuture<>();
+
+        assertNull(registry.register(KEY, first));
+        assertSame(first, registry.register(KEY, second));
+        assertEquals(1, registry.getInFlight());
+
+        first.complete(Boolean.TRUE);
+        assertEquals(0, registry.getInFlight());
+        assertNull(registry.register(KEY, second));
+    }
+
+    public void testDifferentOperationsDoNotShareFlights() {
+        AntsSingleFlightRegistry registry = new AntsSingleFlightRegistry(false, 60);
+
+        assertNull(registry.register(KEY, new CompletableFuture<>()));
+        assertNull(registry.register(AntsSingleFlightRegistry.buildKey(true, "1234567890", "meeting-point"), new CompletableFuture<>()));
+        assertNull(registry.register(AntsSingleFlightRegistry.buildKey(false, "1234567890", "other-meeting-point"), new CompletableFuture<>()));
+        assertEquals(3, registry.getInFlight());
+    }
+}
@@ -0,0 +1,97 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.pojo.AntsAppointmentPOJO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.pojo.AntsStatusResponsePOJO;
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest.AntsSettings;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class TaskAntsAppointmentServiceTest extends LuteceTestCase {
+    private static final String PARAMETER = "application_ids";
+
+    public void testSplitApplicationNumbersByCount() {
+        List<String> numbers = Arrays.asList("A1", "A2", "A3", "A4", "A5");
+
+        List<List<String>> chunks = TaskAntsAppointmentService.splitApplicationNumbersIntoChunks(numbers, 50, PARAMETER, 2000, 2);
+
+        assertEquals(3, chunks.size());
+        assertEquals(Arrays.asList("A1", "A2"), chunks.get(0));
+        assertEquals(Arrays.asList("A5"), chunks.get(2));
+    }
+
+    public void testSplitApplicationNumbersByUrlLength() {
+        List<String> numbers = Arrays.asList("1234567890", "1234567891", "1234567892");
+        // Each parameter takes 27 characters: room for 2 of them after the base URL
+        int maxUrlLength = 50 + 2 * 27;
+
+        List<List<String>> chunks = TaskAntsAppointmentService.splitApplicationNumbersIntoChunks(numbers, 50, PARAMETER, maxUrlLength, 50);
+
+        assertEquals(2, chunks.size());
+        assertEquals(2, chunks.get(0).size());
+        assertEquals(Arrays.asList("1234567892"), chunks.get(1));
+    }
+
+    public void testSplitApplicationNumbersIgnoresDuplicates() {
+        List<String> numbers = Arrays.asList("A1", "A2", "A1");
+
+        List<List<String>> chunks = TaskAntsAppointmentService.splitApplicationNumbersIntoChunks(numbers, 50, PARAMETER, 2000, 50);
+
+        assertEquals(1, chunks.size());
+        assertEquals(Arrays.asList("A1", "A2"), chunks.get(0));
+    }
+
+    public void testSplitApplicationNumbersAlwaysKeepsOneNumberPerChunk() {
+        List<String> numbers = Arrays.asList("A1", "A2");
+
+        List<List<String>> chunks = TaskAntsAppointmentService.splitApplicationNumbersIntoChunks(numbers, 50, PARAMETER, 10, 50);
+
+        assertEquals(2, chunks.size());
+    }
+
+    public void testStatusResponseHasTypedAppointments() throws Exception {
+        String response = "{\"ABCDE12345\": {\"status\": \"validated\", \"appointments\": [{\"meeting_point\": \"Mairie du 1er\","
+                + " \"meeting_point_id\": \"1\", \"appointment_date\": \"2026-11-02T09:30:00+01:00\", \"management_url\": \"https://rdv\"}]}}";
+
+        Map<String, AntsStatusResponsePOJO> mapStatus = TaskAntsAppointmentService.getStatusResponseAsMap(response);
+        AntsAppointmentPOJO appointment = mapStatus.get("ABCDE12345").getAppointments()[0];
+
+        assertEquals("Mairie du 1er", appointment.getMeetingPoint());
+        assertEquals("https://rdv", appointment.getManagementUrl());
+        assertEquals(OffsetDateTime.of(2026, 11, 2, 9, 30, 0, 0, ZoneOffset.ofHours(1)).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(),
+                appointment.getAppointmentDateTime());
+    }
+
+    public void testFindAntsAppointmentAtMeetingPointAndDate() {
+        AntsAppointmentPOJO other = new AntsAppointmentPOJO();
+        other.setMeetingPointId("2");
+        other.setAppointmentDate("2026-11-02T09:30:00");
+        AntsAppointmentPOJO ours = new AntsAppointmentPOJO();
+        ours.setMeetingPointId("1");
+        ours.setAppointmentDate("2026-11-02 09:30:00");
+        AntsStatusResponsePOJO status = new AntsStatusResponsePOJO();
+        status.setAppointments(new AntsAppointmentPOJO[] { other, ours });
+
+        assertSame(ours, TaskAntsAppointmentService.findAntsAppointment(status, "1", LocalDateTime.of(2026, 11, 2, 9, 30, 45)));
+        assertNull(TaskAntsAppointmentService.findAntsAppointment(status, "1", LocalDateTime.of(2026, 11, 2, 10, 0)));
+    }
+
+    public void testDeletionSkippedOnlyWithoutAppointmentAtMeetingPoint() {
+        AntsAppointmentPOJO ours = new AntsAppointmentPOJO();
+        ours.setMeetingPointId("1");
+        ours.setAppointmentDate("2026-11-02T09:30:00Z");
+        AntsStatusResponsePOJO status = new AntsStatusResponsePOJO();
+        status.setStatus(AntsSettings.getCurrent().getStatusValidated());
+        status.setAppointments(new AntsAppointmentPOJO[] { ours });
+
+        // Another date (time zone, rescheduled appointment): the ANTS appointment of the meeting point is deleted
+        assertFalse(TaskAntsAppointmentService.isAntsAppointmentUpToDate(status, "1", LocalDateTime.of(2026, 12, 1, 14, 0), true));
+        assertTrue(TaskAntsAppointmentService.isAntsAppointmentUpToDate(status, "2", LocalDateTime.of(2026, 12, 1, 14, 0), true));
+    }
+}
@@ -0,0 +1,92 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest;
+
+import java.util.concurrent.TimeUnit;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class AntsConcurrencyLimiterTest extends LuteceTestCase {
+    private static final long FAST_CALL = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW_CALL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    public void testRejectsCallsAboveLimit() {
+        AntsConcurrencyLimiter limiter = new AntsConcurrencyLimiter(2, 1, 10, 0, 2.0, 0.5);
+
+        assertTrue(limiter.acquire());
+        assertTrue(limiter.acquire());
+        assertFalse(limiter.acquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release(AntsEndpoint.ADD, FAST_CALL, AntsConcurrencyLimiter.Outcome.SUCCESS);
+        assertTrue(limiter.acquire());
+    }
+
+    public void testLimitDecreasesOnSlowCallsWithoutGoingUnderFloor() {
+        AntsConcurrencyLimiter limiter = new AntsConcurrencyLimiter(8, 2, 10, 0, 2.0, 0.5);
+
+        limiter.acquire();
+        limiter.release(AntsEndpoint.ADD, FAST_CALL, AntsConcurrencyLimiter.Outcome.SUCCESS);
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.release(AntsEndpoint.ADD, SLOW_CALL, AntsConcurrencyLimiter.Outcome.SUCCESS);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    public void testLimitDecreasesOnDroppedCalls() {
+        AntsConcurrencyLimiter limiter = new AntsConcurrencyLimiter(8, 1, 10, 0, 2.0, 0.5);
+
+        limiter.acquire();
+        limiter.release(AntsEndpoint.ADD, FAST_CALL, AntsConcurrencyLimiter.Outcome.DROPPED);
+
+        assertEquals(4, limiter.getLimit());
+    }
+
+    public void testClientErrorsAndOtherEndpointsDoNotSetReferenceLatency() {
+        AntsConcurrencyLimiter limiter = new AntsConcurrencyLimiter(8, 2, 10, 0, 2.0, 0.5);
+
+        limiter.acquire();
+        limiter.release(AntsEndpoint.DELETE, FAST_CALL, AntsConcurrencyLimiter.Outcome.IGNORED);
+        limiter.acquire();
+        limiter.release(AntsEndpoint.STATUS, FAST_CALL, AntsConcurrencyLimiter.Outcome.SUCCESS);
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.release(AntsEndpoint.ADD, SLOW_CALL, AntsConcurrencyLimiter.Outcome.SUCCESS);
+            limiter.acquire();
+            limiter.release(AntsEndpoint.DELETE, SLOW_CALL, AntsConcurrencyLimiter.Outcome.SUCCESS);
+        }
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    public void testLimitGrowsWhenUsedWithoutExceedingCeiling() {
+        AntsConcurrencyLimiter limiter = new AntsConcurrencyLimiter(2, 1, 3, 0, 2.0, 0.5);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            limiter.acquire();
+            limiter.release(AntsEndpoint.ADD, FAST_CALL, AntsConcurrencyLimiter.Outcome.SUCCESS);
+            limiter.release(AntsEndpoint.ADD, FAST_CALL, AntsConcurrencyLimiter.Outcome.SUCCESS);
+        }
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    public void testWaitingCallerGetsReleasedPermit() throws Exception {
+        AntsConcurrencyLimiter limiter = new AntsConcurrencyLimiter(1, 1, 1, 5000, 2.0, 0.5);
+        assertTrue(limiter.acquire());
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limiter.release(AntsEndpoint.ADD, FAST_CALL, AntsConcurrencyLimiter.Outcome.SUCCESS);
+        });
+        releaser.start();
+
+        assertTrue(limiter.acquire());
+        releaser.join();
+    }
+}
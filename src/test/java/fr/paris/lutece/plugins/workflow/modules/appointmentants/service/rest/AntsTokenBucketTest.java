@@ -0,0 +1,53 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.rest;
+
+import java.util.concurrent.TimeUnit;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class AntsTokenBucketTest extends LuteceTestCase {
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    public void testBurstIsServedWithoutWaiting() {
+        AntsTokenBucket bucket = new AntsTokenBucket(2, 3, 0);
+
+        assertEquals(0, bucket.reserve(0, 0));
+        assertEquals(0, bucket.reserve(0, 0));
+        assertEquals(0, bucket.reserve(0, 0));
+        assertEquals(-1, bucket.reserve(0, 0));
+    }
+
+    public void testCallsAboveRateWaitInOrder() {
+        AntsTokenBucket bucket = new AntsTokenBucket(2, 1, 0);
+
+        assertEquals(0, bucket.reserve(0, ONE_SECOND));
+        assertEquals(ONE_SECOND / 2, bucket.reserve(0, ONE_SECOND));
+        assertEquals(ONE_SECOND, bucket.reserve(0, ONE_SECOND));
+        assertEquals(-1, bucket.reserve(0, ONE_SECOND));
+    }
+
+    public void testPauseDelaysNextCall() {
+        AntsTokenBucket bucket = new AntsTokenBucket(10, 10, 0);
+        bucket.pauseUntil(3 * ONE_SECOND);
+
+        assertEquals(-1, bucket.reserve(0, ONE_SECOND));
+        assertEquals(3 * ONE_SECOND, bucket.reserve(0, 5 * ONE_SECOND));
+    }
+
+    public void testWaitersDuringPauseAreSpreadAfterIt() {
+        AntsTokenBucket bucket = new AntsTokenBucket(2, 5, 0);
+        bucket.pauseUntil(3 * ONE_SECOND);
+
+        assertEquals(3 * ONE_SECOND, bucket.reserve(0, 10 * ONE_SECOND));
+        assertEquals(3 * ONE_SECOND + ONE_SECOND / 2, bucket.reserve(0, 10 * ONE_SECOND));
+        assertEquals(3 * ONE_SECOND, bucket.reserve(ONE_SECOND, 10 * ONE_SECOND));
+        assertEquals(ONE_SECOND / 2, bucket.reserve(4 * ONE_SECOND, 10 * ONE_SECOND));
+        assertEquals(ONE_SECOND, bucket.reserve(4 * ONE_SECOND, 10 * ONE_SECOND));
+    }
+
+    public void testRetryAfterHeader() {
+        assertEquals(12, AntsRateLimiter.getRetryAfterSeconds("12", 5));
+        assertEquals(5, AntsRateLimiter.getRetryAfterSeconds(null, 5));
+        assertEquals(5, AntsRateLimiter.getRetryAfterSeconds("soon", 5));
+        assertEquals(0, AntsRateLimiter.getRetryAfterSeconds("Wed, 21 Oct 2015 07:28:00 GMT", 5));
+    }
+}
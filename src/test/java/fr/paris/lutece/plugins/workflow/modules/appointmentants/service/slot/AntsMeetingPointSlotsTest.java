@@ -0,0 +1,34 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.slot;
+
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class AntsMeetingPointSlotsTest extends LuteceTestCase {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 7, 0, 0);
+
+    private static AntsMeetingPointSlots buildSlots() {
+        NavigableMap<LocalDateTime, Integer> places = new TreeMap<>();
+        places.put(DAY.withHour(9), 1);
+        places.put(DAY.withHour(10), 3);
+        places.put(DAY.plusDays(1).withHour(9), 2);
+        return new AntsMeetingPointSlots(1, "meeting-point", places);
+    }
+
+    public void testSlotsAreFilteredByPeriod() {
+        AntsMeetingPointSlots slots = buildSlots();
+
+        assertEquals(2, slots.getSlots(DAY, DAY.plusDays(1), 1).size());
+        assertEquals(3, slots.getSlots(DAY, DAY.plusDays(2), 1).size());
+        assertTrue(slots.getSlots(DAY.plusDays(2), DAY, 1).isEmpty());
+    }
+
+    public void testSlotsAreFilteredByPlaces() {
+        AntsMeetingPointSlots slots = buildSlots();
+
+        assertEquals(2, slots.getSlots(DAY, DAY.plusDays(2), 2).size());
+        assertEquals(DAY.withHour(10), slots.getSlots(DAY, DAY.plusDays(2), 3).firstKey());
+    }
+}
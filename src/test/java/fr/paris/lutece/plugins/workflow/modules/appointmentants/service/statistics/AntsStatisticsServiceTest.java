@@ -0,0 +1,41 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.service.statistics;
+
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.Collections;
+
+import fr.paris.lutece.plugins.workflow.modules.appointmentants.business.statistics.AntsDailyStatistics;
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class AntsStatisticsServiceTest extends LuteceTestCase {
+
+    public void testAverageDurationIgnoresDeferredExecutions() {
+        AntsDailyStatistics statistics = new AntsDailyStatistics();
+        statistics.setSuccessCount(3);
+        statistics.setFailureCount(1);
+        statistics.setDeferredCount(2);
+        statistics.setTotalDurationMillis(2000);
+
+        assertEquals(500, statistics.getAverageDurationMillis());
+        assertEquals(0, new AntsDailyStatistics().getAverageDurationMillis());
+    }
+
+    public void testCsvExport() {
+        AntsDailyStatistics statistics = new AntsDailyStatistics();
+        statistics.setDate(Date.valueOf("2024-03-01"));
+        statistics.setIdForm(4);
+        statistics.setTaskType("taskTaskAddAntsAppointment");
+        statistics.setSuccessCount(2);
+        statistics.setRejectedCount(1);
+        statistics.setRetryCount(3);
+        statistics.setTotalDurationMillis(900);
+        statistics.setMaxDurationMillis(600);
+
+        String[] lines = AntsStatisticsService.toCsv(Arrays.asList(statistics)).split("\r\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("date;id_form;task_type;"));
+        assertEquals("2024-03-01;4;taskTaskAddAntsAppointment;2;0;1;0;3;300;600", lines[1]);
+        assertEquals(1, AntsStatisticsService.toCsv(Collections.emptyList()).split("\r\n").length);
+    }
+}
@@ -0,0 +1,23 @@
+package fr.paris.lutece.plugins.workflow.modules.appointmentants.web;
+
+import java.lang.reflect.Proxy;
+
+import javax.servlet.http.HttpServletRequest;
+
+import fr.paris.lutece.test.LuteceTestCase;
+
+public class AbstractAntsEditorServletTest extends LuteceTestCase {
+
+    public void testTokenRequiredWithoutConfiguredToken() {
+        // No token is configured by default: the endpoints returning appointments refuse every request
+        assertFalse(AbstractAntsEditorServlet.isAuthorized(request("any-token"), true));
+        assertFalse(AbstractAntsEditorServlet.isAuthorized(request(null), true));
+        assertTrue(AbstractAntsEditorServlet.isAuthorized(request(null), false));
+    }
+
+    private static HttpServletRequest request(String token) {
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class },
+                (proxy, method, args) -> "getHeader".equals(method.getName()) ? token : null);
+    }
+}
@@ -0,0 +1,5 @@
+<%@ page contentType="application/json; charset=UTF-8" trimDirectiveWhitespaces="true" %>
+<%@ page errorPage="../../../../../ErrorPage.jsp" %>
+<jsp:useBean id="antstaskconfig" scope="request" class="fr.paris.lutece.plugins.workflow.modules.appointmentants.web.AntsTaskConfigJspBean" />
+<% antstaskconfig.init( request, fr.paris.lutece.plugins.workflow.modules.appointmentants.web.AntsTaskConfigJspBean.RIGHT_MANAGE_WORKFLOW ); %>
+<%= antstaskconfig.getFormEntries( request ) %>
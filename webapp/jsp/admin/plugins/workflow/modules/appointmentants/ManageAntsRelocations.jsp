@@ -0,0 +1,9 @@
+<jsp:useBean id="manageantsrelocations" scope="session" class="fr.paris.lutece.plugins.workflow.modules.appointmentants.web.AntsRelocationJspBean" />
+<% String strContent = manageantsrelocations.processController( request , response ); %>
+
+<%@ page errorPage="../../../../../ErrorPage.jsp" %>
+<jsp:include page="../../../../../AdminHeader.jsp" />
+
+<%= strContent %>
+
+<%@ include file="../../../../../AdminFooter.jsp" %>
@@ -0,0 +1,9 @@
+<jsp:useBean id="manageantsstatistics" scope="session" class="fr.paris.lutece.plugins.workflow.modules.appointmentants.web.AntsStatisticsJspBean" />
+<% String strContent = manageantsstatistics.processController( request , response ); %>
+
+<%@ page errorPage="../../../../../ErrorPage.jsp" %>
+<jsp:include page="../../../../../AdminHeader.jsp" />
+
+<%= strContent %>
+
+<%@ include file="../../../../../AdminFooter.jsp" %>